@@ -0,0 +1,96 @@
+package controllers;
+
+import static play.mvc.Results.*;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import models.enums.Roles;
+import play.libs.Json;
+import play.mvc.Http;
+import play.mvc.Result;
+import play.mvc.Security;
+import repository.DatabaseExecutionContext;
+import repository.core.ReviewStatusCountRepository;
+import services.AuthenticationService;
+import services.AuthorizationService;
+import services.cache.ReportCache;
+import services.metrics.OperationsMetrics;
+
+/**
+ * Controller for operational endpoints available to administrators, such as the statistics of the
+ * in-memory caches and the runtime metrics of the operations dashboard.
+ */
+@Security.Authenticated(AuthenticationService.class)
+@Singleton
+public class AdminController {
+
+  private static final Set<Roles> ALLOWED_ROLES = Set.of(Roles.ADMIN);
+  private final AuthorizationService authorizationService;
+  private final ReportCache reportCache;
+  private final ReviewStatusCountRepository reviewStatusCountRepository;
+  private final OperationsMetrics operationsMetrics;
+  private final DatabaseExecutionContext databaseExecutionContext;
+
+  @Inject
+  public AdminController(
+      AuthorizationService authorizationService,
+      ReportCache reportCache,
+      ReviewStatusCountRepository reviewStatusCountRepository,
+      OperationsMetrics operationsMetrics,
+      DatabaseExecutionContext databaseExecutionContext) {
+    this.authorizationService = authorizationService;
+    this.reportCache = reportCache;
+    this.reviewStatusCountRepository = reviewStatusCountRepository;
+    this.operationsMetrics = operationsMetrics;
+    this.databaseExecutionContext = databaseExecutionContext;
+  }
+
+  /**
+   * Returns the hit, miss and eviction counters of the report cache.
+   *
+   * @param request The HTTP request.
+   * @return A Result containing the cache statistics in JSON format.
+   */
+  public Result getReportCacheStats(Http.Request request) {
+    if (!authorizationService.isAuthorized(request, ALLOWED_ROLES)) {
+      return unauthorized("Unauthorized access");
+    }
+    return ok(Json.toJson(reportCache.stats()));
+  }
+
+  /**
+   * Recomputes the pending and completed review counts of every reviewer from the review tasks, to
+   * repair them or to fill them for review tasks created before they were maintained.
+   *
+   * @param request The HTTP request.
+   * @return A CompletionStage of a Result containing the number of counts written in JSON format.
+   */
+  public CompletionStage<Result> rebuildReviewStatusCounts(Http.Request request) {
+    if (!authorizationService.isAuthorized(request, ALLOWED_ROLES)) {
+      return CompletableFuture.completedFuture(unauthorized("Unauthorized access"));
+    }
+    return CompletableFuture.supplyAsync(
+        () -> ok(Json.toJson(Map.of("rebuilt", reviewStatusCountRepository.rebuildAll()))),
+        databaseExecutionContext);
+  }
+
+  /**
+   * Returns the runtime metrics of the operations dashboard: request latency percentiles per
+   * route, repository thread pools, connection pool usage, cache hit rates, in flight imports and
+   * exports and the slowest recent queries.
+   *
+   * @param request The HTTP request.
+   * @return A CompletionStage of a Result containing the metrics in JSON format.
+   */
+  public CompletionStage<Result> getOperationsMetrics(Http.Request request) {
+    if (!authorizationService.isAuthorized(request, ALLOWED_ROLES)) {
+      return CompletableFuture.completedFuture(unauthorized("Unauthorized access"));
+    }
+    return CompletableFuture.supplyAsync(
+        () -> ok(Json.toJson(operationsMetrics.snapshot())), databaseExecutionContext);
+  }
+}
@@ -12,6 +12,7 @@ import java.util.concurrent.CompletionStage;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 import models.enums.Roles;
+import models.enums.Status;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import play.libs.Json;
@@ -33,6 +34,8 @@ import services.report.ReportService;
 public class CoreServiceController {
 
     private static final Set<Roles> ALLOWED_ROLES = Set.of(Roles.PROFESSOR);
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 100;
     private static final Logger log = LoggerFactory.getLogger(FormsController.class);
     private final AuthorizationService authorizationService;
     private final CourseService courseService;
@@ -42,9 +45,10 @@ public class CoreServiceController {
     private final UserService userService;
     private final ReportService professorReportService;
     private final ReportService studentReportService;
+    private final ReportJsonStreamer reportJsonStreamer;
 
     @Inject
-    public CoreServiceController(AuthorizationService authorizationService, CourseService courseService, AssignmentService assignmentService, ReviewTaskService reviewTaskService, EnrollmentService enrollmentService, UserService userService, @Named("professor")ReportService professorReportService, @Named("student") ReportService studentReportService) {
+    public CoreServiceController(AuthorizationService authorizationService, CourseService courseService, AssignmentService assignmentService, ReviewTaskService reviewTaskService, EnrollmentService enrollmentService, UserService userService, @Named("professor")ReportService professorReportService, @Named("student") ReportService studentReportService, ReportJsonStreamer reportJsonStreamer) {
         this.authorizationService = authorizationService;
         this.courseService = courseService;
         this.assignmentService = assignmentService;
@@ -53,6 +57,7 @@ public class CoreServiceController {
         this.userService = userService;
         this.professorReportService = professorReportService;
         this.studentReportService = studentReportService;
+        this.reportJsonStreamer = reportJsonStreamer;
     }
 
     /**
@@ -154,6 +159,8 @@ public class CoreServiceController {
 
     /**
      * Fetch the review tasks submission overview for a given assignment ID.
+     * Unless disabled with {@code reports.streaming.enabled}, the overview is streamed as a chunked
+     * response, one group at a time.
      * @param assignmentId the ID of the assignment to fetch
      * @param request the incoming HTTP request object
      * @return a Result containing the review tasks submission overview in JSON format
@@ -167,7 +174,11 @@ public class CoreServiceController {
                 .thenApply(
                         submissionOverview -> {
                             log.info("Successfully fetched submission overview for assignment {}", assignmentId);
-                            return ok(Json.toJson(submissionOverview));
+                            if (submissionOverview == null || !reportJsonStreamer.isEnabled()) {
+                                return ok(Json.toJson(submissionOverview));
+                            }
+                            return ok().chunked(reportJsonStreamer.streamSubmissionOverview(submissionOverview))
+                                    .as(Http.MimeTypes.JSON);
                         })
                 .exceptionally(ex -> {
                     log.error("Error in getReviewTasksSubmissionOverview: {}", ex.getMessage());
@@ -175,6 +186,44 @@ public class CoreServiceController {
                 });
     }
 
+    /**
+     * Fetch one page of the review tasks submission overview for a given assignment ID. Groups are
+     * returned in ascending group ID order; the nextCursor of a page is the cursor of the next one.
+     * @param assignmentId the ID of the assignment to fetch
+     * @param cursor the cursor returned by the previous page, or null for the first page
+     * @param limit the maximum number of groups in the page, between 1 and 100
+     * @param status optional group status filter, PENDING or COMPLETED
+     * @param groupName optional group name prefix filter
+     * @param request the incoming HTTP request object
+     * @return a Result containing the page of the submission overview in JSON format
+     */
+    public CompletionStage<Result> getReviewTasksSubmissionOverviewPage(Long assignmentId, Long cursor, Integer limit, String status, String groupName, Http.Request request) {
+        if(!authorizationService.isAuthorized(request, ALLOWED_ROLES)){
+            return CompletableFuture.completedFuture(unauthorized("Unauthorized access"));
+        }
+
+        Status statusFilter = null;
+        if (status != null && !status.isBlank()) {
+            try {
+                statusFilter = Status.valueOf(status.trim().toUpperCase());
+            } catch (IllegalArgumentException e) {
+                return CompletableFuture.completedFuture(badRequest("Unknown status: " + status));
+            }
+            if (statusFilter != Status.PENDING && statusFilter != Status.COMPLETED) {
+                return CompletableFuture.completedFuture(badRequest("Unsupported status: " + status));
+            }
+        }
+        int pageSize = Math.max(1, Math.min(MAX_PAGE_SIZE, limit == null ? DEFAULT_PAGE_SIZE : limit));
+        String groupNamePrefix = groupName == null || groupName.isBlank() ? null : groupName.trim();
+
+        return reviewTaskService.getReviewTasksSubmissionOverviewPage(assignmentId, cursor, pageSize, statusFilter, groupNamePrefix)
+                .thenApply(page -> ok(Json.toJson(page)))
+                .exceptionally(ex -> {
+                    log.error("Error in getReviewTasksSubmissionOverviewPage: {}", ex.getMessage());
+                    return badRequest(ex.getMessage());
+                });
+    }
+
     /**
      * Fetch all the assignments for a given course code.
      * @param courseCode the course code to fetch assignments for
@@ -0,0 +1,232 @@
+package controllers;
+
+import static play.mvc.Results.*;
+
+import java.time.LocalDate;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import models.dto.ProfessorDashboardDTO;
+import models.dto.StudentDashboardDTO;
+import models.enums.Roles;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import play.libs.EventSource;
+import play.mvc.Http;
+import play.mvc.Result;
+import play.mvc.Security;
+import services.AuthenticationService;
+import services.AuthorizationService;
+import services.cache.DashboardCache;
+import services.core.AssignmentStatusScheduler;
+import services.dashboard.DashboardJson;
+import services.dashboard.ProfessorDashboard;
+import services.dashboard.ReviewProgressHub;
+import services.dashboard.StudentDashboard;
+
+/**
+ * DashboardApiController serves the dashboard data as JSON, for the course filters of the
+ * dashboards to update the page without fetching it again. Responses carry an ETag derived from
+ * the data version of the user's dashboards and the current date, and a request whose
+ * If-None-Match holds that ETag is answered with 304 Not Modified before any data is loaded.
+ */
+@Security.Authenticated(AuthenticationService.class)
+@Singleton
+public class DashboardApiController {
+
+  private static final Logger log = LoggerFactory.getLogger(DashboardApiController.class);
+  private static final Set<Roles> PROFESSOR_ROLES = Set.of(Roles.PROFESSOR);
+  private static final Set<Roles> STUDENT_ROLES = Set.of(Roles.STUDENT);
+  private static final String CACHE_CONTROL = "private, no-cache";
+
+  private final AuthorizationService authorizationService;
+  private final ProfessorDashboard professorDashboard;
+  private final StudentDashboard studentDashboard;
+  private final DashboardCache dashboardCache;
+  private final ReviewProgressHub reviewProgressHub;
+  private final AssignmentStatusScheduler assignmentStatusScheduler;
+
+  @Inject
+  public DashboardApiController(
+      AuthorizationService authorizationService,
+      ProfessorDashboard professorDashboard,
+      StudentDashboard studentDashboard,
+      DashboardCache dashboardCache,
+      ReviewProgressHub reviewProgressHub,
+      AssignmentStatusScheduler assignmentStatusScheduler) {
+    this.authorizationService = authorizationService;
+    this.professorDashboard = professorDashboard;
+    this.studentDashboard = studentDashboard;
+    this.dashboardCache = dashboardCache;
+    this.reviewProgressHub = reviewProgressHub;
+    this.assignmentStatusScheduler = assignmentStatusScheduler;
+  }
+
+  /**
+   * Fetch the professor dashboard data, filtered by course when the course code, section and term
+   * are all given.
+   *
+   * @param courseCode the course code filter (optional)
+   * @param courseSection the course section filter (optional)
+   * @param term the term filter (optional)
+   * @param request the incoming HTTP request object
+   * @return a Result containing the professor dashboard data in JSON format, or 304 when unchanged
+   */
+  public CompletionStage<Result> professorDashboard(
+      String courseCode, String courseSection, String term, Http.Request request) {
+    if (!authorizationService.isAuthorized(request, PROFESSOR_ROLES)) {
+      return CompletableFuture.completedFuture(unauthorized("Unauthorized access"));
+    }
+    Long userId = Long.valueOf(request.session().get("userId").get());
+    boolean filtered = !isBlank(courseCode) && !isBlank(courseSection) && !isBlank(term);
+    String code = filtered ? courseCode.trim() : null;
+    String section = filtered ? courseSection.trim() : null;
+    String termFilter = filtered ? term.trim() : null;
+
+    return respond(
+        request,
+        "professor",
+        userId,
+        ProfessorDashboard.filterOf(code, section, termFilter),
+        () -> professorDashboard.getDashboardData(userId, code, section, termFilter),
+        ProfessorDashboardDTO::isPartial,
+        data -> ok(DashboardJson.professor(data)));
+  }
+
+  /**
+   * Stream the peer review progress of the professor's assignments as server-sent events. Each
+   * "progress" event holds the current, absolute progress of one assignment: its assignmentId,
+   * completedReviews, totalReviews, completedMembers, totalMembers and progressPercentage, so a
+   * client replaces its values and never has to order events against a snapshot.
+   *
+   * @param request the incoming HTTP request object
+   * @return a chunked Result streaming the progress events
+   */
+  public Result professorProgress(Http.Request request) {
+    if (!authorizationService.isAuthorized(request, PROFESSOR_ROLES)) {
+      return unauthorized("Unauthorized access");
+    }
+    Long userId = Long.valueOf(request.session().get("userId").get());
+    return ok().chunked(reviewProgressHub.subscribe(userId).via(EventSource.flow()))
+        .as(Http.MimeTypes.EVENT_STREAM)
+        .withHeader(Http.HeaderNames.CACHE_CONTROL, "no-cache");
+  }
+
+  /**
+   * Fetch the student dashboard data, filtered by course unless the course code is missing or
+   * "all".
+   *
+   * @param courseCode the course code filter (optional)
+   * @param request the incoming HTTP request object
+   * @return a Result containing the student dashboard data in JSON format, or 304 when unchanged
+   */
+  public CompletionStage<Result> studentDashboard(String courseCode, Http.Request request) {
+    if (!authorizationService.isAuthorized(request, STUDENT_ROLES)) {
+      return CompletableFuture.completedFuture(unauthorized("Unauthorized access"));
+    }
+    Long userId = Long.valueOf(request.session().get("userId").get());
+    String code =
+        isBlank(courseCode) || courseCode.trim().equalsIgnoreCase("all") ? null : courseCode.trim();
+
+    return respond(
+        request,
+        "student",
+        userId,
+        code,
+        () -> studentDashboard.getDashboardData(userId, code),
+        StudentDashboardDTO::isPartial,
+        data -> ok(DashboardJson.student(data)));
+  }
+
+  private <T> CompletionStage<Result> respond(
+      Http.Request request,
+      String dashboard,
+      Long userId,
+      String filter,
+      Supplier<CompletableFuture<T>> loader,
+      Predicate<T> partial,
+      Function<T, Result> render) {
+    // The version is read before loading, the data served is at least as recent as the ETag says
+    String etag = etag(
+            dashboard, dashboardCache.version(userId), assignmentStatusScheduler.today(), filter);
+    if (matches(request.header(Http.HeaderNames.IF_NONE_MATCH).orElse(null), etag)) {
+      return CompletableFuture.completedFuture(
+          status(Http.Status.NOT_MODIFIED)
+              .withHeader(Http.HeaderNames.ETAG, etag)
+              .withHeader(Http.HeaderNames.CACHE_CONTROL, CACHE_CONTROL));
+    }
+
+    return loader
+        .get()
+        .thenApply(
+            data -> {
+              Result result = render.apply(data);
+              // Partial data is missing some widgets, it must not be revalidated later
+              if (partial.test(data)) {
+                return result.withHeader(Http.HeaderNames.CACHE_CONTROL, "no-store");
+              }
+              return result
+                  .withHeader(Http.HeaderNames.ETAG, etag)
+                  .withHeader(Http.HeaderNames.CACHE_CONTROL, CACHE_CONTROL);
+            })
+        .exceptionally(
+            ex -> {
+              log.error(
+                  "Error loading the {} dashboard data for user {}: {}",
+                  dashboard,
+                  userId,
+                  ex.getMessage());
+              return internalServerError("Failed to load dashboard");
+            });
+  }
+
+  /**
+   * Builds the weak ETag of dashboard data from the data version of the user's dashboards, the
+   * date the data was computed for and the filter.
+   *
+   * @param dashboard the name of the dashboard
+   * @param version the data version of the user's dashboards
+   * @param today the current date, since what is active or due depends on it
+   * @param filter the filter of the data, null when unfiltered
+   * @return the ETag header value
+   */
+  static String etag(String dashboard, String version, LocalDate today, String filter) {
+    String filterHash = filter == null ? "0" : Integer.toHexString(filter.hashCode());
+    return "W/\"" + dashboard + "-" + version + "-" + today + "-" + filterHash + "\"";
+  }
+
+  /**
+   * Checks an If-None-Match header against an ETag with the weak comparison, which ignores the
+   * W/ prefix.
+   *
+   * @param ifNoneMatch the If-None-Match header value, or null when absent
+   * @param etag the current ETag
+   * @return whether the client already has the current data
+   */
+  static boolean matches(String ifNoneMatch, String etag) {
+    if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+      return false;
+    }
+    String opaque = stripWeak(etag);
+    for (String candidate : ifNoneMatch.split(",")) {
+      String tag = candidate.trim();
+      if (tag.equals("*") || stripWeak(tag).equals(opaque)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static String stripWeak(String etag) {
+    return etag.startsWith("W/") ? etag.substring(2) : etag;
+  }
+
+  private static boolean isBlank(String value) {
+    return value == null || value.isBlank();
+  }
+}
@@ -24,6 +24,7 @@ import play.mvc.Security;
 import services.AuthenticationService;
 import services.AuthorizationService;
 import services.export.ExportService;
+import services.metrics.MetricsRegistry;
 
 /**
  * Controller for handling file export requests, including downloading Excel reports and student
@@ -37,12 +38,16 @@ public class FileExportController {
   private static final Set<Roles> ALLOWED_ROLES = Set.of(Roles.PROFESSOR);
   private final ExportService exportService;
   private final AuthorizationService authorizationService;
+  private final MetricsRegistry metricsRegistry;
 
   @Inject
   public FileExportController(
-      ExportService exportService, AuthorizationService authorizationService) {
+      ExportService exportService,
+      AuthorizationService authorizationService,
+      MetricsRegistry metricsRegistry) {
     this.exportService = exportService;
     this.authorizationService = authorizationService;
+    this.metricsRegistry = metricsRegistry;
   }
 
   /**
@@ -59,9 +64,13 @@ public class FileExportController {
       return CompletableFuture.completedFuture(unauthorized("Unauthorized access"));
     }
 
-    return exportService
-        .getAssignmentExportData(assignmentId)
-        .thenCompose(exportService::exportToExcel)
+    return metricsRegistry
+        .track(
+            "export:assignment",
+            () ->
+                exportService
+                    .getAssignmentExportData(assignmentId)
+                    .thenCompose(exportService::exportToExcel))
         .thenApply(
             excelBytes ->
                 ok(excelBytes)
@@ -111,19 +120,22 @@ public class FileExportController {
       List<Float> reviewerAverages =
           mapper.readValue(json.get("reviewerAverages").toString(), new TypeReference<>() {});
 
-      return exportService
-          .exportFeedbackForStudent(
-              feedbacks,
-              studentName,
-              studentId,
-              email,
-              status,
-              averageScore,
-              maxAverageFeedbackScore,
-              evaluationMatrix,
-              classAverages,
-              overallClassAverage,
-              reviewerAverages)
+      return metricsRegistry
+          .track(
+              "export:studentFeedback",
+              () ->
+                  exportService.exportFeedbackForStudent(
+                      feedbacks,
+                      studentName,
+                      studentId,
+                      email,
+                      status,
+                      averageScore,
+                      maxAverageFeedbackScore,
+                      evaluationMatrix,
+                      classAverages,
+                      overallClassAverage,
+                      reviewerAverages))
           .thenApply(
               fileBytes ->
                   ok(fileBytes)
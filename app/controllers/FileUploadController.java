@@ -26,6 +26,7 @@ import repository.core.CourseRepository;
 import services.AuthenticationService;
 import services.AuthorizationService;
 import services.FileUploadService;
+import services.metrics.MetricsRegistry;
 
 /** Controller for handling file upload requests, including processing and saving uploaded files. */
 @Security.Authenticated(AuthenticationService.class)
@@ -37,15 +38,18 @@ public class FileUploadController {
   private final FileUploadService fileUploadService;
   private final AuthorizationService authorizationService;
   private final CourseRepository courseRepository;
+  private final MetricsRegistry metricsRegistry;
 
   @Inject
   public FileUploadController(
       FileUploadService fileUploadService,
       AuthorizationService authorizationService,
-      CourseRepository courseRepository) {
+      CourseRepository courseRepository,
+      MetricsRegistry metricsRegistry) {
     this.fileUploadService = fileUploadService;
     this.authorizationService = authorizationService;
     this.courseRepository = courseRepository;
+    this.metricsRegistry = metricsRegistry;
   }
 
   /**
@@ -106,16 +110,16 @@ public class FileUploadController {
           });
     }
     // Process the uploaded file
-    return fileUploadService
-        .getFileProcessor(uploadedFile, fileType)
-        .thenCompose(
-            fileProcessor ->
+    return metricsRegistry
+        .track(
+            "import:" + fileType,
+            () ->
                 fileUploadService
-                    .parseAndProcessFile(fileProcessor, uploadedFile, context)
+                    .getFileProcessor(uploadedFile, fileType)
                     .thenCompose(
-                        processedData ->
-                            fileUploadService.saveProcessedFileData(
-                                fileProcessor, processedData, context)))
+                        fileProcessor ->
+                            fileUploadService.processAndSaveFile(
+                                fileProcessor, uploadedFile, context)))
         .thenApply(
             result -> {
               if (fileType.equals("review_tasks")) {
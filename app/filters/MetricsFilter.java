@@ -0,0 +1,53 @@
+package filters;
+
+import java.util.concurrent.CompletionStage;
+import java.util.function.Function;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import org.apache.pekko.stream.Materializer;
+import play.mvc.Filter;
+import play.mvc.Http;
+import play.mvc.Result;
+import play.routing.HandlerDef;
+import play.routing.Router;
+import services.metrics.MetricsRegistry;
+
+/**
+ * MetricsFilter records the latency of every request in the metrics registry, under the route
+ * pattern that handled it rather than the request path, so that "/api/assignments/1" and
+ * "/api/assignments/2" are one route. Requests no route matched are recorded together.
+ */
+@Singleton
+public class MetricsFilter extends Filter {
+
+  private static final String UNMATCHED_ROUTE = "unmatched";
+
+  private final MetricsRegistry metricsRegistry;
+
+  @Inject
+  public MetricsFilter(Materializer materializer, MetricsRegistry metricsRegistry) {
+    super(materializer);
+    this.metricsRegistry = metricsRegistry;
+  }
+
+  @Override
+  public CompletionStage<Result> apply(
+      Function<Http.RequestHeader, CompletionStage<Result>> next,
+      Http.RequestHeader requestHeader) {
+    long start = System.nanoTime();
+    String route =
+        requestHeader
+            .attrs()
+            .getOptional(Router.Attrs.HANDLER_DEF)
+            .map(MetricsFilter::route)
+            .orElse(UNMATCHED_ROUTE);
+    return next.apply(requestHeader)
+        .whenComplete(
+            (result, ex) ->
+                metricsRegistry.recordLatency(route, (System.nanoTime() - start) / 1_000_000));
+  }
+
+  private static String route(HandlerDef handlerDef) {
+    return handlerDef.verb() + " " + handlerDef.path();
+  }
+}
@@ -0,0 +1,97 @@
+package models;
+
+import jakarta.persistence.*;
+import java.io.Serializable;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+/**
+ * FeedbackAggregate is an entity class that holds the running totals of the scores a student
+ * received for one feedback question of an assignment: the sum of the scores, the number of
+ * feedbacks and the highest score. Only peer review tasks are aggregated; the private comments
+ * written for the professor are not. The rows are kept up to date by the code that writes feedback
+ * so reports can read averages without scanning every Feedback row.
+ */
+@Entity
+@Table(
+        name = "feedback_aggregates",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"assignment_id", "reviewee_id", "feedback_question_id"}),
+        indexes = @Index(name = "idx_feedback_aggregates_assignment", columnList = "assignment_id"))
+public class FeedbackAggregate implements Serializable {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "assignment_id", referencedColumnName = "assignment_id", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private Assignment assignment;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "reviewee_id", referencedColumnName = "user_id", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private User reviewee;  // Student receiving the feedback
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "feedback_question_id", referencedColumnName = "feedback_question_id", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private FeedbackQuestion question;
+
+    @Column(name = "score_sum", nullable = false)
+    private long scoreSum;
+
+    @Column(name = "feedback_count", nullable = false)
+    private long feedbackCount;
+
+    @Column(name = "max_score", nullable = false)
+    private int maxScore;
+
+    public FeedbackAggregate() {}
+
+    public FeedbackAggregate(Assignment assignment, User reviewee, FeedbackQuestion question) {
+        this.assignment = assignment;
+        this.reviewee = reviewee;
+        this.question = question;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Assignment getAssignment() {
+        return assignment;
+    }
+
+    public User getReviewee() {
+        return reviewee;
+    }
+
+    public FeedbackQuestion getQuestion() {
+        return question;
+    }
+
+    public long getScoreSum() {
+        return scoreSum;
+    }
+
+    public void setScoreSum(long scoreSum) {
+        this.scoreSum = scoreSum;
+    }
+
+    public long getFeedbackCount() {
+        return feedbackCount;
+    }
+
+    public void setFeedbackCount(long feedbackCount) {
+        this.feedbackCount = feedbackCount;
+    }
+
+    public int getMaxScore() {
+        return maxScore;
+    }
+
+    public void setMaxScore(int maxScore) {
+        this.maxScore = maxScore;
+    }
+}
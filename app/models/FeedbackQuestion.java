@@ -3,6 +3,7 @@ package models;
 
 import jakarta.persistence.*;
 import java.io.Serializable;
+import models.enums.QuestionKind;
 import org.hibernate.annotations.OnDelete;
 import org.hibernate.annotations.OnDeleteAction;
 
@@ -10,10 +11,12 @@ import org.hibernate.annotations.OnDeleteAction;
  * FeedbackQuestion is an entity class that represents a feedback question in the system. It
  * contains fields for the question's ID, the assignment it belongs to, the question text, and the
  * maximum marks for the question. The class also includes methods for getting and setting these
- * fields.
+ * fields. The kind of the question is derived from its text when the text is set.
  */
 @Entity
-@Table(name = "feedback_questions")
+@Table(
+        name = "feedback_questions",
+        indexes = @Index(name = "idx_feedback_questions_assignment_kind", columnList = "assignment_id, question_kind"))
 public class FeedbackQuestion implements Serializable {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -31,6 +34,11 @@ public class FeedbackQuestion implements Serializable {
     @Column(name = "max_marks", nullable = false)
     private int maxMarks;
 
+    // Nullable so the column can be added to existing tables; filled in for old rows at startup
+    @Enumerated(EnumType.STRING)
+    @Column(name = "question_kind", length = 20)
+    private QuestionKind kind;
+
     public FeedbackQuestion() {}
 
     public FeedbackQuestion(Long questionId, Assignment assignment, String questionText, int maxMarks) {
@@ -38,6 +46,7 @@ public class FeedbackQuestion implements Serializable {
         this.assignment = assignment;
         this.questionText = questionText;
         this.maxMarks = maxMarks;
+        this.kind = QuestionKind.fromQuestionText(questionText);
     }
 
     public Assignment getAssignment() {
@@ -58,6 +67,15 @@ public class FeedbackQuestion implements Serializable {
 
     public void setQuestionText(String questionText) {
         this.questionText = questionText;
+        this.kind = QuestionKind.fromQuestionText(questionText);
+    }
+
+    public QuestionKind getKind() {
+        return kind != null ? kind : QuestionKind.fromQuestionText(questionText);
+    }
+
+    public void setKind(QuestionKind kind) {
+        this.kind = kind;
     }
 
     public int getMaxMarks() {return maxMarks;}
@@ -0,0 +1,108 @@
+package models;
+
+import jakarta.persistence.*;
+import java.io.Serializable;
+import java.util.Objects;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+/**
+ * ReviewStatusCount is an entity class that holds the number of pending and completed review tasks
+ * a reviewer has in one course. The rows are kept up to date by the code that creates review tasks
+ * and changes their status, so the dashboards read the counts with a primary key lookup instead of
+ * counting review tasks.
+ */
+@Entity
+@Table(name = "review_status_counts")
+public class ReviewStatusCount implements Serializable {
+
+    @EmbeddedId
+    private Key id;
+
+    @MapsId("reviewerId")
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "reviewer_id", referencedColumnName = "user_id", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private User reviewer;  // Student doing the reviews
+
+    @MapsId("courseId")
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "course_id", referencedColumnName = "course_id", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private Course course;
+
+    @Column(name = "pending_count", nullable = false)
+    private long pendingCount;
+
+    @Column(name = "completed_count", nullable = false)
+    private long completedCount;
+
+    public ReviewStatusCount() {}
+
+    public Key getId() {
+        return id;
+    }
+
+    public User getReviewer() {
+        return reviewer;
+    }
+
+    public Course getCourse() {
+        return course;
+    }
+
+    public long getPendingCount() {
+        return pendingCount;
+    }
+
+    public void setPendingCount(long pendingCount) {
+        this.pendingCount = pendingCount;
+    }
+
+    public long getCompletedCount() {
+        return completedCount;
+    }
+
+    public void setCompletedCount(long completedCount) {
+        this.completedCount = completedCount;
+    }
+
+    /** The primary key of a count: the reviewer and the course. */
+    @Embeddable
+    public static class Key implements Serializable {
+
+        @Column(name = "reviewer_id")
+        private Long reviewerId;
+
+        @Column(name = "course_id")
+        private Long courseId;
+
+        public Key() {}
+
+        public Key(Long reviewerId, Long courseId) {
+            this.reviewerId = reviewerId;
+            this.courseId = courseId;
+        }
+
+        public Long getReviewerId() {
+            return reviewerId;
+        }
+
+        public Long getCourseId() {
+            return courseId;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key key = (Key) o;
+            return Objects.equals(reviewerId, key.reviewerId) && Objects.equals(courseId, key.courseId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(reviewerId, courseId);
+        }
+    }
+}
@@ -16,7 +16,12 @@ import org.hibernate.annotations.OnDeleteAction;
  * fields.
  */
 @Entity
-@Table(name = "review_tasks")
+@Table(
+        name = "review_tasks",
+        indexes = {
+                @Index(name = "idx_review_tasks_assignment_reviewer", columnList = "assignment_id, reviewer_id"),
+                @Index(name = "idx_review_tasks_assignment_group", columnList = "assignment_id, group_id")
+        })
 public class ReviewTask implements Serializable {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -72,6 +77,10 @@ public class ReviewTask implements Serializable {
         return reviewTaskId;
     }
 
+    public void setReviewTaskId(Long reviewTaskId) {
+        this.reviewTaskId = reviewTaskId;
+    }
+
     public Assignment getAssignment() {
         return assignment;
     }
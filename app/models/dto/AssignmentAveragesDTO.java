@@ -0,0 +1,34 @@
+package models.dto;
+
+import java.util.Map;
+
+/**
+ * AssignmentAveragesDTO is a data transfer object (DTO) that holds the averages of an assignment
+ * read from the score aggregates: the class average for each feedback question, the overall class
+ * average and the average feedback score of each student.
+ */
+public class AssignmentAveragesDTO {
+    private Map<String, Float> classAveragesForEachQuestion;
+    private float overallClassAverage;
+    private Map<Long, Float> studentAverageScores;
+
+    public AssignmentAveragesDTO() {}
+
+    public AssignmentAveragesDTO(Map<String, Float> classAveragesForEachQuestion, float overallClassAverage, Map<Long, Float> studentAverageScores) {
+        this.classAveragesForEachQuestion = classAveragesForEachQuestion;
+        this.overallClassAverage = overallClassAverage;
+        this.studentAverageScores = studentAverageScores;
+    }
+
+    public Map<String, Float> getClassAveragesForEachQuestion() {
+        return classAveragesForEachQuestion;
+    }
+
+    public float getOverallClassAverage() {
+        return overallClassAverage;
+    }
+
+    public Map<Long, Float> getStudentAverageScores() {
+        return studentAverageScores;
+    }
+}
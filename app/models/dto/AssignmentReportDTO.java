@@ -0,0 +1,102 @@
+package models.dto;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * AssignmentReportDTO is a data transfer object (DTO) that holds the computed report of an
+ * assignment: the assignment and course details, the group/member submission DTOs and the class
+ * averages. Instances are shared through the report cache and must be treated as read-only.
+ */
+public class AssignmentReportDTO {
+    private Long assignmentId;
+    private String assignmentTitle;
+    private String courseName;
+    private String courseCode;
+    private String courseSection;
+    private String term;
+    private List<GroupSubmissionDTO> groups;
+    private Map<String, Float> classAveragesForEachQuestion;
+    private float overallClassAverage;
+    private long version;
+
+    public Long getAssignmentId() {
+        return assignmentId;
+    }
+
+    public void setAssignmentId(Long assignmentId) {
+        this.assignmentId = assignmentId;
+    }
+
+    public String getAssignmentTitle() {
+        return assignmentTitle;
+    }
+
+    public void setAssignmentTitle(String assignmentTitle) {
+        this.assignmentTitle = assignmentTitle;
+    }
+
+    public String getCourseName() {
+        return courseName;
+    }
+
+    public void setCourseName(String courseName) {
+        this.courseName = courseName;
+    }
+
+    public String getCourseCode() {
+        return courseCode;
+    }
+
+    public void setCourseCode(String courseCode) {
+        this.courseCode = courseCode;
+    }
+
+    public String getCourseSection() {
+        return courseSection;
+    }
+
+    public void setCourseSection(String courseSection) {
+        this.courseSection = courseSection;
+    }
+
+    public String getTerm() {
+        return term;
+    }
+
+    public void setTerm(String term) {
+        this.term = term;
+    }
+
+    public List<GroupSubmissionDTO> getGroups() {
+        return groups;
+    }
+
+    public void setGroups(List<GroupSubmissionDTO> groups) {
+        this.groups = groups;
+    }
+
+    public Map<String, Float> getClassAveragesForEachQuestion() {
+        return classAveragesForEachQuestion;
+    }
+
+    public void setClassAveragesForEachQuestion(Map<String, Float> classAveragesForEachQuestion) {
+        this.classAveragesForEachQuestion = classAveragesForEachQuestion;
+    }
+
+    public float getOverallClassAverage() {
+        return overallClassAverage;
+    }
+
+    public void setOverallClassAverage(float overallClassAverage) {
+        this.overallClassAverage = overallClassAverage;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+}
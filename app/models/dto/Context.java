@@ -14,6 +14,7 @@ public class Context {
   private String term;
   private String userId;
   private Http.MultipartFormData<Files.TemporaryFile> body;
+  private ImportLookups lookups;
 
   public Context() {}
 
@@ -61,4 +62,16 @@ public class Context {
   public void setUserId(String userId) {
     this.userId = userId;
   }
+
+  /**
+   * Returns the users and courses fetched in bulk for the upload, created on first use.
+   *
+   * @return the lookups of the upload
+   */
+  public ImportLookups getLookups() {
+    if (lookups == null) {
+      lookups = new ImportLookups();
+    }
+    return lookups;
+  }
 }
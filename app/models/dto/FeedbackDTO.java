@@ -1,9 +1,12 @@
 package models.dto;
 
+import models.enums.QuestionKind;
+
 /**
  * FeedbackDTO is a data transfer object (DTO) that represents feedback information for an assignment.
  * It contains fields for the feedback ID, maximum score, obtained score, feedback text, question text,
- * reviewer ID, and reviewer name.
+ * reviewer ID, and reviewer name. The kind of the question is carried along so report code can tell
+ * scored questions from comments without comparing question texts.
  */
 public class FeedbackDTO {
     private Long feedbackId;
@@ -13,9 +16,15 @@ public class FeedbackDTO {
     private String questionText;
     private Long reviewerId;
     private String reviewerName;
+    private QuestionKind questionKind;
 
     public FeedbackDTO() {}
 
+    public FeedbackDTO(Long feedbackId, int obtainedScore, int maxScore, String feedbackText, String questionText, QuestionKind questionKind, Long reviewerId, String reviewerName) {
+        this(feedbackId, obtainedScore, maxScore, feedbackText, questionText, reviewerId, reviewerName);
+        this.questionKind = questionKind;
+    }
+
     public FeedbackDTO(Long feedbackId, int obtainedScore, int maxScore, String feedbackText, String questionText, Long reviewerId, String reviewerName) {
         this.feedbackId = feedbackId;
         this.obtainedScore = obtainedScore;
@@ -58,6 +67,13 @@ public class FeedbackDTO {
         return questionText;
     }
 
+    public QuestionKind getQuestionKind() {
+        if (questionKind == null) {
+            questionKind = QuestionKind.fromQuestionText(questionText);
+        }
+        return questionKind;
+    }
+
     public Long getReviewerId() {
         return reviewerId;
     }
@@ -0,0 +1,74 @@
+package models.dto;
+
+import models.enums.QuestionKind;
+
+/**
+ * FeedbackRowDTO is a data transfer object (DTO) that represents one feedback of an assignment as a
+ * flat row read straight from the database, together with the ID of its review task and the
+ * reviewer who wrote it. It is used to build reports without loading Feedback entities.
+ */
+public class FeedbackRowDTO {
+    private Long reviewTaskId;
+    private Long feedbackId;
+    private int score;
+    private int maxMarks;
+    private String feedbackText;
+    private String questionText;
+    private QuestionKind questionKind;
+    private Long reviewerId;
+    private String reviewerName;
+
+    public FeedbackRowDTO() {}
+
+    public FeedbackRowDTO(Long reviewTaskId, Long feedbackId, int score, int maxMarks, String feedbackText, String questionText, QuestionKind questionKind, Long reviewerId, String reviewerFirstName, String reviewerLastName) {
+        this.reviewTaskId = reviewTaskId;
+        this.feedbackId = feedbackId;
+        this.score = score;
+        this.maxMarks = maxMarks;
+        this.feedbackText = feedbackText;
+        this.questionText = questionText;
+        this.questionKind = questionKind != null ? questionKind : QuestionKind.fromQuestionText(questionText);
+        this.reviewerId = reviewerId;
+        this.reviewerName = (reviewerFirstName + " " + reviewerLastName).trim(); // same as User.getUserName()
+    }
+
+    public Long getReviewTaskId() {
+        return reviewTaskId;
+    }
+
+    public Long getFeedbackId() {
+        return feedbackId;
+    }
+
+    public int getScore() {
+        return score;
+    }
+
+    public int getMaxMarks() {
+        return maxMarks;
+    }
+
+    public String getFeedbackText() {
+        return feedbackText;
+    }
+
+    public String getQuestionText() {
+        return questionText;
+    }
+
+    public QuestionKind getQuestionKind() {
+        return questionKind;
+    }
+
+    public Long getReviewerId() {
+        return reviewerId;
+    }
+
+    public String getReviewerName() {
+        return reviewerName;
+    }
+
+    public FeedbackDTO toFeedbackDTO() {
+        return new FeedbackDTO(feedbackId, score, maxMarks, feedbackText, questionText, questionKind, reviewerId, reviewerName);
+    }
+}
@@ -0,0 +1,85 @@
+package models.dto;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import models.Course;
+import models.User;
+
+/**
+ * ImportLookups holds the users and courses an upload refers to, fetched in bulk before its
+ * records are mapped, so that mapping a record does not query them one record at a time. It lives
+ * as long as the Context of the upload. It also remembers which keys were fetched, so that a key
+ * fetched and not found is told apart from a key not fetched yet.
+ *
+ * <p>Courses are kept for the whole upload, since an upload refers to a handful of them. Users are
+ * replaced on every fetch, so that only the users of the records being mapped are held.
+ */
+public class ImportLookups {
+  private final Map<Long, User> users = new HashMap<>();
+  private final Set<Long> fetchedUserIds = new HashSet<>();
+  private final Map<String, Course> courses = new HashMap<>();
+  private final Set<String> fetchedCourseKeys = new HashSet<>();
+
+  /**
+   * Builds the key of a course from its code, section and term.
+   *
+   * @param courseCode the course code
+   * @param courseSection the course section
+   * @param term the term
+   * @return the key of the course
+   */
+  public static String courseKey(String courseCode, String courseSection, String term) {
+    return courseCode + ":::" + courseSection + ":::" + term;
+  }
+
+  /**
+   * Replaces the fetched users.
+   *
+   * @param userIds the IDs that were fetched
+   * @param found the users found for them
+   */
+  public void putUsers(Collection<Long> userIds, List<User> found) {
+    users.clear();
+    fetchedUserIds.clear();
+    fetchedUserIds.addAll(userIds);
+    found.forEach(user -> users.put(user.getUserId(), user));
+  }
+
+  public boolean hasFetchedUser(Long userId) {
+    return fetchedUserIds.contains(userId);
+  }
+
+  public User getUser(Long userId) {
+    return users.get(userId);
+  }
+
+  /**
+   * Adds fetched courses to those of the upload.
+   *
+   * @param courseKeys the keys of the courses that were fetched
+   * @param found the courses found, which may include courses of other keys
+   */
+  public void putCourses(Collection<String> courseKeys, List<Course> found) {
+    fetchedCourseKeys.addAll(courseKeys);
+    found.forEach(
+        course -> {
+          String key =
+              courseKey(course.getCourseCode(), course.getCourseSection(), course.getTerm());
+          if (courseKeys.contains(key)) {
+            courses.put(key, course);
+          }
+        });
+  }
+
+  public boolean hasFetchedCourse(String courseKey) {
+    return fetchedCourseKeys.contains(courseKey);
+  }
+
+  public Course getCourse(String courseKey) {
+    return courses.get(courseKey);
+  }
+}
@@ -2,17 +2,29 @@ package models.dto;
 
 /**
  * PeerReviewSummaryDTO is a data transfer object (DTO) that represents the summary of peer reviews
- * for an assignment. It contains fields for the assignment title, course code, completed reviews,
- * total reviews, progress percentage, and total student count.
+ * for an assignment. It contains fields for the assignment ID and title, course code, completed
+ * reviews, total reviews, reviewers who completed all their reviews, total reviewers, progress
+ * percentage, and total student count.
  */
 public class PeerReviewSummaryDTO {
+    public Long assignmentId;
     public String assignmentTitle;
     public String courseCode;
     public int completedReviews;
     public int totalReviews;
+    public int completedMembers;
+    public int totalMembers;
     public int progressPercentage;
     public int totalStudentCount;
 
+    public Long getAssignmentId() {
+        return assignmentId;
+    }
+
+    public void setAssignmentId(Long assignmentId) {
+        this.assignmentId = assignmentId;
+    }
+
     public int getTotalStudentCount() {
         return totalStudentCount;
     }
@@ -53,6 +65,22 @@ public class PeerReviewSummaryDTO {
         this.totalReviews = totalReviews;
     }
 
+    public int getCompletedMembers() {
+        return completedMembers;
+    }
+
+    public void setCompletedMembers(int completedMembers) {
+        this.completedMembers = completedMembers;
+    }
+
+    public int getTotalMembers() {
+        return totalMembers;
+    }
+
+    public void setTotalMembers(int totalMembers) {
+        this.totalMembers = totalMembers;
+    }
+
     public int getProgressPercentage() {
         return progressPercentage;
     }
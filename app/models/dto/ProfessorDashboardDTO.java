@@ -0,0 +1,63 @@
+package models.dto;
+
+import java.util.List;
+import models.Assignment;
+
+/**
+ * ProfessorDashboardDTO is a data transfer object (DTO) that holds the data shown on the professor
+ * dashboard for one course filter: the professor's name, the student, assignment and active course
+ * counts, the assignment summaries and the peer review progress of each assignment. A partial
+ * dashboard is missing the widgets that failed or timed out.
+ */
+public class ProfessorDashboardDTO {
+    public String professorName;
+    public int studentCount;
+    public int assignmentCount;
+    public int activeCourseCount;
+    public List<Assignment> assignments;
+    public List<PeerReviewSummaryDTO> peerReviewAssignments;
+    public boolean partial;
+
+    public ProfessorDashboardDTO() {}
+
+    public ProfessorDashboardDTO(String professorName, int studentCount, int assignmentCount, int activeCourseCount, List<Assignment> assignments, List<PeerReviewSummaryDTO> peerReviewAssignments) {
+        this.professorName = professorName;
+        this.studentCount = studentCount;
+        this.assignmentCount = assignmentCount;
+        this.activeCourseCount = activeCourseCount;
+        this.assignments = assignments;
+        this.peerReviewAssignments = peerReviewAssignments;
+    }
+
+    public String getProfessorName() {
+        return professorName;
+    }
+
+    public int getStudentCount() {
+        return studentCount;
+    }
+
+    public int getAssignmentCount() {
+        return assignmentCount;
+    }
+
+    public int getActiveCourseCount() {
+        return activeCourseCount;
+    }
+
+    public List<Assignment> getAssignments() {
+        return assignments;
+    }
+
+    public List<PeerReviewSummaryDTO> getPeerReviewAssignments() {
+        return peerReviewAssignments;
+    }
+
+    public boolean isPartial() {
+        return partial;
+    }
+
+    public void setPartial(boolean partial) {
+        this.partial = partial;
+    }
+}
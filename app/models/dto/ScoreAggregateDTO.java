@@ -0,0 +1,64 @@
+package models.dto;
+
+import models.enums.QuestionKind;
+
+/**
+ * ScoreAggregateDTO is a data transfer object (DTO) that represents the aggregated scores a student
+ * received for one feedback question: the sum of the scores, the number of feedbacks and the
+ * highest score, together with the question text and its maximum marks.
+ */
+public class ScoreAggregateDTO {
+    private Long revieweeId;
+    private Long questionId;
+    private String questionText;
+    private QuestionKind questionKind;
+    private int maxMarks;
+    private long scoreSum;
+    private long feedbackCount;
+    private int maxScore;
+
+    public ScoreAggregateDTO() {}
+
+    public ScoreAggregateDTO(Long revieweeId, Long questionId, String questionText, QuestionKind questionKind, int maxMarks, long scoreSum, long feedbackCount, int maxScore) {
+        this.revieweeId = revieweeId;
+        this.questionId = questionId;
+        this.questionText = questionText;
+        this.questionKind = questionKind != null ? questionKind : QuestionKind.fromQuestionText(questionText);
+        this.maxMarks = maxMarks;
+        this.scoreSum = scoreSum;
+        this.feedbackCount = feedbackCount;
+        this.maxScore = maxScore;
+    }
+
+    public Long getRevieweeId() {
+        return revieweeId;
+    }
+
+    public Long getQuestionId() {
+        return questionId;
+    }
+
+    public String getQuestionText() {
+        return questionText;
+    }
+
+    public QuestionKind getQuestionKind() {
+        return questionKind;
+    }
+
+    public int getMaxMarks() {
+        return maxMarks;
+    }
+
+    public long getScoreSum() {
+        return scoreSum;
+    }
+
+    public long getFeedbackCount() {
+        return feedbackCount;
+    }
+
+    public int getMaxScore() {
+        return maxScore;
+    }
+}
@@ -0,0 +1,50 @@
+package models.dto;
+
+/**
+ * ScoreCellDTO is a data transfer object (DTO) that represents one cell of a student's evaluation
+ * matrix as read by the database: the score a reviewer gave the student (reviewee) for a
+ * feedback question within a group.
+ */
+public class ScoreCellDTO {
+    private Long groupId;
+    private Long revieweeId;
+    private String reviewerName;
+    private Long questionId;
+    private String questionText;
+    private int score;
+
+    public ScoreCellDTO() {}
+
+    public ScoreCellDTO(Long groupId, Long revieweeId, String reviewerFirstName, String reviewerLastName, Long questionId, String questionText, Long score) {
+        this.groupId = groupId;
+        this.revieweeId = revieweeId;
+        this.reviewerName = (reviewerFirstName + " " + reviewerLastName).trim(); // same as User.getUserName()
+        this.questionId = questionId;
+        this.questionText = questionText;
+        this.score = score == null ? 0 : score.intValue();
+    }
+
+    public Long getGroupId() {
+        return groupId;
+    }
+
+    public Long getRevieweeId() {
+        return revieweeId;
+    }
+
+    public String getReviewerName() {
+        return reviewerName;
+    }
+
+    public Long getQuestionId() {
+        return questionId;
+    }
+
+    public String getQuestionText() {
+        return questionText;
+    }
+
+    public int getScore() {
+        return score;
+    }
+}
@@ -0,0 +1,63 @@
+package models.dto;
+
+import java.util.List;
+import models.Assignment;
+
+/**
+ * StudentDashboardDTO is a data transfer object (DTO) that holds the data shown on the student
+ * dashboard for one course filter: the assignment and review counts, the assignments, the peer
+ * reviews to write and the feedbacks received. A partial dashboard is missing the widgets that
+ * failed or timed out.
+ */
+public class StudentDashboardDTO {
+    public int assignmentCount;
+    public int pendingReviews;
+    public int completedReviews;
+    public List<Assignment> assignments;
+    public List<ReviewTaskDTO> peerReviews;
+    public List<FeedbacksReceivedDTO> myReviews;
+    public boolean partial;
+
+    public StudentDashboardDTO() {}
+
+    public StudentDashboardDTO(int assignmentCount, int pendingReviews, int completedReviews, List<Assignment> assignments, List<ReviewTaskDTO> peerReviews, List<FeedbacksReceivedDTO> myReviews) {
+        this.assignmentCount = assignmentCount;
+        this.pendingReviews = pendingReviews;
+        this.completedReviews = completedReviews;
+        this.assignments = assignments;
+        this.peerReviews = peerReviews;
+        this.myReviews = myReviews;
+    }
+
+    public int getAssignmentCount() {
+        return assignmentCount;
+    }
+
+    public int getPendingReviews() {
+        return pendingReviews;
+    }
+
+    public int getCompletedReviews() {
+        return completedReviews;
+    }
+
+    public List<Assignment> getAssignments() {
+        return assignments;
+    }
+
+    public List<ReviewTaskDTO> getPeerReviews() {
+        return peerReviews;
+    }
+
+    public List<FeedbacksReceivedDTO> getMyReviews() {
+        return myReviews;
+    }
+
+    public boolean isPartial() {
+        return partial;
+    }
+
+    public void setPartial(boolean partial) {
+        this.partial = partial;
+    }
+}
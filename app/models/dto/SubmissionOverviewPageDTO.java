@@ -0,0 +1,19 @@
+package models.dto;
+
+/**
+ * SubmissionOverviewPageDTO is a data transfer object (DTO) that represents one page of the
+ * submission overview of an assignment. The totals cover the whole assignment while the groups
+ * are only those of the page; nextCursor is the cursor of the following page, or null on the last
+ * page.
+ */
+public class SubmissionOverviewPageDTO extends SubmissionOverviewDTO {
+    public Long nextCursor;
+
+    public Long getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(Long nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+}
@@ -0,0 +1,30 @@
+package models.dto;
+
+/**
+ * SubmissionTotalsDTO is a data transfer object (DTO) that holds the submission totals of an
+ * assignment as counted by the database: the number of students with review tasks and the number
+ * of those students who still have at least one pending review.
+ */
+public class SubmissionTotalsDTO {
+    private long totalStudents;
+    private long pendingStudents;
+
+    public SubmissionTotalsDTO() {}
+
+    public SubmissionTotalsDTO(Long totalStudents, Long pendingStudents) {
+        this.totalStudents = totalStudents == null ? 0 : totalStudents;
+        this.pendingStudents = pendingStudents == null ? 0 : pendingStudents;
+    }
+
+    public long getTotalStudents() {
+        return totalStudents;
+    }
+
+    public long getPendingStudents() {
+        return pendingStudents;
+    }
+
+    public long getCompletedStudents() {
+        return totalStudents - pendingStudents;
+    }
+}
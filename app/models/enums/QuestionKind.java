@@ -0,0 +1,45 @@
+package models.enums;
+
+/**
+ * QuestionKind is an enumeration that represents the kinds of feedback questions. SCORED questions
+ * are marked by the reviewers and make up the evaluation matrix, OVERALL_COMMENT is the free text
+ * comment peers leave for each other and PRIVATE_COMMENT is the comment reviewers leave for the
+ * professor only.
+ */
+public enum QuestionKind {
+  SCORED(null),
+  OVERALL_COMMENT("Overall Feedback Comment"),
+  PRIVATE_COMMENT("Private Comment for Professor");
+
+  private final String defaultText;
+
+  QuestionKind(String defaultText) {
+    this.defaultText = defaultText;
+  }
+
+  /**
+   * Returns the kind of a question from its text, for questions created before the kind was
+   * stored. "Overall Comment" is treated as an overall comment as well.
+   *
+   * @param questionText the text of the question
+   * @return the kind of the question
+   */
+  public static QuestionKind fromQuestionText(String questionText) {
+    if (questionText == null) {
+      return SCORED;
+    }
+    if (questionText.equalsIgnoreCase(PRIVATE_COMMENT.defaultText)) {
+      return PRIVATE_COMMENT;
+    }
+    if (questionText.equalsIgnoreCase(OVERALL_COMMENT.defaultText)
+        || questionText.equalsIgnoreCase("Overall Comment")) {
+      return OVERALL_COMMENT;
+    }
+    return SCORED;
+  }
+
+  /** The text of the question the application creates for this kind, null for SCORED. */
+  public String getDefaultText() {
+    return defaultText;
+  }
+}
@@ -85,6 +85,12 @@ public class Module extends AbstractModule {
     bind(ProfessorDashboard.class).asEagerSingleton();
     bind(AdminDashboard.class).asEagerSingleton();
 
+    // Fill in the kind of feedback questions created before it was stored
+    bind(QuestionKindBackfill.class).asEagerSingleton();
+
+    // Daily assignment status transitions
+    bind(AssignmentStatusScheduler.class).asEagerSingleton();
+
     // Bind Core Service implementations
 
     bind(UserService.class).to(UserServiceImpl.class);
@@ -1,27 +1,30 @@
 package repository;
 
+import jakarta.persistence.EntityManager;
 import jakarta.persistence.TypedQuery;
 import models.Assignment;
-import models.ReviewTask;
 import models.dto.FeedbackDTO;
+import models.dto.FeedbacksReceivedDTO;
 import models.dto.PeerReviewSummaryDTO;
 import models.dto.ReviewTaskDTO;
+import models.dto.StudentDashboardDTO;
 import models.enums.Status;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import play.db.jpa.JPAApi;
+import services.core.AssignmentStatusScheduler;
 
 import javax.inject.Inject;
 import javax.inject.Singleton;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.stream.Collectors;
 
 /**
  * DashboardRepository is a singleton class that handles the retrieval of assignment and peer review
@@ -31,17 +34,40 @@ import java.util.stream.Collectors;
 @Singleton
 public class DashboardRepository {
     private final JPAApi jpaApi;
+    // Per assignment: review tasks, completed review tasks, reviewers, reviewers with an unfinished
+    // review task and enrolled students
+    private static final String PEER_REVIEW_PROGRESS_SELECT = "SELECT a.title, c.courseCode, c.courseSection, " +
+            "COUNT(rt), " +
+            "SUM(CASE WHEN rt.status = models.enums.Status.COMPLETED THEN 1 ELSE 0 END), " +
+            "COUNT(DISTINCT rv.userId), " +
+            "COUNT(DISTINCT CASE WHEN rt.status <> models.enums.Status.COMPLETED THEN rv.userId END), " +
+            "(SELECT COUNT(e) FROM Enrollment e WHERE e.course.courseId = c.courseId), " +
+            "a.assignmentId " +
+            "FROM Assignment a JOIN a.course c LEFT JOIN a.reviewTasks rt LEFT JOIN rt.reviewer rv ";
+    private static final String PEER_REVIEW_PROGRESS_GROUP_BY =
+            "GROUP BY a.assignmentId, a.title, c.courseId, c.courseCode, c.courseSection " +
+            "ORDER BY a.assignmentId";
     private static final Logger log = LoggerFactory.getLogger(DashboardRepository.class);
-    private final ExecutorService executor = Executors.newFixedThreadPool(5);
+    // The dashboards only read, their transactions are read-only
+    private static final String PERSISTENCE_UNIT = "default";
+    // Blocking queries run on the database dispatcher shared with the other JDBC work
+    private final DatabaseExecutionContext executor;
+    // Decides which assignments have started or are due, in the time zone of the assignment dates
+    private final AssignmentStatusScheduler assignmentStatusScheduler;
 
     @Inject
-    public DashboardRepository(JPAApi jpaApi) {
+    public DashboardRepository(JPAApi jpaApi, DatabaseExecutionContext executor, AssignmentStatusScheduler assignmentStatusScheduler) {
         this.jpaApi = jpaApi;
+        this.executor = executor;
+        this.assignmentStatusScheduler = assignmentStatusScheduler;
     }
 
 
     /**
-     * Retrieves the peer review progress for a professor based on the provided filters.
+     * Retrieves the peer review progress for a professor based on the provided filters. All the
+     * counts are computed by the database in a single grouped query: review tasks, completed review
+     * tasks, reviewers, reviewers with an unfinished review task and enrolled students per
+     * assignment.
      *
      * @param userId          The ID of the professor.
      * @param filterByCourseCode The course code to filter by (optional).
@@ -50,82 +76,25 @@ public class DashboardRepository {
      * @return A CompletableFuture containing a list of PeerReviewSummaryDTO objects.
      */
     public CompletableFuture<List<PeerReviewSummaryDTO>> getPeerReviewProgressForProfessor(Long userId, String filterByCourseCode, String courseSection, String term) {
-        return CompletableFuture.supplyAsync(()->jpaApi.withTransaction(entityManger -> {
-
-            List<PeerReviewSummaryDTO> result = new ArrayList<>();
-
-            String queryString;
-            TypedQuery<Assignment> query;
-
-            if(filterByCourseCode != null && courseSection != null && term != null){
-                queryString = "SELECT a FROM Assignment a WHERE a.course.courseCode = :courseCode AND a.course.professor.userId = :userId AND a.course.courseSection = :courseSection AND a.course.term = :term ";
-                query = entityManger.createQuery(queryString, Assignment.class)
-                        .setParameter("courseCode", filterByCourseCode)
-                        .setParameter("userId", userId)
+        return CompletableFuture.supplyAsync(()->jpaApi.withTransaction(PERSISTENCE_UNIT, true, entityManger -> {
+
+            boolean filterByCourse = filterByCourseCode != null && courseSection != null && term != null;
+            String queryString = PEER_REVIEW_PROGRESS_SELECT +
+                    "WHERE c.professor.userId = :userId " +
+                    (filterByCourse ? "AND c.courseCode = :courseCode AND c.courseSection = :courseSection AND c.term = :term " : "") +
+                    PEER_REVIEW_PROGRESS_GROUP_BY;
+
+            TypedQuery<Object[]> query = entityManger.createQuery(queryString, Object[].class)
+                    .setParameter("userId", userId);
+            if (filterByCourse) {
+                query.setParameter("courseCode", filterByCourseCode)
                         .setParameter("courseSection", courseSection)
                         .setParameter("term", term);
             }
-            else{
-                queryString = "SELECT a FROM Assignment a WHERE a.course.professor.userId = :userId ";
-                query = entityManger.createQuery(queryString, Assignment.class)
-                        .setParameter("userId", userId);
-            }
 
-            List<Assignment> assignments = query.setParameter("userId", userId).getResultList();
-
-            for (Assignment assignment : assignments) {
-                Long assignmentId = assignment.getAssignmentId();
-                String courseCode = assignment.getCourse().getCourseCode();
-                Long courseId = assignment.getCourse().getCourseId();
-
-                // Fetch review tasks
-                List<ReviewTask> reviewTasks = entityManger.createQuery(
-                                "SELECT r FROM ReviewTask r WHERE r.assignment.assignmentId = :assignmentId", ReviewTask.class)
-                        .setParameter("assignmentId", assignmentId)
-                        .getResultList();
-
-                int totalReviews = reviewTasks.size();
-
-                // Task-based completed reviews
-                int completedReviewTasks = (int) reviewTasks.stream()
-                        .filter(rt -> rt.getStatus() == Status.COMPLETED)
-                        .count();
-
-                // Distinct reviewers (members)
-                Set<Long> distinctReviewers = reviewTasks.stream()
-                        .map(rt -> rt.getReviewer().getUserId())
-                        .collect(Collectors.toSet());
-
-                int totalMembers = distinctReviewers.size();
-
-                // Members who completed all their assigned reviews
-                int completedMembers = (int) distinctReviewers.stream()
-                        .filter(reviewerId -> reviewTasks.stream()
-                                .filter(rt -> rt.getReviewer().getUserId().equals(reviewerId))
-                                .allMatch(rt -> rt.getStatus() == Status.COMPLETED))
-                        .count();
-
-                // Member-based progress
-                int progress = totalMembers == 0 ? 0 : Math.round((completedMembers * 100f) / totalMembers);
-
-                // Total students enrolled
-                int studentCount = entityManger.createQuery(
-                                "SELECT COUNT(e) FROM Enrollment e WHERE e.course.courseId = :courseId", Long.class)
-                        .setParameter("courseId", courseId)
-                        .getSingleResult()
-                        .intValue();
-
-                String courseInfo = courseCode + " (" + assignment.getCourse().getCourseSection() + ")" ;
-
-                PeerReviewSummaryDTO peerReviewSummaryDTO = new PeerReviewSummaryDTO();
-                peerReviewSummaryDTO.setAssignmentTitle(assignment.getTitle());
-                peerReviewSummaryDTO.setCourseCode(courseInfo);
-                peerReviewSummaryDTO.setTotalReviews(totalReviews);
-                peerReviewSummaryDTO.setCompletedReviews(completedReviewTasks);
-                peerReviewSummaryDTO.setProgressPercentage(progress);
-                peerReviewSummaryDTO.setTotalStudentCount(studentCount);
-
-                result.add(peerReviewSummaryDTO);
+            List<PeerReviewSummaryDTO> result = new ArrayList<>();
+            for (Object[] row : query.getResultList()) {
+                result.add(toPeerReviewSummary(row));
             }
 
             return result;
@@ -133,6 +102,60 @@ public class DashboardRepository {
 
     }
 
+    /**
+     * Reads the current peer review progress of some assignments, with the same counts as the
+     * dashboard. It blocks, so callers run it off the request threads.
+     *
+     * @param assignmentIds the IDs of the assignments
+     * @return the progress of the assignments that exist, ordered by assignment ID
+     */
+    public List<PeerReviewSummaryDTO> findPeerReviewProgressByAssignmentIds(Collection<Long> assignmentIds) {
+        if (assignmentIds.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return jpaApi.withTransaction(PERSISTENCE_UNIT, true, entityManager -> {
+            List<PeerReviewSummaryDTO> result = new ArrayList<>();
+            for (Object[] row : entityManager.createQuery(PEER_REVIEW_PROGRESS_SELECT +
+                            "WHERE a.assignmentId IN :assignmentIds " + PEER_REVIEW_PROGRESS_GROUP_BY, Object[].class)
+                    .setParameter("assignmentIds", assignmentIds)
+                    .getResultList()) {
+                result.add(toPeerReviewSummary(row));
+            }
+            return result;
+        });
+    }
+
+    private static PeerReviewSummaryDTO toPeerReviewSummary(Object[] row) {
+        int totalReviews = toInt(row[3]);
+        int completedReviewTasks = toInt(row[4]);
+        int totalMembers = toInt(row[5]);
+
+        // Members who completed all their assigned reviews
+        int completedMembers = totalMembers - toInt(row[6]);
+
+        // Member-based progress
+        int progress = totalMembers == 0 ? 0 : Math.round((completedMembers * 100f) / totalMembers);
+
+        String courseInfo = row[1] + " (" + row[2] + ")" ;
+
+        PeerReviewSummaryDTO peerReviewSummaryDTO = new PeerReviewSummaryDTO();
+        peerReviewSummaryDTO.setAssignmentId(((Number) row[8]).longValue());
+        peerReviewSummaryDTO.setAssignmentTitle((String) row[0]);
+        peerReviewSummaryDTO.setCourseCode(courseInfo);
+        peerReviewSummaryDTO.setTotalReviews(totalReviews);
+        peerReviewSummaryDTO.setCompletedReviews(completedReviewTasks);
+        peerReviewSummaryDTO.setTotalMembers(totalMembers);
+        peerReviewSummaryDTO.setCompletedMembers(completedMembers);
+        peerReviewSummaryDTO.setProgressPercentage(progress);
+        peerReviewSummaryDTO.setTotalStudentCount(toInt(row[7]));
+        return peerReviewSummaryDTO;
+    }
+
+    // Aggregates come back as Long (COUNT) or Long/Integer (SUM) and SUM is null without rows
+    private static int toInt(Object value) {
+        return value == null ? 0 : ((Number) value).intValue();
+    }
+
 
     /**
      * Retrieves the assignment summary for a professor based on the provided filters.
@@ -144,7 +167,7 @@ public class DashboardRepository {
      * @return A CompletableFuture containing a list of Assignment objects.
      */
     public CompletableFuture<List<Assignment>> getAssignmentSummaryForProfessor(Long userId, String filterByCourseCode, String courseSection, String term) {
-        return CompletableFuture.supplyAsync(()->jpaApi.withTransaction(entityManager -> {
+        return CompletableFuture.supplyAsync(()->jpaApi.withTransaction(PERSISTENCE_UNIT, true, entityManager -> {
 
             String queryString;
             TypedQuery<Assignment> query;
@@ -163,26 +186,8 @@ public class DashboardRepository {
                         .setParameter("userId", userId);
             }
 
-            // Loop through each assignment and update the status value based on current data and fileUpload status and save the change as well to database
+            // Statuses are kept up to date by the AssignmentStatusScheduler, reading them is enough
             List<Assignment> assignments = query.getResultList();
-            for (Assignment assignment : assignments) {
-                LocalDate today = LocalDate.now();
-                LocalDate startDate = assignment.getStartDate();
-                LocalDate dueDate = assignment.getDueDate();
-                boolean fileUploaded = assignment.isPeerAssigned();
-
-                if (!fileUploaded) {
-                    assignment.setStatus(Status.PENDING);
-                } else if (today.isBefore(startDate)) {
-                    assignment.setStatus(Status.PENDING);
-                } else if (today.isAfter(dueDate)) {
-                    assignment.setStatus(Status.COMPLETED);
-                } else {
-                    assignment.setStatus(Status.ACTIVE);
-                }
-
-                entityManager.merge(assignment);
-            }
 
             return assignments;
         }), executor);
@@ -197,9 +202,12 @@ public class DashboardRepository {
      * @return A CompletableFuture containing a list of Assignment objects.
      */
     public CompletableFuture<List<Assignment>> getAssignmentsForStudent(Long userId, String courseCode) {
+    LocalDate today = assignmentStatusScheduler.today();
     return CompletableFuture.supplyAsync(
         () ->
             jpaApi.withTransaction(
+                PERSISTENCE_UNIT,
+                true,
                 entityManager -> {
                   if (courseCode == null || courseCode.equalsIgnoreCase("all")) {
                     // Fetch the enrolled course codes for student
@@ -214,9 +222,10 @@ public class DashboardRepository {
                     // Fetch assignments for course codes
                     TypedQuery<Assignment> assignmentQuery =
                         entityManager.createQuery(
-                            "SELECT a FROM Assignment a WHERE a.course.courseId IN :courseIds AND a.startDate <= CURRENT_DATE AND a.status IN (:status)",
+                            "SELECT a FROM Assignment a WHERE a.course.courseId IN :courseIds AND a.startDate <= :today AND a.status IN (:status)",
                             Assignment.class);
                     assignmentQuery.setParameter("courseIds", courseIds);
+                    assignmentQuery.setParameter("today", today);
                     assignmentQuery.setParameter("status", Set.of(Status.ACTIVE, Status.COMPLETED));
                     return assignmentQuery.getResultList();
                   } else {
@@ -234,9 +243,10 @@ public class DashboardRepository {
 
                     TypedQuery<Assignment> assignmentQuery =
                         entityManager.createQuery(
-                            "SELECT a FROM Assignment a WHERE a.course.courseId = :courseId AND a.startDate <= CURRENT_DATE AND a.status IN (:status)",
+                            "SELECT a FROM Assignment a WHERE a.course.courseId = :courseId AND a.startDate <= :today AND a.status IN (:status)",
                             Assignment.class);
                     assignmentQuery.setParameter("courseId", courseId);
+                    assignmentQuery.setParameter("today", today);
                     assignmentQuery.setParameter("status", Set.of(Status.ACTIVE, Status.COMPLETED));
                     return assignmentQuery.getResultList();
                   }
@@ -246,71 +256,166 @@ public class DashboardRepository {
 
 
     /**
-     * Retrieves the pending peer reviews for a student based on the provided course code.
+     * Retrieves the peer reviews a student has to write for the assignments that are currently
+     * open. The review tasks, their feedbacks and questions are read as flat rows of a single
+     * query, so the number of queries does not grow with the history of the student.
      *
      * @param userId    The ID of the student.
      * @param courseCode The course code to filter by (optional).
      * @return A CompletableFuture containing a list of ReviewTaskDTO objects.
      */
     public CompletableFuture<List<ReviewTaskDTO>> getPendingPeerReviewsForStudent(Long userId, String courseCode) {
-        return CompletableFuture.supplyAsync(() -> jpaApi.withTransaction(entityManager -> {
+        LocalDate today = assignmentStatusScheduler.today();
+        return CompletableFuture.supplyAsync(() -> jpaApi.withTransaction(PERSISTENCE_UNIT, true, entityManager -> {
+            if (courseCode == null || courseCode.equalsIgnoreCase("all")) {
+                // Courses the student is enrolled in
+                return findOpenReviewTasks(entityManager, userId, today,
+                        "c.courseId IN (SELECT e.course.courseId FROM Enrollment e WHERE e.student.userId = :userId)", null, null);
+            }
+            // Specific course
+            return findOpenReviewTasks(entityManager, userId, today, "c.courseCode = :courseCode", "courseCode", courseCode);
+        }), executor);
+    }
 
-            List<ReviewTask> reviewTasks;
+    /**
+     * Retrieves everything the student dashboard shows in a single read-only transaction, so a page
+     * view costs one connection checkout. One query, a CTE over the enrollments of the student,
+     * returns the assignment counts of every enrolled course with the review counts read from the
+     * review status counts by primary key; the course IDs it yields then scope the assignments,
+     * the review tasks and the feedbacks received, which no longer look up the enrollments on
+     * their own.
+     *
+     * @param userId    The ID of the student.
+     * @param courseCode The course code to filter by (optional, "all" for every course).
+     * @return A CompletableFuture containing the student dashboard data.
+     */
+    public CompletableFuture<StudentDashboardDTO> getStudentDashboardSummary(Long userId, String courseCode) {
+        boolean filterByCourse = courseCode != null && !courseCode.isBlank() && !courseCode.equalsIgnoreCase("all");
+        LocalDate today = assignmentStatusScheduler.today();
+
+        return CompletableFuture.supplyAsync(() -> jpaApi.withTransaction(PERSISTENCE_UNIT, true, entityManager -> {
+            String summaryQuery = "WITH enrolled AS (" +
+                    "SELECT e.course.courseId AS courseId FROM Enrollment e WHERE e.student.userId = :userId" +
+                    (filterByCourse ? " AND e.course.courseCode = :courseCode" : "") +
+                    ") " +
+                    "SELECT en.courseId, " +
+                    "(SELECT COUNT(a) FROM Assignment a WHERE a.course.courseId = en.courseId AND a.startDate <= :today), " +
+                    "(SELECT rsc.pendingCount FROM ReviewStatusCount rsc WHERE rsc.id.reviewerId = :userId AND rsc.id.courseId = en.courseId), " +
+                    "(SELECT rsc.completedCount FROM ReviewStatusCount rsc WHERE rsc.id.reviewerId = :userId AND rsc.id.courseId = en.courseId) " +
+                    "FROM enrolled en";
+            TypedQuery<Object[]> query = entityManager.createQuery(summaryQuery, Object[].class)
+                    .setParameter("userId", userId)
+                    .setParameter("today", today);
+            if (filterByCourse) {
+                query.setParameter("courseCode", courseCode);
+            }
 
-            if (courseCode == null || courseCode.equalsIgnoreCase("all")) {
-                // Fetch course codes the student is enrolled in
-                List<String> enrolledCourses = entityManager.createQuery(
-                                "SELECT e.course.courseCode FROM Enrollment e WHERE e.student.userId = :userId", String.class)
-                        .setParameter("userId", userId)
-                        .getResultList();
-
-                if (enrolledCourses.isEmpty()) {
-                    return Collections.emptyList();
-                }
-
-                reviewTasks = entityManager.createQuery(
-                                "SELECT rt FROM ReviewTask rt " +
-                                        "WHERE rt.reviewer.userId = :userId " +
-                                        "AND rt.assignment.course.courseCode IN :courseCodes", ReviewTask.class)
-                        .setParameter("userId", userId)
-                        .setParameter("courseCodes", enrolledCourses)
-                        .getResultList();
-            } else {
-                // Specific course
-                reviewTasks = entityManager.createQuery(
-                                "SELECT rt FROM ReviewTask rt " +
-                                        "WHERE rt.reviewer.userId = :userId " +
-                                        "AND rt.assignment.course.courseCode = :courseCode", ReviewTask.class)
-                        .setParameter("userId", userId)
-                        .setParameter("courseCode", courseCode)
-                        .getResultList();
+            List<Long> courseIds = new ArrayList<>();
+            int assignmentCount = 0;
+            int pendingReviews = 0;
+            int completedReviews = 0;
+            for (Object[] row : query.getResultList()) {
+                courseIds.add(((Number) row[0]).longValue());
+                assignmentCount += toInt(row[1]);
+                pendingReviews += toInt(row[2]);
+                completedReviews += toInt(row[3]);
             }
 
-               return reviewTasks.stream()
-                    .map(rt ->{
-
-                        List<FeedbackDTO> feedbacks = rt.getFeedbacks()
-                                .stream()
-                                .map(feedback -> new FeedbackDTO(
-                                        feedback.getId(),
-                                        feedback.getScore(),
-                                        feedback.getQuestion().getMaxMarks(),
-                                        feedback.getQuestion().getQuestionText(),
-                                        feedback.getFeedbackText()
-                                ))
-                                .toList();
-
-                        return new ReviewTaskDTO(
-                                rt.getReviewTaskId(),
-                                rt.getAssignment().getAssignmentId(),
-                                rt.getAssignment().getDueDate(),
-                                rt.getAssignment().getCourse().getCourseCode(),
-                                rt.getAssignment().getTitle(),
-                                rt.getReviewee().getUserName(),
-                                rt.getStatus(),
-                                feedbacks,
-                                rt.isReviewTaskForProfessor());
-                    }).toList();
+            if (courseIds.isEmpty()) {
+                return new StudentDashboardDTO(0, 0, 0, List.of(), List.of(), List.of());
+            }
+
+            List<Assignment> assignments = entityManager.createQuery(
+                            "SELECT a FROM Assignment a WHERE a.course.courseId IN :courseIds AND a.startDate <= :today AND a.status IN (:status)",
+                            Assignment.class)
+                    .setParameter("courseIds", courseIds)
+                    .setParameter("today", today)
+                    .setParameter("status", Set.of(Status.ACTIVE, Status.COMPLETED))
+                    .getResultList();
+
+            List<ReviewTaskDTO> peerReviews = findOpenReviewTasks(entityManager, userId, today, "c.courseId IN :courseIds", "courseIds", courseIds);
+
+            // Marks per question of the past assignments, averaged over the reviewers
+            List<Object[]> questionRows = entityManager.createQuery(
+                            "SELECT a.assignmentId, a.title, q.questionText, MAX(q.maxMarks), AVG(f.score) " +
+                                    "FROM Feedback f JOIN f.reviewTask rt JOIN rt.assignment a JOIN f.question q " +
+                                    "WHERE rt.reviewee.userId = :userId AND a.course.courseId IN :courseIds AND a.dueDate < :today " +
+                                    "GROUP BY a.assignmentId, a.title, q.questionText " +
+                                    "ORDER BY a.assignmentId",
+                            Object[].class)
+                    .setParameter("userId", userId)
+                    .setParameter("courseIds", courseIds)
+                    .setParameter("today", today)
+                    .getResultList();
+
+            Map<Long, FeedbacksReceivedDTO> feedbacksReceived = new LinkedHashMap<>();
+            for (Object[] row : questionRows) {
+                FeedbacksReceivedDTO received = feedbacksReceived.computeIfAbsent((Long) row[0],
+                        assignmentId -> new FeedbacksReceivedDTO((String) row[1], assignmentId, null, 0, 0, null));
+                received.setTotalMarks(received.getTotalMarks() + toInt(row[3]));
+                received.setObtainedMarks(received.getObtainedMarks() + toInt(row[4]));
+            }
+
+            return new StudentDashboardDTO(assignmentCount, pendingReviews, completedReviews,
+                    assignments, peerReviews, new ArrayList<>(feedbacksReceived.values()));
         }), executor);
     }
+
+    /**
+     * Reads the review tasks of a reviewer for the open assignments (started and not yet due) of
+     * some courses, with their feedbacks and questions, as one row per feedback. Every association
+     * the DTOs need is joined in the query, none is loaded afterwards.
+     *
+     * @param entityManager  The EntityManager of the current transaction.
+     * @param userId         The ID of the reviewer.
+     * @param today          The current date in the time zone of the assignment dates.
+     * @param courseCondition The HQL condition on the course {@code c} of the assignment.
+     * @param parameterName  The name of the parameter of the condition, or null.
+     * @param parameterValue The value of the parameter of the condition.
+     * @return The review tasks, ordered by due date.
+     */
+    private static List<ReviewTaskDTO> findOpenReviewTasks(EntityManager entityManager, Long userId, LocalDate today, String courseCondition, String parameterName, Object parameterValue) {
+        String queryString = "SELECT rt.reviewTaskId, a.assignmentId, a.dueDate, c.courseCode, a.title, " +
+                "rv.firstName, rv.lastName, rt.status, rt.reviewTaskForProfessor, " +
+                "f.id, f.score, q.maxMarks, q.questionText, f.feedbackText " +
+                "FROM ReviewTask rt JOIN rt.assignment a JOIN a.course c JOIN rt.reviewee rv " +
+                "LEFT JOIN rt.feedbacks f LEFT JOIN f.question q " +
+                "WHERE rt.reviewer.userId = :userId AND a.startDate <= :today AND a.dueDate >= :today " +
+                "AND " + courseCondition + " " +
+                "ORDER BY a.dueDate, rt.reviewTaskId, f.id";
+        TypedQuery<Object[]> query = entityManager.createQuery(queryString, Object[].class)
+                .setParameter("userId", userId)
+                .setParameter("today", today);
+        if (parameterName != null) {
+            query.setParameter(parameterName, parameterValue);
+        }
+
+        Map<Long, Object[]> tasks = new LinkedHashMap<>();
+        Map<Long, List<FeedbackDTO>> feedbacks = new LinkedHashMap<>();
+        for (Object[] row : query.getResultList()) {
+            Long reviewTaskId = (Long) row[0];
+            tasks.putIfAbsent(reviewTaskId, row);
+            List<FeedbackDTO> taskFeedbacks = feedbacks.computeIfAbsent(reviewTaskId, id -> new ArrayList<>());
+            if (row[9] != null) {
+                taskFeedbacks.add(new FeedbackDTO((Long) row[9], toInt(row[10]), toInt(row[11]), (String) row[12], (String) row[13]));
+            }
+        }
+
+        List<ReviewTaskDTO> result = new ArrayList<>(tasks.size());
+        for (Map.Entry<Long, Object[]> task : tasks.entrySet()) {
+            Object[] row = task.getValue();
+            String revieweeName = ((row[5] == null ? "" : row[5]) + " " + (row[6] == null ? "" : row[6])).trim();
+            result.add(new ReviewTaskDTO(
+                    task.getKey(),
+                    (Long) row[1],
+                    (LocalDate) row[2],
+                    (String) row[3],
+                    (String) row[4],
+                    revieweeName,
+                    (Status) row[7],
+                    feedbacks.get(task.getKey()),
+                    (Boolean) row[8]));
+        }
+        return result;
+    }
 }
@@ -0,0 +1,20 @@
+package repository;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import org.apache.pekko.actor.ActorSystem;
+import play.libs.concurrent.CustomExecutionContext;
+
+/**
+ * DatabaseExecutionContext is the execution context for blocking JDBC work. It runs on the
+ * "database.dispatcher" thread pool, sized to the connection pool, so blocking queries never
+ * occupy the threads of the common fork-join pool or of the HTTP request handling.
+ */
+@Singleton
+public class DatabaseExecutionContext extends CustomExecutionContext {
+
+  @Inject
+  public DatabaseExecutionContext(ActorSystem actorSystem) {
+    super(actorSystem, "database.dispatcher");
+  }
+}
@@ -1,12 +1,15 @@
 package repository.core;
 
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
 import jakarta.persistence.TypedQuery;
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 import models.Assignment;
@@ -14,6 +17,7 @@ import models.ReviewTask;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import play.db.jpa.JPAApi;
+import services.metrics.MetricsRegistry;
 
 /**
  * AssignmentRepository is a singleton class responsible for managing database operations related to
@@ -24,12 +28,25 @@ import play.db.jpa.JPAApi;
 public class AssignmentRepository {
 
   private static final Logger log = LoggerFactory.getLogger(AssignmentRepository.class);
+
+  /** The status of an assignment on the day given by the :today parameter. */
+  private static final String STATUS_ON_DAY =
+      "CASE WHEN a.peerAssigned = false OR a.startDate > :today THEN models.enums.Status.PENDING "
+          + "WHEN a.dueDate < :today THEN models.enums.Status.COMPLETED "
+          + "ELSE models.enums.Status.ACTIVE END";
+
   private final JPAApi jpaApi;
-  private final ExecutorService executorService = Executors.newFixedThreadPool(5);
+  private final ReviewStatusCountRepository reviewStatusCountRepository;
+  private final ExecutorService executorService;
 
   @Inject
-  public AssignmentRepository(JPAApi jpaApi) {
+  public AssignmentRepository(
+      JPAApi jpaApi,
+      ReviewStatusCountRepository reviewStatusCountRepository,
+      MetricsRegistry metricsRegistry) {
     this.jpaApi = jpaApi;
+    this.reviewStatusCountRepository = reviewStatusCountRepository;
+    this.executorService = metricsRegistry.newExecutor("assignment-repository", 5);
   }
 
   /**
@@ -101,6 +118,50 @@ public class AssignmentRepository {
         });
   }
 
+  /**
+   * Moves some assignments, or all of them when no IDs are given, to the status they have on the
+   * given day in a single bulk update: PENDING while the review tasks are not uploaded or the start
+   * date is not reached, COMPLETED after the due date and ACTIVE in between. Only assignments whose
+   * status changes are written.
+   *
+   * @param today the current date in the time zone of the institution
+   * @param assignmentIds the IDs of the assignments to update, or null for all assignments
+   * @return the number of assignments whose status changed
+   */
+  public int updateStatuses(LocalDate today, Collection<Long> assignmentIds) {
+    return jpaApi.withTransaction(
+        entityManager -> updateStatuses(entityManager, today, assignmentIds));
+  }
+
+  /**
+   * Moves some assignments, or all of them when no IDs are given, to the status they have on the
+   * given day, within the caller's transaction.
+   *
+   * @param entityManager the entity manager of the current transaction
+   * @param today the current date in the time zone of the institution
+   * @param assignmentIds the IDs of the assignments to update, or null for all assignments
+   * @return the number of assignments whose status changed
+   */
+  public int updateStatuses(
+      EntityManager entityManager, LocalDate today, Collection<Long> assignmentIds) {
+    if (assignmentIds != null && assignmentIds.isEmpty()) {
+      return 0;
+    }
+    Query query =
+        entityManager
+            .createQuery(
+                "UPDATE Assignment a SET a.status = "
+                    + STATUS_ON_DAY
+                    + " WHERE a.status <> "
+                    + STATUS_ON_DAY
+                    + (assignmentIds == null ? "" : " AND a.assignmentId IN :assignmentIds"))
+            .setParameter("today", today);
+    if (assignmentIds != null) {
+      query.setParameter("assignmentIds", assignmentIds);
+    }
+    return query.executeUpdate();
+  }
+
   /**
    * Asynchronous method to find an assignment by its ID, including its feedback questions.
    *
@@ -187,6 +248,21 @@ public class AssignmentRepository {
             jpaApi.withTransaction(
                 entityManager -> {
                   try {
+                    List<Long> courseIds =
+                        entityManager
+                            .createQuery(
+                                "SELECT a.course.courseId FROM Assignment a WHERE a.assignmentId = :assignmentId",
+                                Long.class)
+                            .setParameter("assignmentId", assignmentId)
+                            .getResultList();
+
+                    // Step 0: Delete the score aggregates of the assignment
+                    entityManager
+                        .createQuery(
+                            "DELETE FROM FeedbackAggregate fa WHERE fa.assignment.assignmentId = :assignmentId")
+                        .setParameter("assignmentId", assignmentId)
+                        .executeUpdate();
+
                     // Step 1: Delete feedbacks linked to this assignment through review tasks
                     entityManager
                         .createQuery(
@@ -216,6 +292,9 @@ public class AssignmentRepository {
                             .setParameter("assignmentId", assignmentId)
                             .executeUpdate();
 
+                    // Step 5: Recount the review tasks left in the course
+                    reviewStatusCountRepository.rebuildForCourses(entityManager, courseIds);
+
                     if (deletedCount > 0) {
                       log.info(
                           "Assignment {} and its dependencies deleted successfully", assignmentId);
@@ -268,18 +347,21 @@ public class AssignmentRepository {
    * Asynchronous method to find the count of assignments for a list of course codes.
    *
    * @param courseIds The list of course codes.
+   * @param today The current date in the time zone of the assignment dates.
    * @return A CompletableFuture containing the count of assignments.
    */
-  public CompletableFuture<Integer> findAssignmentCountByCourseCodes(List<Long> courseIds) {
+  public CompletableFuture<Integer> findAssignmentCountByCourseCodes(
+      List<Long> courseIds, LocalDate today) {
     return CompletableFuture.supplyAsync(
         () ->
             jpaApi.withTransaction(
                 entityManager -> {
                   TypedQuery<Long> query =
                       entityManager.createQuery(
-                          "SELECT COUNT(a) FROM Assignment a WHERE a.course.courseId IN :courseIds AND a.startDate <= CURRENT_DATE",
+                          "SELECT COUNT(a) FROM Assignment a WHERE a.course.courseId IN :courseIds AND a.startDate <= :today",
                           Long.class);
                   query.setParameter("courseIds", courseIds);
+                  query.setParameter("today", today);
                   return query.getSingleResult().intValue();
                 }),
         executorService);
@@ -5,7 +5,6 @@ import java.util.*;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.stream.Collectors;
 import javax.inject.Inject;
 import javax.inject.Singleton;
@@ -14,6 +13,7 @@ import models.dto.Context;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import play.db.jpa.JPAApi;
+import services.metrics.MetricsRegistry;
 
 /**
  * CourseRepository is a singleton class that provides methods to interact with the Course entity in
@@ -25,11 +25,36 @@ public class CourseRepository implements Repository<Course> {
 
   private static final Logger log = LoggerFactory.getLogger(CourseRepository.class);
   private final JPAApi jpaApi;
-  private final ExecutorService executorService = Executors.newFixedThreadPool(5);
+  private final ExecutorService executorService;
 
   @Inject
-  public CourseRepository(JPAApi jpaApi) {
+  public CourseRepository(JPAApi jpaApi, MetricsRegistry metricsRegistry) {
     this.jpaApi = jpaApi;
+    this.executorService = metricsRegistry.newExecutor("course-repository", 5);
+  }
+
+  /**
+   * Finds the courses of any of the given course codes and any of the given terms with one query,
+   * for the callers to pick the exact code, section and term combinations they need.
+   *
+   * @param courseCodes the course codes to search for
+   * @param terms the terms to search for
+   * @return the courses found
+   */
+  public List<Course> findAllByCourseCodesAndTerms(
+      Collection<String> courseCodes, Collection<String> terms) {
+    if (courseCodes.isEmpty() || terms.isEmpty()) {
+      return List.of();
+    }
+    return jpaApi.withTransaction(
+        entityManager ->
+            entityManager
+                .createQuery(
+                    "SELECT c FROM Course c WHERE c.courseCode IN :courseCodes AND c.term IN :terms",
+                    Course.class)
+                .setParameter("courseCodes", courseCodes)
+                .setParameter("terms", terms)
+                .getResultList());
   }
 
   /**
@@ -10,6 +10,7 @@ import models.dto.Context;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import play.db.jpa.JPAApi;
+import services.metrics.MetricsRegistry;
 
 /**
  * EnrollmentRepository is a singleton class that handles the persistence of Enrollment entities in
@@ -19,12 +20,18 @@ import play.db.jpa.JPAApi;
 public class EnrollmentRepository implements Repository<Enrollment> {
 
     private static final Logger log = LoggerFactory.getLogger(EnrollmentRepository.class);
+    private static final int ID_QUERY_CHUNK_SIZE = 1000;
+    private static final String INSERT_MISSING_SQL =
+            "INSERT INTO enrollments (student_id, course_code, course_section, term) "
+                    + "SELECT u.user_id, :courseId, :courseSection, :term FROM users u WHERE u.user_id IN (:userIds) "
+                    + "ON CONFLICT (student_id, course_code, course_section, term) DO NOTHING";
     private final JPAApi jpaApi;
-    private final ExecutorService executorService = Executors.newFixedThreadPool(5);
+    private final ExecutorService executorService;
 
     @Inject
-    public EnrollmentRepository(JPAApi jpaApi) {
+    public EnrollmentRepository(JPAApi jpaApi, MetricsRegistry metricsRegistry) {
         this.jpaApi = jpaApi;
+        this.executorService = metricsRegistry.newExecutor("enrollment-repository", 5);
     }
 
     /**
@@ -177,6 +184,35 @@ public class EnrollmentRepository implements Repository<Enrollment> {
 
     }
 
+    /**
+     * Enrolls the given existing users in a course, leaving the enrollments that exist already as
+     * they are, with one statement per chunk of users in a single transaction.
+     *
+     * @param courseId the ID of the course
+     * @param courseSection the course section
+     * @param term the term
+     * @param userIds the IDs of the users to enroll
+     * @return the number of enrollments inserted
+     */
+    public int insertMissingEnrollments(Long courseId, String courseSection, String term, List<Long> userIds) {
+        if (userIds.isEmpty()) {
+            return 0;
+        }
+        return jpaApi.withTransaction(entityManager -> {
+            int inserted = 0;
+            for (int i = 0; i < userIds.size(); i += ID_QUERY_CHUNK_SIZE) {
+                inserted += entityManager.createNativeQuery(INSERT_MISSING_SQL)
+                        .setParameter("courseId", courseId)
+                        .setParameter("courseSection", courseSection)
+                        .setParameter("term", term)
+                        .setParameter("userIds", userIds.subList(i, Math.min(i + ID_QUERY_CHUNK_SIZE, userIds.size())))
+                        .executeUpdate();
+            }
+            log.info("Inserted {} of {} enrollments for course {}", inserted, userIds.size(), courseId);
+            return inserted;
+        });
+    }
+
     /**
      * Retrieves all enrollments from the database for a given course code, course section, term and student ID.
      * @param userIds the IDs of the students
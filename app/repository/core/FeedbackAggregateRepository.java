@@ -0,0 +1,200 @@
+package repository.core;
+
+import jakarta.persistence.EntityManager;
+import java.util.List;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import models.FeedbackQuestion;
+import models.ReviewTask;
+import models.dto.ScoreAggregateDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import play.db.jpa.JPAApi;
+
+/**
+ * FeedbackAggregateRepository is a singleton class that maintains the FeedbackAggregate rows. The
+ * update methods take the EntityManager of the caller so the aggregates change in the same
+ * transaction as the feedback they summarise.
+ */
+@Singleton
+public class FeedbackAggregateRepository {
+
+  private static final Logger log = LoggerFactory.getLogger(FeedbackAggregateRepository.class);
+
+  // Transaction-scoped lock keyed by the assignment, released on commit or rollback
+  private static final String LOCK_FOR_ASSIGNMENT_SQL =
+      "SELECT COUNT(*) FROM (SELECT pg_advisory_xact_lock(:assignmentId)) AS assignment_lock";
+
+  private static final String DELETE_FOR_ASSIGNMENT_SQL =
+      "DELETE FROM feedback_aggregates WHERE assignment_id = :assignmentId";
+
+  private static final String INSERT_FOR_ASSIGNMENT_SQL =
+      "INSERT INTO feedback_aggregates "
+          + "(assignment_id, reviewee_id, feedback_question_id, "
+          + "score_sum, feedback_count, max_score) "
+          + "SELECT rt.assignment_id, rt.reviewee_id, f.feedback_question_id, "
+          + "SUM(f.score), COUNT(*), MAX(f.score) "
+          + "FROM feedback f JOIN review_tasks rt ON rt.review_task_id = f.review_task_id "
+          + "WHERE rt.assignment_id = :assignmentId AND rt.review_task_for_professor = false "
+          + "GROUP BY rt.assignment_id, rt.reviewee_id, f.feedback_question_id";
+
+  private static final String AGGREGATE_WHERE_JPQL =
+      "WHERE fa.assignment.assignmentId = :assignmentId "
+          + "AND fa.reviewee.userId = :revieweeId "
+          + "AND fa.question.questionId = :questionId";
+
+  private final JPAApi jpaApi;
+
+  @Inject
+  public FeedbackAggregateRepository(JPAApi jpaApi) {
+    this.jpaApi = jpaApi;
+  }
+
+  /**
+   * Applies a change of the score of one feedback to its aggregate. Both updates are single
+   * statements on the aggregate row, so concurrent changes for the same student cannot overwrite
+   * each other: the sum moves by the difference and the maximum is raised to the new score. When
+   * the score was lowered from the maximum, the maximum is recomputed from the feedback while the
+   * first update still holds the row lock. Feedback of review tasks for the professor is ignored.
+   *
+   * @param entityManager the EntityManager of the current transaction
+   * @param reviewTask the review task the feedback belongs to
+   * @param question the question the feedback answers
+   * @param oldScore the score before the change
+   * @param newScore the score after the change
+   */
+  public void applyScoreChange(
+      EntityManager entityManager,
+      ReviewTask reviewTask,
+      FeedbackQuestion question,
+      int oldScore,
+      int newScore) {
+    if (reviewTask.isReviewTaskForProfessor() || oldScore == newScore) {
+      return;
+    }
+
+    Long assignmentId = reviewTask.getAssignment().getAssignmentId();
+    Long revieweeId = reviewTask.getReviewee().getUserId();
+    int updated =
+        entityManager
+            .createQuery(
+                "UPDATE FeedbackAggregate fa "
+                    + "SET fa.scoreSum = fa.scoreSum + :delta, "
+                    + "fa.maxScore = GREATEST(fa.maxScore, :newScore) "
+                    + AGGREGATE_WHERE_JPQL)
+            .setParameter("delta", (long) newScore - oldScore)
+            .setParameter("newScore", newScore)
+            .setParameter("assignmentId", assignmentId)
+            .setParameter("revieweeId", revieweeId)
+            .setParameter("questionId", question.getQuestionId())
+            .executeUpdate();
+
+    if (updated == 0) {
+      // Feedback written before the aggregates existed, build them once for the whole assignment
+      rebuildForAssignment(entityManager, assignmentId);
+      return;
+    }
+
+    if (newScore < oldScore) {
+      entityManager
+          .createQuery(
+              "UPDATE FeedbackAggregate fa SET fa.maxScore = "
+                  + "(SELECT COALESCE(MAX(f.score), 0) FROM Feedback f JOIN f.reviewTask rt "
+                  + "WHERE f.question.questionId = :questionId "
+                  + "AND rt.reviewee.userId = :revieweeId "
+                  + "AND rt.reviewTaskForProfessor = false) "
+                  + AGGREGATE_WHERE_JPQL
+                  + " AND fa.maxScore = :oldScore")
+          .setParameter("oldScore", oldScore)
+          .setParameter("assignmentId", assignmentId)
+          .setParameter("revieweeId", revieweeId)
+          .setParameter("questionId", question.getQuestionId())
+          .executeUpdate();
+    }
+  }
+
+  /**
+   * Recomputes all aggregates of an assignment from its Feedback rows. Rebuilds of the same
+   * assignment are serialised by an advisory lock held until the end of the transaction; without
+   * it the INSERT of a concurrent rebuild would wait on the uncommitted rows of the other one and
+   * then fail on the unique key of the aggregates.
+   *
+   * @param entityManager the EntityManager of the current transaction
+   * @param assignmentId the ID of the assignment
+   */
+  public void rebuildForAssignment(EntityManager entityManager, Long assignmentId) {
+    entityManager.flush();
+    entityManager
+        .createNativeQuery(LOCK_FOR_ASSIGNMENT_SQL)
+        .setParameter("assignmentId", assignmentId)
+        .getSingleResult();
+    entityManager
+        .createNativeQuery(DELETE_FOR_ASSIGNMENT_SQL)
+        .setParameter("assignmentId", assignmentId)
+        .executeUpdate();
+    int rows =
+        entityManager
+            .createNativeQuery(INSERT_FOR_ASSIGNMENT_SQL)
+            .setParameter("assignmentId", assignmentId)
+            .executeUpdate();
+    log.info("Rebuilt {} feedback aggregates for assignment {}", rows, assignmentId);
+  }
+
+  /**
+   * Recomputes all aggregates of an assignment in a transaction of its own.
+   *
+   * @param assignmentId the ID of the assignment
+   */
+  public void rebuildForAssignment(Long assignmentId) {
+    jpaApi.withTransaction(
+        entityManager -> {
+          rebuildForAssignment(entityManager, assignmentId);
+        });
+  }
+
+  /**
+   * Finds the aggregates of an assignment, one row per student and feedback question. If the
+   * assignment has feedback but no aggregates yet, they are built first.
+   *
+   * @param assignmentId the ID of the assignment
+   * @return the list of ScoreAggregateDTO ordered by student and question
+   */
+  public List<ScoreAggregateDTO> findByAssignmentId(Long assignmentId) {
+    return jpaApi.withTransaction(
+        entityManager -> {
+          List<ScoreAggregateDTO> aggregates = queryAggregates(entityManager, assignmentId);
+          if (aggregates.isEmpty() && hasPeerFeedback(entityManager, assignmentId)) {
+            rebuildForAssignment(entityManager, assignmentId);
+            aggregates = queryAggregates(entityManager, assignmentId);
+          }
+          return aggregates;
+        });
+  }
+
+  private List<ScoreAggregateDTO> queryAggregates(
+      EntityManager entityManager, Long assignmentId) {
+    return entityManager
+        .createQuery(
+            "SELECT new models.dto.ScoreAggregateDTO(fa.reviewee.userId, q.questionId, "
+                + "q.questionText, q.kind, q.maxMarks, fa.scoreSum, fa.feedbackCount, fa.maxScore) "
+                + "FROM FeedbackAggregate fa JOIN fa.question q "
+                + "WHERE fa.assignment.assignmentId = :assignmentId "
+                + "ORDER BY fa.reviewee.userId, q.questionId",
+            ScoreAggregateDTO.class)
+        .setParameter("assignmentId", assignmentId)
+        .getResultList();
+  }
+
+  private boolean hasPeerFeedback(EntityManager entityManager, Long assignmentId) {
+    return !entityManager
+        .createQuery(
+            "SELECT f.id FROM Feedback f "
+                + "WHERE f.reviewTask.assignment.assignmentId = :assignmentId "
+                + "AND f.reviewTask.reviewTaskForProfessor = false",
+            Long.class)
+        .setParameter("assignmentId", assignmentId)
+        .setMaxResults(1)
+        .getResultList()
+        .isEmpty();
+  }
+}
@@ -6,11 +6,11 @@ import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
 import java.util.concurrent.Executor;
-import java.util.concurrent.Executors;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 import models.Feedback;
 import play.db.jpa.JPAApi;
+import services.metrics.MetricsRegistry;
 
 /**
  * FeedbackRepository is a singleton class that handles the persistence of Feedback entities in the
@@ -20,11 +20,12 @@ import play.db.jpa.JPAApi;
 @Singleton
 public class FeedbackRepository {
   private final JPAApi jpaApi;
-  private final Executor executor = Executors.newFixedThreadPool(5);
+  private final Executor executor;
 
   @Inject
-  public FeedbackRepository(JPAApi jpaApi) {
+  public FeedbackRepository(JPAApi jpaApi, MetricsRegistry metricsRegistry) {
     this.jpaApi = jpaApi;
+    this.executor = metricsRegistry.newExecutor("feedback-repository", 5);
   }
 
   /**
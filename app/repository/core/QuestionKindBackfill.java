@@ -0,0 +1,68 @@
+package repository.core;
+
+import java.util.List;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import models.enums.QuestionKind;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import play.db.jpa.JPAApi;
+
+/**
+ * QuestionKindBackfill fills in the kind of the feedback questions that were created before the
+ * question_kind column existed. It runs once at startup (bound as an eager singleton) and only
+ * touches rows whose kind is still null, so running it again is a no-op.
+ */
+@Singleton
+public class QuestionKindBackfill {
+
+  private static final Logger log = LoggerFactory.getLogger(QuestionKindBackfill.class);
+
+  private static final String UPDATE_BY_TEXT =
+      "UPDATE FeedbackQuestion q SET q.kind = :kind "
+          + "WHERE q.kind IS NULL AND LOWER(q.questionText) IN :texts";
+
+  private final JPAApi jpaApi;
+
+  @Inject
+  public QuestionKindBackfill(JPAApi jpaApi) {
+    this.jpaApi = jpaApi;
+    try {
+      int updated = backfill();
+      if (updated > 0) {
+        log.info("Backfilled the kind of {} feedback questions", updated);
+      }
+    } catch (Exception e) {
+      log.error("Failed to backfill feedback question kinds - with exception: {}", e.getMessage());
+    }
+  }
+
+  /**
+   * Sets the kind of every feedback question without one, from its text.
+   *
+   * @return the number of updated questions
+   */
+  public int backfill() {
+    return jpaApi.withTransaction(
+        entityManager -> {
+          int updated =
+              entityManager
+                  .createQuery(UPDATE_BY_TEXT)
+                  .setParameter("kind", QuestionKind.PRIVATE_COMMENT)
+                  .setParameter("texts", List.of("private comment for professor"))
+                  .executeUpdate();
+          updated +=
+              entityManager
+                  .createQuery(UPDATE_BY_TEXT)
+                  .setParameter("kind", QuestionKind.OVERALL_COMMENT)
+                  .setParameter("texts", List.of("overall feedback comment", "overall comment"))
+                  .executeUpdate();
+          updated +=
+              entityManager
+                  .createQuery("UPDATE FeedbackQuestion q SET q.kind = :kind WHERE q.kind IS NULL")
+                  .setParameter("kind", QuestionKind.SCORED)
+                  .executeUpdate();
+          return updated;
+        });
+  }
+}
@@ -20,4 +20,14 @@ public interface Repository<T> {
    * @return a CompletionStage containing a map with success and failure counts
    */
   CompletionStage<Map<String, Object>> saveAll(List<T> records, Context context);
+
+  /**
+   * Tells whether the records of one upload can be saved with several calls of saveAll, each with
+   * a part of the records, so that large uploads are saved in chunks as they are read.
+   *
+   * @return true unless saveAll needs all the records of an upload at once
+   */
+  default boolean supportsChunkedSave() {
+    return true;
+  }
 }
@@ -0,0 +1,172 @@
+package repository.core;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import java.util.Collection;
+import java.util.List;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import models.enums.Status;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import play.db.jpa.JPAApi;
+
+/**
+ * ReviewStatusCountRepository is a singleton class that maintains the ReviewStatusCount rows. The
+ * update methods take the EntityManager of the caller so the counts change in the same transaction
+ * as the review tasks they count.
+ */
+@Singleton
+public class ReviewStatusCountRepository {
+
+  private static final Logger log = LoggerFactory.getLogger(ReviewStatusCountRepository.class);
+
+  private static final String COUNT_SELECT_SQL =
+      "SELECT rt.reviewer_id, a.course_code, "
+          + "SUM(CASE WHEN rt.status = 'PENDING' THEN 1 ELSE 0 END), "
+          + "SUM(CASE WHEN rt.status = 'COMPLETED' THEN 1 ELSE 0 END) "
+          + "FROM review_tasks rt JOIN assignments a ON a.assignment_id = rt.assignment_id ";
+
+  private static final String INSERT_SQL =
+      "INSERT INTO review_status_counts (reviewer_id, course_id, pending_count, completed_count) ";
+
+  private static final String DELETE_FOR_COURSES_SQL =
+      "DELETE FROM review_status_counts WHERE course_id IN (:courseIds)";
+
+  private static final String INSERT_FOR_COURSES_SQL =
+      INSERT_SQL
+          + COUNT_SELECT_SQL
+          + "WHERE a.course_code IN (:courseIds) "
+          + "GROUP BY rt.reviewer_id, a.course_code";
+
+  private static final String DELETE_ALL_SQL = "DELETE FROM review_status_counts";
+
+  private static final String INSERT_ALL_SQL =
+      INSERT_SQL + COUNT_SELECT_SQL + "GROUP BY rt.reviewer_id, a.course_code";
+
+  private final JPAApi jpaApi;
+
+  @Inject
+  public ReviewStatusCountRepository(JPAApi jpaApi) {
+    this.jpaApi = jpaApi;
+  }
+
+  /**
+   * Moves one review task of a reviewer from a status to another. A missing count, for review
+   * tasks created before the counts existed, is rebuilt for the whole course instead.
+   *
+   * @param entityManager the EntityManager of the current transaction
+   * @param reviewerId the ID of the reviewer of the review task
+   * @param courseId the ID of the course of the review task
+   * @param oldStatus the status before the change
+   * @param newStatus the status after the change
+   */
+  public void applyStatusChange(
+      EntityManager entityManager,
+      Long reviewerId,
+      Long courseId,
+      Status oldStatus,
+      Status newStatus) {
+    if (oldStatus == newStatus) {
+      return;
+    }
+    int pendingDelta = delta(Status.PENDING, oldStatus, newStatus);
+    int completedDelta = delta(Status.COMPLETED, oldStatus, newStatus);
+    if (pendingDelta == 0 && completedDelta == 0) {
+      return;
+    }
+
+    int updated =
+        entityManager
+            .createQuery(
+                "UPDATE ReviewStatusCount rsc "
+                    + "SET rsc.pendingCount = rsc.pendingCount + :pendingDelta, "
+                    + "rsc.completedCount = rsc.completedCount + :completedDelta "
+                    + "WHERE rsc.id.reviewerId = :reviewerId AND rsc.id.courseId = :courseId")
+            .setParameter("pendingDelta", (long) pendingDelta)
+            .setParameter("completedDelta", (long) completedDelta)
+            .setParameter("reviewerId", reviewerId)
+            .setParameter("courseId", courseId)
+            .executeUpdate();
+    if (updated == 0) {
+      rebuildForCourses(entityManager, List.of(courseId));
+    }
+  }
+
+  private static int delta(Status counted, Status oldStatus, Status newStatus) {
+    return (newStatus == counted ? 1 : 0) - (oldStatus == counted ? 1 : 0);
+  }
+
+  /**
+   * Recomputes the counts of some courses from their review tasks.
+   *
+   * @param entityManager the EntityManager of the current transaction
+   * @param courseIds the IDs of the courses
+   */
+  public void rebuildForCourses(EntityManager entityManager, Collection<Long> courseIds) {
+    if (courseIds.isEmpty()) {
+      return;
+    }
+    entityManager.flush();
+    entityManager
+        .createNativeQuery(DELETE_FOR_COURSES_SQL)
+        .setParameter("courseIds", courseIds)
+        .executeUpdate();
+    int rows =
+        entityManager
+            .createNativeQuery(INSERT_FOR_COURSES_SQL)
+            .setParameter("courseIds", courseIds)
+            .executeUpdate();
+    log.info("Rebuilt {} review status counts for courses {}", rows, courseIds);
+  }
+
+  /**
+   * Recomputes every count from the review tasks in a transaction of its own, to repair the
+   * counts or to fill them for review tasks created before they existed.
+   *
+   * @return the number of counts written
+   */
+  public int rebuildAll() {
+    return jpaApi.withTransaction(
+        entityManager -> {
+          entityManager.createNativeQuery(DELETE_ALL_SQL).executeUpdate();
+          int rows = entityManager.createNativeQuery(INSERT_ALL_SQL).executeUpdate();
+          log.info("Rebuilt all {} review status counts", rows);
+          return rows;
+        });
+  }
+
+  /**
+   * Reads the number of review tasks of a reviewer in a status, summed over the counts of the
+   * reviewer, which share the reviewer as the leading column of their primary key.
+   *
+   * @param entityManager the EntityManager of the current transaction
+   * @param reviewerId the ID of the reviewer
+   * @param courseCode the course code, or null for all the courses of the reviewer
+   * @param status PENDING or COMPLETED
+   * @return the number of review tasks
+   */
+  public int countByReviewer(
+      EntityManager entityManager, Long reviewerId, String courseCode, Status status) {
+    if (status != Status.PENDING && status != Status.COMPLETED) {
+      return 0;
+    }
+    String counted = status == Status.COMPLETED ? "rsc.completedCount" : "rsc.pendingCount";
+    String queryString =
+        "SELECT SUM(" + counted + ") FROM ReviewStatusCount rsc "
+            + "WHERE rsc.id.reviewerId = :reviewerId"
+            + (courseCode == null
+                ? ""
+                : " AND rsc.id.courseId IN "
+                    + "(SELECT c.courseId FROM Course c WHERE c.courseCode = :courseCode)");
+    TypedQuery<Long> query =
+        entityManager
+            .createQuery(queryString, Long.class)
+            .setParameter("reviewerId", reviewerId);
+    if (courseCode != null) {
+      query.setParameter("courseCode", courseCode);
+    }
+    Long count = query.getSingleResult();
+    return count == null ? 0 : count.intValue();
+  }
+}
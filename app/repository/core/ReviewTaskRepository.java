@@ -1,22 +1,33 @@
 package repository.core;
 
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import javax.inject.Inject;
 import models.Assignment;
 import models.Course;
 import models.Feedback;
 import models.ReviewTask;
+import models.User;
 import models.dto.Context;
 import models.dto.FeedbackDTO;
+import models.dto.FeedbackRowDTO;
 import models.dto.ReviewTaskDTO;
+import models.dto.ScoreCellDTO;
+import models.dto.SubmissionTotalsDTO;
+import models.enums.QuestionKind;
 import models.enums.Status;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import play.db.jpa.JPAApi;
+import services.cache.DashboardCache;
+import services.cache.DataVersionRegistry;
+import services.core.AssignmentStatusScheduler;
+import services.dashboard.ReviewProgressHub;
+import services.metrics.MetricsRegistry;
 
 /**
  * ReviewTaskRepository is a singleton class that handles the persistence of ReviewTask entities in
@@ -27,12 +38,25 @@ public class ReviewTaskRepository implements Repository<ReviewTask> {
 
     private static final Logger log = LoggerFactory.getLogger(ReviewTaskRepository.class);
     private final JPAApi jpaApi;
-    private final ExecutorService executor = Executors.newFixedThreadPool(5);
+    private final DataVersionRegistry dataVersionRegistry;
+    private final FeedbackAggregateRepository feedbackAggregateRepository;
+    private final AssignmentStatusScheduler assignmentStatusScheduler;
+    private final DashboardCache dashboardCache;
+    private final ReviewStatusCountRepository reviewStatusCountRepository;
+    private final ReviewProgressHub reviewProgressHub;
+    private final ExecutorService executor;
 
 
     @Inject
-    public ReviewTaskRepository(JPAApi jpaApi) {
+    public ReviewTaskRepository(JPAApi jpaApi, DataVersionRegistry dataVersionRegistry, FeedbackAggregateRepository feedbackAggregateRepository, AssignmentStatusScheduler assignmentStatusScheduler, DashboardCache dashboardCache, ReviewStatusCountRepository reviewStatusCountRepository, ReviewProgressHub reviewProgressHub, MetricsRegistry metricsRegistry) {
         this.jpaApi = jpaApi;
+        this.dataVersionRegistry = dataVersionRegistry;
+        this.feedbackAggregateRepository = feedbackAggregateRepository;
+        this.assignmentStatusScheduler = assignmentStatusScheduler;
+        this.dashboardCache = dashboardCache;
+        this.reviewStatusCountRepository = reviewStatusCountRepository;
+        this.reviewProgressHub = reviewProgressHub;
+        this.executor = metricsRegistry.newExecutor("review-task-repository", 5);
     }
 
     /**
@@ -49,7 +73,8 @@ public class ReviewTaskRepository implements Repository<ReviewTask> {
         String term = context.getTerm();
 
         return CompletableFuture.supplyAsync(() -> {
-            return jpaApi.withTransaction(entityManager -> {
+            List<Long> processedAssignmentIds = new ArrayList<>();
+            Map<String, Object> saveResult = jpaApi.withTransaction(entityManager -> {
                 Course course = entityManager.createQuery(
                                 "SELECT c FROM Course c WHERE c.courseCode = :courseCode AND c.courseSection = :section AND c.term = :term", Course.class)
                         .setParameter("courseCode", courseCode)
@@ -79,7 +104,7 @@ public class ReviewTaskRepository implements Repository<ReviewTask> {
                             List<Feedback> feedbacks = new ArrayList<>();
                             if(!reviewTask.isReviewTaskForProfessor()){
                                 feedbacks = assignment.getFeedbackQuestions().stream()
-                                        .filter(feedbackQuestion -> !feedbackQuestion.getQuestionText().equalsIgnoreCase("Private Comment for Professor"))
+                                        .filter(feedbackQuestion -> feedbackQuestion.getKind() != QuestionKind.PRIVATE_COMMENT)
                                         .map(question -> {
                                     Feedback feedback = new Feedback();
                                     feedback.setQuestion(question);
@@ -91,7 +116,7 @@ public class ReviewTaskRepository implements Repository<ReviewTask> {
                             }
                             else{
                                 feedbacks = assignment.getFeedbackQuestions().stream()
-                                        .filter(feedbackQuestion -> feedbackQuestion.getQuestionText().equalsIgnoreCase("Private Comment for Professor"))
+                                        .filter(feedbackQuestion -> feedbackQuestion.getKind() == QuestionKind.PRIVATE_COMMENT)
                                         .map(question -> {
                                             Feedback feedback = new Feedback();
                                             feedback.setQuestion(question);
@@ -113,6 +138,7 @@ public class ReviewTaskRepository implements Repository<ReviewTask> {
                         entityManager.merge(assignment); // cascade persists review tasks and feedbacks
 
                         successCount += reviewTasks.size();
+                        processedAssignmentIds.add(assignment.getAssignmentId());
                         log.info("Attached {} review tasks to assignment {}", reviewTasks.size(), assignment.getAssignmentId());
                     } catch (Exception e) {
                         log.error("Failed to attach review tasks to assignment {}", assignment.getAssignmentId(), e);
@@ -120,6 +146,17 @@ public class ReviewTaskRepository implements Repository<ReviewTask> {
                     }
                 }
 
+                // Start the score aggregates of the new feedbacks in the same transaction
+                processedAssignmentIds.forEach(assignmentId -> feedbackAggregateRepository.rebuildForAssignment(entityManager, assignmentId));
+
+                // Count the new pending review tasks of the reviewers in the same transaction
+                if (!processedAssignmentIds.isEmpty()) {
+                    reviewStatusCountRepository.rebuildForCourses(entityManager, List.of(course.getCourseId()));
+                }
+
+                // The uploaded assignments are now peer assigned, which can make them active
+                assignmentStatusScheduler.recompute(entityManager, processedAssignmentIds);
+
                 Map<String, Object> result = new HashMap<>();
                 result.put("successCount", successCount);
                 result.put("failedAssignments", failedAssignmentIds);
@@ -127,9 +164,24 @@ public class ReviewTaskRepository implements Repository<ReviewTask> {
 
                 return result;
             });
+
+            // The new review tasks change the reports of these assignments
+            processedAssignmentIds.forEach(dataVersionRegistry::bumpAssignment);
+            return saveResult;
         }, executor);
     }
 
+    /**
+     * Review tasks cannot be saved in chunks, saveAll replaces the review tasks of every assignment
+     * of the course that is not peer assigned yet with the records it is given.
+     *
+     * @return false
+     */
+    @Override
+    public boolean supportsChunkedSave() {
+        return false;
+    }
+
     /**
      * Finds review tasks by assignment ID.
      *
@@ -158,24 +210,280 @@ public class ReviewTaskRepository implements Repository<ReviewTask> {
     }
 
     /**
-     * Finds review tasks by assignment ID and status.
+     * Loads everything a report needs for an assignment in a single round trip: the review tasks
+     * together with their assignment, course, reviewer, reviewee, feedbacks and feedback questions.
+     *
+     * @param assignmentId the ID of the assignment
+     * @return an Optional containing the fully initialised review tasks, or an empty Optional on failure
+     */
+    public Optional<List<ReviewTask>> findReportDataByAssignmentId(Long assignmentId) {
+        try{
+            return jpaApi.withTransaction(entityManager -> {
+                List<ReviewTask> reviewTasks = entityManager.createQuery(
+                                "SELECT DISTINCT rt FROM ReviewTask rt " +
+                                        "JOIN FETCH rt.assignment a " +
+                                        "JOIN FETCH a.course c " +
+                                        "JOIN FETCH c.professor " +
+                                        "JOIN FETCH rt.reviewer " +
+                                        "JOIN FETCH rt.reviewee " +
+                                        "LEFT JOIN FETCH rt.feedbacks f " +
+                                        "LEFT JOIN FETCH f.question " +
+                                        "WHERE a.assignmentId = :assignmentId", ReviewTask.class)
+                        .setParameter("assignmentId", assignmentId)
+                        .getResultList();
+                log.info("Loaded {} review tasks with feedbacks for assignmentId {}", reviewTasks.size(), assignmentId);
+                return Optional.of(reviewTasks);
+            });
+        }catch (Exception e) {
+            log.error("failed to load report data for assignmentId {} - with exception: {}", assignmentId, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Loads the report data of the group a student belongs to for an assignment: the review tasks of
+     * that group only, with the same associations as {@link #findReportDataByAssignmentId(Long)}.
+     *
+     * @param assignmentId the ID of the assignment
+     * @param userId the ID of the student
+     * @return an Optional containing the review tasks of the student's group (empty list if the
+     *         student has no review tasks), or an empty Optional on failure
+     */
+    public Optional<List<ReviewTask>> findGroupReportDataByAssignmentIdAndUserId(Long assignmentId, Long userId) {
+        try{
+            return jpaApi.withTransaction(entityManager -> {
+                List<ReviewTask> reviewTasks = entityManager.createQuery(
+                                "SELECT DISTINCT rt FROM ReviewTask rt " +
+                                        "JOIN FETCH rt.assignment a " +
+                                        "JOIN FETCH a.course c " +
+                                        "JOIN FETCH c.professor " +
+                                        "JOIN FETCH rt.reviewer " +
+                                        "JOIN FETCH rt.reviewee " +
+                                        "LEFT JOIN FETCH rt.feedbacks f " +
+                                        "LEFT JOIN FETCH f.question " +
+                                        "WHERE a.assignmentId = :assignmentId " +
+                                        "AND rt.groupId IN (SELECT own.groupId FROM ReviewTask own " +
+                                        "WHERE own.assignment.assignmentId = :assignmentId " +
+                                        "AND own.reviewer.userId = :userId)", ReviewTask.class)
+                        .setParameter("assignmentId", assignmentId)
+                        .setParameter("userId", userId)
+                        .getResultList();
+                log.info("Loaded {} review tasks of the group of user {} for assignmentId {}", reviewTasks.size(), userId, assignmentId);
+                return Optional.of(reviewTasks);
+            });
+        }catch (Exception e) {
+            log.error("failed to load group report data for assignmentId {} and userId {} - with exception: {}", assignmentId, userId, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Finds one page of the group IDs of an assignment, in ascending order and after the cursor.
+     * Groups can be filtered by status (PENDING: at least one review task is pending, COMPLETED:
+     * none is) and by the start of their name, ignoring case.
+     *
+     * @param assignmentId the ID of the assignment
+     * @param afterGroupId the group ID the page starts after, or null for the first page
+     * @param limit the maximum number of group IDs to return
+     * @param status the status filter, or null for all groups
+     * @param groupNamePrefix the group name prefix filter, or null for all groups
+     * @return the list of group IDs of the page, empty on failure
+     */
+    public List<Long> findGroupIdsPage(Long assignmentId, Long afterGroupId, int limit, Status status, String groupNamePrefix) {
+        StringBuilder queryString = new StringBuilder(
+                "SELECT rt.groupId FROM ReviewTask rt WHERE rt.assignment.assignmentId = :assignmentId ");
+        if (afterGroupId != null) {
+            queryString.append("AND rt.groupId > :afterGroupId ");
+        }
+        if (groupNamePrefix != null) {
+            queryString.append("AND LOWER(rt.groupName) LIKE :groupNamePattern ESCAPE '\\' ");
+        }
+        queryString.append("GROUP BY rt.groupId ");
+        if (status == Status.PENDING) {
+            queryString.append("HAVING SUM(CASE WHEN rt.status = models.enums.Status.PENDING THEN 1 ELSE 0 END) > 0 ");
+        } else if (status == Status.COMPLETED) {
+            queryString.append("HAVING SUM(CASE WHEN rt.status = models.enums.Status.PENDING THEN 1 ELSE 0 END) = 0 ");
+        }
+        queryString.append("ORDER BY rt.groupId");
+
+        try{
+            return jpaApi.withTransaction(entityManager -> {
+                TypedQuery<Long> query = entityManager.createQuery(queryString.toString(), Long.class)
+                        .setParameter("assignmentId", assignmentId)
+                        .setMaxResults(limit);
+                if (afterGroupId != null) {
+                    query.setParameter("afterGroupId", afterGroupId);
+                }
+                if (groupNamePrefix != null) {
+                    String escaped = groupNamePrefix.toLowerCase()
+                            .replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+                    query.setParameter("groupNamePattern", escaped + "%");
+                }
+                return query.getResultList();
+            });
+        }catch (Exception e) {
+            log.error("failed to load group page for assignmentId {} - with exception: {}", assignmentId, e.getMessage());
+            return Collections.emptyList();
+        }
+    }
+
+    /**
+     * Loads the report data of some groups of an assignment, with the same associations as
+     * {@link #findReportDataByAssignmentId(Long)}.
+     *
+     * @param assignmentId the ID of the assignment
+     * @param groupIds the IDs of the groups to load
+     * @return an Optional containing the review tasks of the groups, or an empty Optional on failure
+     */
+    public Optional<List<ReviewTask>> findReportDataByAssignmentIdAndGroupIds(Long assignmentId, Collection<Long> groupIds) {
+        if (groupIds.isEmpty()) {
+            return Optional.of(Collections.emptyList());
+        }
+        try{
+            return jpaApi.withTransaction(entityManager -> {
+                List<ReviewTask> reviewTasks = entityManager.createQuery(
+                                "SELECT DISTINCT rt FROM ReviewTask rt " +
+                                        "JOIN FETCH rt.assignment a " +
+                                        "JOIN FETCH a.course c " +
+                                        "JOIN FETCH c.professor " +
+                                        "JOIN FETCH rt.reviewer " +
+                                        "JOIN FETCH rt.reviewee " +
+                                        "LEFT JOIN FETCH rt.feedbacks f " +
+                                        "LEFT JOIN FETCH f.question " +
+                                        "WHERE a.assignmentId = :assignmentId " +
+                                        "AND rt.groupId IN :groupIds", ReviewTask.class)
+                        .setParameter("assignmentId", assignmentId)
+                        .setParameter("groupIds", groupIds)
+                        .getResultList();
+                log.info("Loaded {} review tasks of {} groups for assignmentId {}", reviewTasks.size(), groupIds.size(), assignmentId);
+                return Optional.of(reviewTasks);
+            });
+        }catch (Exception e) {
+            log.error("failed to load group report data for assignmentId {} - with exception: {}", assignmentId, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Counts the students of an assignment and those of them with at least one pending review task,
+     * in a single aggregate query.
+     *
+     * @param assignmentId the ID of the assignment
+     * @return the SubmissionTotalsDTO of the assignment, zero totals on failure
+     */
+    public SubmissionTotalsDTO findSubmissionTotalsByAssignmentId(Long assignmentId) {
+        try{
+            return jpaApi.withTransaction(entityManager -> entityManager.createQuery(
+                            "SELECT new models.dto.SubmissionTotalsDTO(COUNT(DISTINCT rv.userId), " +
+                                    "COUNT(DISTINCT CASE WHEN rt.status = models.enums.Status.PENDING THEN rv.userId END)) " +
+                                    "FROM ReviewTask rt JOIN rt.reviewer rv " +
+                                    "WHERE rt.assignment.assignmentId = :assignmentId", SubmissionTotalsDTO.class)
+                    .setParameter("assignmentId", assignmentId)
+                    .getSingleResult());
+        }catch (Exception e) {
+            log.error("failed to count submissions for assignmentId {} - with exception: {}", assignmentId, e.getMessage());
+            return new SubmissionTotalsDTO(0L, 0L);
+        }
+    }
+
+    /**
+     * Loads the review tasks of an assignment with their assignment, course, reviewer and reviewee,
+     * but without their feedbacks. Used by the database aggregation mode, which reads the feedbacks
+     * as rows instead.
+     *
+     * @param assignmentId the ID of the assignment
+     * @return an Optional containing the review tasks, or an empty Optional on failure
+     */
+    public Optional<List<ReviewTask>> findReportTasksByAssignmentId(Long assignmentId) {
+        try{
+            return jpaApi.withTransaction(entityManager -> {
+                List<ReviewTask> reviewTasks = entityManager.createQuery(
+                                "SELECT rt FROM ReviewTask rt " +
+                                        "JOIN FETCH rt.assignment a " +
+                                        "JOIN FETCH a.course c " +
+                                        "JOIN FETCH c.professor " +
+                                        "JOIN FETCH rt.reviewer " +
+                                        "JOIN FETCH rt.reviewee " +
+                                        "WHERE a.assignmentId = :assignmentId", ReviewTask.class)
+                        .setParameter("assignmentId", assignmentId)
+                        .getResultList();
+                return Optional.of(reviewTasks);
+            });
+        }catch (Exception e) {
+            log.error("failed to load report tasks for assignmentId {} - with exception: {}", assignmentId, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Reads the feedbacks of an assignment as flat rows, without loading Feedback entities or their
+     * review task, question and user associations.
+     *
+     * @param assignmentId the ID of the assignment
+     * @return an Optional containing the list of FeedbackRowDTO ordered by review task and question,
+     * or an empty Optional on failure
+     */
+    public Optional<List<FeedbackRowDTO>> findFeedbackRowsByAssignmentId(Long assignmentId) {
+        try{
+            return jpaApi.withTransaction(entityManager -> Optional.of(entityManager.createQuery(
+                            "SELECT new models.dto.FeedbackRowDTO(rt.reviewTaskId, f.id, f.score, q.maxMarks, " +
+                                    "f.feedbackText, q.questionText, q.kind, rv.userId, rv.firstName, rv.lastName) " +
+                                    "FROM Feedback f JOIN f.reviewTask rt JOIN rt.reviewer rv JOIN f.question q " +
+                                    "WHERE rt.assignment.assignmentId = :assignmentId " +
+                                    "ORDER BY rt.reviewTaskId, q.questionId", FeedbackRowDTO.class)
+                    .setParameter("assignmentId", assignmentId)
+                    .getResultList()));
+        }catch (Exception e) {
+            log.error("failed to load feedback rows for assignmentId {} - with exception: {}", assignmentId, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Computes the evaluation matrix cells of an assignment in the database: the total score each
+     * review task gave for each scored question. The cells are grouped by IDs, never by reviewer
+     * names or question texts, so reviewers with the same name or questions with the same text keep
+     * cells of their own and the first one wins like in the matrix built from the feedbacks. Only
+     * SCORED questions are part of the matrix.
+     *
+     * @param assignmentId the ID of the assignment
+     * @return an Optional containing the list of ScoreCellDTO ordered by group, reviewee, review task
+     * and question, or an empty Optional on failure
+     */
+    public Optional<List<ScoreCellDTO>> findScoreCellsByAssignmentId(Long assignmentId) {
+        try{
+            return jpaApi.withTransaction(entityManager -> Optional.of(entityManager.createQuery(
+                            "SELECT new models.dto.ScoreCellDTO(rt.groupId, re.userId, rv.firstName, rv.lastName, " +
+                                    "q.questionId, q.questionText, SUM(f.score)) " +
+                                    "FROM Feedback f JOIN f.reviewTask rt JOIN rt.reviewer rv JOIN rt.reviewee re " +
+                                    "JOIN f.question q " +
+                                    "WHERE rt.assignment.assignmentId = :assignmentId " +
+                                    "AND q.kind = models.enums.QuestionKind.SCORED " +
+                                    "GROUP BY rt.groupId, re.userId, rt.reviewTaskId, q.questionId, " +
+                                    "rv.firstName, rv.lastName, q.questionText " +
+                                    "ORDER BY rt.groupId, re.userId, rt.reviewTaskId, q.questionId", ScoreCellDTO.class)
+                    .setParameter("assignmentId", assignmentId)
+                    .getResultList()));
+        }catch (Exception e) {
+            log.error("failed to compute score cells for assignmentId {} - with exception: {}", assignmentId, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Counts the review tasks of a student in a status, from the maintained review status counts.
      * @param userId the ID of the user
      * @param status the status of the review task
      * @return a CompletableFuture containing the count of review tasks
      */
     public CompletableFuture<Integer> findReviewCountByStudentIdAndStatus(Long userId, Status status) {
-        return CompletableFuture.supplyAsync(() -> jpaApi.withTransaction(entityManager -> {
-            String queryString = "SELECT COUNT(rt) FROM ReviewTask rt WHERE rt.reviewer.userId = :userId AND rt.status = :status";
-            Long count = entityManager.createQuery(queryString, Long.class)
-                    .setParameter("userId", userId)
-                    .setParameter("status", status)
-                    .getSingleResult();
-            return count.intValue();
-        }), executor);
+        return CompletableFuture.supplyAsync(() -> jpaApi.withTransaction(entityManager ->
+                reviewStatusCountRepository.countByReviewer(entityManager, userId, null, status)), executor);
     }
 
     /**
-     * Finds review tasks by student ID and status for a specific course.
+     * Counts the review tasks of a student in a status for a specific course, from the maintained
+     * review status counts.
      *
      * @param userId the ID of the student
      * @param courseCode the course code
@@ -183,15 +491,8 @@ public class ReviewTaskRepository implements Repository<ReviewTask> {
      * @return a CompletableFuture containing the count of review tasks
      */
     public CompletableFuture<Integer> findReviewCountByStudentIdAndStatusForCourse(Long userId, String courseCode, Status status) {
-        return CompletableFuture.supplyAsync(() -> jpaApi.withTransaction(entityManager -> {
-            String queryString = "SELECT COUNT(rt) FROM ReviewTask rt WHERE rt.reviewer.userId = :userId AND rt.status = :status AND rt.assignment.course.courseCode = :courseCode";
-            Long count = entityManager.createQuery(queryString, Long.class)
-                    .setParameter("userId", userId)
-                    .setParameter("status", status)
-                    .setParameter("courseCode", courseCode)
-                    .getSingleResult();
-            return count.intValue();
-        }), executor);
+        return CompletableFuture.supplyAsync(() -> jpaApi.withTransaction(entityManager ->
+                reviewStatusCountRepository.countByReviewer(entityManager, userId, courseCode, status)), executor);
     }
 
     /**
@@ -200,24 +501,68 @@ public class ReviewTaskRepository implements Repository<ReviewTask> {
      * @param reviewTaskDTO the DTO containing review task and feedback information
      */
     public void saveReviewTaskFeedback(ReviewTaskDTO reviewTaskDTO) {
-        jpaApi.withTransaction(entityManager -> {
+        Set<Long> affectedUserIds = new HashSet<>();
+        List<Runnable> progressUpdates = new ArrayList<>();
+        Long assignmentId = jpaApi.withTransaction(entityManager -> {
+            Long updatedAssignmentId = null;
 
             // Update feedback entries
             for (FeedbackDTO feedbackDTO : reviewTaskDTO.getFeedbacks()) {
                 Feedback feedback = entityManager.find(Feedback.class, feedbackDTO.getFeedbackId());
                 if (feedback != null) {
+                    int oldScore = feedback.getScore();
                     feedback.setFeedbackText(feedbackDTO.getFeedbackText());
                     feedback.setScore(feedbackDTO.getObtainedScore());
                     entityManager.merge(feedback);
+
+                    // Keep the score aggregates in step with the feedback in this transaction
+                    feedbackAggregateRepository.applyScoreChange(entityManager, feedback.getReviewTask(), feedback.getQuestion(), oldScore, feedback.getScore());
                 }
 
                 // Update review task status
                 ReviewTask reviewTask = entityManager.find(ReviewTask.class, reviewTaskDTO.getReviewTaskId());
                 if (reviewTask != null) {
+                    Status oldStatus = reviewTask.getStatus();
                     reviewTask.setStatus(reviewTaskDTO.getReviewStatus());
                     entityManager.merge(reviewTask);
+                    reviewStatusCountRepository.applyStatusChange(entityManager, reviewTask.getReviewer().getUserId(),
+                            reviewTask.getAssignment().getCourse().getCourseId(), oldStatus, reviewTask.getStatus());
+                    updatedAssignmentId = reviewTask.getAssignment().getAssignmentId();
+                    addProgressUpdate(progressUpdates, reviewTask, oldStatus);
+                    addUserId(affectedUserIds, reviewTask.getReviewer());
+                    addUserId(affectedUserIds, reviewTask.getReviewee());
+                    addUserId(affectedUserIds, reviewTask.getAssignment().getCourse().getProfessor());
                 }
             }
+            return updatedAssignmentId;
         });
+
+        // Bump after the commit so reports built from now on see the new feedback
+        dataVersionRegistry.bumpAssignment(assignmentId);
+        // The review counts of the reviewer, the feedbacks of the reviewee and the progress seen by the professor changed
+        dashboardCache.invalidateUsers(affectedUserIds);
+        // Push the progress change to the professor once it is committed
+        progressUpdates.forEach(Runnable::run);
+    }
+
+    /**
+     * Prepares the progress event of a review task status change, for the professor of the
+     * assignment. Only a change to or from completed moves the progress.
+     */
+    private void addProgressUpdate(List<Runnable> progressUpdates, ReviewTask reviewTask, Status oldStatus) {
+        User professor = reviewTask.getAssignment().getCourse().getProfessor();
+        if ((reviewTask.getStatus() == Status.COMPLETED) == (oldStatus == Status.COMPLETED) || professor == null) {
+            return;
+        }
+
+        Long professorId = professor.getUserId();
+        Long assignmentId = reviewTask.getAssignment().getAssignmentId();
+        progressUpdates.add(() -> reviewProgressHub.publish(professorId, assignmentId));
+    }
+
+    private static void addUserId(Set<Long> userIds, User user) {
+        if (user != null) {
+            userIds.add(user.getUserId());
+        }
     }
 }
@@ -1,10 +1,10 @@
 package repository.core;
 
+import jakarta.persistence.Query;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.stream.Collectors;
 import javax.inject.Inject;
 import javax.inject.Singleton;
@@ -13,6 +13,7 @@ import models.dto.Context;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import play.db.jpa.JPAApi;
+import services.metrics.MetricsRegistry;
 
 /**
  * UserRepository is a singleton class that handles the persistence of User entities in the database.
@@ -23,13 +24,15 @@ import play.db.jpa.JPAApi;
 public class UserRepository implements Repository<User> {
 
     private static final Logger log = LoggerFactory.getLogger(UserRepository.class);
+    private static final int ID_QUERY_CHUNK_SIZE = 1000;
     private final JPAApi jpaApi;
-    private final ExecutorService executorService = Executors.newFixedThreadPool(5);
+    private final ExecutorService executorService;
 
 
     @Inject
-    public  UserRepository(JPAApi jpaApi) {
+    public  UserRepository(JPAApi jpaApi, MetricsRegistry metricsRegistry) {
         this.jpaApi = jpaApi;
+        this.executorService = metricsRegistry.newExecutor("user-repository", 5);
     }
 
     /**
@@ -154,22 +157,85 @@ public class UserRepository implements Repository<User> {
     }
 
     /**
-     * Finds all users by a list of user IDs.
+     * Finds which of the given user IDs belong to existing users, with one query per chunk of IDs
+     * in a single transaction.
+     *
+     * @param userIds the user IDs to look for
+     * @return the IDs of the existing users among them
+     */
+    public List<Long> findExistingUserIds(List<Long> userIds) {
+        if (userIds.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return jpaApi.withTransaction(entityManager -> {
+            List<Long> existingIds = new ArrayList<>();
+            for (int i = 0; i < userIds.size(); i += ID_QUERY_CHUNK_SIZE) {
+                existingIds.addAll(entityManager.createQuery("SELECT u.userId FROM User u WHERE u.userId IN :userIds", Long.class)
+                        .setParameter("userIds", userIds.subList(i, Math.min(i + ID_QUERY_CHUNK_SIZE, userIds.size())))
+                        .getResultList());
+            }
+            log.debug("{} of {} user ids exist", existingIds.size(), userIds.size());
+            return existingIds;
+        });
+    }
+
+    /**
+     * Inserts the users whose IDs do not exist yet and leaves the existing ones as they are, with
+     * one statement per chunk of users in a single transaction.
+     *
+     * @param users the users to insert, with distinct IDs
+     * @return the number of users inserted
+     */
+    public int insertMissingUsers(List<User> users) {
+        if (users.isEmpty()) {
+            return 0;
+        }
+        return jpaApi.withTransaction(entityManager -> {
+            int inserted = 0;
+            for (int i = 0; i < users.size(); i += ID_QUERY_CHUNK_SIZE) {
+                List<User> chunk = users.subList(i, Math.min(i + ID_QUERY_CHUNK_SIZE, users.size()));
+                StringJoiner rows = new StringJoiner(", ");
+                chunk.forEach(user -> rows.add("(?, ?, ?, ?, ?, ?)"));
+                Query insert = entityManager.createNativeQuery(
+                        "INSERT INTO users (user_id, email, password, first_name, last_name, role) VALUES "
+                                + rows + " ON CONFLICT (user_id) DO NOTHING");
+                int position = 1;
+                for (User user : chunk) {
+                    insert.setParameter(position++, user.getUserId());
+                    insert.setParameter(position++, user.getEmail());
+                    insert.setParameter(position++, user.getPassword());
+                    insert.setParameter(position++, user.getFirstName());
+                    insert.setParameter(position++, user.getLastName());
+                    insert.setParameter(position++, user.getRole());
+                }
+                inserted += insert.executeUpdate();
+            }
+            log.info("Inserted {} of {} users", inserted, users.size());
+            return inserted;
+        });
+    }
+
+    /**
+     * Finds all users by a list of user IDs, with one query per chunk of IDs in a single
+     * transaction.
      *
      * @param list the list of user IDs to find
      * @return a list of User objects
      */
     public List<User> findAllByUserIds(List<Long> list) {
         return jpaApi.withTransaction(entityManager -> {
-            List<User> users = entityManager.createQuery("SELECT u FROM User u WHERE u.userId IN :userIds", User.class)
-                    .setParameter("userIds", list)
-                    .getResultList();
+            List<User> users = new ArrayList<>();
+            for (int i = 0; i < list.size(); i += ID_QUERY_CHUNK_SIZE) {
+                users.addAll(entityManager.createQuery("SELECT u FROM User u WHERE u.userId IN :userIds", User.class)
+                        .setParameter("userIds", list.subList(i, Math.min(i + ID_QUERY_CHUNK_SIZE, list.size())))
+                        .getResultList());
+            }
             if(!users.isEmpty()){
-                log.info("Users with ids {} found", list);
+                log.debug("Users with ids {} found", list);
                 return users;
             }
             else{
-                log.info("Users with ids {} not found", list);
+                log.debug("Users with ids {} not found", list);
                 return Collections.emptyList();
             }
         });
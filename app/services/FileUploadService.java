@@ -9,6 +9,7 @@ import javax.inject.Inject;
 import javax.inject.Singleton;
 import models.dto.Context;
 import models.enums.FileType;
+import services.cache.DashboardCache;
 import services.processors.Processor;
 import services.processors.ProcessorStrategy;
 
@@ -20,10 +21,12 @@ import services.processors.ProcessorStrategy;
 public class FileUploadService {
 
   private final ProcessorStrategy processorStrategy;
+  private final DashboardCache dashboardCache;
 
   @Inject
-  public FileUploadService(ProcessorStrategy processorStrategy) {
+  public FileUploadService(ProcessorStrategy processorStrategy, DashboardCache dashboardCache) {
     this.processorStrategy = processorStrategy;
+    this.dashboardCache = dashboardCache;
   }
 
   /**
@@ -70,7 +73,8 @@ public class FileUploadService {
 
   /**
    * Saves the processed file data using the specified processor. It returns a CompletableFuture
-   * containing the result of the save operation.
+   * containing the result of the save operation. Uploads change the dashboards of many users, so
+   * the cached dashboards are dropped once the save has finished, even when it partially failed.
    *
    * @param processor the processor to use for saving the processed data
    * @param processedData the processed data to be saved
@@ -79,7 +83,26 @@ public class FileUploadService {
    */
   public <T> CompletableFuture<String> saveProcessedFileData(
       Processor<T, Path> processor, List<T> processedData, Context context) {
-    return processor.saveProcessedData(processedData, context);
+    return processor
+        .saveProcessedData(processedData, context)
+        .whenComplete((message, ex) -> dashboardCache.invalidateAll());
+  }
+
+  /**
+   * Processes the file and saves its valid data with the specified processor, which may save it
+   * in chunks while the file is read. Like saveProcessedFileData, the cached dashboards are dropped
+   * once the upload has finished, even when it partially failed.
+   *
+   * @param processor the processor to use for processing and saving the file
+   * @param file the file to be processed
+   * @param context the context in which the processing is performed
+   * @return a CompletableFuture containing the result of the save operation
+   */
+  public <T> CompletableFuture<String> processAndSaveFile(
+      Processor<T, Path> processor, File file, Context context) {
+    return processor
+        .processAndSave(file.toPath(), context)
+        .whenComplete((message, ex) -> dashboardCache.invalidateAll());
   }
 
   /**
@@ -0,0 +1,307 @@
+package services.cache;
+
+import com.typesafe.config.Config;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * DashboardCache keeps the assembled data of recently viewed dashboards in memory, per user and
+ * filter. An entry younger than the TTL is served as is; an older one is still served during the
+ * stale window while a single background load refreshes it, so a page load only waits on the
+ * database on a first visit or after a long absence. Uploads, assignment changes and review
+ * submissions invalidate the affected users explicitly; a load started before an invalidation is
+ * returned to its caller but never cached.
+ */
+@Singleton
+public class DashboardCache {
+
+  private static final Logger log = LoggerFactory.getLogger(DashboardCache.class);
+  private static final String TTL_PATH = "dashboard.cache.ttl";
+  private static final String STALE_WINDOW_PATH = "dashboard.cache.staleWindow";
+  private static final String MAX_ENTRIES_PATH = "dashboard.cache.maxEntries";
+  private static final long DEFAULT_TTL_MILLIS = 30_000L;
+  private static final long DEFAULT_STALE_WINDOW_MILLIS = 300_000L;
+  private static final int DEFAULT_MAX_ENTRIES = 10_000;
+
+  private final long ttlNanos;
+  private final long staleWindowNanos;
+  private final int maxEntries;
+  private final LongSupplier ticker;
+  private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+
+  private final ConcurrentMap<Long, ConcurrentMap<String, Entry>> entriesByUser =
+      new ConcurrentHashMap<>();
+  private final ConcurrentMap<String, CompletableFuture<Object>> inFlight =
+      new ConcurrentHashMap<>();
+  private final ConcurrentMap<Long, AtomicLong> userGenerations = new ConcurrentHashMap<>();
+  private final AtomicLong globalGeneration = new AtomicLong();
+  private final AtomicLong size = new AtomicLong();
+
+  private final AtomicLong hits = new AtomicLong();
+  private final AtomicLong staleHits = new AtomicLong();
+  private final AtomicLong misses = new AtomicLong();
+  private final AtomicLong invalidations = new AtomicLong();
+
+  @Inject
+  public DashboardCache(Config config) {
+    this(config, System::nanoTime);
+  }
+
+  DashboardCache(Config config, LongSupplier ticker) {
+    this.ttlNanos =
+        TimeUnit.MILLISECONDS.toNanos(
+            config.hasPath(TTL_PATH)
+                ? config.getDuration(TTL_PATH, TimeUnit.MILLISECONDS)
+                : DEFAULT_TTL_MILLIS);
+    this.staleWindowNanos =
+        TimeUnit.MILLISECONDS.toNanos(
+            config.hasPath(STALE_WINDOW_PATH)
+                ? config.getDuration(STALE_WINDOW_PATH, TimeUnit.MILLISECONDS)
+                : DEFAULT_STALE_WINDOW_MILLIS);
+    this.maxEntries =
+        config.hasPath(MAX_ENTRIES_PATH) ? config.getInt(MAX_ENTRIES_PATH) : DEFAULT_MAX_ENTRIES;
+    this.ticker = ticker;
+  }
+
+  /**
+   * Returns the dashboard data of a user for a filter. Fresh data comes from the cache, stale data
+   * comes from the cache and triggers a background refresh, and missing or expired data is loaded.
+   * Concurrent loads of the same dashboard share a single computation.
+   *
+   * @param dashboard the name of the dashboard, which also determines the type of the data
+   * @param userId the ID of the user viewing the dashboard
+   * @param filter the filter the data was built for, null when unfiltered
+   * @param loader assembles the dashboard data from the database
+   * @param <T> the type of the dashboard data
+   * @return a CompletableFuture containing the dashboard data
+   */
+  public <T> CompletableFuture<T> getOrLoad(
+      String dashboard, Long userId, String filter, Supplier<CompletableFuture<T>> loader) {
+    return getOrLoad(dashboard, userId, filter, loader, data -> true);
+  }
+
+  /**
+   * Returns the dashboard data of a user for a filter like {@link #getOrLoad(String, Long, String,
+   * Supplier)}, caching only the loaded data accepted by a predicate, for instance to keep a
+   * dashboard rendered without some of its widgets out of the cache.
+   *
+   * @param dashboard the name of the dashboard, which also determines the type of the data
+   * @param userId the ID of the user viewing the dashboard
+   * @param filter the filter the data was built for, null when unfiltered
+   * @param loader assembles the dashboard data from the database
+   * @param cacheable whether loaded data may be cached
+   * @param <T> the type of the dashboard data
+   * @return a CompletableFuture containing the dashboard data
+   */
+  @SuppressWarnings("unchecked")
+  public <T> CompletableFuture<T> getOrLoad(
+      String dashboard,
+      Long userId,
+      String filter,
+      Supplier<CompletableFuture<T>> loader,
+      Predicate<? super T> cacheable) {
+    String key = dashboard + "|" + (filter == null ? "" : filter);
+    Map<String, Entry> entries = entriesByUser.get(userId);
+    Entry entry = entries == null ? null : entries.get(key);
+
+    if (entry != null) {
+      long age = ticker.getAsLong() - entry.loadedAt;
+      if (age < ttlNanos) {
+        hits.incrementAndGet();
+        return CompletableFuture.completedFuture((T) entry.data);
+      }
+      if (age < ttlNanos + staleWindowNanos) {
+        staleHits.incrementAndGet();
+        load(userId, key, loader, cacheable)
+            .whenComplete(
+                (data, ex) -> {
+                  if (ex != null) {
+                    log.warn(
+                        "Dashboard {} refresh for user {} failed - with exception: {}",
+                        dashboard,
+                        userId,
+                        ex.getMessage());
+                  }
+                });
+        return CompletableFuture.completedFuture((T) entry.data);
+      }
+    }
+
+    misses.incrementAndGet();
+    return load(userId, key, loader, cacheable);
+  }
+
+  @SuppressWarnings("unchecked")
+  private <T> CompletableFuture<T> load(
+      Long userId,
+      String key,
+      Supplier<CompletableFuture<T>> loader,
+      Predicate<? super T> cacheable) {
+    String flightKey = userId + "|" + key;
+    CompletableFuture<Object> pending = new CompletableFuture<>();
+    CompletableFuture<Object> existing = inFlight.putIfAbsent(flightKey, pending);
+    if (existing != null) {
+      return (CompletableFuture<T>) existing;
+    }
+
+    long generation = generationOf(userId);
+    try {
+      loader
+          .get()
+          .whenComplete(
+              (data, ex) -> {
+                inFlight.remove(flightKey, pending);
+                if (ex != null) {
+                  pending.completeExceptionally(ex);
+                } else {
+                  if (cacheable.test(data)) {
+                    put(userId, key, generation, data);
+                  }
+                  pending.complete(data);
+                }
+              });
+    } catch (RuntimeException e) {
+      inFlight.remove(flightKey, pending);
+      pending.completeExceptionally(e);
+    }
+    return (CompletableFuture<T>) pending;
+  }
+
+  private void put(Long userId, String key, long generation, Object data) {
+    if (data == null || generationOf(userId) != generation) {
+      return;
+    }
+    ConcurrentMap<String, Entry> entries =
+        entriesByUser.computeIfAbsent(userId, id -> new ConcurrentHashMap<>());
+    Entry previous = entries.get(key);
+    if (previous == null && size.get() >= maxEntries && !evictExpired()) {
+      log.debug("Dashboard cache full, not caching {} for user {}", key, userId);
+      return;
+    }
+    if (entries.put(key, new Entry(data, ticker.getAsLong())) == null) {
+      size.incrementAndGet();
+    }
+    // An invalidation may have slipped in between the generation check and the put
+    if (generationOf(userId) != generation && entries.remove(key) != null) {
+      size.decrementAndGet();
+    }
+  }
+
+  /**
+   * Removes the entries too old to be served, even as stale data.
+   *
+   * @return whether the cache has room for a new entry afterwards
+   */
+  private boolean evictExpired() {
+    long now = ticker.getAsLong();
+    for (Map<String, Entry> entries : entriesByUser.values()) {
+      entries
+          .values()
+          .removeIf(
+              entry -> {
+                boolean expired = now - entry.loadedAt >= ttlNanos + staleWindowNanos;
+                if (expired) {
+                  size.decrementAndGet();
+                }
+                return expired;
+              });
+    }
+    return size.get() < maxEntries;
+  }
+
+  private long generationOf(Long userId) {
+    AtomicLong userGeneration = userGenerations.get(userId);
+    return globalGeneration.get() + (userGeneration == null ? 0 : userGeneration.get());
+  }
+
+  /**
+   * Returns the data version of the dashboards of a user. The version changes whenever the user's
+   * entries are invalidated, and on every restart, so data loaded after reading a version is at
+   * least as recent as that version. It is meant for validators such as ETags.
+   *
+   * @param userId the ID of the user
+   * @return the current data version of the user's dashboards
+   */
+  public String version(Long userId) {
+    return epoch + "." + generationOf(userId);
+  }
+
+  /**
+   * Drops the cached dashboards of some users, for changes that only concern them such as a
+   * submitted review.
+   *
+   * @param userIds the IDs of the users, null IDs are ignored
+   */
+  public void invalidateUsers(Collection<Long> userIds) {
+    for (Long userId : userIds) {
+      if (userId == null) {
+        continue;
+      }
+      userGenerations.computeIfAbsent(userId, id -> new AtomicLong()).incrementAndGet();
+      Map<String, Entry> removed = entriesByUser.remove(userId);
+      if (removed != null) {
+        size.addAndGet(-removed.size());
+      }
+    }
+    invalidations.incrementAndGet();
+  }
+
+  /** Drops every cached dashboard, for changes that concern many users such as an upload. */
+  public void invalidateAll() {
+    globalGeneration.incrementAndGet();
+    for (Long userId : entriesByUser.keySet()) {
+      Map<String, Entry> removed = entriesByUser.remove(userId);
+      if (removed != null) {
+        size.addAndGet(-removed.size());
+      }
+    }
+    invalidations.incrementAndGet();
+  }
+
+  /**
+   * Returns the hit, stale hit, miss and invalidation counters together with the current size of
+   * the cache.
+   *
+   * @return a map of cache statistics
+   */
+  public Map<String, Object> stats() {
+    long hitCount = hits.get();
+    long staleHitCount = staleHits.get();
+    long missCount = misses.get();
+    long lookups = hitCount + staleHitCount + missCount;
+
+    Map<String, Object> stats = new LinkedHashMap<>();
+    stats.put("hits", hitCount);
+    stats.put("staleHits", staleHitCount);
+    stats.put("misses", missCount);
+    stats.put("hitRatio", lookups == 0 ? 0.0 : (double) (hitCount + staleHitCount) / lookups);
+    stats.put("invalidations", invalidations.get());
+    stats.put("entries", size.get());
+    stats.put("maxEntries", maxEntries);
+    return stats;
+  }
+
+  /** Cached dashboard data together with the time it was loaded. */
+  private static final class Entry {
+    private final Object data;
+    private final long loadedAt;
+
+    private Entry(Object data, long loadedAt) {
+      this.data = data;
+      this.loadedAt = loadedAt;
+    }
+  }
+}
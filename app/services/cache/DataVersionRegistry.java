@@ -0,0 +1,43 @@
+package services.cache;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.inject.Singleton;
+
+/**
+ * DataVersionRegistry keeps a monotonically increasing data version per assignment. Writers bump
+ * the version after their transaction commits and readers capture it before loading, so anything
+ * computed from older data can be recognised as stale and recomputed.
+ */
+@Singleton
+public class DataVersionRegistry {
+
+  private final ConcurrentMap<Long, AtomicLong> assignmentVersions = new ConcurrentHashMap<>();
+
+  /**
+   * Returns the current data version of an assignment.
+   *
+   * @param assignmentId the ID of the assignment
+   * @return the current version, 0 if the assignment was never changed since startup
+   */
+  public long assignmentVersion(Long assignmentId) {
+    AtomicLong version = assignmentVersions.get(assignmentId);
+    return version == null ? 0L : version.get();
+  }
+
+  /**
+   * Marks the data of an assignment as changed.
+   *
+   * @param assignmentId the ID of the assignment
+   * @return the new version of the assignment
+   */
+  public long bumpAssignment(Long assignmentId) {
+    if (assignmentId == null) {
+      return 0L;
+    }
+    return assignmentVersions
+        .computeIfAbsent(assignmentId, id -> new AtomicLong())
+        .incrementAndGet();
+  }
+}
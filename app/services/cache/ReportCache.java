@@ -0,0 +1,238 @@
+package services.cache;
+
+import com.typesafe.config.Config;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import models.dto.AssignmentReportDTO;
+import models.dto.FeedbackDTO;
+import models.dto.GroupSubmissionDTO;
+import models.dto.MemberSubmissionDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * ReportCache keeps the computed report of recently viewed assignments in memory. Entries are
+ * keyed by assignment ID and tagged with the data version they were built from; a lookup with a
+ * newer version is a miss. The cache is bounded by a total weight (roughly the number of DTO
+ * objects held) and evicts the least recently used reports first. Concurrent misses for the same
+ * assignment and version share a single computation.
+ */
+@Singleton
+public class ReportCache {
+
+  private static final Logger log = LoggerFactory.getLogger(ReportCache.class);
+  private static final String MAX_WEIGHT_PATH = "reports.cache.maxWeight";
+  private static final long DEFAULT_MAX_WEIGHT = 200_000L;
+
+  private final long maxWeight;
+  private final LinkedHashMap<Long, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+  private final ConcurrentMap<String, CompletableFuture<AssignmentReportDTO>> inFlight =
+      new ConcurrentHashMap<>();
+  private long currentWeight;
+
+  private final AtomicLong hits = new AtomicLong();
+  private final AtomicLong misses = new AtomicLong();
+  private final AtomicLong evictions = new AtomicLong();
+
+  @Inject
+  public ReportCache(Config config) {
+    this.maxWeight =
+        config.hasPath(MAX_WEIGHT_PATH) ? config.getLong(MAX_WEIGHT_PATH) : DEFAULT_MAX_WEIGHT;
+  }
+
+  /**
+   * Returns the cached report of an assignment for the given version, computing and caching it on
+   * a miss.
+   *
+   * @param assignmentId the ID of the assignment
+   * @param version the data version the caller captured before loading
+   * @param loader computes the report when it is not cached
+   * @return a CompletableFuture containing the report
+   */
+  public CompletableFuture<AssignmentReportDTO> getOrCompute(
+      Long assignmentId, long version, Supplier<CompletableFuture<AssignmentReportDTO>> loader) {
+    AssignmentReportDTO cached = get(assignmentId, version);
+    if (cached != null) {
+      return CompletableFuture.completedFuture(cached);
+    }
+
+    String key = assignmentId + "@" + version;
+    CompletableFuture<AssignmentReportDTO> pending = new CompletableFuture<>();
+    CompletableFuture<AssignmentReportDTO> existing = inFlight.putIfAbsent(key, pending);
+    if (existing != null) {
+      return existing;
+    }
+
+    try {
+      loader
+          .get()
+          .whenComplete(
+              (report, ex) -> {
+                inFlight.remove(key);
+                if (ex != null) {
+                  pending.completeExceptionally(ex);
+                } else {
+                  put(assignmentId, version, report);
+                  pending.complete(report);
+                }
+              });
+    } catch (RuntimeException e) {
+      inFlight.remove(key);
+      pending.completeExceptionally(e);
+    }
+    return pending;
+  }
+
+  /**
+   * Looks up the report of an assignment.
+   *
+   * @param assignmentId the ID of the assignment
+   * @param version the current data version of the assignment
+   * @return the cached report, or null if it is missing or was built from older data
+   */
+  public synchronized AssignmentReportDTO get(Long assignmentId, long version) {
+    Entry entry = entries.get(assignmentId);
+    if (entry == null || entry.version != version) {
+      misses.incrementAndGet();
+      return null;
+    }
+    hits.incrementAndGet();
+    return entry.report;
+  }
+
+  /**
+   * Stores the report of an assignment, evicting the least recently used reports when the cache
+   * grows over its weight limit. A report is never replaced by one built from older data.
+   *
+   * @param assignmentId the ID of the assignment
+   * @param version the data version the report was built from
+   * @param report the computed report
+   */
+  public synchronized void put(Long assignmentId, long version, AssignmentReportDTO report) {
+    if (report == null) {
+      return;
+    }
+    long weight = weigh(report);
+    if (weight > maxWeight) {
+      log.debug("Report of assignment {} too large to cache (weight {})", assignmentId, weight);
+      return;
+    }
+
+    Entry previous = entries.get(assignmentId);
+    if (previous != null) {
+      if (previous.version > version) {
+        return;
+      }
+      entries.remove(assignmentId);
+      currentWeight -= previous.weight;
+    }
+
+    entries.put(assignmentId, new Entry(version, weight, report));
+    currentWeight += weight;
+
+    Iterator<Map.Entry<Long, Entry>> iterator = entries.entrySet().iterator();
+    while (currentWeight > maxWeight && iterator.hasNext()) {
+      Map.Entry<Long, Entry> eldest = iterator.next();
+      if (eldest.getKey().equals(assignmentId)) {
+        continue;
+      }
+      currentWeight -= eldest.getValue().weight;
+      iterator.remove();
+      evictions.incrementAndGet();
+    }
+  }
+
+  /**
+   * Removes the report of an assignment from the cache.
+   *
+   * @param assignmentId the ID of the assignment
+   */
+  public synchronized void invalidate(Long assignmentId) {
+    Entry removed = entries.remove(assignmentId);
+    if (removed != null) {
+      currentWeight -= removed.weight;
+    }
+  }
+
+  /**
+   * Returns the hit, miss and eviction counters together with the current size of the cache.
+   *
+   * @return a map of cache statistics
+   */
+  public synchronized Map<String, Object> stats() {
+    long hitCount = hits.get();
+    long missCount = misses.get();
+    long lookups = hitCount + missCount;
+
+    Map<String, Object> stats = new LinkedHashMap<>();
+    stats.put("hits", hitCount);
+    stats.put("misses", missCount);
+    stats.put("hitRatio", lookups == 0 ? 0.0 : (double) hitCount / lookups);
+    stats.put("evictions", evictions.get());
+    stats.put("entries", entries.size());
+    stats.put("weight", currentWeight);
+    stats.put("maxWeight", maxWeight);
+    return stats;
+  }
+
+  /**
+   * Estimates the size of a report as the number of DTO objects and matrix cells it holds.
+   *
+   * @param report the report to weigh
+   * @return the weight of the report, at least 1
+   */
+  static long weigh(AssignmentReportDTO report) {
+    long weight = 1;
+    if (report.getGroups() == null) {
+      return weight;
+    }
+    for (GroupSubmissionDTO group : report.getGroups()) {
+      weight += 1 + sizeOf(group.getPrivateComments());
+      if (group.getMembers() == null) {
+        continue;
+      }
+      for (MemberSubmissionDTO member : group.getMembers()) {
+        weight += 1 + sizeOf(member.getFeedbacksPerQuestion());
+        weight += sizeOf(member.getPrivateComments());
+        if (member.getFeedbacksByReviewer() != null) {
+          for (List<FeedbackDTO> feedbacks : member.getFeedbacksByReviewer().values()) {
+            weight += feedbacks.size();
+          }
+        }
+        if (member.getEvaluationMatrix() != null) {
+          for (MemberSubmissionDTO.EvaluationMatrixDTO row : member.getEvaluationMatrix()) {
+            weight += 1 + sizeOf(row.getMarksPerReviewer());
+          }
+        }
+      }
+    }
+    return weight;
+  }
+
+  private static long sizeOf(Collection<?> collection) {
+    return collection == null ? 0 : collection.size();
+  }
+
+  /** A cached report together with the data version it was built from and its weight. */
+  private static final class Entry {
+    private final long version;
+    private final long weight;
+    private final AssignmentReportDTO report;
+
+    private Entry(long version, long weight, AssignmentReportDTO report) {
+      this.version = version;
+      this.weight = weight;
+      this.report = report;
+    }
+  }
+}
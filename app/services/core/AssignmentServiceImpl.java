@@ -11,6 +11,7 @@ import java.util.stream.Collectors;
 import javax.inject.Inject;
 import models.*;
 import models.dto.AssignmentEditDTO;
+import models.enums.QuestionKind;
 import models.enums.Status;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -20,7 +21,10 @@ import play.mvc.Result;
 import play.mvc.Results;
 import repository.core.AssignmentRepository;
 import repository.core.CourseRepository;
+import repository.core.FeedbackAggregateRepository;
 import repository.core.FeedbackRepository;
+import services.cache.DashboardCache;
+import services.cache.DataVersionRegistry;
 import services.validations.AssignmentFormValidation;
 
 /**
@@ -36,6 +40,10 @@ public class AssignmentServiceImpl implements AssignmentService {
   private final CourseRepository courseRepository;
   private final EnrollmentService enrollmentService;
   private final FeedbackRepository feedbackRepository;
+  private final FeedbackAggregateRepository feedbackAggregateRepository;
+  private final DataVersionRegistry dataVersionRegistry;
+  private final AssignmentStatusScheduler assignmentStatusScheduler;
+  private final DashboardCache dashboardCache;
 
   @Inject
   public AssignmentServiceImpl(
@@ -43,12 +51,20 @@ public class AssignmentServiceImpl implements AssignmentService {
       AssignmentFormValidation assignmentFormValidation,
       CourseRepository courseRepository,
       EnrollmentService enrollmentService,
-      FeedbackRepository feedbackRepository) {
+      FeedbackRepository feedbackRepository,
+      FeedbackAggregateRepository feedbackAggregateRepository,
+      DataVersionRegistry dataVersionRegistry,
+      AssignmentStatusScheduler assignmentStatusScheduler,
+      DashboardCache dashboardCache) {
     this.assignmentRepository = assignmentRepository;
     this.assignmentFormValidation = assignmentFormValidation;
     this.courseRepository = courseRepository;
     this.enrollmentService = enrollmentService;
     this.feedbackRepository = feedbackRepository;
+    this.feedbackAggregateRepository = feedbackAggregateRepository;
+    this.dataVersionRegistry = dataVersionRegistry;
+    this.assignmentStatusScheduler = assignmentStatusScheduler;
+    this.dashboardCache = dashboardCache;
   }
 
   /**
@@ -121,7 +137,7 @@ public class AssignmentServiceImpl implements AssignmentService {
     assignment.setDueDate(assignmentForm.getDueDate());
     assignment.setPeerAssigned(false);
 
-    LocalDate today = LocalDate.now();
+    LocalDate today = assignmentStatusScheduler.today();
     boolean fileUploaded = course.get().isStudentFileUploaded();
     LocalDate startDate = assignmentForm.getStartDate();
     LocalDate dueDate = assignmentForm.getDueDate();
@@ -155,9 +171,9 @@ public class AssignmentServiceImpl implements AssignmentService {
             });
 
     // Overall Feedback Comment to be included in the feedback questions only if there is no existing one (reuse scenario)
-    if(feedbackQuestions.stream().noneMatch(q -> q.getQuestionText().equals("Overall Feedback Comment"))) {
+    if(feedbackQuestions.stream().noneMatch(q -> q.getKind() == QuestionKind.OVERALL_COMMENT)) {
       FeedbackQuestion overAllFeedbackComment = new FeedbackQuestion();
-      overAllFeedbackComment.setQuestionText("Overall Feedback Comment");
+      overAllFeedbackComment.setQuestionText(QuestionKind.OVERALL_COMMENT.getDefaultText());
       overAllFeedbackComment.setMaxMarks(0);
       overAllFeedbackComment.setAssignment(assignment);
       feedbackQuestions.add(overAllFeedbackComment);
@@ -165,7 +181,7 @@ public class AssignmentServiceImpl implements AssignmentService {
 
     // private Feedback Comment for Professor
     FeedbackQuestion professorFeedbackComment = new FeedbackQuestion();
-    professorFeedbackComment.setQuestionText("Private Comment for Professor");
+    professorFeedbackComment.setQuestionText(QuestionKind.PRIVATE_COMMENT.getDefaultText());
     professorFeedbackComment.setMaxMarks(0);
     professorFeedbackComment.setAssignment(assignment);
     feedbackQuestions.add(professorFeedbackComment);
@@ -173,7 +189,15 @@ public class AssignmentServiceImpl implements AssignmentService {
     // Map the feedback questions to the assignment
     assignment.setFeedbackQuestions(feedbackQuestions);
 
-    assignmentRepository.save(assignment);
+    // Align the status with the rule of the daily status transition once the assignment is stored
+    assignmentRepository
+        .save(assignment)
+        .thenAccept(
+            savedId -> {
+              assignmentStatusScheduler.recompute(List.of(savedId));
+              // The professor and the students of the course see the new assignment
+              dashboardCache.invalidateAll();
+            });
 
     log.info("Assignment created successfully with ID: {}", assignment.getAssignmentId());
 
@@ -275,9 +299,7 @@ public class AssignmentServiceImpl implements AssignmentService {
               assignment.getFeedbackQuestions().stream()
                   .filter(
                       feedbackQuestion ->
-                          !feedbackQuestion
-                              .getQuestionText()
-                              .equals("Private Comment for Professor"))
+                          feedbackQuestion.getKind() != QuestionKind.PRIVATE_COMMENT)
                   .map(
                       feedbackQuestion -> {
                         AssignmentEditDTO.ReviewQuestionDTO reviewQuestionDTO =
@@ -362,7 +384,7 @@ public class AssignmentServiceImpl implements AssignmentService {
             // it from the existing ones
             FeedbackQuestion privateCommentQuestion =
                 existingFeedbackQuestions.values().stream()
-                    .filter(q -> q.getQuestionText().equals("Private Comment for Professor"))
+                    .filter(q -> q.getKind() == QuestionKind.PRIVATE_COMMENT)
                     .findFirst()
                     .orElse(null);
             if (privateCommentQuestion != null) {
@@ -426,6 +448,18 @@ public class AssignmentServiceImpl implements AssignmentService {
           }
 
           assignmentRepository.update(assignment); // merge
+
+          // The dates may have changed, so may the status
+          assignmentStatusScheduler.recompute(List.of(assignmentId));
+
+          // Questions were added or removed, recompute the score aggregates of the assignment
+          if (!newQuestions.isEmpty() || !existingFeedbackQuestions.isEmpty()) {
+            feedbackAggregateRepository.rebuildForAssignment(assignmentId);
+          }
+
+          // Titles, questions and feedbacks may have changed, cached reports are stale
+          dataVersionRegistry.bumpAssignment(assignmentId);
+          dashboardCache.invalidateAll();
         });
   }
 
@@ -458,7 +492,16 @@ public class AssignmentServiceImpl implements AssignmentService {
     }
 
     // Step 4: Delete assignment itself
-    return assignmentRepository.deleteAssignmentById(assignmentId);
+    return assignmentRepository
+        .deleteAssignmentById(assignmentId)
+        .thenApply(
+            deleted -> {
+              if (deleted) {
+                dataVersionRegistry.bumpAssignment(assignmentId);
+                dashboardCache.invalidateAll();
+              }
+              return deleted;
+            });
   }
 
   /**
@@ -475,7 +518,8 @@ public class AssignmentServiceImpl implements AssignmentService {
         .thenCompose(
             courseCodes -> {
               if (courseCodes.isEmpty()) return CompletableFuture.completedFuture(0);
-              return assignmentRepository.findAssignmentCountByCourseCodes(courseCodes);
+              return assignmentRepository.findAssignmentCountByCourseCodes(
+                  courseCodes, assignmentStatusScheduler.today());
             });
   }
 
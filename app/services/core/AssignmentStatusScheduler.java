@@ -0,0 +1,153 @@
+package services.core;
+
+import com.typesafe.config.Config;
+import jakarta.persistence.EntityManager;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import play.inject.ApplicationLifecycle;
+import repository.core.AssignmentRepository;
+import services.cache.DashboardCache;
+
+/**
+ * AssignmentStatusScheduler keeps the PENDING / ACTIVE / COMPLETED status of the assignments in
+ * line with their dates. Statuses only change when the date changes, so a bulk update runs once at
+ * startup and then every day at the configured time of the configured time zone. Uploads and
+ * assignment edits, which can change the status at any time, recompute the affected assignments on
+ * demand.
+ */
+@Singleton
+public class AssignmentStatusScheduler {
+
+  private static final Logger log = LoggerFactory.getLogger(AssignmentStatusScheduler.class);
+  private static final String TIME_PATH = "assignments.status.transitionTime";
+  private static final String ZONE_PATH = "assignments.status.zone";
+
+  private final AssignmentRepository assignmentRepository;
+  private final DashboardCache dashboardCache;
+  private final LocalTime transitionTime;
+  private final Clock clock;
+  private final ScheduledExecutorService scheduler;
+
+  @Inject
+  public AssignmentStatusScheduler(
+      Config config,
+      AssignmentRepository assignmentRepository,
+      DashboardCache dashboardCache,
+      ApplicationLifecycle lifecycle) {
+    this.assignmentRepository = assignmentRepository;
+    this.dashboardCache = dashboardCache;
+    this.transitionTime =
+        config.hasPath(TIME_PATH)
+            ? LocalTime.parse(config.getString(TIME_PATH))
+            : LocalTime.of(0, 5);
+    this.clock =
+        Clock.system(
+            config.hasPath(ZONE_PATH)
+                ? ZoneId.of(config.getString(ZONE_PATH))
+                : ZoneId.systemDefault());
+    this.scheduler =
+        Executors.newSingleThreadScheduledExecutor(
+            runnable -> {
+              Thread thread = new Thread(runnable, "assignment-status");
+              thread.setDaemon(true);
+              return thread;
+            });
+
+    lifecycle.addStopHook(
+        () -> {
+          scheduler.shutdownNow();
+          return CompletableFuture.completedFuture(null);
+        });
+
+    // Catch up with the days the application was not running, then follow the calendar
+    scheduler.execute(this::transitionAndReschedule);
+  }
+
+  /**
+   * The current date in the configured time zone, the one the assignment dates refer to.
+   *
+   * @return today's date
+   */
+  public LocalDate today() {
+    return LocalDate.now(clock);
+  }
+
+  /**
+   * Brings the status of every assignment up to date.
+   *
+   * @return the number of assignments whose status changed
+   */
+  public int transitionAll() {
+    LocalDate today = today();
+    int updated = assignmentRepository.updateStatuses(today, null);
+    log.info("Assignment status transition for {} updated {} assignments", today, updated);
+    if (updated > 0) {
+      dashboardCache.invalidateAll();
+    }
+    return updated;
+  }
+
+  /**
+   * Brings the status of some assignments up to date, in a transaction of its own.
+   *
+   * @param assignmentIds the IDs of the assignments
+   * @return the number of assignments whose status changed
+   */
+  public int recompute(Collection<Long> assignmentIds) {
+    return assignmentRepository.updateStatuses(today(), assignmentIds);
+  }
+
+  /**
+   * Brings the status of some assignments up to date within the caller's transaction, for changes
+   * such as an upload of review tasks that are written in the same transaction.
+   *
+   * @param entityManager the entity manager of the current transaction
+   * @param assignmentIds the IDs of the assignments
+   * @return the number of assignments whose status changed
+   */
+  public int recompute(EntityManager entityManager, Collection<Long> assignmentIds) {
+    return assignmentRepository.updateStatuses(entityManager, today(), assignmentIds);
+  }
+
+  private void transitionAndReschedule() {
+    try {
+      transitionAll();
+    } catch (Exception e) {
+      log.error("Assignment status transition failed - with exception: {}", e.getMessage());
+    }
+    if (scheduler.isShutdown()) {
+      return;
+    }
+    Duration delay = delayUntilNextRun(ZonedDateTime.now(clock), transitionTime);
+    scheduler.schedule(this::transitionAndReschedule, delay.toMillis(), TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * The time left until the next run at the given local time, computed on the calendar of the time
+   * zone of {@code now} so that daylight saving changes move the run with the wall clock.
+   *
+   * @param now the current time in the configured time zone
+   * @param at the local time of the daily run
+   * @return the delay until the next run, always positive
+   */
+  static Duration delayUntilNextRun(ZonedDateTime now, LocalTime at) {
+    ZonedDateTime next = now.with(at);
+    if (!next.isAfter(now)) {
+      next = now.plusDays(1).with(at);
+    }
+    return Duration.between(now, next);
+  }
+}
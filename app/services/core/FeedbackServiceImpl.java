@@ -27,12 +27,16 @@ public class FeedbackServiceImpl implements FeedbackService {
   private static final Logger log = LoggerFactory.getLogger(FeedbackServiceImpl.class);
   private final FeedbackRepository feedbackRepository;
   private final EnrollmentService enrollmentService;
+  private final AssignmentStatusScheduler assignmentStatusScheduler;
 
   @Inject
   public FeedbackServiceImpl(
-      FeedbackRepository feedbackRepository, EnrollmentService enrollmentService) {
+      FeedbackRepository feedbackRepository,
+      EnrollmentService enrollmentService,
+      AssignmentStatusScheduler assignmentStatusScheduler) {
     this.feedbackRepository = feedbackRepository;
     this.enrollmentService = enrollmentService;
+    this.assignmentStatusScheduler = assignmentStatusScheduler;
   }
 
   /**
@@ -56,6 +60,7 @@ public class FeedbackServiceImpl implements FeedbackService {
   @Override
   public CompletableFuture<List<FeedbacksReceivedDTO>> getFeedbacksReceivedByStudent(
       Long userId, String courseCode) {
+    LocalDate today = assignmentStatusScheduler.today();
     return enrollmentService
         .findStudentEnrolledCourseCodes(userId, courseCode)
         .thenCompose(
@@ -68,7 +73,7 @@ public class FeedbackServiceImpl implements FeedbackService {
                           feedback -> {
                             ReviewTask rt = feedback.getReviewTask();
                             Assignment assignment = rt.getAssignment();
-                            return assignment.getDueDate().isBefore(LocalDate.now());
+                            return assignment.getDueDate().isBefore(today);
                           })
                       .collect(
                           Collectors.groupingBy(
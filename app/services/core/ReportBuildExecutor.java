@@ -0,0 +1,112 @@
+package services.core;
+
+import com.typesafe.config.Config;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import play.inject.ApplicationLifecycle;
+
+/**
+ * ReportBuildExecutor runs the CPU bound parts of report construction on a dedicated, bounded
+ * fork-join pool instead of the common pool, so large reports cannot starve other work of the JVM.
+ * Inputs smaller than the configured threshold are processed sequentially on the calling thread,
+ * where the cost of handing the work to the pool outweighs the gain.
+ */
+@Singleton
+public class ReportBuildExecutor {
+
+  private static final String PARALLELISM_PATH = "reports.parallel.parallelism";
+  private static final String THRESHOLD_PATH = "reports.parallel.threshold";
+  private static final int DEFAULT_THRESHOLD = 32;
+
+  private final int parallelism;
+  private final int threshold;
+  private final ForkJoinPool pool;
+
+  @Inject
+  public ReportBuildExecutor(Config config, ApplicationLifecycle lifecycle) {
+    this(config);
+    lifecycle.addStopHook(
+        () -> {
+          pool.shutdown();
+          return CompletableFuture.completedFuture(null);
+        });
+  }
+
+  ReportBuildExecutor(Config config) {
+    int configuredParallelism =
+        config.hasPath(PARALLELISM_PATH) ? config.getInt(PARALLELISM_PATH) : 0;
+    this.parallelism =
+        configuredParallelism > 0
+            ? configuredParallelism
+            : Runtime.getRuntime().availableProcessors();
+    int configuredThreshold =
+        config.hasPath(THRESHOLD_PATH) ? config.getInt(THRESHOLD_PATH) : DEFAULT_THRESHOLD;
+    this.threshold = Math.max(1, configuredThreshold);
+
+    AtomicInteger threadCount = new AtomicInteger();
+    this.pool =
+        new ForkJoinPool(
+            parallelism,
+            forkJoinPool -> {
+              ForkJoinWorkerThread thread =
+                  ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(forkJoinPool);
+              thread.setName("report-build-" + threadCount.incrementAndGet());
+              return thread;
+            },
+            null,
+            false);
+  }
+
+  /**
+   * Applies a function to every item and returns the results in the order of the items. When
+   * there are at least {@code threshold} items and more than one thread is configured the items
+   * are processed in parallel on the report pool, otherwise sequentially on the calling thread.
+   *
+   * @param items the items to process
+   * @param function the function to apply, it must not depend on the thread it runs on
+   * @return the results, one per item and in item order
+   */
+  public <T, R> List<R> mapInOrder(List<T> items, Function<T, R> function) {
+    if (items.size() < threshold || parallelism == 1) {
+      List<R> results = new ArrayList<>(items.size());
+      for (T item : items) {
+        results.add(function.apply(item));
+      }
+      return results;
+    }
+
+    List<CompletableFuture<R>> futures = new ArrayList<>(items.size());
+    for (T item : items) {
+      futures.add(CompletableFuture.supplyAsync(() -> function.apply(item), pool));
+    }
+
+    List<R> results = new ArrayList<>(items.size());
+    try {
+      for (CompletableFuture<R> future : futures) {
+        results.add(future.join());
+      }
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof RuntimeException cause) {
+        throw cause;
+      }
+      throw e;
+    }
+    return results;
+  }
+
+  public int getParallelism() {
+    return parallelism;
+  }
+
+  public int getThreshold() {
+    return threshold;
+  }
+}
@@ -0,0 +1,89 @@
+package services.core;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.typesafe.config.Config;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import models.dto.SubmissionOverviewDTO;
+import org.apache.pekko.NotUsed;
+import org.apache.pekko.stream.javadsl.Source;
+import org.apache.pekko.util.ByteString;
+import org.apache.pekko.util.ByteStringBuilder;
+import play.libs.Json;
+
+/**
+ * ReportJsonStreamer serializes a submission overview as a stream of JSON chunks instead of a
+ * single document. The counters are written first, then every group is serialized into its own
+ * chunk only when the response asks for more data, so neither a JSON tree of the whole overview nor
+ * the complete response body is ever held in memory. The streamed document is identical to the
+ * one produced by {@code Json.toJson}.
+ */
+@Singleton
+public class ReportJsonStreamer {
+
+  private static final String ENABLED_PATH = "reports.streaming.enabled";
+  private static final ByteString GROUP_SEPARATOR = ByteString.fromString(",");
+  private static final ByteString END_OF_OVERVIEW = ByteString.fromString("]}");
+
+  private final boolean enabled;
+
+  @Inject
+  public ReportJsonStreamer(Config config) {
+    this.enabled = !config.hasPath(ENABLED_PATH) || config.getBoolean(ENABLED_PATH);
+  }
+
+  /**
+   * Whether the report endpoints should stream their JSON responses.
+   *
+   * @return true when streaming is enabled
+   */
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * Streams a submission overview: one chunk for the counters, one chunk per group and a closing
+   * chunk. The groups of the overview must not be modified while the stream is consumed.
+   *
+   * @param overview the overview to stream
+   * @return a source of the JSON chunks of the overview
+   */
+  public Source<ByteString, NotUsed> streamSubmissionOverview(SubmissionOverviewDTO overview) {
+    ObjectMapper mapper = Json.mapper();
+    return Source.from(overview.getGroups())
+        .map(group -> writeChunk(mapper, group))
+        .intersperse(writeOverviewHeader(mapper, overview), GROUP_SEPARATOR, END_OF_OVERVIEW);
+  }
+
+  /** Writes the opening of the overview up to and including the start of the groups array. */
+  private static ByteString writeOverviewHeader(
+      ObjectMapper mapper, SubmissionOverviewDTO overview) {
+    ByteStringBuilder builder = ByteString.createBuilder();
+    try {
+      JsonGenerator generator = mapper.getFactory().createGenerator(builder.asOutputStream());
+      generator.writeStartObject();
+      generator.writeNumberField("totalSubmissions", overview.getTotalSubmissions());
+      generator.writeNumberField("reviewsCompleted", overview.getReviewsCompleted());
+      generator.writeArrayFieldStart("groups");
+      // The document is closed by the last chunk, the generator is only flushed
+      generator.flush();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return builder.result();
+  }
+
+  private static ByteString writeChunk(ObjectMapper mapper, Object value) {
+    ByteStringBuilder builder = ByteString.createBuilder();
+    try (JsonGenerator generator =
+        mapper.getFactory().createGenerator(builder.asOutputStream())) {
+      mapper.writeValue(generator, value);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return builder.result();
+  }
+}
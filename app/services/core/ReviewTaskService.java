@@ -2,8 +2,11 @@ package services.core;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import models.ReviewTask;
+import models.dto.AssignmentAveragesDTO;
+import models.dto.AssignmentReportDTO;
 import models.dto.GroupSubmissionDTO;
 import models.dto.SubmissionOverviewDTO;
+import models.dto.SubmissionOverviewPageDTO;
 import models.enums.Status;
 
 import java.util.List;
@@ -13,6 +16,14 @@ import java.util.concurrent.CompletableFuture;
 public interface ReviewTaskService {
     CompletableFuture<SubmissionOverviewDTO> getReviewTasksSubmissionOverview(Long assignmentId);
 
+    CompletableFuture<SubmissionOverviewPageDTO> getReviewTasksSubmissionOverviewPage(Long assignmentId, Long cursor, int limit, Status status, String groupNamePrefix);
+
+    CompletableFuture<AssignmentReportDTO> getAssignmentReport(Long assignmentId);
+
+    CompletableFuture<AssignmentAveragesDTO> getAssignmentAverages(Long assignmentId);
+
+    CompletableFuture<AssignmentReportDTO> getStudentGroupReport(Long assignmentId, Long userId);
+
     void calculateClassAverages(List<GroupSubmissionDTO> groupDTOs);
 
     CompletableFuture<List<ReviewTask>> getReviewTasks(Long assignmentId);
@@ -2,20 +2,26 @@ package services.core;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.typesafe.config.Config;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
 import javax.inject.Inject;
+import models.Assignment;
 import models.Feedback;
 import models.ReviewTask;
 import models.User;
 import models.dto.*;
+import models.enums.QuestionKind;
 import models.enums.Status;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import repository.DatabaseExecutionContext;
+import repository.core.FeedbackAggregateRepository;
 import repository.core.ReviewTaskRepository;
+import services.cache.DataVersionRegistry;
+import services.cache.ReportCache;
 
 /**
  * ReviewTaskServiceImpl is a service class that implements the ReviewTaskService interface. It
@@ -25,14 +31,35 @@ import repository.core.ReviewTaskRepository;
 public class ReviewTaskServiceImpl implements ReviewTaskService {
 
   private static final Logger log = LoggerFactory.getLogger(ReviewTaskServiceImpl.class);
+  private static final String AGGREGATION_MODE_PATH = "reports.aggregation.mode";
+  private static final String DATABASE_AGGREGATION_MODE = "database";
+
   private final ReviewTaskRepository reviewTaskRepository;
-  private final FeedbackService feedbackService;
+  private final FeedbackAggregateRepository feedbackAggregateRepository;
+  private final ReportCache reportCache;
+  private final DataVersionRegistry dataVersionRegistry;
+  private final ReportBuildExecutor reportBuildExecutor;
+  private final DatabaseExecutionContext databaseExecutionContext;
+  private final boolean databaseAggregation;
 
   @Inject
   public ReviewTaskServiceImpl(
-      ReviewTaskRepository reviewTaskRepository, FeedbackService feedbackService) {
+      ReviewTaskRepository reviewTaskRepository,
+      FeedbackAggregateRepository feedbackAggregateRepository,
+      ReportCache reportCache,
+      DataVersionRegistry dataVersionRegistry,
+      ReportBuildExecutor reportBuildExecutor,
+      DatabaseExecutionContext databaseExecutionContext,
+      Config config) {
     this.reviewTaskRepository = reviewTaskRepository;
-    this.feedbackService = feedbackService;
+    this.feedbackAggregateRepository = feedbackAggregateRepository;
+    this.reportCache = reportCache;
+    this.dataVersionRegistry = dataVersionRegistry;
+    this.reportBuildExecutor = reportBuildExecutor;
+    this.databaseExecutionContext = databaseExecutionContext;
+    this.databaseAggregation =
+        config.hasPath(AGGREGATION_MODE_PATH)
+            && DATABASE_AGGREGATION_MODE.equalsIgnoreCase(config.getString(AGGREGATION_MODE_PATH));
   }
 
   /**
@@ -44,27 +71,20 @@ public class ReviewTaskServiceImpl implements ReviewTaskService {
   @Override
   public CompletableFuture<SubmissionOverviewDTO> getReviewTasksSubmissionOverview(
       Long assignmentId) {
-    return getReviewTasks(assignmentId)
+    return getAssignmentReport(assignmentId)
         .thenApply(
-            reviewTasks -> {
-              if (reviewTasks.isEmpty()) {
+            report -> {
+              List<GroupSubmissionDTO> groupDTOs = report.getGroups();
+              if (groupDTOs.isEmpty()) {
                 log.info("No ReviewTasks found for assignment {}", assignmentId);
                 return null;
               }
 
-              Map<Long, List<ReviewTask>> groupedTasks = groupReviewTasksByGroup(reviewTasks);
-              List<GroupSubmissionDTO> groupDTOs =
-                  generateSubmissionInfoInEachGroupDTOs(groupedTasks);
-              calculateClassAverages(groupDTOs);
-
               int totalMembers =
                   groupDTOs.stream().mapToInt(GroupSubmissionDTO::getTotalReviewTasks).sum();
               int completedMembers =
                   groupDTOs.stream().mapToInt(GroupSubmissionDTO::getReviewsCompleted).sum();
-              int percentageCompleted =
-                  (totalMembers == 0)
-                      ? 0
-                      : (int) Math.round((completedMembers * 100.0) / totalMembers);
+              int percentageCompleted = completionPercentage(completedMembers, totalMembers);
 
               int totalStudents =
                   groupDTOs.stream().mapToInt(GroupSubmissionDTO::getGroupSize).sum();
@@ -78,6 +98,293 @@ public class ReviewTaskServiceImpl implements ReviewTaskService {
             });
   }
 
+  /**
+   * Retrieves one page of the submission overview of an assignment. Only the review tasks of the
+   * groups of the page are loaded, in ascending group ID order; the totals are counted by a single
+   * aggregate query over the whole assignment and the class averages come from the score
+   * aggregates. The blocking queries run on the database execution context.
+   *
+   * @param assignmentId the ID of the assignment
+   * @param cursor the group ID the page starts after, or null for the first page
+   * @param limit the maximum number of groups in the page
+   * @param status only groups with a pending review (PENDING) or without one (COMPLETED), or null
+   * @param groupNamePrefix only groups whose name starts with this prefix ignoring case, or null
+   * @return a CompletableFuture containing the SubmissionOverviewPageDTO
+   */
+  @Override
+  public CompletableFuture<SubmissionOverviewPageDTO> getReviewTasksSubmissionOverviewPage(
+      Long assignmentId, Long cursor, int limit, Status status, String groupNamePrefix) {
+    return CompletableFuture.supplyAsync(
+        () -> {
+          // One extra group tells whether there is a next page
+          List<Long> groupIds =
+              reviewTaskRepository.findGroupIdsPage(
+                  assignmentId, cursor, limit + 1, status, groupNamePrefix);
+          boolean hasNextPage = groupIds.size() > limit;
+          List<Long> pageGroupIds = hasNextPage ? groupIds.subList(0, limit) : groupIds;
+
+          List<ReviewTask> reviewTasks =
+              reviewTaskRepository
+                  .findReportDataByAssignmentIdAndGroupIds(assignmentId, pageGroupIds)
+                  .orElse(Collections.emptyList());
+          Map<Long, List<ReviewTask>> groupedTasks =
+              reviewTasks.stream()
+                  .collect(
+                      Collectors.groupingBy(
+                          ReviewTask::getGroupId, TreeMap::new, Collectors.toList()));
+          List<GroupSubmissionDTO> groupDTOs = generateSubmissionInfoInEachGroupDTOs(groupedTasks);
+          applyClassAverages(
+              groupDTOs,
+              ScoreMatrixEngine.averagesFromAggregates(
+                  feedbackAggregateRepository.findByAssignmentId(assignmentId)));
+
+          SubmissionTotalsDTO totals =
+              reviewTaskRepository.findSubmissionTotalsByAssignmentId(assignmentId);
+
+          SubmissionOverviewPageDTO page = new SubmissionOverviewPageDTO();
+          page.setTotalSubmissions((int) totals.getTotalStudents());
+          page.setReviewsCompleted(
+              completionPercentage(totals.getCompletedStudents(), totals.getTotalStudents()));
+          page.setGroups(groupDTOs);
+          page.setNextCursor(hasNextPage ? pageGroupIds.get(pageGroupIds.size() - 1) : null);
+          return page;
+        },
+        databaseExecutionContext);
+  }
+
+  private static int completionPercentage(long completed, long total) {
+    return (total == 0) ? 0 : (int) Math.round((completed * 100.0) / total);
+  }
+
+  /**
+   * Retrieves the computed report of an assignment: its groups and members with their evaluation
+   * matrices, and the class averages. The report is served from the report cache as long as the
+   * data of the assignment has not changed since it was built. The returned report is shared and
+   * must not be modified.
+   *
+   * <p>With {@code reports.aggregation.mode = database} the evaluation matrices are computed by the
+   * database and the feedbacks are read as rows instead of entities; the report is the same.
+   *
+   * @param assignmentId the ID of the assignment
+   * @return a CompletableFuture containing the AssignmentReportDTO
+   */
+  @Override
+  public CompletableFuture<AssignmentReportDTO> getAssignmentReport(Long assignmentId) {
+    long version = dataVersionRegistry.assignmentVersion(assignmentId);
+    return reportCache.getOrCompute(
+        assignmentId,
+        version,
+        () ->
+            databaseAggregation
+                ? CompletableFuture.supplyAsync(
+                    () -> buildAssignmentReportFromRows(assignmentId, version),
+                    databaseExecutionContext)
+                : getReviewTasks(assignmentId)
+                    .thenApply(
+                        reviewTasks -> buildAssignmentReport(assignmentId, version, reviewTasks)));
+  }
+
+  /**
+   * Retrieves the class averages and the average score of every student of an assignment. They are
+   * computed from the score aggregates, one row per student and question, without loading the
+   * review tasks or their feedbacks. Reading the aggregates may rebuild them, so it runs on the
+   * database execution context.
+   *
+   * @param assignmentId the ID of the assignment
+   * @return a CompletableFuture containing the AssignmentAveragesDTO
+   */
+  @Override
+  public CompletableFuture<AssignmentAveragesDTO> getAssignmentAverages(Long assignmentId) {
+    return CompletableFuture.supplyAsync(
+        () ->
+            ScoreMatrixEngine.averagesFromAggregates(
+                feedbackAggregateRepository.findByAssignmentId(assignmentId)),
+        databaseExecutionContext);
+  }
+
+  /**
+   * Retrieves the report of a single student's group. Only the review tasks of that group are
+   * loaded; the class averages come from the score aggregates, so the cost does not grow with the
+   * size of the class. The report is not cached and its groups contain the student's group only.
+   *
+   * @param assignmentId the ID of the assignment
+   * @param userId the ID of the student
+   * @return a CompletableFuture containing the AssignmentReportDTO of the student's group
+   */
+  @Override
+  public CompletableFuture<AssignmentReportDTO> getStudentGroupReport(
+      Long assignmentId, Long userId) {
+    long version = dataVersionRegistry.assignmentVersion(assignmentId);
+    List<ReviewTask> reviewTasks =
+        reviewTaskRepository
+            .findGroupReportDataByAssignmentIdAndUserId(assignmentId, userId)
+            .orElse(Collections.emptyList());
+
+    return getAssignmentAverages(assignmentId)
+        .thenApply(
+            averages -> {
+              AssignmentReportDTO report = newAssignmentReport(assignmentId, version, reviewTasks);
+              List<GroupSubmissionDTO> groupDTOs =
+                  generateSubmissionInfoInEachGroupDTOs(groupReviewTasksByGroup(reviewTasks));
+              applyClassAverages(groupDTOs, averages);
+              report.setGroups(groupDTOs);
+              report.setClassAveragesForEachQuestion(averages.getClassAveragesForEachQuestion());
+              report.setOverallClassAverage(averages.getOverallClassAverage());
+              return report;
+            });
+  }
+
+  /**
+   * Sets the class averages of the assignment on every member of the given groups.
+   *
+   * @param groupDTOs the groups whose members receive the averages
+   * @param averages the class averages of the assignment
+   */
+  private static void applyClassAverages(
+      List<GroupSubmissionDTO> groupDTOs, AssignmentAveragesDTO averages) {
+    groupDTOs.stream()
+        .flatMap(g -> g.getMembers().stream())
+        .forEach(
+            member -> {
+              member.setClassAveragesForEachQuestion(averages.getClassAveragesForEachQuestion());
+              member.setOverallClassAverage(averages.getOverallClassAverage());
+            });
+  }
+
+  /**
+   * Creates a report holding the assignment and course details of the given review tasks.
+   *
+   * @param assignmentId the ID of the assignment
+   * @param version the data version the review tasks were loaded at
+   * @param reviewTasks the loaded review tasks
+   * @return the AssignmentReportDTO without groups and averages
+   */
+  private AssignmentReportDTO newAssignmentReport(
+      Long assignmentId, long version, List<ReviewTask> reviewTasks) {
+    AssignmentReportDTO report = new AssignmentReportDTO();
+    report.setAssignmentId(assignmentId);
+    report.setVersion(version);
+
+    if (!reviewTasks.isEmpty()) {
+      Assignment assignment = reviewTasks.get(0).getAssignment();
+      report.setAssignmentTitle(assignment.getTitle());
+      report.setCourseName(assignment.getCourse().getCourseName());
+      report.setCourseCode(assignment.getCourse().getCourseCode());
+      report.setCourseSection(assignment.getCourse().getCourseSection());
+      report.setTerm(assignment.getCourse().getTerm());
+    }
+    return report;
+  }
+
+  /**
+   * Builds the report of an assignment from its fully loaded review tasks.
+   *
+   * @param assignmentId the ID of the assignment
+   * @param version the data version the review tasks were loaded at
+   * @param reviewTasks the review tasks of the assignment
+   * @return the computed AssignmentReportDTO
+   */
+  private AssignmentReportDTO buildAssignmentReport(
+      Long assignmentId, long version, List<ReviewTask> reviewTasks) {
+    return assembleAssignmentReport(
+        assignmentId,
+        version,
+        reviewTasks,
+        indexFeedbacksByReviewTask(reviewTasks),
+        (groupId, revieweeId, receivedFeedbacks) -> ScoreMatrixEngine.build(receivedFeedbacks));
+  }
+
+  /**
+   * Builds the report of an assignment in the database aggregation mode. The review tasks are
+   * loaded without their feedbacks, the feedbacks are read as flat rows and the evaluation matrix
+   * cells are summed by the database per review task and question. A failed query fails the
+   * report instead of leaving it empty, so the report cache does not keep it.
+   *
+   * @param assignmentId the ID of the assignment
+   * @param version the data version captured before loading
+   * @return the computed AssignmentReportDTO
+   */
+  private AssignmentReportDTO buildAssignmentReportFromRows(Long assignmentId, long version) {
+    List<ReviewTask> reviewTasks =
+        reviewTaskRepository
+            .findReportTasksByAssignmentId(assignmentId)
+            .orElseThrow(() -> reportLoadFailure(assignmentId));
+    List<FeedbackRowDTO> feedbackRows =
+        reviewTaskRepository
+            .findFeedbackRowsByAssignmentId(assignmentId)
+            .orElseThrow(() -> reportLoadFailure(assignmentId));
+    List<ScoreCellDTO> scoreCells =
+        reviewTaskRepository
+            .findScoreCellsByAssignmentId(assignmentId)
+            .orElseThrow(() -> reportLoadFailure(assignmentId));
+
+    Map<Long, List<FeedbackDTO>> feedbackIndex = new HashMap<>(reviewTasks.size() * 2);
+    for (FeedbackRowDTO row : feedbackRows) {
+      feedbackIndex
+          .computeIfAbsent(row.getReviewTaskId(), k -> new ArrayList<>())
+          .add(row.toFeedbackDTO());
+    }
+
+    Map<Long, Map<Long, List<ScoreCellDTO>>> cellsByGroupAndReviewee = new HashMap<>();
+    for (ScoreCellDTO cell : scoreCells) {
+      cellsByGroupAndReviewee
+          .computeIfAbsent(cell.getGroupId(), k -> new HashMap<>())
+          .computeIfAbsent(cell.getRevieweeId(), k -> new ArrayList<>())
+          .add(cell);
+    }
+
+    return assembleAssignmentReport(
+        assignmentId,
+        version,
+        reviewTasks,
+        feedbackIndex,
+        (groupId, revieweeId, receivedFeedbacks) ->
+            ScoreMatrixEngine.fromCells(
+                receivedFeedbacks.stream().map(FeedbackDTO::getReviewerName).toList(),
+                cellsByGroupAndReviewee
+                    .getOrDefault(groupId, Collections.emptyMap())
+                    .getOrDefault(revieweeId, Collections.emptyList())));
+  }
+
+  /**
+   * Assembles the report of an assignment from its review tasks and their feedbacks.
+   *
+   * @param assignmentId the ID of the assignment
+   * @param version the data version the data was loaded at
+   * @param reviewTasks the review tasks of the assignment
+   * @param feedbackIndex the feedbacks of the assignment indexed by review task ID
+   * @param matrixSource supplies the evaluation matrix of each reviewee
+   * @return the computed AssignmentReportDTO
+   */
+  private AssignmentReportDTO assembleAssignmentReport(
+      Long assignmentId,
+      long version,
+      List<ReviewTask> reviewTasks,
+      Map<Long, List<FeedbackDTO>> feedbackIndex,
+      MatrixSource matrixSource) {
+    AssignmentReportDTO report = newAssignmentReport(assignmentId, version, reviewTasks);
+
+    Map<Long, List<ReviewTask>> groupedTasks = groupReviewTasksByGroup(reviewTasks);
+    List<GroupSubmissionDTO> groupDTOs =
+        generateGroupSubmissionDTOs(groupedTasks, feedbackIndex, matrixSource);
+    calculateClassAverages(groupDTOs);
+    report.setGroups(groupDTOs);
+
+    Optional<MemberSubmissionDTO> anyMember =
+        groupDTOs.stream().flatMap(g -> g.getMembers().stream()).findFirst();
+    report.setClassAveragesForEachQuestion(
+        anyMember.map(MemberSubmissionDTO::getClassAverages).orElse(Collections.emptyMap()));
+    report.setOverallClassAverage(
+        anyMember.map(MemberSubmissionDTO::getOverallClassAverage).orElse(0f));
+
+    log.info(
+        "Built report for assignment {} at version {} with {} groups",
+        assignmentId,
+        version,
+        groupDTOs.size());
+    return report;
+  }
+
   /**
    * Calculates class averages for each question and overall average for all groups.
    *
@@ -125,15 +432,26 @@ public class ReviewTaskServiceImpl implements ReviewTaskService {
   }
 
   /**
-   * Retrieves review tasks for a given assignment ID.
+   * Retrieves review tasks for a given assignment ID. The tasks come back with their reviewer,
+   * reviewee, feedbacks and feedback questions already loaded, so building the report from them
+   * does not go back to the database. The future fails when the review tasks could not be
+   * loaded, so that the report cache does not keep an empty report built from a failed query.
    *
    * @param assignmentId the ID of the assignment
    * @return a CompletableFuture containing a list of ReviewTask
    */
   @Override
   public CompletableFuture<List<ReviewTask>> getReviewTasks(Long assignmentId) {
-    Optional<List<ReviewTask>> reviewTasks = reviewTaskRepository.findByAssignmentId(assignmentId);
-    return CompletableFuture.completedFuture(reviewTasks.orElse(Collections.emptyList()));
+    Optional<List<ReviewTask>> reviewTasks =
+        reviewTaskRepository.findReportDataByAssignmentId(assignmentId);
+    if (reviewTasks.isEmpty()) {
+      return CompletableFuture.failedFuture(reportLoadFailure(assignmentId));
+    }
+    return CompletableFuture.completedFuture(reviewTasks.get());
+  }
+
+  private static IllegalStateException reportLoadFailure(Long assignmentId) {
+    return new IllegalStateException("Failed to load the report data of assignment " + assignmentId);
   }
 
   /**
@@ -213,15 +531,38 @@ public class ReviewTaskServiceImpl implements ReviewTaskService {
   @Override
   public List<GroupSubmissionDTO> generateSubmissionInfoInEachGroupDTOs(
       Map<Long, List<ReviewTask>> groupedReviewTasks) {
-    List<GroupSubmissionDTO> groupSubmissionDTOList = new ArrayList<>();
+    return generateGroupSubmissionDTOs(
+        groupedReviewTasks,
+        indexFeedbacksByReviewTask(
+            groupedReviewTasks.values().stream().flatMap(List::stream).toList()),
+        (groupId, revieweeId, receivedFeedbacks) -> ScoreMatrixEngine.build(receivedFeedbacks));
+  }
 
-    groupedReviewTasks.forEach(
-        (groupId, groupReviewTasks) -> {
+  /**
+   * Generates a list of GroupSubmissionDTOs from the grouped review tasks and their feedbacks.
+   * Groups are independent of each other, so large assignments build them in parallel on the
+   * report pool; the result keeps the iteration order of the grouped review tasks either way.
+   *
+   * @param groupedReviewTasks the map of grouped review tasks
+   * @param feedbackIndex the feedbacks of the assignment indexed by review task ID
+   * @param matrixSource supplies the evaluation matrix of each reviewee
+   * @return a list of GroupSubmissionDTOs
+   */
+  private List<GroupSubmissionDTO> generateGroupSubmissionDTOs(
+      Map<Long, List<ReviewTask>> groupedReviewTasks,
+      Map<Long, List<FeedbackDTO>> feedbackIndex,
+      MatrixSource matrixSource) {
+    return reportBuildExecutor.mapInOrder(
+        new ArrayList<>(groupedReviewTasks.entrySet()),
+        entry -> {
+          Long groupId = entry.getKey();
+          List<ReviewTask> groupReviewTasks = entry.getValue();
           GroupSubmissionDTO groupSubmissionDTO = new GroupSubmissionDTO();
           groupSubmissionDTO.setGroupId(groupId);
           groupSubmissionDTO.setGroupName(groupReviewTasks.get(0).getGroupName());
 
-          List<MemberSubmissionDTO> members = generateMemberSubmissionDTOs(groupReviewTasks);
+          List<MemberSubmissionDTO> members =
+              generateMemberSubmissionDTOs(groupId, groupReviewTasks, feedbackIndex, matrixSource);
 
           long completedMembers =
               members.stream().filter(m -> "COMPLETED".equalsIgnoreCase(m.getStatus())).count();
@@ -235,48 +576,77 @@ public class ReviewTaskServiceImpl implements ReviewTaskService {
           List<FeedbackDTO> privateComments =
               groupReviewTasks.stream()
                   .flatMap(
-                      task -> {
-                        Optional<List<Feedback>> opt =
-                            feedbackService.getFeedbacksForReviewTaskId(task.getReviewTaskId());
-                        return opt.map(List::stream).orElse(Stream.empty());
-                      })
-                  .filter(
-                      f ->
-                          f.getQuestion()
-                              .getQuestionText()
-                              .equalsIgnoreCase("Private Comment for Professor"))
-                  .map(
-                      f ->
-                          new FeedbackDTO(
-                              f.getId(),
-                              f.getScore(),
-                              f.getQuestion().getMaxMarks(),
-                              f.getFeedbackText(),
-                              f.getQuestion().getQuestionText(),
-                              f.getReviewTask().getReviewer().getUserId(),
-                              f.getReviewTask().getReviewer().getUserName()))
+                      task ->
+                          feedbackIndex
+                              .getOrDefault(task.getReviewTaskId(), Collections.emptyList())
+                              .stream())
+                  .filter(f -> f.getQuestionKind() == QuestionKind.PRIVATE_COMMENT)
                   .collect(Collectors.toList());
 
           groupSubmissionDTO.setPrivateComments(privateComments);
-
-          groupSubmissionDTOList.add(groupSubmissionDTO);
+          return groupSubmissionDTO;
         });
+  }
 
-    return groupSubmissionDTOList;
+  /**
+   * Indexes the already loaded feedbacks of the given review tasks by review task ID, so the group
+   * and member builders can look them up without another query per task. Each feedback is
+   * converted to a FeedbackDTO carrying the reviewer of its task.
+   *
+   * @param reviewTasks the review tasks whose feedbacks are to be indexed
+   * @return a map where the key is the review task ID and the value is its list of feedbacks
+   */
+  private Map<Long, List<FeedbackDTO>> indexFeedbacksByReviewTask(List<ReviewTask> reviewTasks) {
+    Map<Long, List<FeedbackDTO>> feedbackIndex = new HashMap<>(reviewTasks.size() * 2);
+    for (ReviewTask task : reviewTasks) {
+      List<FeedbackDTO> feedbacks = new ArrayList<>(task.getFeedbacks().size());
+      for (Feedback f : task.getFeedbacks()) {
+        feedbacks.add(
+            new FeedbackDTO(
+                f.getId(),
+                f.getScore(),
+                f.getQuestion().getMaxMarks(),
+                f.getFeedbackText(),
+                f.getQuestion().getQuestionText(),
+                f.getQuestion().getKind(),
+                task.getReviewer().getUserId(),
+                task.getReviewer().getUserName()));
+      }
+      feedbackIndex.put(task.getReviewTaskId(), feedbacks);
+    }
+    return feedbackIndex;
   }
 
   /**
    * Generates a list of MemberSubmissionDTOs from the review tasks of a group.
    *
+   * @param groupId the ID of the group
    * @param groupReviewTasks the list of review tasks for a group
+   * @param feedbackIndex the feedbacks of the assignment indexed by review task ID
+   * @param matrixSource supplies the evaluation matrix of each reviewee
    * @return a list of MemberSubmissionDTOs
    */
   private List<MemberSubmissionDTO> generateMemberSubmissionDTOs(
-      List<ReviewTask> groupReviewTasks) {
+      Long groupId,
+      List<ReviewTask> groupReviewTasks,
+      Map<Long, List<FeedbackDTO>> feedbackIndex,
+      MatrixSource matrixSource) {
     // Get members of the group
     Set<User> groupMembers =
         groupReviewTasks.stream().map(ReviewTask::getReviewer).collect(Collectors.toSet());
 
+    // Index the group's tasks by reviewee and by reviewer once instead of scanning them per member
+    Map<Long, List<ReviewTask>> tasksByReviewee = new HashMap<>();
+    Map<Long, List<ReviewTask>> tasksByReviewer = new HashMap<>();
+    for (ReviewTask task : groupReviewTasks) {
+      tasksByReviewee
+          .computeIfAbsent(task.getReviewee().getUserId(), k -> new ArrayList<>())
+          .add(task);
+      tasksByReviewer
+          .computeIfAbsent(task.getReviewer().getUserId(), k -> new ArrayList<>())
+          .add(task);
+    }
+
     List<MemberSubmissionDTO> memberSubmissionDTOS = new ArrayList<>();
 
     // Process each group member
@@ -287,30 +657,20 @@ public class ReviewTaskServiceImpl implements ReviewTaskService {
           dto.setUserName(groupMember.getUserName());
           dto.setEmail(groupMember.getEmail());
 
+          List<ReviewTask> receivedTasks =
+              tasksByReviewee.getOrDefault(groupMember.getUserId(), Collections.emptyList());
+          List<ReviewTask> givenTasks =
+              tasksByReviewer.getOrDefault(groupMember.getUserId(), Collections.emptyList());
+
           // 1. Group feedbacks by reviewers for this reviewee (current group member being
           // processed)
           Map<Long, List<FeedbackDTO>> feedbacksByReviewer =
-              groupReviewTasks.stream()
-                  .filter(task -> task.getReviewee().getUserId().equals(groupMember.getUserId()))
+              receivedTasks.stream()
                   .flatMap(
-                      task -> {
-                        Optional<List<Feedback>> opt =
-                            feedbackService.getFeedbacksForReviewTaskId(task.getReviewTaskId());
-                        return opt.map(
-                                list ->
-                                    list.stream()
-                                        .map(
-                                            f ->
-                                                new FeedbackDTO(
-                                                    f.getId(),
-                                                    f.getScore(),
-                                                    f.getQuestion().getMaxMarks(),
-                                                    f.getFeedbackText(),
-                                                    f.getQuestion().getQuestionText(),
-                                                    task.getReviewer().getUserId(),
-                                                    task.getReviewer().getUserName())))
-                            .orElse(Stream.empty());
-                      })
+                      task ->
+                          feedbackIndex
+                              .getOrDefault(task.getReviewTaskId(), Collections.emptyList())
+                              .stream())
                   .collect(Collectors.groupingBy(FeedbackDTO::getReviewerId));
 
           dto.setFeedbacks(feedbacksByReviewer);
@@ -319,95 +679,36 @@ public class ReviewTaskServiceImpl implements ReviewTaskService {
           List<FeedbackDTO> allFeedbacks =
               feedbacksByReviewer.values().stream().flatMap(List::stream).toList();
 
-          // 3. Get reviewer names
-          List<String> reviewerNames =
-              allFeedbacks.stream()
-                  .map(FeedbackDTO::getReviewerName)
-                  .distinct()
-                  .sorted()
-                  .collect(Collectors.toList());
-
-          dto.setReviewerNames(reviewerNames);
+          // 3. Build the evaluation matrix (questions x reviewers) on primitive arrays
+          ScoreMatrixEngine.ScoreMatrix scoreMatrix =
+              matrixSource.matrixFor(groupId, groupMember.getUserId(), allFeedbacks);
+          dto.setReviewerNames(scoreMatrix.getReviewerNames());
 
           // 3a. Count how many reviewers actually submitted their review for this student
           long respondedCount =
-              groupReviewTasks.stream()
-                  .filter(
-                      task ->
-                          task.getReviewee().getUserId().equals(groupMember.getUserId())
-                              && task.getStatus() == Status.COMPLETED)
-                  .count();
+              receivedTasks.stream().filter(task -> task.getStatus() == Status.COMPLETED).count();
           dto.setReviewersResponseCount((int) respondedCount);
 
-          // 4. Build Evaluation Matrix (Grouping feedbacks by question text )
-          Map<String, List<FeedbackDTO>> groupedByQuestion =
-              allFeedbacks.stream()
-                  .filter(
-                      f -> !f.getQuestionText().equalsIgnoreCase("Private Comment for Professor"))
-                  .filter(f -> !f.getQuestionText().equalsIgnoreCase("Overall Feedback Comment"))
-                  .collect(
-                      Collectors.groupingBy(
-                          FeedbackDTO::getQuestionText, LinkedHashMap::new, Collectors.toList()));
-
-          // 4a. For each question, builds a row of marks per reviewer. If a reviewer didn’t answer
-          // that question, a zero is filled in.
-          List<MemberSubmissionDTO.EvaluationMatrixDTO> matrix = new ArrayList<>();
-          for (Map.Entry<String, List<FeedbackDTO>> entry : groupedByQuestion.entrySet()) {
-            String question = entry.getKey();
-            List<FeedbackDTO> feedbacks = entry.getValue();
-
-            List<Integer> marksPerReviewer = new ArrayList<>();
-            for (String reviewer : reviewerNames) {
-              feedbacks.stream()
-                  .filter(f -> f.getReviewerName().equals(reviewer))
-                  .findFirst()
-                  .ifPresentOrElse(
-                      f -> marksPerReviewer.add(f.getObtainedScore()),
-                      () -> marksPerReviewer.add(0));
-            }
+          // 4. Evaluation matrix rows, one per question with the marks of every reviewer
+          dto.setEvaluationMatrix(scoreMatrix.toEvaluationMatrixDTOs());
 
-            // 4.b  Calculate average for this question based on the marks all reviewers gave
-            float avg =
-                (float) marksPerReviewer.stream().mapToInt(Integer::intValue).average().orElse(0);
-            matrix.add(
-                new MemberSubmissionDTO.EvaluationMatrixDTO(question, marksPerReviewer, avg));
-          }
-          dto.setEvaluationMatrix(matrix);
-
-          // 5. compute average of the feedback scores a reviewer gave across all feedback questions
-          // for a specific reviewee (each column in the matrix corresponds to a reviewer)
-          List<Float> reviewerAverages = new ArrayList<>();
-          for (int i = 0; i < reviewerNames.size(); i++) {
-            final int index = i;
-            float colSum =
-                (float) matrix.stream().mapToInt(row -> row.getMarksPerReviewer().get(index)).sum();
-            reviewerAverages.add(colSum);
-          }
-          dto.setReviewerAverages(reviewerAverages);
+          // 5. Total of the feedback scores each reviewer gave this reviewee (one per column)
+          dto.setReviewerAverages(scoreMatrix.getReviewerTotals());
 
           // 6. Overall average feedback score from all reviewers for this reviewee
-          if (matrix.isEmpty()) {
-            dto.setAverageFeedbackScore(0);
-          } else {
-
-            float overallAverage =
-                (float)
-                    reviewerAverages.stream().mapToDouble(Float::doubleValue).average().orElse(0.0);
-            dto.setAverageFeedbackScore(overallAverage);
-          }
+          dto.setAverageFeedbackScore(scoreMatrix.overallAverage());
 
-          // 7. Peer comments (Overall Comment)
+          // 7. Peer comments (overall comments)
           List<FeedbackDTO> peerComments =
               allFeedbacks.stream()
-                  .filter(f -> f.getQuestionText().equalsIgnoreCase("Overall Comment"))
+                  .filter(f -> f.getQuestionKind() == QuestionKind.OVERALL_COMMENT)
                   .collect(Collectors.toList());
           dto.setFeedbacksPerQuestion(peerComments);
 
           // 8. Private comments
           List<FeedbackDTO> privateComments =
               allFeedbacks.stream()
-                  .filter(
-                      f -> f.getQuestionText().equalsIgnoreCase("Private Comment for Professor"))
+                  .filter(f -> f.getQuestionKind() == QuestionKind.PRIVATE_COMMENT)
                   .collect(Collectors.toList());
           dto.setPrivateComments(privateComments);
 
@@ -421,11 +722,7 @@ public class ReviewTaskServiceImpl implements ReviewTaskService {
           dto.setMaximumAverageFeedbackScoreForReviewTask(average);
 
           boolean allSubmitted =
-              groupReviewTasks.stream()
-                  .noneMatch(
-                      task ->
-                          task.getReviewer().getUserId().equals(groupMember.getUserId())
-                              && task.getStatus().equals(Status.PENDING));
+              givenTasks.stream().noneMatch(task -> task.getStatus().equals(Status.PENDING));
           dto.setStatus(allSubmitted ? "COMPLETED" : "PENDING");
 
           memberSubmissionDTOS.add(dto);
@@ -433,4 +730,11 @@ public class ReviewTaskServiceImpl implements ReviewTaskService {
 
     return memberSubmissionDTOS;
   }
+
+  /** Supplies the evaluation matrix of a reviewee of a group from the feedbacks they received. */
+  @FunctionalInterface
+  private interface MatrixSource {
+    ScoreMatrixEngine.ScoreMatrix matrixFor(
+        Long groupId, Long revieweeId, List<FeedbackDTO> receivedFeedbacks);
+  }
 }
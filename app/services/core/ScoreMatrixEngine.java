@@ -0,0 +1,318 @@
+package services.core;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import models.dto.AssignmentAveragesDTO;
+import models.dto.FeedbackDTO;
+import models.dto.MemberSubmissionDTO;
+import models.dto.ScoreAggregateDTO;
+import models.dto.ScoreCellDTO;
+import models.enums.QuestionKind;
+
+/**
+ * ScoreMatrixEngine builds the evaluation matrix of a reviewee (questions x reviewers) from the
+ * feedbacks the reviewee received. Questions and reviewers are mapped to dense indexes and the
+ * scores are filled into primitive arrays in a single pass over the feedback rows; the DTO form is
+ * only produced at the edge through {@link ScoreMatrix#toEvaluationMatrixDTOs()}.
+ *
+ * <p>The ordering and arithmetic intentionally mirror the original stream based implementation:
+ * questions appear in the order they are first seen, reviewer columns are the distinct reviewer
+ * names in natural order, a missing answer counts as zero and only the first answer of a reviewer
+ * to a question is used.
+ */
+public final class ScoreMatrixEngine {
+
+  private ScoreMatrixEngine() {}
+
+  /**
+   * Builds the score matrix for the given feedbacks. Only SCORED questions are part of the matrix,
+   * but the reviewers of comment questions still get a column.
+   *
+   * @param feedbacks all feedbacks received by a reviewee, in encounter order
+   * @return the computed ScoreMatrix
+   */
+  public static ScoreMatrix build(List<FeedbackDTO> feedbacks) {
+    int rowCount = feedbacks.size();
+
+    // 1. Dense reviewer index, columns sorted by reviewer name
+    Map<String, Integer> reviewerIndex = new HashMap<>();
+    for (int i = 0; i < rowCount; i++) {
+      reviewerIndex.putIfAbsent(feedbacks.get(i).getReviewerName(), 0);
+    }
+    String[] reviewers = reviewerIndex.keySet().toArray(new String[0]);
+    Arrays.sort(reviewers);
+    for (int r = 0; r < reviewers.length; r++) {
+      reviewerIndex.put(reviewers[r], r);
+    }
+
+    // 2. Dense question index in first-seen order, and the row/column of every scored feedback
+    Map<String, Integer> questionIndex = new LinkedHashMap<>();
+    int[] cellQuestion = new int[rowCount];
+    int[] cellReviewer = new int[rowCount];
+    for (int i = 0; i < rowCount; i++) {
+      FeedbackDTO feedback = feedbacks.get(i);
+      if (feedback.getQuestionKind() != QuestionKind.SCORED) {
+        cellQuestion[i] = -1;
+        continue;
+      }
+      Integer q = questionIndex.get(feedback.getQuestionText());
+      if (q == null) {
+        q = questionIndex.size();
+        questionIndex.put(feedback.getQuestionText(), q);
+      }
+      cellQuestion[i] = q;
+      cellReviewer[i] = reviewerIndex.get(feedback.getReviewerName());
+    }
+    String[] questions = questionIndex.keySet().toArray(new String[0]);
+
+    // 3. Fill the matrix in one pass, keeping the first answer of a reviewer to a question
+    int columns = reviewers.length;
+    int[] scores = new int[questions.length * columns];
+    boolean[] filled = new boolean[scores.length];
+    for (int i = 0; i < rowCount; i++) {
+      if (cellQuestion[i] < 0) {
+        continue;
+      }
+      int cell = cellQuestion[i] * columns + cellReviewer[i];
+      if (!filled[cell]) {
+        filled[cell] = true;
+        scores[cell] = feedbacks.get(i).getObtainedScore();
+      }
+    }
+
+    return summarize(questions, reviewers, scores);
+  }
+
+  /**
+   * Builds the score matrix of a reviewee from cells read by the database, one per scored feedback.
+   * Questions keep the order of the cells, reviewer columns are the given reviewer names in natural
+   * order and only the first cell of a reviewer name and question text is used, so the result
+   * matches {@link #build(List)} on the same data.
+   *
+   * @param reviewerNames the names of everyone who gave the reviewee feedback, comments included
+   * @param cells the score cells of the reviewee, in the order of the feedbacks
+   * @return the computed ScoreMatrix
+   */
+  public static ScoreMatrix fromCells(Collection<String> reviewerNames, List<ScoreCellDTO> cells) {
+    String[] reviewers = new TreeSet<>(reviewerNames).toArray(new String[0]);
+    Map<String, Integer> reviewerIndex = new HashMap<>();
+    for (int r = 0; r < reviewers.length; r++) {
+      reviewerIndex.put(reviewers[r], r);
+    }
+
+    Map<String, Integer> questionIndex = new LinkedHashMap<>();
+    for (ScoreCellDTO cell : cells) {
+      questionIndex.putIfAbsent(cell.getQuestionText(), questionIndex.size());
+    }
+    String[] questions = questionIndex.keySet().toArray(new String[0]);
+
+    // Reviewers with the same name, or questions with the same text, share a cell: like build,
+    // keep the first answer in cell order
+    int columns = reviewers.length;
+    int[] scores = new int[questions.length * columns];
+    boolean[] filled = new boolean[scores.length];
+    for (ScoreCellDTO cell : cells) {
+      Integer r = reviewerIndex.get(cell.getReviewerName());
+      if (r == null) {
+        continue;
+      }
+      int index = questionIndex.get(cell.getQuestionText()) * columns + r;
+      if (!filled[index]) {
+        filled[index] = true;
+        scores[index] = cell.getScore();
+      }
+    }
+
+    return summarize(questions, reviewers, scores);
+  }
+
+  /**
+   * Computes the row averages, column totals and overall average of a filled score matrix.
+   *
+   * @param questions the question texts, one per row
+   * @param reviewers the reviewer names, one per column
+   * @param scores the scores, row major
+   * @return the ScoreMatrix
+   */
+  private static ScoreMatrix summarize(String[] questions, String[] reviewers, int[] scores) {
+    int columns = reviewers.length;
+
+    // Row averages and column totals
+    float[] questionAverages = new float[questions.length];
+    int[] columnTotals = new int[columns];
+    for (int q = 0; q < questions.length; q++) {
+      long rowSum = 0;
+      for (int r = 0; r < columns; r++) {
+        int score = scores[q * columns + r];
+        rowSum += score;
+        columnTotals[r] += score;
+      }
+      questionAverages[q] = columns == 0 ? 0 : (float) ((double) rowSum / columns);
+    }
+
+    float[] reviewerTotals = new float[columns];
+    for (int r = 0; r < columns; r++) {
+      reviewerTotals[r] = (float) columnTotals[r];
+    }
+
+    // Overall average of the reviewer totals. The totals are whole numbers, so a plain double
+    // sum is exact and matches the compensated sum used by DoubleStream.average().
+    float overallAverage = 0;
+    if (questions.length > 0 && columns > 0) {
+      double total = 0;
+      for (float reviewerTotal : reviewerTotals) {
+        total += reviewerTotal;
+      }
+      overallAverage = (float) (total / columns);
+    }
+
+    return new ScoreMatrix(
+        questions, reviewers, scores, questionAverages, reviewerTotals, overallAverage);
+  }
+
+  /**
+   * Computes the class and student averages of an assignment from its score aggregates, with the
+   * same semantics as building every member matrix: a student's question average divides the sum
+   * of the scores by the number of reviewers, and the class average of a question is the mean of
+   * the students' question averages.
+   *
+   * @param aggregates the aggregates of the assignment, ordered by reviewee
+   * @return the computed AssignmentAveragesDTO
+   */
+  public static AssignmentAveragesDTO averagesFromAggregates(List<ScoreAggregateDTO> aggregates) {
+    Map<String, List<Float>> questionAverages = new LinkedHashMap<>();
+    Map<Long, Float> studentAverages = new LinkedHashMap<>();
+
+    int start = 0;
+    while (start < aggregates.size()) {
+      Long revieweeId = aggregates.get(start).getRevieweeId();
+
+      // Every reviewer of a student answers every question, so the largest count is the number of
+      // reviewer columns of the student's matrix
+      int end = start;
+      long reviewers = 0;
+      while (end < aggregates.size() && aggregates.get(end).getRevieweeId().equals(revieweeId)) {
+        reviewers = Math.max(reviewers, aggregates.get(end).getFeedbackCount());
+        end++;
+      }
+
+      long total = 0;
+      boolean scored = false;
+      for (int i = start; i < end; i++) {
+        ScoreAggregateDTO aggregate = aggregates.get(i);
+        if (aggregate.getQuestionKind() != QuestionKind.SCORED) {
+          continue;
+        }
+        scored = true;
+        total += aggregate.getScoreSum();
+        float average = reviewers == 0 ? 0 : (float) ((double) aggregate.getScoreSum() / reviewers);
+        questionAverages
+            .computeIfAbsent(aggregate.getQuestionText(), k -> new ArrayList<>())
+            .add(average);
+      }
+      studentAverages.put(
+          revieweeId, scored && reviewers > 0 ? (float) ((double) total / reviewers) : 0f);
+      start = end;
+    }
+
+    Map<String, Float> classAverages = new LinkedHashMap<>();
+    for (Map.Entry<String, List<Float>> entry : questionAverages.entrySet()) {
+      classAverages.put(
+          entry.getKey(),
+          (float) entry.getValue().stream().mapToDouble(Float::doubleValue).average().orElse(0));
+    }
+    float overallClassAverage =
+        (float) classAverages.values().stream().mapToDouble(Float::doubleValue).sum();
+
+    return new AssignmentAveragesDTO(classAverages, overallClassAverage, studentAverages);
+  }
+
+  /**
+   * ScoreMatrix holds the result of {@link ScoreMatrixEngine#build(List)}. Scores are stored row
+   * major, one row per question and one column per reviewer.
+   */
+  public static final class ScoreMatrix {
+    private final String[] questions;
+    private final String[] reviewers;
+    private final int[] scores;
+    private final float[] questionAverages;
+    private final float[] reviewerTotals;
+    private final float overallAverage;
+
+    private ScoreMatrix(
+        String[] questions,
+        String[] reviewers,
+        int[] scores,
+        float[] questionAverages,
+        float[] reviewerTotals,
+        float overallAverage) {
+      this.questions = questions;
+      this.reviewers = reviewers;
+      this.scores = scores;
+      this.questionAverages = questionAverages;
+      this.reviewerTotals = reviewerTotals;
+      this.overallAverage = overallAverage;
+    }
+
+    public int questionCount() {
+      return questions.length;
+    }
+
+    public int reviewerCount() {
+      return reviewers.length;
+    }
+
+    public int score(int question, int reviewer) {
+      return scores[question * reviewers.length + reviewer];
+    }
+
+    public float questionAverage(int question) {
+      return questionAverages[question];
+    }
+
+    public float overallAverage() {
+      return overallAverage;
+    }
+
+    public boolean isEmpty() {
+      return questions.length == 0;
+    }
+
+    public List<String> getReviewerNames() {
+      return new ArrayList<>(Arrays.asList(reviewers));
+    }
+
+    public List<Float> getReviewerTotals() {
+      List<Float> totals = new ArrayList<>(reviewerTotals.length);
+      for (float total : reviewerTotals) {
+        totals.add(total);
+      }
+      return totals;
+    }
+
+    /**
+     * Converts the matrix into the evaluation matrix rows used by MemberSubmissionDTO.
+     *
+     * @return one EvaluationMatrixDTO per question, in question order
+     */
+    public List<MemberSubmissionDTO.EvaluationMatrixDTO> toEvaluationMatrixDTOs() {
+      List<MemberSubmissionDTO.EvaluationMatrixDTO> rows = new ArrayList<>(questions.length);
+      for (int q = 0; q < questions.length; q++) {
+        List<Integer> marksPerReviewer = new ArrayList<>(reviewers.length);
+        for (int r = 0; r < reviewers.length; r++) {
+          marksPerReviewer.add(score(q, r));
+        }
+        rows.add(
+            new MemberSubmissionDTO.EvaluationMatrixDTO(
+                questions[q], marksPerReviewer, questionAverages[q]));
+      }
+      return rows;
+    }
+  }
+}
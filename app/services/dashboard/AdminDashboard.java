@@ -11,21 +11,22 @@ import services.AuthenticationService;
 /**
  * AdminDashboard is a service class that implements the Dashboard interface. It provides a method
  * to retrieve the admin dashboard view for a given HTTP request. From the request, it extracts the
- * user's role and renders the corresponding dashboard view.
+ * user's name and renders the corresponding dashboard view, whose operations section polls the
+ * runtime metrics from the admin API.
  */
 @Singleton
 public class AdminDashboard implements Dashboard {
 
   /**
    * Retrieves the admin dashboard view for a given HTTP request. From the request, it extracts the
-   * user's role and renders the corresponding dashboard view.
+   * user's name and renders the corresponding dashboard view.
    *
    * @param request the HTTP request
    * @return a CompletableFuture containing the Result of the admin dashboard view
    */
   public CompletableFuture<Result> dashboard(Http.Request request) {
 
-    String adminName = "Admin Name";
+    String adminName = request.session().get("userName").orElse("Admin");
     String adminRole = "Admin";
     return CompletableFuture.completedFuture(
         ok(views.html.adminDashboard.render(request, adminName, adminRole))
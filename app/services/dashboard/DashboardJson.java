@@ -0,0 +1,127 @@
+package services.dashboard;
+
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import java.time.LocalDate;
+import models.Assignment;
+import models.dto.FeedbackDTO;
+import models.dto.FeedbacksReceivedDTO;
+import models.dto.PeerReviewSummaryDTO;
+import models.dto.ProfessorDashboardDTO;
+import models.dto.ReviewTaskDTO;
+import models.dto.StudentDashboardDTO;
+import play.libs.Json;
+
+/**
+ * DashboardJson writes the dashboard data as the JSON of the dashboard data API. Only the fields
+ * the dashboards display are written, so the entities in the data are never serialized with their
+ * associations.
+ */
+public final class DashboardJson {
+
+  private DashboardJson() {}
+
+  /**
+   * Writes the professor dashboard data.
+   *
+   * @param data the professor dashboard data
+   * @return the JSON of the counts, assignments and peer review progress
+   */
+  public static ObjectNode professor(ProfessorDashboardDTO data) {
+    ObjectNode json = Json.newObject();
+    json.put("studentCount", data.getStudentCount());
+    json.put("assignmentCount", data.getAssignmentCount());
+    json.put("activeCourseCount", data.getActiveCourseCount());
+
+    ArrayNode assignments = json.putArray("assignments");
+    for (Assignment assignment : data.getAssignments()) {
+      assignments.add(
+          assignment(assignment)
+              .put("status", assignment.getStatus())
+              .put("statusReason", assignment.getStatusReason())
+              .put("peerAssigned", assignment.isPeerAssigned()));
+    }
+
+    ArrayNode peerReviews = json.putArray("peerReviewAssignments");
+    for (PeerReviewSummaryDTO peerReview : data.getPeerReviewAssignments()) {
+      peerReviews
+          .addObject()
+          .put("assignmentId", peerReview.getAssignmentId())
+          .put("assignmentTitle", peerReview.getAssignmentTitle())
+          .put("courseCode", peerReview.getCourseCode())
+          .put("totalStudentCount", peerReview.getTotalStudentCount())
+          .put("completedReviews", peerReview.getCompletedReviews())
+          .put("totalReviews", peerReview.getTotalReviews())
+          .put("completedMembers", peerReview.getCompletedMembers())
+          .put("totalMembers", peerReview.getTotalMembers())
+          .put("progressPercentage", peerReview.getProgressPercentage());
+    }
+    return json;
+  }
+
+  /**
+   * Writes the student dashboard data.
+   *
+   * @param data the student dashboard data
+   * @return the JSON of the counts, assignments, peer reviews and feedbacks received
+   */
+  public static ObjectNode student(StudentDashboardDTO data) {
+    ObjectNode json = Json.newObject();
+    json.put("assignmentCount", data.getAssignmentCount());
+    json.put("pendingReviews", data.getPendingReviews());
+    json.put("completedReviews", data.getCompletedReviews());
+
+    ArrayNode assignments = json.putArray("assignments");
+    for (Assignment assignment : data.getAssignments()) {
+      assignments.add(assignment(assignment));
+    }
+
+    ArrayNode peerReviews = json.putArray("peerReviews");
+    for (ReviewTaskDTO review : data.getPeerReviews()) {
+      ObjectNode reviewJson =
+          peerReviews
+              .addObject()
+              .put("reviewTaskId", review.getReviewTaskId())
+              .put("assignmentId", review.getAssignmentId())
+              .put("assignmentName", review.getAssignmentName())
+              .put("revieweeName", review.getRevieweeName())
+              .put("courseCode", review.getCourseCode())
+              .put("dueDate", date(review.getDueDate()))
+              .put("reviewStatus", review.getReviewStatus().name())
+              .put("reviewTaskForProfessor", Boolean.TRUE.equals(review.isReviewTaskForProfessor()));
+      ArrayNode feedbacks = reviewJson.putArray("feedbacks");
+      for (FeedbackDTO feedback : review.getFeedbacks()) {
+        feedbacks
+            .addObject()
+            .put("feedbackId", feedback.getFeedbackId())
+            .put("questionText", feedback.getQuestionText())
+            .put("feedbackText", feedback.getFeedbackText())
+            .put("maxScore", feedback.getMaxScore())
+            .put("obtainedScore", feedback.getObtainedScore());
+      }
+    }
+
+    ArrayNode myReviews = json.putArray("myReviews");
+    for (FeedbacksReceivedDTO feedback : data.getMyReviews()) {
+      myReviews
+          .addObject()
+          .put("assignmentId", feedback.getAssignmentId())
+          .put("assignmentTitle", feedback.getAssignmentTitle())
+          .put("obtainedMarks", feedback.getObtainedMarks())
+          .put("totalMarks", feedback.getTotalMarks());
+    }
+    return json;
+  }
+
+  private static ObjectNode assignment(Assignment assignment) {
+    return Json.newObject()
+        .put("assignmentId", assignment.getAssignmentId())
+        .put("title", assignment.getTitle())
+        .put("courseCode", assignment.getCourse().getCourseCode())
+        .put("dueDate", date(assignment.getDueDate()));
+  }
+
+  private static String date(LocalDate date) {
+    return date == null ? null : date.toString();
+  }
+}
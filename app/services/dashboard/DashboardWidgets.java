@@ -0,0 +1,67 @@
+package services.dashboard;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * DashboardWidgets composes the widgets of a dashboard without blocking. Each widget is bounded by
+ * the timeout of its dashboard; a widget that fails or times out is rendered with a fallback value
+ * and marks the dashboard as partial instead of failing the whole page.
+ */
+final class DashboardWidgets {
+
+  private static final Logger log = LoggerFactory.getLogger(DashboardWidgets.class);
+
+  private final String dashboard;
+  private final Duration timeout;
+  private final AtomicBoolean partial = new AtomicBoolean();
+
+  DashboardWidgets(String dashboard, Duration timeout) {
+    this.dashboard = dashboard;
+    this.timeout = timeout;
+  }
+
+  /**
+   * Starts a widget and bounds it by the dashboard timeout.
+   *
+   * @param name the name of the widget, for the logs
+   * @param loader starts loading the widget data
+   * @param fallback the value rendered when the widget fails or times out
+   * @param <T> the type of the widget data
+   * @return a CompletableFuture that always completes normally, with the data or the fallback
+   */
+  <T> CompletableFuture<T> widget(String name, Supplier<CompletableFuture<T>> loader, T fallback) {
+    CompletableFuture<T> future;
+    try {
+      future = loader.get();
+    } catch (RuntimeException e) {
+      future = CompletableFuture.failedFuture(e);
+    }
+    return future
+        .orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS)
+        .exceptionally(
+            ex -> {
+              log.warn(
+                  "Dashboard {} rendered without {} - with exception: {}",
+                  dashboard,
+                  name,
+                  ex.getMessage());
+              partial.set(true);
+              return fallback;
+            });
+  }
+
+  /**
+   * Whether a widget fell back, in which case the dashboard data must not be cached.
+   *
+   * @return true if at least one widget failed or timed out
+   */
+  boolean isPartial() {
+    return partial.get();
+  }
+}
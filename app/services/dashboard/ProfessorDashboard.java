@@ -2,15 +2,21 @@ package services.dashboard;
 
 import static play.mvc.Results.ok;
 
+import com.typesafe.config.Config;
+import java.time.Duration;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 import models.Assignment;
+import models.User;
 import models.dto.PeerReviewSummaryDTO;
+import models.dto.ProfessorDashboardDTO;
 import play.mvc.Http;
 import play.mvc.Result;
 import repository.DashboardRepository;
+import repository.DatabaseExecutionContext;
+import services.cache.DashboardCache;
 import services.core.AssignmentService;
 import services.core.CourseService;
 import services.core.EnrollmentService;
@@ -24,11 +30,17 @@ import services.core.UserService;
 @Singleton
 public class ProfessorDashboard implements Dashboard {
 
+  private static final String CACHE_NAME = "professor";
+  private static final String TIMEOUT_PATH = "dashboard.professor.timeout";
+
   private final UserService userService;
   private final CourseService courseService;
   private final EnrollmentService enrollmentService;
   private final AssignmentService assignmentService;
   private final DashboardRepository dashboardRepository;
+  private final DashboardCache dashboardCache;
+  private final DatabaseExecutionContext databaseExecutionContext;
+  private final Duration timeout;
 
   @Inject
   public ProfessorDashboard(
@@ -36,12 +48,19 @@ public class ProfessorDashboard implements Dashboard {
       CourseService courseService,
       EnrollmentService enrollmentService,
       AssignmentService assignmentService,
-      DashboardRepository dashboardRepository) {
+      DashboardRepository dashboardRepository,
+      DashboardCache dashboardCache,
+      DatabaseExecutionContext databaseExecutionContext,
+      Config config) {
     this.userService = userService;
     this.courseService = courseService;
     this.enrollmentService = enrollmentService;
     this.assignmentService = assignmentService;
     this.dashboardRepository = dashboardRepository;
+    this.dashboardCache = dashboardCache;
+    this.databaseExecutionContext = databaseExecutionContext;
+    this.timeout =
+        config.hasPath(TIMEOUT_PATH) ? config.getDuration(TIMEOUT_PATH) : Duration.ofSeconds(5);
   }
 
     /**
@@ -57,71 +76,155 @@ public class ProfessorDashboard implements Dashboard {
 
   /**
    * Retrieves the professor dashboard view for a given HTTP request. From the request, it extracts
-   * the user's role and renders the corresponding dashboard view.
+   * the user's role and renders the corresponding dashboard view. The dashboard data comes from
+   * the dashboard cache, keyed by the professor and the course and term filters.
    *
    * @param request the HTTP request
    * @return a CompletableFuture containing the Result of the professor dashboard view
    */
   public CompletableFuture<Result> dashboard(Http.Request request) {
+    Long userId = Long.valueOf(request.session().get("userId").get());
+    String role = request.session().get("role").get();
+    String courseCode = null;
+    String courseSection = null;
+    String term = null;
+
+    if (request.header("courseFilter").isPresent() && request.header("termFilter").isPresent()) {
+      courseCode = request.header("courseFilter").get().split(":::")[0].trim();
+      courseSection = request.header("courseFilter").get().split(":::")[1].trim();
+      term = request.header("termFilter").get();
+    }
+
+    return getDashboardData(userId, courseCode, courseSection, term)
+        .thenApply(
+            data ->
+                ok(
+                    views.html.professorDashboard.render(
+                        request,
+                        data.getProfessorName(),
+                        role,
+                        data.getStudentCount(),
+                        data.getAssignmentCount(),
+                        data.getActiveCourseCount(),
+                        toScalaImmutableList(data.getAssignments()),
+                        toScalaImmutableList(data.getPeerReviewAssignments()))));
+  }
+
+  /**
+   * Returns the professor dashboard data from the dashboard cache, keyed by the professor and the
+   * course and term filters. The filters only apply when all three are given.
+   *
+   * @param userId the ID of the professor
+   * @param courseCode the course code filter, or null for all courses
+   * @param courseSection the course section filter, or null for all courses
+   * @param term the term filter, or null for all courses
+   * @return a CompletableFuture containing the dashboard data
+   */
+  public CompletableFuture<ProfessorDashboardDTO> getDashboardData(
+      Long userId, String courseCode, String courseSection, String term) {
+    boolean filtered = courseCode != null && courseSection != null && term != null;
+    String code = filtered ? courseCode : null;
+    String section = filtered ? courseSection : null;
+    String termFilter = filtered ? term : null;
+    return dashboardCache.getOrLoad(
+        CACHE_NAME,
+        userId,
+        filterOf(code, section, termFilter),
+        () -> loadDashboardData(userId, code, section, termFilter),
+        data -> !data.isPartial());
+  }
+
+  /**
+   * Returns the cache filter of the course and term filters, null when unfiltered.
+   *
+   * @param courseCode the course code filter, or null for all courses
+   * @param courseSection the course section filter, or null for all courses
+   * @param term the term filter, or null for all courses
+   * @return the filter the dashboard data is cached under
+   */
+  public static String filterOf(String courseCode, String courseSection, String term) {
+    return courseCode == null ? null : courseCode + ":::" + courseSection + ":::" + term;
+  }
+
+  /**
+   * Assembles the professor dashboard data from the database by composing the widget futures,
+   * without blocking a thread while they load. Widgets that fail or time out are left empty and
+   * mark the data as partial.
+   *
+   * @param userId the ID of the professor
+   * @param courseCode the course code filter, or null for all courses
+   * @param courseSection the course section filter, or null for all courses
+   * @param term the term filter, or null for all courses
+   * @return a CompletableFuture containing the dashboard data
+   */
+  CompletableFuture<ProfessorDashboardDTO> loadDashboardData(
+      Long userId, String courseCode, String courseSection, String term) {
+    DashboardWidgets widgets = new DashboardWidgets(CACHE_NAME, timeout);
+
+    CompletableFuture<String> professorNameFuture =
+        widgets.widget(
+            "professorName",
+            () ->
+                CompletableFuture.supplyAsync(
+                    () -> userService.getUserById(userId).map(User::getUserName).orElse(""),
+                    databaseExecutionContext),
+            "");
+    CompletableFuture<Integer> studentCountFuture =
+        widgets.widget(
+            "studentCount",
+            () ->
+                enrollmentService.getStudentCountByProfessorId(
+                    userId, courseCode, courseSection, term),
+            0);
+    CompletableFuture<Integer> assignmentCountFuture =
+        widgets.widget(
+            "assignmentCount",
+            () ->
+                assignmentService.getAssignmentCountByProfessorId(
+                    userId, courseCode, courseSection, term),
+            0);
+    CompletableFuture<Integer> activeCoursesFuture =
+        widgets.widget(
+            "activeCourses",
+            () ->
+                courseService.getActiveCoursesByProfessorId(
+                    userId, courseCode, courseSection, term),
+            0);
+    CompletableFuture<List<Assignment>> assignmentsFuture =
+        widgets.widget(
+            "assignments",
+            () ->
+                dashboardRepository.getAssignmentSummaryForProfessor(
+                    userId, courseCode, courseSection, term),
+            List.of());
+    CompletableFuture<List<PeerReviewSummaryDTO>> peerReviewAssignmentFuture =
+        widgets.widget(
+            "peerReviewProgress",
+            () ->
+                dashboardRepository.getPeerReviewProgressForProfessor(
+                    userId, courseCode, courseSection, term),
+            List.of());
 
-    return CompletableFuture.supplyAsync(
-        () -> {
-          Long userId = Long.valueOf(request.session().get("userId").get());
-          String role = request.session().get("role").get();
-          String professorName = userService.getUserById(userId).get().getUserName();
-          String courseCode = null;
-          String courseSection = null;
-          String term = null;
-
-          if (request.header("courseFilter").isPresent()
-              && request.header("termFilter").isPresent()) {
-            courseCode = request.header("courseFilter").get().split(":::")[0].trim();
-            courseSection = request.header("courseFilter").get().split(":::")[1].trim();
-            term = request.header("termFilter").get();
-          }
-
-          CompletableFuture<Integer> studentCountFuture =
-              enrollmentService.getStudentCountByProfessorId(
-                  userId, courseCode, courseSection, term);
-          CompletableFuture<Integer> assignmentCountFuture =
-              assignmentService.getAssignmentCountByProfessorId(
-                  userId, courseCode, courseSection, term);
-          CompletableFuture<Integer> activeCoursesFuture =
-              courseService.getActiveCoursesByProfessorId(userId, courseCode, courseSection, term);
-          CompletableFuture<List<Assignment>> assignmentsFuture =
-              dashboardRepository.getAssignmentSummaryForProfessor(
-                  userId, courseCode, courseSection, term);
-          CompletableFuture<List<PeerReviewSummaryDTO>> peerReviewAssignmentFuture =
-              dashboardRepository.getPeerReviewProgressForProfessor(
-                  userId, courseCode, courseSection, term);
-
-          return CompletableFuture.allOf(
-                  studentCountFuture,
-                  assignmentCountFuture,
-                  activeCoursesFuture,
-                  assignmentsFuture,
-                  peerReviewAssignmentFuture)
-              .thenApply(
-                  data -> {
-                    int studentCount = studentCountFuture.join();
-                    int assignmentCount = assignmentCountFuture.join();
-                    int activeCourseCount = activeCoursesFuture.join();
-                    List<Assignment> assignments = assignmentsFuture.join();
-                    List<PeerReviewSummaryDTO> peerReviewAssignments =
-                        peerReviewAssignmentFuture.join();
-
-                    return ok(
-                        views.html.professorDashboard.render(
-                            request,
-                            professorName,
-                            role,
-                            studentCount,
-                            assignmentCount,
-                            activeCourseCount,
-                            toScalaImmutableList(assignments),
-                            toScalaImmutableList(peerReviewAssignments)));
-                  })
-              .join();
-        });
+    // Every widget future completes normally, joining them once allOf has completed never blocks
+    return CompletableFuture.allOf(
+            professorNameFuture,
+            studentCountFuture,
+            assignmentCountFuture,
+            activeCoursesFuture,
+            assignmentsFuture,
+            peerReviewAssignmentFuture)
+        .thenApply(
+            v -> {
+              ProfessorDashboardDTO data =
+                  new ProfessorDashboardDTO(
+                      professorNameFuture.join(),
+                      studentCountFuture.join(),
+                      assignmentCountFuture.join(),
+                      activeCoursesFuture.join(),
+                      assignmentsFuture.join(),
+                      peerReviewAssignmentFuture.join());
+              data.setPartial(widgets.isPartial());
+              return data;
+            });
   }
 }
@@ -0,0 +1,224 @@
+package services.dashboard;
+
+import com.typesafe.config.Config;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import models.dto.PeerReviewSummaryDTO;
+import org.apache.pekko.NotUsed;
+import org.apache.pekko.japi.Pair;
+import org.apache.pekko.stream.BoundedSourceQueue;
+import org.apache.pekko.stream.Materializer;
+import org.apache.pekko.stream.QueueOfferResult;
+import org.apache.pekko.stream.javadsl.Source;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import play.inject.ApplicationLifecycle;
+import play.libs.EventSource;
+import play.libs.Json;
+import repository.DashboardRepository;
+
+/**
+ * ReviewProgressHub pushes the peer review progress of assignments to the professors watching
+ * their dashboard. Review submissions mark their assignment as changed; the changed assignments
+ * are flushed on a fixed interval, when their current progress is read from the database, so a
+ * professor receives at most one event per assignment per interval however many reviews are
+ * submitted. The events carry the absolute counts, not deltas, so a client that applies an event
+ * its snapshot already includes, or misses one, still shows the right progress. Every connection
+ * has a bounded buffer; a connection too slow to keep up is closed, and the dashboard reloads its
+ * data whenever it connects.
+ */
+@Singleton
+public class ReviewProgressHub {
+
+  private static final Logger log = LoggerFactory.getLogger(ReviewProgressHub.class);
+  private static final String INTERVAL_PATH = "dashboard.progress.interval";
+  private static final String BUFFER_SIZE_PATH = "dashboard.progress.bufferSize";
+  private static final String KEEP_ALIVE_PATH = "dashboard.progress.keepAlive";
+  private static final String EVENT_NAME = "progress";
+
+  private final Materializer materializer;
+  private final DashboardRepository dashboardRepository;
+  private final int bufferSize;
+  private final Duration keepAlive;
+
+  // The professor of every assignment changed since the last flush, by assignment ID
+  private final Map<Long, Long> pending = new ConcurrentHashMap<>();
+  private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+
+  @Inject
+  public ReviewProgressHub(
+      Config config,
+      Materializer materializer,
+      DashboardRepository dashboardRepository,
+      ApplicationLifecycle lifecycle) {
+    this(config, materializer, dashboardRepository);
+    Duration interval =
+        config.hasPath(INTERVAL_PATH) ? config.getDuration(INTERVAL_PATH) : Duration.ofSeconds(1);
+    ScheduledExecutorService scheduler =
+        Executors.newSingleThreadScheduledExecutor(
+            runnable -> {
+              Thread thread = new Thread(runnable, "review-progress");
+              thread.setDaemon(true);
+              return thread;
+            });
+    scheduler.scheduleAtFixedRate(
+        this::flushSafely, interval.toMillis(), interval.toMillis(), TimeUnit.MILLISECONDS);
+
+    lifecycle.addStopHook(
+        () -> {
+          scheduler.shutdownNow();
+          subscribers.forEach(subscriber -> subscriber.queue.complete());
+          return CompletableFuture.completedFuture(null);
+        });
+  }
+
+  ReviewProgressHub(
+      Config config, Materializer materializer, DashboardRepository dashboardRepository) {
+    this.materializer = materializer;
+    this.dashboardRepository = dashboardRepository;
+    this.bufferSize = config.hasPath(BUFFER_SIZE_PATH) ? config.getInt(BUFFER_SIZE_PATH) : 64;
+    this.keepAlive =
+        config.hasPath(KEEP_ALIVE_PATH)
+            ? config.getDuration(KEEP_ALIVE_PATH)
+            : Duration.ofSeconds(20);
+  }
+
+  /**
+   * Opens a stream of the progress events of a professor's assignments. The stream ends when the
+   * client disconnects, when the application stops or when the client falls too far behind.
+   *
+   * @param professorId the ID of the professor
+   * @return the server-sent events of the professor
+   */
+  public Source<EventSource.Event, NotUsed> subscribe(Long professorId) {
+    Pair<BoundedSourceQueue<EventSource.Event>, Source<EventSource.Event, NotUsed>> queueAndSource =
+        Source.<EventSource.Event>queue(bufferSize).preMaterialize(materializer);
+    Subscriber subscriber = new Subscriber(professorId, queueAndSource.first());
+    subscribers.add(subscriber);
+
+    return queueAndSource
+        .second()
+        .keepAlive(keepAlive, () -> EventSource.Event.event("").withName("ping"))
+        .watchTermination(
+            (notUsed, done) -> {
+              done.whenComplete((d, ex) -> subscribers.remove(subscriber));
+              return notUsed;
+            });
+  }
+
+  /**
+   * Records a change in the peer review progress of an assignment, to be pushed with the next
+   * flush. It must be called after the change is committed, so that the flush reads it.
+   *
+   * @param professorId the ID of the professor of the assignment
+   * @param assignmentId the ID of the assignment
+   */
+  public void publish(Long professorId, Long assignmentId) {
+    if (professorId == null || assignmentId == null) {
+      return;
+    }
+    pending.put(assignmentId, professorId);
+  }
+
+  /**
+   * Reads the current progress of the assignments changed since the previous flush and sends one
+   * event per assignment to the subscribers of its professor.
+   *
+   * @return the number of events offered to subscribers
+   */
+  int flush() {
+    Map<Long, Long> changed = new HashMap<>();
+    for (Long assignmentId : pending.keySet()) {
+      Long professorId = pending.remove(assignmentId);
+      if (professorId != null && hasSubscriber(professorId)) {
+        changed.put(assignmentId, professorId);
+      }
+    }
+    if (changed.isEmpty()) {
+      return 0;
+    }
+
+    int offered = 0;
+    for (PeerReviewSummaryDTO progress :
+        dashboardRepository.findPeerReviewProgressByAssignmentIds(changed.keySet())) {
+      Long professorId = changed.get(progress.getAssignmentId());
+      EventSource.Event event =
+          EventSource.Event.event(
+                  Json.newObject()
+                      .put("assignmentId", progress.getAssignmentId())
+                      .put("completedReviews", progress.getCompletedReviews())
+                      .put("totalReviews", progress.getTotalReviews())
+                      .put("completedMembers", progress.getCompletedMembers())
+                      .put("totalMembers", progress.getTotalMembers())
+                      .put("progressPercentage", progress.getProgressPercentage()))
+              .withName(EVENT_NAME);
+      for (Subscriber subscriber : subscribers) {
+        if (subscriber.professorId.equals(professorId)) {
+          offer(subscriber, event);
+          offered++;
+        }
+      }
+    }
+    return offered;
+  }
+
+  private boolean hasSubscriber(Long professorId) {
+    for (Subscriber subscriber : subscribers) {
+      if (subscriber.professorId.equals(professorId)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private void offer(Subscriber subscriber, EventSource.Event event) {
+    QueueOfferResult result = subscriber.queue.offer(event);
+    if (result == QueueOfferResult.dropped()) {
+      // The client reloads the progress when it reconnects
+      log.warn(
+          "Review progress buffer full for professor {}, closing the stream",
+          subscriber.professorId);
+      subscribers.remove(subscriber);
+      subscriber.queue.complete();
+    } else if (result != QueueOfferResult.enqueued()) {
+      subscribers.remove(subscriber);
+    }
+  }
+
+  private void flushSafely() {
+    try {
+      flush();
+    } catch (Exception e) {
+      log.error("Review progress flush failed - with exception: {}", e.getMessage());
+    }
+  }
+
+  /**
+   * Returns the number of open progress streams.
+   *
+   * @return the number of subscribers
+   */
+  public int subscriberCount() {
+    return subscribers.size();
+  }
+
+  /** An open progress stream of a professor. */
+  private static final class Subscriber {
+    private final Long professorId;
+    private final BoundedSourceQueue<EventSource.Event> queue;
+
+    private Subscriber(Long professorId, BoundedSourceQueue<EventSource.Event> queue) {
+      this.professorId = professorId;
+      this.queue = queue;
+    }
+  }
+}
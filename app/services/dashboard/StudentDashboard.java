@@ -2,20 +2,18 @@ package services.dashboard;
 
 import static play.mvc.Results.ok;
 
+import com.typesafe.config.Config;
+import java.time.Duration;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import javax.inject.Inject;
 import javax.inject.Singleton;
-import models.Assignment;
-import models.dto.FeedbacksReceivedDTO;
-import models.dto.ReviewTaskDTO;
-import models.enums.Status;
+import models.dto.StudentDashboardDTO;
 import play.mvc.Http;
 import play.mvc.Result;
 import repository.DashboardRepository;
-import services.core.AssignmentService;
-import services.core.FeedbackService;
-import services.core.ReviewTaskService;
+import services.cache.DashboardCache;
+import services.core.AssignmentStatusScheduler;
 
 /**
  * StudentDashboard is a service class that implements the Dashboard interface. It provides a method
@@ -25,21 +23,25 @@ import services.core.ReviewTaskService;
 @Singleton
 public class StudentDashboard implements Dashboard {
 
-  private final AssignmentService assignmentService;
-  private final ReviewTaskService reviewTaskService;
-  private final FeedbackService feedbackService;
+  private static final String CACHE_NAME = "student";
+  private static final String TIMEOUT_PATH = "dashboard.student.timeout";
+
   private final DashboardRepository dashboardRepository;
+  private final DashboardCache dashboardCache;
+  private final AssignmentStatusScheduler assignmentStatusScheduler;
+  private final Duration timeout;
 
   @Inject
   public StudentDashboard(
-      AssignmentService assignmentService,
-      ReviewTaskService reviewTaskService,
-      FeedbackService feedbackService,
-      DashboardRepository dashboardRepository) {
-    this.assignmentService = assignmentService;
-    this.reviewTaskService = reviewTaskService;
-    this.feedbackService = feedbackService;
+      DashboardRepository dashboardRepository,
+      DashboardCache dashboardCache,
+      AssignmentStatusScheduler assignmentStatusScheduler,
+      Config config) {
     this.dashboardRepository = dashboardRepository;
+    this.dashboardCache = dashboardCache;
+    this.assignmentStatusScheduler = assignmentStatusScheduler;
+    this.timeout =
+        config.hasPath(TIMEOUT_PATH) ? config.getDuration(TIMEOUT_PATH) : Duration.ofSeconds(5);
   }
 
     /**
@@ -54,63 +56,76 @@ public class StudentDashboard implements Dashboard {
 
   /**
    * Retrieves the student dashboard view for a given HTTP request. From the request, it extracts
-   * the user's role and renders the corresponding dashboard view.
+   * the user's role and renders the corresponding dashboard view. The dashboard data comes from
+   * the dashboard cache, keyed by the student and the course filter.
    *
    * @param request the HTTP request
    * @return a CompletableFuture containing the Result of the student dashboard view
    */
   @Override
   public CompletableFuture<Result> dashboard(Http.Request request) {
-    return CompletableFuture.supplyAsync(
-        () -> {
-          Long userId = Long.valueOf(request.session().get("userId").get());
-          String role = request.session().get("role").get();
-          String studentName = request.session().get("userName").get();
+    Long userId = Long.valueOf(request.session().get("userId").get());
+    String role = request.session().get("role").get();
+    String studentName = request.session().get("userName").get();
+
+    String courseCode = request.header("courseFilter").orElse(null);
 
-          String courseCode = request.header("courseFilter").orElse(null);
+    return getDashboardData(userId, courseCode)
+        .thenApply(
+            data ->
+                ok(
+                    views.html.studentDashboard.render(
+                        request,
+                        studentName,
+                        role,
+                        data.getAssignmentCount(),
+                        data.getPendingReviews(),
+                        data.getCompletedReviews(),
+                        toScalaImmutableList(data.getAssignments()),
+                        toScalaImmutableList(data.getPeerReviews()),
+                        toScalaImmutableList(data.getMyReviews()),
+                        assignmentStatusScheduler.today())));
+  }
 
-          CompletableFuture<Integer> assignmentCountFuture =
-              assignmentService.getAssignmentCountByStudentId(userId, courseCode);
-          CompletableFuture<Integer> pendingReviewsFuture =
-              reviewTaskService.getReviewCountByStatus(userId, courseCode, Status.PENDING);
-          CompletableFuture<Integer> completedReviewsFuture =
-              reviewTaskService.getReviewCountByStatus(userId, courseCode, Status.COMPLETED);
-          CompletableFuture<List<Assignment>> assignmentsFuture =
-              dashboardRepository.getAssignmentsForStudent(userId, courseCode);
-          CompletableFuture<List<ReviewTaskDTO>> peerReviewsFuture =
-              dashboardRepository.getPendingPeerReviewsForStudent(userId, courseCode);
-          CompletableFuture<List<FeedbacksReceivedDTO>> myReviewsFuture =
-              feedbackService.getFeedbacksReceivedByStudent(userId, courseCode);
+  /**
+   * Returns the student dashboard data from the dashboard cache, keyed by the student and the
+   * course filter.
+   *
+   * @param userId the ID of the student
+   * @param courseCode the course filter, or null for all courses
+   * @return a CompletableFuture containing the dashboard data
+   */
+  public CompletableFuture<StudentDashboardDTO> getDashboardData(Long userId, String courseCode) {
+    return dashboardCache.getOrLoad(
+        CACHE_NAME,
+        userId,
+        courseCode,
+        () -> loadDashboardData(userId, courseCode),
+        data -> !data.isPartial());
+  }
 
-          return CompletableFuture.allOf(
-                  assignmentCountFuture,
-                  pendingReviewsFuture,
-                  completedReviewsFuture,
-                  assignmentsFuture,
-                  peerReviewsFuture,
-                  myReviewsFuture)
-              .thenApply(
-                  v -> {
-                    int assignmentCount = assignmentCountFuture.join();
-                    int pendingReviews = pendingReviewsFuture.join();
-                    int completedReviews = completedReviewsFuture.join();
-                    List<Assignment> assignments = assignmentsFuture.join();
-                    List<ReviewTaskDTO> peerReviews = peerReviewsFuture.join();
-                    List<FeedbacksReceivedDTO> myReviews = myReviewsFuture.join();
+  /**
+   * Assembles the student dashboard data with the single summary query of the dashboard
+   * repository, bounded by the dashboard timeout. When it fails or times out the dashboard is
+   * rendered empty and the data is marked as partial.
+   *
+   * @param userId the ID of the student
+   * @param courseCode the course filter, or null for all courses
+   * @return a CompletableFuture containing the dashboard data
+   */
+  CompletableFuture<StudentDashboardDTO> loadDashboardData(Long userId, String courseCode) {
+    DashboardWidgets widgets = new DashboardWidgets(CACHE_NAME, timeout);
+    StudentDashboardDTO empty = new StudentDashboardDTO(0, 0, 0, List.of(), List.of(), List.of());
 
-                    return ok(
-                        views.html.studentDashboard.render(
-                            request,
-                            studentName,
-                            role,
-                            assignmentCount,
-                            pendingReviews,
-                            completedReviews,
-                            toScalaImmutableList(assignments),
-                            toScalaImmutableList(peerReviews),
-                            toScalaImmutableList(myReviews)));
-                  })
-              .join();
-        });
+    return widgets
+        .widget(
+            "summary",
+            () -> dashboardRepository.getStudentDashboardSummary(userId, courseCode),
+            empty)
+        .thenApply(
+            data -> {
+              data.setPartial(widgets.isPartial());
+              return data;
+            });
   }
 }
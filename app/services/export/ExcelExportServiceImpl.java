@@ -5,8 +5,8 @@ import java.util.*;
 import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 import javax.inject.Inject;
-import models.ReviewTask;
 import models.dto.*;
+import models.enums.QuestionKind;
 import org.apache.poi.ss.usermodel.*;
 import org.apache.poi.xssf.usermodel.XSSFCellStyle;
 import org.apache.poi.xssf.usermodel.XSSFFont;
@@ -39,17 +39,14 @@ public class ExcelExportServiceImpl implements ExportService {
   @Override
   public CompletableFuture<List<AssignmentExportDTO>> getAssignmentExportData(Long assignmentId) {
     return reviewTaskService
-        .getReviewTasks(assignmentId)
+        .getAssignmentReport(assignmentId)
         .thenApply(
-            reviewTasks -> {
-              String assignmentTitle = reviewTasks.get(0).getAssignment().getTitle();
-              String courseName = reviewTasks.get(0).getAssignment().getCourse().getCourseName();
-              String courseCode = reviewTasks.get(0).getAssignment().getCourse().getCourseCode();
+            report -> {
+              String assignmentTitle = report.getAssignmentTitle();
+              String courseName = report.getCourseName();
+              String courseCode = report.getCourseCode();
 
-              Map<Long, List<ReviewTask>> groupedTasks =
-                  reviewTaskService.groupReviewTasksByGroup(reviewTasks);
-              List<GroupSubmissionDTO> groupDTOs =
-                  reviewTaskService.generateSubmissionInfoInEachGroupDTOs(groupedTasks);
+              List<GroupSubmissionDTO> groupDTOs = report.getGroups();
 
               List<AssignmentExportDTO> exportDTOS = new ArrayList<>();
 
@@ -304,7 +301,7 @@ public class ExcelExportServiceImpl implements ExportService {
 
               boolean first = true;
               for (FeedbackDTO feedback : reviewerFeedbacks) {
-                if (feedback.getQuestionText().equalsIgnoreCase("Overall Feedback Comment"))
+                if (feedback.getQuestionKind() == QuestionKind.OVERALL_COMMENT)
                   continue;
                 Row row = sheet.createRow(rowNum++);
                 for (int col = 0; col <= 4; col++) {
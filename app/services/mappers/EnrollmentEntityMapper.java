@@ -1,11 +1,16 @@
 package services.mappers;
 
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 import models.Course;
 import models.Enrollment;
 import models.User;
 import models.dto.Context;
+import models.dto.ImportLookups;
 import repository.core.CourseRepository;
 import repository.core.UserRepository;
 import services.processors.record.InputRecord;
@@ -13,7 +18,9 @@ import services.processors.record.InputRecord;
 /**
  * EnrollmentEntityMapper is a service class that implements the EntityMapper interface. It provides
  * a method to map input records to Enrollment entities. It uses the UserRepository and
- * CourseRepository to retrieve the student and course associated with the enrollment.
+ * CourseRepository to retrieve the student and course associated with the enrollment. The students
+ * and courses of an upload are fetched in bulk by {@link #prefetch}, so that mapping a record does
+ * not query them one record at a time.
  */
 @Singleton
 public class EnrollmentEntityMapper implements EntityMapper<Enrollment> {
@@ -27,10 +34,49 @@ public class EnrollmentEntityMapper implements EntityMapper<Enrollment> {
     this.courseRepository = courseRepository;
   }
 
+  /**
+   * Fetches the students and the courses of the records with one query each, into the lookups of
+   * the context. Courses already fetched for the upload are not fetched again. Records whose
+   * student ID is not a number are left to the validations.
+   *
+   * @param records the records about to be mapped
+   * @param context the context in which the mapping is performed
+   */
+  @Override
+  public void prefetch(List<InputRecord> records, Context context) {
+    ImportLookups lookups = context.getLookups();
+    Set<Long> studentIds = new LinkedHashSet<>();
+    Set<String> courseCodes = new LinkedHashSet<>();
+    Set<String> terms = new LinkedHashSet<>();
+    Set<String> courseKeys = new LinkedHashSet<>();
+    for (InputRecord record : records) {
+      try {
+        studentIds.add(Long.valueOf(record.get("student_id").trim()));
+      } catch (NumberFormatException e) {
+        // Left to the validations
+      }
+      String courseCode = record.get("course_code").trim();
+      String term = record.get("term").trim();
+      String courseKey =
+          ImportLookups.courseKey(courseCode, record.get("course_section").trim(), term);
+      if (!lookups.hasFetchedCourse(courseKey)) {
+        courseCodes.add(courseCode);
+        terms.add(term);
+        courseKeys.add(courseKey);
+      }
+    }
+
+    lookups.putUsers(studentIds, userRepository.findAllByUserIds(new ArrayList<>(studentIds)));
+    if (!courseKeys.isEmpty()) {
+      lookups.putCourses(
+          courseKeys, courseRepository.findAllByCourseCodesAndTerms(courseCodes, terms));
+    }
+  }
+
   /**
    * Maps an input record to an Enrollment entity. It retrieves the student ID, course code, course
-   * section, and term from the input record. It also checks if the student file is uploaded and
-   * creates a new Enrollment entity with the retrieved values.
+   * section, and term from the input record. The student and course are taken from the lookups
+   * of the context when they were prefetched, and queried otherwise.
    *
    * @param record the input record containing enrollment information
    * @param context the context in which the mapping is performed
@@ -43,11 +89,19 @@ public class EnrollmentEntityMapper implements EntityMapper<Enrollment> {
     String courseSection = record.get("course_section").trim();
     String term = record.get("term").trim();
 
-    User student = userRepository.findById(studentId).orElse(null);
+    ImportLookups lookups = context == null ? null : context.getLookups();
+    String courseKey = ImportLookups.courseKey(courseCode, courseSection, term);
+
+    User student =
+        lookups != null && lookups.hasFetchedUser(studentId)
+            ? lookups.getUser(studentId)
+            : userRepository.findById(studentId).orElse(null);
     Course course =
-        courseRepository
-            .findByCourseCodeAndSectionAndTerm(courseCode, courseSection, term)
-            .orElse(null);
+        lookups != null && lookups.hasFetchedCourse(courseKey)
+            ? lookups.getCourse(courseKey)
+            : courseRepository
+                .findByCourseCodeAndSectionAndTerm(courseCode, courseSection, term)
+                .orElse(null);
 
     return new Enrollment(student, course, courseSection, term);
   }
@@ -18,4 +18,13 @@ public interface EntityMapper<T> {
   }
 
   T mapToEntity(InputRecord record, Context context);
+
+  /**
+   * Fetches in bulk what the records refer to before they are mapped, into the lookups of the
+   * context. Mappers that look up other entities for every record override it.
+   *
+   * @param records the records about to be mapped
+   * @param context the context in which the mapping is performed
+   */
+  default void prefetch(List<InputRecord> records, Context context) {}
 }
@@ -3,10 +3,10 @@ package services.mappers;
 import java.util.*;
 import javax.inject.Inject;
 import models.Course;
-import models.Enrollment;
 import models.ReviewTask;
 import models.User;
 import models.dto.Context;
+import models.dto.ImportLookups;
 import models.enums.Status;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -20,6 +20,10 @@ import services.processors.record.InputRecord;
  * a method to map input records to ReviewTask entities. It uses the UserRepository,
  * EnrollmentRepository, and CourseRepository to retrieve the users, enrollments, and course
  * associated with the review task.
+ *
+ * <p>The members of all the groups of a file are prepared together by {@link #prefetch}: the
+ * course is resolved once and the missing users and enrollments are inserted in bulk, so mapping a
+ * group only reads the lookups of the context.
  */
 public class ReviewTaskEntityMapper implements EntityMapper<ReviewTask> {
 
@@ -38,10 +42,39 @@ public class ReviewTaskEntityMapper implements EntityMapper<ReviewTask> {
     this.courseRepository = courseRepository;
   }
 
+  /**
+   * Prepares the groups of the whole file at once: it resolves the course of the context, inserts
+   * the members that are not users yet and enrolls the members that are not enrolled yet, with one
+   * bulk statement each, then fetches all the members into the lookups of the context.
+   *
+   * @param records the group records of the file
+   * @param context the context holding the course code, section and term
+   * @throws IllegalArgumentException if the context has no course or the course is not found
+   */
+  @Override
+  public void prefetch(List<InputRecord> records, Context context) {
+    Course course = resolveCourse(context);
+
+    Map<Long, User> members = new LinkedHashMap<>();
+    for (InputRecord record : records) {
+      for (User member : members(record)) {
+        members.putIfAbsent(member.getUserId(), member);
+      }
+    }
+    List<Long> memberIds = new ArrayList<>(members.keySet());
+    log.info("Preparing {} members of {} groups", memberIds.size(), records.size());
+
+    userRepository.insertMissingUsers(new ArrayList<>(members.values()));
+    enrollmentRepository.insertMissingEnrollments(
+        course.getCourseId(), context.getCourseSection(), context.getTerm(), memberIds);
+    context.getLookups().putUsers(memberIds, userRepository.findAllByUserIds(memberIds));
+  }
+
   /**
    * Maps an input record to a list of ReviewTask entities. It retrieves the group ID, group name,
-   * group size, and user details from the input record. It also fetches the course details and
-   * creates new ReviewTask entities for each user in the group.
+   * group size, and members from the input record and creates a review task for every pair of
+   * members and one for every member towards the professor. The members are taken from the lookups
+   * filled by {@link #prefetch}; a record that was not prefetched is prefetched on its own.
    *
    * @param record the input record containing review task information
    * @param context the context in which the mapping is performed
@@ -53,141 +86,106 @@ public class ReviewTaskEntityMapper implements EntityMapper<ReviewTask> {
     String groupName = record.get("Group Name").trim();
     int groupSize = Integer.parseInt(record.get("Group Size").trim());
 
-    // Fetch course details
-    if (context.getCourseCode() == null
-        || context.getCourseSection() == null
-        || context.getTerm() == null) {
-      throw new IllegalArgumentException(
-          "Course code, section, and term must be provided in the context.");
+    List<User> members = members(record);
+    ImportLookups lookups = context.getLookups();
+    if (!lookups.hasFetchedCourse(courseKey(context))
+        || !members.stream().allMatch(member -> lookups.hasFetchedUser(member.getUserId()))) {
+      prefetch(List.of(record), context);
     }
-
-    Optional<Course> course =
-        courseRepository.findByCourseCodeAndSectionAndTerm(
-            context.getCourseCode(), context.getCourseSection(), context.getTerm());
-
-    if (course.isEmpty()) {
-      throw new IllegalArgumentException("Course not found with the provided details.");
+    Course course = lookups.getCourse(courseKey(context));
+
+    Map<Long, User> savedUsers = new LinkedHashMap<>();
+    for (User member : members) {
+      User saved = lookups.getUser(member.getUserId());
+      if (saved != null) {
+        savedUsers.putIfAbsent(saved.getUserId(), saved);
+      }
     }
 
-    List<User> users = new ArrayList<>();
-    List<Enrollment> enrollments = new ArrayList<>();
-    for (int i = 1; i <= groupSize; i++) {
-      String userIdField = "Member " + i + " ID Number";
-      String userFirstNameField = "Member " + i + " Firstname";
-      String userLastNameField = "Member " + i + " Lastname";
-      String userEmailField = "Member " + i + " Email";
-      Long userId = Long.parseLong(record.get(userIdField).trim());
-      String userFirstName = record.get(userFirstNameField).trim();
-      String userLastName = record.get(userLastNameField).trim();
-      String userEmail = record.get(userEmailField).trim();
-      User user = new User(userId, userEmail, "", userFirstName, userLastName, "student");
-      users.add(user);
-    }
-
-    // Fetch existing users
-    List<Long> existingUser =
-        userRepository.findAllByUserIds(users.stream().map(User::getUserId).toList()).stream()
-            .map(User::getUserId)
-            .toList();
-    log.info("Existing users: " + existingUser.size());
-
-    // Filter out existing users before saving
-    List<User> newUsers =
-        users.stream().filter(u -> !existingUser.contains(u.getUserId())).toList();
-    log.info("New users: " + newUsers.size());
-
-    userRepository.saveAll(newUsers, context).toCompletableFuture().join();
-
-    List<User> savedUsers =
-        userRepository.findAllByUserIds(users.stream().map(User::getUserId).toList());
-    log.info("Saved users: " + savedUsers.size());
-
-    savedUsers.forEach(
-        user -> {
-          enrollments.add(
-              new Enrollment(user, course.get(), context.getCourseSection(), context.getTerm()));
-        });
-
-    // Filter out existing enrollments before saving
-    List<Enrollment> existingEnrollments =
-        enrollmentRepository.getEnrollmentsByCompositeIndex(
-            savedUsers.stream().map(User::getUserId).toList(),
-            course.get().getCourseCode(),
-            context.getCourseSection(),
-            context.getTerm());
-
-    log.info("Initial enrollments: " + enrollments.size());
-    log.info("Existing enrollments: " + existingEnrollments.size());
-
-    List<String> existingKeys =
-        existingEnrollments.stream()
-            .map(
-                e ->
-                    e.getStudent().getUserId()
-                        + "|"
-                        + e.getCourse().getCourseCode()
-                        + "|"
-                        + e.getCourse().getCourseSection()
-                        + "|"
-                        + e.getCourse().getTerm())
-            .toList();
-
-    List<Enrollment> newEnrollments =
-        enrollments.stream()
-            .filter(
-                e ->
-                    !existingKeys.contains(
-                        e.getStudent().getUserId()
-                            + "|"
-                            + e.getCourse().getCourseCode()
-                            + "|"
-                            + e.getCourse().getCourseSection()
-                            + "|"
-                            + e.getCourse().getTerm()))
-            .toList();
-
-    log.info("New enrollments " + newEnrollments.size());
-    enrollmentRepository
-        .saveAll(newEnrollments, context)
-        .thenApply(
-            status -> {
-              log.info("Success Count: {}", status.get("successCount"));
-              log.info("Failed Count: {}", status.get("failedCount"));
-              return status;
-            })
-        .toCompletableFuture()
-        .join();
-
     List<ReviewTask> reviewTasks = new ArrayList<>();
-    for (User reviewer : savedUsers) {
-      for (User reviewee : savedUsers)
-        if (reviewer != null
-            && reviewee != null
-            && !reviewer.getUserId().equals(reviewee.getUserId())) {
-          ReviewTask reviewTask =
+    for (User reviewer : savedUsers.values()) {
+      for (User reviewee : savedUsers.values()) {
+        if (!reviewer.getUserId().equals(reviewee.getUserId())) {
+          reviewTasks.add(
               new ReviewTask(
-                  null, reviewer, reviewee, Status.PENDING, groupId, groupName, groupSize, false);
-          reviewTasks.add(reviewTask);
+                  null, reviewer, reviewee, Status.PENDING, groupId, groupName, groupSize, false));
         }
+      }
     }
 
     // Set private review comment task for professor
-    for (User student : savedUsers) {
-      ReviewTask reviewTask =
+    for (User student : savedUsers.values()) {
+      reviewTasks.add(
           new ReviewTask(
               null,
               student,
-              course.get().getProfessor(),
+              course.getProfessor(),
               Status.PENDING,
               groupId,
               groupName,
               groupSize,
-              true);
-      reviewTasks.add(reviewTask);
+              true));
     }
     return reviewTasks;
   }
 
+  /**
+   * Finds the course of the context once per upload, keeping it in the lookups of the context.
+   *
+   * @param context the context holding the course code, section and term
+   * @return the course
+   * @throws IllegalArgumentException if the context has no course or the course is not found
+   */
+  private Course resolveCourse(Context context) {
+    if (context.getCourseCode() == null
+        || context.getCourseSection() == null
+        || context.getTerm() == null) {
+      throw new IllegalArgumentException(
+          "Course code, section, and term must be provided in the context.");
+    }
+
+    ImportLookups lookups = context.getLookups();
+    String courseKey = courseKey(context);
+    if (!lookups.hasFetchedCourse(courseKey)) {
+      lookups.putCourses(
+          List.of(courseKey),
+          courseRepository
+              .findByCourseCodeAndSectionAndTerm(
+                  context.getCourseCode(), context.getCourseSection(), context.getTerm())
+              .stream()
+              .toList());
+    }
+    Course course = lookups.getCourse(courseKey);
+    if (course == null) {
+      throw new IllegalArgumentException("Course not found with the provided details.");
+    }
+    return course;
+  }
+
+  private static String courseKey(Context context) {
+    return ImportLookups.courseKey(
+        context.getCourseCode(), context.getCourseSection(), context.getTerm());
+  }
+
+  /**
+   * Reads the members of a group record as new student users.
+   *
+   * @param record the group record
+   * @return the members, in the order of the record
+   */
+  private static List<User> members(InputRecord record) {
+    int groupSize = Integer.parseInt(record.get("Group Size").trim());
+    List<User> members = new ArrayList<>(groupSize);
+    for (int i = 1; i <= groupSize; i++) {
+      Long userId = Long.parseLong(record.get("Member " + i + " ID Number").trim());
+      String firstName = record.get("Member " + i + " Firstname").trim();
+      String lastName = record.get("Member " + i + " Lastname").trim();
+      String email = record.get("Member " + i + " Email").trim();
+      members.add(new User(userId, email, "", firstName, lastName, "student"));
+    }
+    return members;
+  }
+
   /**
    * Maps an input record to a ReviewTask entity. This method is not implemented since it is not
    * required in this context and returns null.
@@ -0,0 +1,189 @@
+package services.metrics;
+
+import com.typesafe.config.Config;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+/**
+ * MetricsRegistry keeps the runtime metrics of the application in memory, for the operations view
+ * of the admin dashboard: the latency of the recent requests of every route, the thread pools of
+ * the repositories and the number of operations in flight. Latencies are sampled into a fixed size
+ * ring per route, so the percentiles describe the most recent requests and recording never
+ * allocates.
+ */
+@Singleton
+public class MetricsRegistry {
+
+  private static final String SAMPLE_SIZE_PATH = "metrics.latency.sampleSize";
+  private static final int DEFAULT_SAMPLE_SIZE = 1024;
+
+  private final int sampleSize;
+  private final Map<String, LatencySamples> latencies = new ConcurrentHashMap<>();
+  private final Map<String, ThreadPoolExecutor> executors = new ConcurrentHashMap<>();
+  private final Map<String, AtomicInteger> inFlight = new ConcurrentHashMap<>();
+
+  @Inject
+  public MetricsRegistry(Config config) {
+    int configuredSampleSize =
+        config.hasPath(SAMPLE_SIZE_PATH) ? config.getInt(SAMPLE_SIZE_PATH) : DEFAULT_SAMPLE_SIZE;
+    this.sampleSize = Math.max(1, configuredSampleSize);
+  }
+
+  /**
+   * Creates a fixed size thread pool whose threads carry the name of the pool, and registers it so
+   * that its active threads and queue depth are reported.
+   *
+   * @param name the name of the pool
+   * @param threads the number of threads of the pool
+   * @return the thread pool
+   */
+  public ExecutorService newExecutor(String name, int threads) {
+    AtomicInteger threadCount = new AtomicInteger();
+    ThreadPoolExecutor executor =
+        new ThreadPoolExecutor(
+            threads,
+            threads,
+            0L,
+            TimeUnit.MILLISECONDS,
+            new LinkedBlockingQueue<>(),
+            runnable -> new Thread(runnable, name + "-" + threadCount.incrementAndGet()));
+    executors.put(name, executor);
+    return executor;
+  }
+
+  /**
+   * Records the latency of a request.
+   *
+   * @param route the route of the request, such as "GET /api/dashboard/student"
+   * @param millis the time the request took in milliseconds
+   */
+  public void recordLatency(String route, long millis) {
+    latencies.computeIfAbsent(route, r -> new LatencySamples(sampleSize)).record(millis);
+  }
+
+  /**
+   * Counts an operation as in flight until the stage it starts completes, normally or not.
+   *
+   * @param operation the name of the operation, such as "import:users"
+   * @param work starts the operation
+   * @return the stage of the operation
+   */
+  public <T> CompletionStage<T> track(
+      String operation, Supplier<? extends CompletionStage<T>> work) {
+    AtomicInteger counter = inFlight.computeIfAbsent(operation, o -> new AtomicInteger());
+    counter.incrementAndGet();
+    CompletionStage<T> stage;
+    try {
+      stage = work.get();
+    } catch (RuntimeException e) {
+      counter.decrementAndGet();
+      throw e;
+    }
+    return stage.whenComplete((result, ex) -> counter.decrementAndGet());
+  }
+
+  /**
+   * Returns the latency percentiles of every route, slowest p99 first.
+   *
+   * @return one entry per route with the sample count, p50, p95, p99 and max in milliseconds
+   */
+  public List<Map<String, Object>> latencySnapshot() {
+    List<Map<String, Object>> routes = new ArrayList<>();
+    latencies.forEach((route, samples) -> routes.add(samples.snapshot(route)));
+    routes.sort(
+        Comparator.comparingLong((Map<String, Object> route) -> (Long) route.get("p99"))
+            .reversed());
+    return routes;
+  }
+
+  /**
+   * Returns the state of every registered thread pool.
+   *
+   * @return one entry per pool with its active threads and queue depth, by pool name
+   */
+  public List<Map<String, Object>> executorSnapshot() {
+    List<Map<String, Object>> pools = new ArrayList<>();
+    new TreeMap<>(executors)
+        .forEach(
+            (name, executor) -> {
+              Map<String, Object> pool = new LinkedHashMap<>();
+              pool.put("name", name);
+              pool.put("activeThreads", executor.getActiveCount());
+              pool.put("poolSize", executor.getPoolSize());
+              pool.put("maxThreads", executor.getMaximumPoolSize());
+              pool.put("queueDepth", executor.getQueue().size());
+              pool.put("completedTasks", executor.getCompletedTaskCount());
+              pools.add(pool);
+            });
+    return pools;
+  }
+
+  /**
+   * Returns the number of operations in flight.
+   *
+   * @return the in flight count of every operation that ran since startup, by operation name
+   */
+  public Map<String, Integer> inFlightSnapshot() {
+    Map<String, Integer> counts = new TreeMap<>();
+    inFlight.forEach((operation, counter) -> counts.put(operation, counter.get()));
+    return counts;
+  }
+
+  /** The latencies of the most recent requests of a route. */
+  private static final class LatencySamples {
+    private final long[] samples;
+    private long count;
+
+    private LatencySamples(int size) {
+      this.samples = new long[size];
+    }
+
+    private synchronized void record(long millis) {
+      samples[(int) (count % samples.length)] = millis;
+      count++;
+    }
+
+    private Map<String, Object> snapshot(String route) {
+      long[] sorted;
+      long total;
+      synchronized (this) {
+        total = count;
+        sorted = Arrays.copyOf(samples, (int) Math.min(count, samples.length));
+      }
+      Arrays.sort(sorted);
+
+      Map<String, Object> snapshot = new LinkedHashMap<>();
+      snapshot.put("route", route);
+      snapshot.put("count", total);
+      snapshot.put("p50", percentile(sorted, 50));
+      snapshot.put("p95", percentile(sorted, 95));
+      snapshot.put("p99", percentile(sorted, 99));
+      snapshot.put("max", sorted.length == 0 ? 0L : sorted[sorted.length - 1]);
+      return snapshot;
+    }
+
+    /** The nearest-rank percentile of sorted samples. */
+    private static long percentile(long[] sorted, int percentile) {
+      if (sorted.length == 0) {
+        return 0L;
+      }
+      int rank = (percentile * sorted.length + 99) / 100;
+      return sorted[Math.max(0, rank - 1)];
+    }
+  }
+}
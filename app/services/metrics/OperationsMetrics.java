@@ -0,0 +1,202 @@
+package services.metrics;
+
+import com.typesafe.config.Config;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import javax.sql.DataSource;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.QueryStatistics;
+import org.hibernate.stat.Statistics;
+import play.db.Database;
+import play.db.jpa.JPAApi;
+import services.cache.DashboardCache;
+import services.cache.ReportCache;
+
+/**
+ * OperationsMetrics gathers the numbers of the operations view of the admin dashboard: the request
+ * latencies, repository thread pools and in flight operations of the metrics registry, the usage
+ * of the connection pool, the hit rates of the caches and the slowest recent queries.
+ *
+ * <p>The slowest queries come from the Hibernate statistics, which accumulate from startup. To
+ * report recent queries they are cleared when read after the configured window has passed, and
+ * the queries of the previous window are reported with those of the current one, so the list is
+ * never empty right after a clear.
+ */
+@Singleton
+public class OperationsMetrics {
+
+  private static final String QUERY_WINDOW_PATH = "metrics.queries.window";
+  private static final String QUERY_LIMIT_PATH = "metrics.queries.limit";
+  private static final int MAX_QUERY_LENGTH = 300;
+
+  private final MetricsRegistry metricsRegistry;
+  private final Database database;
+  private final JPAApi jpaApi;
+  private final DashboardCache dashboardCache;
+  private final ReportCache reportCache;
+  private final Duration queryWindow;
+  private final int queryLimit;
+
+  private Statistics statistics;
+  private Map<String, QueryTiming> previousWindow = Map.of();
+  private Instant windowStart = Instant.now();
+
+  @Inject
+  public OperationsMetrics(
+      Config config,
+      MetricsRegistry metricsRegistry,
+      Database database,
+      JPAApi jpaApi,
+      DashboardCache dashboardCache,
+      ReportCache reportCache) {
+    this.metricsRegistry = metricsRegistry;
+    this.database = database;
+    this.jpaApi = jpaApi;
+    this.dashboardCache = dashboardCache;
+    this.reportCache = reportCache;
+    this.queryWindow =
+        config.hasPath(QUERY_WINDOW_PATH)
+            ? config.getDuration(QUERY_WINDOW_PATH)
+            : Duration.ofMinutes(5);
+    this.queryLimit = config.hasPath(QUERY_LIMIT_PATH) ? config.getInt(QUERY_LIMIT_PATH) : 10;
+  }
+
+  /**
+   * Takes a snapshot of the operations metrics. The first snapshot opens a transaction to reach
+   * the Hibernate statistics, so it must not run on a request thread.
+   *
+   * @return the metrics, by section
+   */
+  public Map<String, Object> snapshot() {
+    Map<String, Object> snapshot = new LinkedHashMap<>();
+    snapshot.put("generatedAt", Instant.now().toString());
+    snapshot.put("routes", metricsRegistry.latencySnapshot());
+    snapshot.put("executors", metricsRegistry.executorSnapshot());
+    snapshot.put("connectionPool", connectionPool());
+
+    Map<String, Object> caches = new LinkedHashMap<>();
+    caches.put("dashboard", dashboardCache.stats());
+    caches.put("reports", reportCache.stats());
+    snapshot.put("caches", caches);
+
+    snapshot.put("inFlight", metricsRegistry.inFlightSnapshot());
+    snapshot.put("slowQueries", slowQueries());
+    return snapshot;
+  }
+
+  private Map<String, Object> connectionPool() {
+    Map<String, Object> pool = new LinkedHashMap<>();
+    HikariDataSource hikari = hikari(database.getDataSource());
+    HikariPoolMXBean poolBean = hikari == null ? null : hikari.getHikariPoolMXBean();
+    if (poolBean == null) {
+      pool.put("available", false);
+      return pool;
+    }
+    pool.put("available", true);
+    pool.put("active", poolBean.getActiveConnections());
+    pool.put("idle", poolBean.getIdleConnections());
+    pool.put("total", poolBean.getTotalConnections());
+    pool.put("max", hikari.getMaximumPoolSize());
+    pool.put("awaiting", poolBean.getThreadsAwaitingConnection());
+    return pool;
+  }
+
+  private static HikariDataSource hikari(DataSource dataSource) {
+    try {
+      return dataSource.isWrapperFor(HikariDataSource.class)
+          ? dataSource.unwrap(HikariDataSource.class)
+          : null;
+    } catch (SQLException e) {
+      return null;
+    }
+  }
+
+  private synchronized List<Map<String, Object>> slowQueries() {
+    if (statistics == null) {
+      statistics =
+          jpaApi.withTransaction(
+              entityManager ->
+                  entityManager
+                      .getEntityManagerFactory()
+                      .unwrap(SessionFactory.class)
+                      .getStatistics());
+    }
+    if (!statistics.isStatisticsEnabled()) {
+      return List.of();
+    }
+
+    Map<String, QueryTiming> currentWindow = new HashMap<>();
+    for (String query : statistics.getQueries()) {
+      QueryStatistics queryStatistics = statistics.getQueryStatistics(query);
+      if (queryStatistics.getExecutionCount() > 0) {
+        currentWindow.put(
+            query,
+            new QueryTiming(
+                queryStatistics.getExecutionCount(),
+                queryStatistics.getExecutionMaxTime(),
+                queryStatistics.getExecutionAvgTime()));
+      }
+    }
+    if (Instant.now().isAfter(windowStart.plus(queryWindow))) {
+      statistics.clear();
+      windowStart = Instant.now();
+      previousWindow = currentWindow;
+      currentWindow = Map.of();
+    }
+
+    Map<String, QueryTiming> recent = new HashMap<>(previousWindow);
+    currentWindow.forEach((query, timing) -> recent.merge(query, timing, QueryTiming::slowest));
+    List<Map<String, Object>> slowest = new ArrayList<>();
+    recent.entrySet().stream()
+        .sorted(
+            Comparator.comparingLong(
+                    (Map.Entry<String, QueryTiming> entry) -> entry.getValue().maxMillis)
+                .reversed())
+        .limit(queryLimit)
+        .forEach(
+            entry -> {
+              Map<String, Object> query = new LinkedHashMap<>();
+              query.put("query", abbreviate(entry.getKey()));
+              query.put("executions", entry.getValue().executions);
+              query.put("maxMillis", entry.getValue().maxMillis);
+              query.put("avgMillis", entry.getValue().avgMillis);
+              slowest.add(query);
+            });
+    return slowest;
+  }
+
+  private static String abbreviate(String query) {
+    String singleLine = query.replaceAll("\\s+", " ").trim();
+    return singleLine.length() <= MAX_QUERY_LENGTH
+        ? singleLine
+        : singleLine.substring(0, MAX_QUERY_LENGTH) + "...";
+  }
+
+  /** The execution times of a query within a window. */
+  private static final class QueryTiming {
+    private final long executions;
+    private final long maxMillis;
+    private final long avgMillis;
+
+    private QueryTiming(long executions, long maxMillis, long avgMillis) {
+      this.executions = executions;
+      this.maxMillis = maxMillis;
+      this.avgMillis = avgMillis;
+    }
+
+    private static QueryTiming slowest(QueryTiming first, QueryTiming second) {
+      return first.maxMillis >= second.maxMillis ? first : second;
+    }
+  }
+}
@@ -1,26 +1,25 @@
 package services.processors;
 
 import exceptions.InvalidCsvException;
-import java.io.BufferedWriter;
 import java.io.IOException;
 import java.io.Reader;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.atomic.AtomicLong;
-import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 import models.dto.Context;
 import org.apache.commons.csv.CSVFormat;
 import org.apache.commons.csv.CSVParser;
-import org.apache.commons.csv.CSVPrinter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import repository.core.Repository;
 import services.mappers.EntityMapper;
 import services.processors.record.CSVInputRecord;
+import services.processors.record.InputRecord;
+import services.processors.record.MoodleGroupRecord;
 import services.validations.Validations;
 
 /**
@@ -28,12 +27,18 @@ import services.validations.Validations;
  * of the records, maps them to entities, and saves them to the database. It uses Validations,
  * EntityMapper, and Repository interfaces for validation, mapping, and persistence respectively.
  *
+ * <p>Uploads are processed as a stream: the records are read in chunks of {@link #CHUNK_SIZE}
+ * records and every chunk is validated and saved before the chunk after the next is read, so the
+ * memory used does not grow with the size of the file.
+ *
  * @param <T> the type of entity to be processed
  */
 @Singleton
 public class CSVProcessor<T> implements Processor<T, Path> {
 
   private static final Logger log = LoggerFactory.getLogger(CSVProcessor.class);
+  static final int CHUNK_SIZE = 500;
+  private static final int LOGGED_FAILED_RECORDS = 20;
   private final Validations<T> validations;
   private final EntityMapper<T> entityMapper;
   private final Repository<T> repository;
@@ -58,37 +63,16 @@ public class CSVProcessor<T> implements Processor<T, Path> {
   public CompletableFuture<List<T>> processData(Path filePath, Context context) {
     return CompletableFuture.supplyAsync(
         () -> {
-          CSVParser csvParser;
           try (Reader reader = Files.newBufferedReader(filePath)) {
-            csvParser =
-                CSVParser.parse(
-                    reader,
-                    CSVFormat.Builder.create()
-                        .setHeader()
-                        .setSkipHeaderRecord(true)
-                        .setIgnoreHeaderCase(true)
-                        .setTrim(true)
-                        .get());
-
-            // Special Case for ReviewTaskEntityMapper handling 2nd variant for group file data
-            if (entityMapper.getClass().getSimpleName().equals("ReviewTaskEntityMapper")
-                && csvParser.getHeaderNames().size() == 5) {
-              csvParser = getCsvRecordsForReviewTasks(csvParser);
-            }
-
-            // Validate CSV Header Order
-            List<String> actualHeaders = new ArrayList<>(csvParser.getHeaderNames());
-            if (!validations.validateFieldOrder(actualHeaders)) {
-              log.warn("CSV file has incorrect field order.");
-              throw new InvalidCsvException("CSV file has incorrect field order.");
-            }
-
             // Perform Syntax Validation & Map to Entities
-            List<T> syntaxValidRecords =
-                csvParser.getRecords().stream()
-                    .map(CSVInputRecord::new)
+            List<InputRecord> syntaxValidInputs =
+                openRecords(reader)
                     .peek(parsed -> log.info("Syntax Processing record: {}", parsed))
                     .filter(validations::validateSyntax)
+                    .toList();
+            entityMapper.prefetch(syntaxValidInputs, context);
+            List<T> syntaxValidRecords =
+                syntaxValidInputs.stream()
                     .peek(parsed -> log.info("Mapping Syntax valid record: {}", parsed))
                     .flatMap(parsed -> entityMapper.mapToEntityList(parsed, context).stream())
                     .toList();
@@ -98,9 +82,7 @@ public class CSVProcessor<T> implements Processor<T, Path> {
 
             // Perform Semantic Validation
             List<T> semanticValidRecords =
-                syntaxValidRecords.stream()
-                    .filter(record -> validations.validateSemantics(record, repository))
-                    .toList();
+                validations.validateSemanticsBatch(syntaxValidRecords, repository);
 
             log.info(
                 "Semantic validation complete. Valid records count: {}",
@@ -122,105 +104,141 @@ public class CSVProcessor<T> implements Processor<T, Path> {
   }
 
   /**
-   * Transforms the CSV records for review tasks by grouping them and creating a new CSV format.
+   * Processes the CSV file and saves its valid entities chunk by chunk. The records are read in
+   * chunks of {@link #CHUNK_SIZE} syntax valid records. What each chunk refers to is fetched in
+   * bulk, then the chunk is mapped and checked, then saved while the next chunk is read. Reading
+   * waits for the save of the previous chunk before checking the semantics of the next one. This
+   * keeps at most two chunks in memory and lets the checks see the records saved before them.
+   * Repositories that need all the records at once get them in a single chunk.
    *
-   * @param csvParser the original CSV parser
-   * @return a new CSV parser with transformed records
-   * @throws IOException if an I/O error occurs
+   * @param filePath the path of the CSV file to be processed
+   * @param context the context in which the processing is performed
+   * @return a CompletableFuture containing a message with the totals of the upload
    */
-  private CSVParser getCsvRecordsForReviewTasks(CSVParser csvParser) throws IOException {
-    if (entityMapper.getClass().getSimpleName().equals("ReviewTaskEntityMapper")
-        && csvParser.getHeaderNames().size() == 5) {
-      Map<String, List<CSVInputRecord>> groupedRecords =
-          csvParser.getRecords().stream()
-              .map(CSVInputRecord::new)
-              .collect(Collectors.groupingBy(record -> record.get("Group").trim()));
+  @Override
+  public CompletableFuture<String> processAndSave(Path filePath, Context context) {
+    return CompletableFuture.supplyAsync(
+        () -> {
+          try (Reader reader = Files.newBufferedReader(filePath)) {
+            return saveInChunks(openRecords(reader), context);
+          } catch (InvalidCsvException e) {
+            log.error("Invalid CSV content: {}", e.getMessage());
+            throw e;
+          } catch (Exception e) {
+            log.error("Unexpected error processing CSV file: {}", e.getMessage(), e);
+            throw new InvalidCsvException("Unexpected error while processing CSV file.", e);
+          }
+        });
+  }
 
-      int maxGroupSize = groupedRecords.values().stream().mapToInt(List::size).max().orElse(0);
+  private String saveInChunks(Stream<InputRecord> inputRecords, Context context) {
+    int chunkSize = repository.supportsChunkedSave() ? CHUNK_SIZE : Integer.MAX_VALUE;
+    UploadTally tally = new UploadTally();
+    CompletableFuture<Void> previousSave = CompletableFuture.completedFuture(null);
+    Iterator<InputRecord> records = inputRecords.iterator();
 
-      List<String> headers = new ArrayList<>();
-      headers.add("Group ID");
-      headers.add("Group Name");
-      headers.add("Group Size");
-      headers.add("Group Description");
-      headers.add("Assigned teacher Username");
-      headers.add("Assigned teacher Firstname");
-      headers.add("Assigned teacher Lastname");
-      headers.add("Assigned teacher Email");
+    while (records.hasNext()) {
+      List<InputRecord> validRows = new ArrayList<>();
+      while (records.hasNext() && validRows.size() < chunkSize) {
+        InputRecord parsed = records.next();
+        tally.rows++;
+        if (validations.validateSyntax(parsed)) {
+          validRows.add(parsed);
+        } else {
+          log.debug("Skipping syntax invalid record: {}", parsed);
+          tally.invalidRecords++;
+        }
+      }
+      entityMapper.prefetch(validRows, context);
+      List<T> chunk = new ArrayList<>();
+      for (InputRecord row : validRows) {
+        chunk.addAll(entityMapper.mapToEntityList(row, context));
+      }
 
-      for (int i = 1; i <= maxGroupSize; i++) {
-        headers.add("Member " + i + " Username");
-        headers.add("Member " + i + " ID Number");
-        headers.add("Member " + i + " Firstname");
-        headers.add("Member " + i + " Lastname");
-        headers.add("Member " + i + " Email");
+      if (!awaitSave(previousSave, tally)) {
+        return tally.failureMessage();
       }
-      Path tempFile = Files.createTempFile("transformed-review-task", ".csv");
-      BufferedWriter writer = Files.newBufferedWriter(tempFile);
-      CSVFormat format =
-          CSVFormat.Builder.create()
-              .setHeader(headers.toArray(new String[0]))
-              .setSkipHeaderRecord(false)
-              .get();
-      CSVPrinter csvPrinter = new CSVPrinter(writer, format);
+      List<T> validChunk = validations.validateSemanticsBatch(chunk, repository);
+      tally.invalidRecords += chunk.size() - validChunk.size();
+      if (!validChunk.isEmpty()) {
+        tally.chunks++;
+        previousSave =
+            repository.saveAll(validChunk, context).toCompletableFuture().thenAccept(tally::add);
+      }
+    }
+    if (!awaitSave(previousSave, tally)) {
+      return tally.failureMessage();
+    }
 
-      AtomicLong counter = new AtomicLong(0);
-      groupedRecords.values().stream()
-          .filter(group -> !"No group".equals(group.get(0).get("Group").trim()))
-          .forEach(
-              group -> {
-                List<String> row = new ArrayList<>();
-                long baseTime = System.currentTimeMillis();
-                long groupId = baseTime + counter.getAndIncrement();
-                row.add(String.valueOf(groupId));
-                row.add(group.get(0).get("Group").trim());
-                row.add(String.valueOf(group.size()));
-                row.add("");
-                row.add("");
-                row.add("");
-                row.add("");
-                row.add("");
+    log.info(
+        "Processed {} rows in {} chunks: {} saved, {} skipped, {} invalid.",
+        tally.rows,
+        tally.chunks,
+        tally.successCount,
+        tally.skippedCount,
+        tally.invalidRecords);
+    if (tally.chunks == 0) {
+      log.warn("No valid records found after semantic validation.");
+      throw new InvalidCsvException("No valid records found. Data might already exist.");
+    }
+    if (!tally.skippedRecords.isEmpty()) {
+      log.warn("Some records failed to save: {}", tally.skippedRecords);
+    }
+    return uploadMessage(tally.successCount, tally.skippedCount);
+  }
 
-                for (int i = 0; i < headers.size() - 4; i += 4) {
-                  int memberIndex = (i / 4) + 1;
-                  if (memberIndex <= group.size()) {
-                    CSVInputRecord member = group.get(memberIndex - 1);
-                    row.add(""); // Username placeholder
-                    row.add(member.get("ID number").trim());
-                    row.add(member.get("First name").trim());
-                    row.add(member.get("Last name").trim());
-                    row.add(""); // Email placeholder
-                  } else {
-                    row.add("");
-                    row.add("");
-                    row.add("");
-                    row.add("");
-                  }
-                }
+  private boolean awaitSave(CompletableFuture<Void> save, UploadTally tally) {
+    try {
+      save.join();
+      return true;
+    } catch (Exception e) {
+      log.error(
+          "Error saving records after {} were saved: {}", tally.successCount, e.getMessage(), e);
+      return false;
+    }
+  }
 
-                try {
-                  csvPrinter.printRecord(row);
-                } catch (IOException e) {
-                  throw new RuntimeException(e);
-                }
-              });
+  /**
+   * Opens the records of the CSV content and checks the order of its headers. The records are read
+   * lazily, as the returned stream is consumed. The 5-column group export of Moodle has one row per
+   * group member; its rows are grouped in memory and every group is presented as a record of the
+   * review task file.
+   *
+   * @param reader the reader of the CSV content
+   * @return the records of the CSV content
+   * @throws IOException if an I/O error occurs
+   */
+  private Stream<InputRecord> openRecords(Reader reader) throws IOException {
+    CSVParser csvParser =
+        CSVParser.parse(
+            reader,
+            CSVFormat.Builder.create()
+                .setHeader()
+                .setSkipHeaderRecord(true)
+                .setIgnoreHeaderCase(true)
+                .setTrim(true)
+                .get());
 
-      csvPrinter.flush();
-      csvPrinter.close();
-      writer.close();
+    List<String> actualHeaders = new ArrayList<>(csvParser.getHeaderNames());
+    Stream<InputRecord> records;
+    // Special Case for ReviewTaskEntityMapper handling 2nd variant for group file data
+    if (entityMapper.getClass().getSimpleName().equals("ReviewTaskEntityMapper")
+        && actualHeaders.size() == 5) {
+      List<MoodleGroupRecord> groups = MoodleGroupRecord.groupMembers(csvParser);
+      actualHeaders =
+          MoodleGroupRecord.headers(
+              groups.stream().mapToInt(MoodleGroupRecord::size).max().orElse(0));
+      records = groups.stream().map(InputRecord.class::cast);
+    } else {
+      records = csvParser.stream().map(CSVInputRecord::new);
+    }
 
-      Reader transformedReader = Files.newBufferedReader(tempFile);
-      csvParser =
-          CSVParser.parse(
-              transformedReader,
-              CSVFormat.Builder.create()
-                  .setHeader()
-                  .setSkipHeaderRecord(true)
-                  .setIgnoreHeaderCase(true)
-                  .setTrim(true)
-                  .get());
+    // Validate CSV Header Order
+    if (!validations.validateFieldOrder(actualHeaders)) {
+      log.warn("CSV file has incorrect field order.");
+      throw new InvalidCsvException("CSV file has incorrect field order.");
     }
-    return csvParser;
+    return records;
   }
 
   /**
@@ -251,13 +269,8 @@ public class CSVProcessor<T> implements Processor<T, Path> {
 
                   if (skippedCount > 0) {
                     log.warn("Some records failed to save: {}", skippedRecords);
-                    return "Upload completed: "
-                        + successCount
-                        + " new records added, "
-                        + skippedCount
-                        + " duplicate records skipped.";
                   }
-                  return "Upload completed successfully";
+                  return uploadMessage(successCount, skippedCount);
                 })
             .exceptionally(
                 ex -> {
@@ -265,4 +278,45 @@ public class CSVProcessor<T> implements Processor<T, Path> {
                   return "An error occurred while saving the records.";
                 });
   }
+
+  private static String uploadMessage(int successCount, int skippedCount) {
+    if (skippedCount > 0) {
+      return "Upload completed: "
+          + successCount
+          + " new records added, "
+          + skippedCount
+          + " duplicate records skipped.";
+    }
+    return "Upload completed successfully";
+  }
+
+  /** The running totals of an upload saved in chunks. */
+  private static final class UploadTally {
+    private long rows;
+    private int chunks;
+    private long invalidRecords;
+    private int successCount;
+    private int skippedCount;
+    private final List<Object> skippedRecords = new ArrayList<>();
+
+    private void add(Map<String, Object> saveStatus) {
+      successCount += Optional.ofNullable((Integer) saveStatus.get("successCount")).orElse(0);
+      skippedCount += Optional.ofNullable((Integer) saveStatus.get("failedCount")).orElse(0);
+      List<?> failedRecords = (List<?>) saveStatus.get("failedRecords");
+      if (failedRecords != null) {
+        // Only the first skipped records are logged, the list must not grow with the file
+        failedRecords.stream()
+            .limit(LOGGED_FAILED_RECORDS - skippedRecords.size())
+            .forEach(skippedRecords::add);
+      }
+    }
+
+    private String failureMessage() {
+      return successCount == 0
+          ? "An error occurred while saving the records."
+          : "An error occurred while saving the records after "
+              + successCount
+              + " new records were added.";
+    }
+  }
 }
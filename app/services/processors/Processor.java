@@ -14,4 +14,17 @@ public interface Processor<T, I> {
   CompletableFuture<List<T>> processData(I input, Context context);
 
   CompletableFuture<String> saveProcessedData(List<T> processedData, Context context);
+
+  /**
+   * Processes the input and saves the valid data. Processors of large inputs override it to save
+   * the data in chunks as they go, instead of holding all of it until it is saved.
+   *
+   * @param input the input to process
+   * @param context the context in which the processing is performed
+   * @return a CompletableFuture containing a message with the result of the save operation
+   */
+  default CompletableFuture<String> processAndSave(I input, Context context) {
+    return processData(input, context)
+        .thenCompose(processedData -> saveProcessedData(processedData, context));
+  }
 }
@@ -0,0 +1,206 @@
+package services.processors.record;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.apache.commons.csv.CSVRecord;
+
+/**
+ * MoodleGroupRecord is a class that implements the InputRecord interface for the group export of
+ * Moodle, which has one row per group member. It presents the members of one group as a single
+ * review task record, with the fields of the review task file: "Group ID", "Group Name", "Group
+ * Size" and "Member i ID Number", "Member i Firstname" and "Member i Lastname" for every member.
+ * Fields the export does not have, such as the teacher and the member emails, are empty.
+ */
+public class MoodleGroupRecord implements InputRecord {
+
+  private static final String NO_GROUP = "No group";
+  private static final List<String> GROUP_HEADERS =
+      List.of(
+          "Group ID",
+          "Group Name",
+          "Group Size",
+          "Group Description",
+          "Assigned teacher Username",
+          "Assigned teacher Firstname",
+          "Assigned teacher Lastname",
+          "Assigned teacher Email");
+  private static final List<String> MEMBER_FIELDS =
+      List.of("Username", "ID Number", "Firstname", "Lastname", "Email");
+  private static final String MEMBER_PREFIX = "Member ";
+
+  private final long groupId;
+  private final String groupName;
+  private final List<Member> members = new ArrayList<>();
+
+  private MoodleGroupRecord(long groupId, String groupName) {
+    this.groupId = groupId;
+    this.groupName = groupName;
+  }
+
+  /**
+   * Groups the member rows of a Moodle group export by group, in the order the groups first
+   * appear. Students in no group are left out. Every group gets a new ID, since the export has
+   * none.
+   *
+   * @param rows the rows of the export, with the columns "Group", "ID number", "First name" and
+   *     "Last name"
+   * @return one record per group
+   */
+  public static List<MoodleGroupRecord> groupMembers(Iterable<CSVRecord> rows) {
+    Map<String, MoodleGroupRecord> groups = new LinkedHashMap<>();
+    long baseId = System.currentTimeMillis();
+    for (CSVRecord row : rows) {
+      String groupName = row.get("Group").trim();
+      if (NO_GROUP.equals(groupName)) {
+        continue;
+      }
+      MoodleGroupRecord group = groups.get(groupName);
+      if (group == null) {
+        group = new MoodleGroupRecord(baseId + groups.size(), groupName);
+        groups.put(groupName, group);
+      }
+      group.members.add(
+          new Member(
+              row.get("ID number").trim(),
+              row.get("First name").trim(),
+              row.get("Last name").trim()));
+    }
+    return new ArrayList<>(groups.values());
+  }
+
+  /**
+   * Returns the headers of the review task file the records stand for.
+   *
+   * @param maxGroupSize the size of the largest group
+   * @return the group headers followed by the member headers of every member
+   */
+  public static List<String> headers(int maxGroupSize) {
+    List<String> headers = new ArrayList<>(GROUP_HEADERS);
+    for (int i = 1; i <= maxGroupSize; i++) {
+      for (String field : MEMBER_FIELDS) {
+        headers.add(MEMBER_PREFIX + i + " " + field);
+      }
+    }
+    return headers;
+  }
+
+  /**
+   * Returns the number of members of the group.
+   *
+   * @return the group size
+   */
+  public int size() {
+    return members.size();
+  }
+
+  /**
+   * Retrieves the value of a field of the review task file for the group.
+   *
+   * @param key the field whose value is to be returned
+   * @return the value of the field, empty when the export has no value for it
+   * @throws IllegalArgumentException if the field is not a field of the review task file
+   */
+  @Override
+  public String get(String key) {
+    switch (key) {
+      case "Group ID":
+        return String.valueOf(groupId);
+      case "Group Name":
+        return groupName;
+      case "Group Size":
+        return String.valueOf(members.size());
+      default:
+        break;
+    }
+    if (GROUP_HEADERS.contains(key)) {
+      return "";
+    }
+
+    int memberIndex = memberIndex(key);
+    if (memberIndex < 0) {
+      throw new IllegalArgumentException("Mapping for " + key + " not found");
+    }
+    if (memberIndex >= members.size()) {
+      return "";
+    }
+    Member member = members.get(memberIndex);
+    switch (key.substring(key.indexOf(' ', MEMBER_PREFIX.length()) + 1)) {
+      case "ID Number":
+        return member.idNumber;
+      case "Firstname":
+        return member.firstName;
+      case "Lastname":
+        return member.lastName;
+      default:
+        return "";
+    }
+  }
+
+  /**
+   * Checks if the specified field is a field of the review task file.
+   *
+   * @param key the field to check
+   * @return true if the field is a group field or a field of a member of the group
+   */
+  @Override
+  public boolean isMapped(String key) {
+    if (GROUP_HEADERS.contains(key)) {
+      return true;
+    }
+    int memberIndex = memberIndex(key);
+    return memberIndex >= 0 && memberIndex < members.size();
+  }
+
+  /**
+   * Returns the zero based index of the member of a member field, such as "Member 2 ID Number".
+   *
+   * @param key the field
+   * @return the index of the member, or -1 when the field is not a member field
+   */
+  private static int memberIndex(String key) {
+    if (!key.startsWith(MEMBER_PREFIX)) {
+      return -1;
+    }
+    int end = key.indexOf(' ', MEMBER_PREFIX.length());
+    if (end < 0 || !MEMBER_FIELDS.contains(key.substring(end + 1))) {
+      return -1;
+    }
+    try {
+      return Integer.parseInt(key.substring(MEMBER_PREFIX.length(), end)) - 1;
+    } catch (NumberFormatException e) {
+      return -1;
+    }
+  }
+
+  /**
+   * Returns a string representation of the MoodleGroupRecord object.
+   *
+   * @return a string representation of the MoodleGroupRecord object
+   */
+  @Override
+  public String toString() {
+    return "MoodleGroupRecord{"
+        + "groupId="
+        + groupId
+        + ", groupName="
+        + groupName
+        + ", size="
+        + members.size()
+        + '}';
+  }
+
+  /** The fields of a group member the review tasks need. */
+  private static final class Member {
+    private final String idNumber;
+    private final String firstName;
+    private final String lastName;
+
+    private Member(String idNumber, String firstName, String lastName) {
+      this.idNumber = idNumber;
+      this.firstName = firstName;
+      this.lastName = lastName;
+    }
+  }
+}
@@ -2,9 +2,7 @@ package services.report;
 
 import com.google.inject.Inject;
 import java.util.List;
-import java.util.Map;
 import java.util.concurrent.CompletableFuture;
-import models.ReviewTask;
 import models.dto.GroupSubmissionDTO;
 import models.dto.ReportDTO;
 import services.core.ReviewTaskService;
@@ -32,26 +30,19 @@ public class ProfessorReportServiceImpl implements ReportService {
   @Override
   public CompletableFuture<ReportDTO> generateReport(Long assignmentId, Long userId) {
     return reviewTaskService
-        .getReviewTasks(assignmentId)
+        .getAssignmentReport(assignmentId)
         .thenApply(
-            reviewTasks -> {
+            report -> {
               ReportDTO reportDTO = new ReportDTO();
 
               reportDTO.setAssignmentId(assignmentId);
-              reportDTO.setAssignmentTitle(reviewTasks.get(0).getAssignment().getTitle());
-              reportDTO.setCourseName(
-                  reviewTasks.get(0).getAssignment().getCourse().getCourseName());
-              reportDTO.setCourseCode(
-                  reviewTasks.get(0).getAssignment().getCourse().getCourseCode());
-              reportDTO.setCourseSection(
-                  reviewTasks.get(0).getAssignment().getCourse().getCourseSection());
-              reportDTO.setTerm(reviewTasks.get(0).getAssignment().getCourse().getTerm());
+              reportDTO.setAssignmentTitle(report.getAssignmentTitle());
+              reportDTO.setCourseName(report.getCourseName());
+              reportDTO.setCourseCode(report.getCourseCode());
+              reportDTO.setCourseSection(report.getCourseSection());
+              reportDTO.setTerm(report.getTerm());
 
-              Map<Long, List<ReviewTask>> groupedTasks =
-                  reviewTaskService.groupReviewTasksByGroup(reviewTasks);
-              List<GroupSubmissionDTO> groupDTOs =
-                  reviewTaskService.generateSubmissionInfoInEachGroupDTOs(groupedTasks);
-              reviewTaskService.calculateClassAverages(groupDTOs);
+              List<GroupSubmissionDTO> groupDTOs = report.getGroups();
 
               int totalEvaluations =
                   groupDTOs.stream().mapToInt(group -> group.getMembers().size()).sum();
@@ -1,12 +1,13 @@
 package services.report;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.atomic.AtomicInteger;
 import javax.inject.Inject;
-import models.ReviewTask;
 import models.dto.FeedbackDTO;
 import models.dto.GroupSubmissionDTO;
 import models.dto.MemberSubmissionDTO;
@@ -36,26 +37,19 @@ public class StudentReportServiceImpl implements ReportService {
   @Override
   public CompletableFuture<ReportDTO> generateReport(Long AssignmentId, Long userId) {
     return reviewTaskService
-        .getReviewTasks(AssignmentId)
+        .getStudentGroupReport(AssignmentId, userId)
         .thenApply(
-            reviewTasks -> {
+            report -> {
               ReportDTO reportDTO = new ReportDTO();
 
               reportDTO.setAssignmentId(AssignmentId);
-              reportDTO.setAssignmentTitle(reviewTasks.get(0).getAssignment().getTitle());
-              reportDTO.setCourseName(
-                  reviewTasks.get(0).getAssignment().getCourse().getCourseName());
-              reportDTO.setCourseCode(
-                  reviewTasks.get(0).getAssignment().getCourse().getCourseCode());
-              reportDTO.setCourseSection(
-                  reviewTasks.get(0).getAssignment().getCourse().getCourseSection());
-              reportDTO.setTerm(reviewTasks.get(0).getAssignment().getCourse().getTerm());
+              reportDTO.setAssignmentTitle(report.getAssignmentTitle());
+              reportDTO.setCourseName(report.getCourseName());
+              reportDTO.setCourseCode(report.getCourseCode());
+              reportDTO.setCourseSection(report.getCourseSection());
+              reportDTO.setTerm(report.getTerm());
 
-              Map<Long, List<ReviewTask>> groupedTasks =
-                  reviewTaskService.groupReviewTasksByGroup(reviewTasks);
-              List<GroupSubmissionDTO> groupDTOs =
-                  reviewTaskService.generateSubmissionInfoInEachGroupDTOs(groupedTasks);
-              reviewTaskService.calculateClassAverages(groupDTOs);
+              List<GroupSubmissionDTO> groupDTOs = report.getGroups();
 
               // find the group of the user
               GroupSubmissionDTO userGroup =
@@ -76,11 +70,12 @@ public class StudentReportServiceImpl implements ReportService {
               reportDTO.setStudentId(userId);
               reportDTO.setStudentName(user.getUserName());
               reportDTO.setStudentGroupName(userGroup.getGroupName());
-              reportDTO.setClassAverage(user.getOverallClassAverage());
+              reportDTO.setClassAverage(report.getOverallClassAverage());
 
-              // Anonymize reviewers
+              // Anonymize reviewers on copies, the DTOs of the report are left untouched
               Map<Long, String> reviewerNameMap = new HashMap<>();
               AtomicInteger peerIndex = new AtomicInteger(1);
+              Map<Long, List<FeedbackDTO>> anonymizedFeedbacks = new LinkedHashMap<>();
 
               for (Map.Entry<Long, List<FeedbackDTO>> entry :
                   user.getFeedbacksByReviewer().entrySet()) {
@@ -88,14 +83,25 @@ public class StudentReportServiceImpl implements ReportService {
                 String peerName =
                     reviewerNameMap.computeIfAbsent(
                         reviewerId, id -> "Peer " + peerIndex.getAndIncrement());
+                List<FeedbackDTO> feedbacks = new ArrayList<>(entry.getValue().size());
                 for (FeedbackDTO feedback : entry.getValue()) {
-                  feedback.setReviewerName(peerName);
+                  feedbacks.add(
+                      new FeedbackDTO(
+                          feedback.getFeedbackId(),
+                          feedback.getObtainedScore(),
+                          feedback.getMaxScore(),
+                          feedback.getFeedbackText(),
+                          feedback.getQuestionText(),
+                          feedback.getQuestionKind(),
+                          feedback.getReviewerId(),
+                          peerName));
                 }
+                anonymizedFeedbacks.put(reviewerId, feedbacks);
               }
 
               // Set the feedbacks for the user
-              reportDTO.setGroupedAnonymizedFeedbacks(user.getFeedbacksByReviewer());
-              reportDTO.setClassAveragePerQuestion(user.getClassAverages());
+              reportDTO.setGroupedAnonymizedFeedbacks(anonymizedFeedbacks);
+              reportDTO.setClassAveragePerQuestion(report.getClassAveragesForEachQuestion());
               reportDTO.setStudentAverageScore(user.getAverageFeedbackScore());
               return reportDTO;
             });
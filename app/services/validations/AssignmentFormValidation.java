@@ -3,10 +3,12 @@ package services.validations;
 import forms.AssignmentForm;
 import java.time.LocalDate;
 import java.util.List;
+import javax.inject.Inject;
 import models.ReviewTask;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import repository.core.Repository;
+import services.core.AssignmentStatusScheduler;
 import services.processors.record.InputRecord;
 
 /**
@@ -17,7 +19,12 @@ public class AssignmentFormValidation implements Validations<ReviewTask> {
 
   private static final Logger log = LoggerFactory.getLogger(AssignmentFormValidation.class);
 
-  public AssignmentFormValidation() {}
+  private final AssignmentStatusScheduler assignmentStatusScheduler;
+
+  @Inject
+  public AssignmentFormValidation(AssignmentStatusScheduler assignmentStatusScheduler) {
+    this.assignmentStatusScheduler = assignmentStatusScheduler;
+  }
 
   /**
    * Validates the syntax of the assignment form record by checking for missing or empty mandatory
@@ -36,12 +43,13 @@ public class AssignmentFormValidation implements Validations<ReviewTask> {
       return false;
     }
 
-    if (form.dueDate == null || form.dueDate.isBefore(LocalDate.now())) {
+    LocalDate today = assignmentStatusScheduler.today();
+    if (form.dueDate == null || form.dueDate.isBefore(today)) {
       log.warn("Invalid due date");
       return false;
     }
 
-    if (form.startDate == null || form.startDate.isBefore(LocalDate.now())) {
+    if (form.startDate == null || form.startDate.isBefore(today)) {
       log.warn("Invalid start date");
       return false;
     }
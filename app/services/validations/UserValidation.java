@@ -1,5 +1,6 @@
 package services.validations;
 
+import java.util.Arrays;
 import java.util.List;
 import java.util.regex.Pattern;
 import javax.inject.Singleton;
@@ -64,7 +65,38 @@ public class UserValidation implements Validations<User> {
       log.warn("User {} already exists", record.getUserId());
       return false;
     }
+    return hasValidFields(record);
+  }
+
+  /**
+   * Validates the semantics of a batch of user records. The existing users among them are found
+   * with one query per chunk of IDs, instead of one lookup per record.
+   *
+   * @param records the user records to be validated
+   * @param repository the repository to check for existing records
+   * @return the records of new users with valid fields, in their original order
+   */
+  @Override
+  public List<User> validateSemanticsBatch(List<User> records, Repository<User> repository) {
+    UserRepository userRepository = (UserRepository) repository;
+    long[] existingIds =
+        userRepository
+            .findExistingUserIds(records.stream().map(User::getUserId).distinct().toList())
+            .stream()
+            .mapToLong(Long::longValue)
+            .sorted()
+            .toArray();
+    if (existingIds.length > 0) {
+      log.warn("{} of {} users already exist", existingIds.length, records.size());
+    }
+
+    return records.stream()
+        .filter(record -> Arrays.binarySearch(existingIds, record.getUserId()) < 0)
+        .filter(this::hasValidFields)
+        .toList();
+  }
 
+  private boolean hasValidFields(User record) {
     if (!EMAIL_PATTERN.matcher(record.getEmail()).matches()) {
       log.warn(
           "Invalid email format for user: {} with email given as : {}",
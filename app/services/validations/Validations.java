@@ -15,5 +15,17 @@ public interface Validations<T> {
 
   boolean validateSemantics(T record, Repository<T> repository); // Validate business requirements
 
+  /**
+   * Validates the semantics of a batch of records. Validations whose checks query the repository
+   * override it to check the whole batch with a few queries instead of one per record.
+   *
+   * @param records the records to be validated
+   * @param repository the repository to check for existing records
+   * @return the records whose semantics are valid, in their original order
+   */
+  default List<T> validateSemanticsBatch(List<T> records, Repository<T> repository) {
+    return records.stream().filter(record -> validateSemantics(record, repository)).toList();
+  }
+
   boolean validateFieldOrder(List<String> actualHeaders);
 }
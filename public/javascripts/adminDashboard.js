@@ -2,6 +2,7 @@
 document.addEventListener('DOMContentLoaded', function () {
 
     populateTermDropdown();
+    setupOperationsMetrics();
 
     // Add click event listeners for the collapsible sections
     document.getElementById('addDetailsHeader').addEventListener('click', function () {
@@ -213,3 +214,86 @@ function populateTermDropdown() {
         }).join('');
     }
 }
+
+const METRICS_REFRESH_INTERVAL = 5000;
+
+// Polls the runtime metrics while the page is visible and refreshes the operations section
+function setupOperationsMetrics() {
+    if (!document.getElementById('operations')) {
+        return;
+    }
+
+    refreshOperationsMetrics();
+    setInterval(function () {
+        if (document.visibilityState === 'visible') {
+            refreshOperationsMetrics();
+        }
+    }, METRICS_REFRESH_INTERVAL);
+}
+
+function refreshOperationsMetrics() {
+    fetch('/api/admin/metrics', {credentials: 'same-origin'})
+        .then(response => {
+            if (!response.ok) {
+                throw new Error(`HTTP error! Status: ${response.status}`);
+            }
+            return response.json();
+        })
+        .then(renderOperationsMetrics)
+        .catch(error => {
+            console.error('Error fetching operations metrics:', error);
+            document.getElementById('metrics-updated').textContent = 'Metrics unavailable';
+        });
+}
+
+function renderOperationsMetrics(metrics) {
+    document.getElementById('metrics-updated').textContent =
+        'Updated ' + new Date(metrics.generatedAt).toLocaleTimeString();
+
+    const pool = metrics.connectionPool;
+    document.getElementById('metrics-connection-pool').innerHTML = pool.available
+        ? `${pool.active} active / ${pool.max} max, ${pool.idle} idle<br>${pool.awaiting} waiting for a connection`
+        : 'Not available';
+
+    document.getElementById('metrics-caches').innerHTML = Object.entries(metrics.caches)
+        .map(([name, stats]) => `${escapeHtml(name)}: ${(stats.hitRatio * 100).toFixed(1)}% (${stats.entries} entries)`)
+        .join('<br>');
+
+    const inFlight = Object.entries(metrics.inFlight);
+    document.getElementById('metrics-in-flight').innerHTML = inFlight.length
+        ? inFlight.map(([operation, count]) => `${escapeHtml(operation)}: ${count}`).join('<br>')
+        : 'None since startup';
+
+    document.getElementById('metrics-routes').innerHTML = tableRows(metrics.routes, 6, route => `
+        <td><code>${escapeHtml(route.route)}</code></td>
+        <td class="text-end">${route.count}</td>
+        <td class="text-end">${route.p50}</td>
+        <td class="text-end">${route.p95}</td>
+        <td class="text-end">${route.p99}</td>
+        <td class="text-end">${route.max}</td>`);
+
+    document.getElementById('metrics-executors').innerHTML = tableRows(metrics.executors, 4, executor => `
+        <td>${escapeHtml(executor.name)}</td>
+        <td class="text-end">${executor.activeThreads} / ${executor.maxThreads}</td>
+        <td class="text-end">${executor.queueDepth}</td>
+        <td class="text-end">${executor.completedTasks}</td>`);
+
+    document.getElementById('metrics-queries').innerHTML = tableRows(metrics.slowQueries, 4, query => `
+        <td class="small"><code>${escapeHtml(query.query)}</code></td>
+        <td class="text-end">${query.executions}</td>
+        <td class="text-end">${query.maxMillis}</td>
+        <td class="text-end">${query.avgMillis}</td>`);
+}
+
+function tableRows(items, columns, renderCells) {
+    if (!items.length) {
+        return `<tr><td colspan="${columns}" class="text-muted">No data yet</td></tr>`;
+    }
+    return items.map(item => `<tr>${renderCells(item)}</tr>`).join('');
+}
+
+function escapeHtml(value) {
+    const div = document.createElement('div');
+    div.textContent = value == null ? '' : String(value);
+    return div.innerHTML;
+}
@@ -32,6 +32,16 @@ class ApiService {
         return response.json()
     }
 
+    static async fetchDashboardData(courseCode, courseSection, term) {
+        // The browser revalidates with the ETag of the last response and reuses it on a 304
+        const params = courseCode ? `?${new URLSearchParams({courseCode, courseSection, term})}` : ""
+        const response = await fetch(`/api/dashboard/professor${params}`)
+        if (!response.ok) {
+            throw new Error(`Failed to fetch dashboard: ${response.status}`)
+        }
+        return response.json()
+    }
+
     static async fetchSubmissionsOverview(assignmentId) {
         const response = await fetch(`/api/reviewTasks/overview/${assignmentId}`)
         if (!response.ok) {
@@ -467,6 +477,89 @@ class UiService {
         }
     }
 
+    static escapeHtml(value) {
+        const div = document.createElement("div")
+        div.textContent = value ?? ""
+        return div.innerHTML.replace(/"/g, "&quot;")
+    }
+
+    static updateDashboard(data) {
+        document.getElementById("student-count").textContent = data.studentCount
+        document.getElementById("assignment-count").textContent = data.assignmentCount
+        document.getElementById("course-count").textContent = data.activeCourseCount
+
+        const emptyList = `
+        <div class="text-center py-4">
+            <p class="text-muted mb-0">No active assignments</p>
+        </div>`
+
+        document.querySelector(".assignment-list").innerHTML = data.assignments.length === 0 ? emptyList : data.assignments.map((assignment) => {
+            const statusBadge = assignment.status === "pending"
+                ? `<span class="badge bg-warning ms-2" data-bs-toggle="tooltip" title="${this.escapeHtml(assignment.statusReason)}">Pending</span>`
+                : assignment.status === "active"
+                    ? `<span class="badge bg-success ms-2">Active</span>`
+                    : `<span class="badge bg-danger ms-2">Closed</span>`
+            const peerAssigned = assignment.peerAssigned
+                ? `<i class="bi bi-check-circle-fill text-success me-2" data-bs-toggle="tooltip" title="Team info available"></i>
+                   <small class="text-success">Peer assigned</small>`
+                : `<i class="bi bi-x-circle-fill text-danger me-2" data-bs-toggle="tooltip" title="Team info not available"></i>
+                   <small class="text-danger">Peer not assigned</small>`
+            return `
+        <div class="card mb-3 border">
+            <div class="card-body p-3">
+                <h3 class="h6 mb-2">${this.escapeHtml(assignment.title)}</h3>
+                <div class="d-flex justify-content-between align-items-center mb-2">
+                    <div>
+                        <span class="badge bg-secondary me-2">${this.escapeHtml(assignment.courseCode)}</span>
+                        <small class="text-muted">${this.escapeHtml(assignment.dueDate)}</small>
+                    </div>
+                    ${statusBadge}
+                </div>
+                <div class="d-flex justify-content-between align-items-center mt-2">
+                    <div class="d-flex gap-2">
+                        <button class="btn btn-sm btn-outline-secondary edit-assignment-btn" data-assignment-id="${assignment.assignmentId}">
+                            Edit
+                        </button>
+                        <button class="btn btn-sm btn-outline-secondary view-submissions-btn" data-assignment-id="${assignment.assignmentId}">View Submissions</button>
+                    </div>
+                    <div class="d-flex align-items-center">
+                        ${peerAssigned}
+                    </div>
+                </div>
+            </div>
+        </div>`
+        }).join("")
+
+        document.querySelector(".peer-assignment-list").innerHTML = data.peerReviewAssignments.length === 0 ? emptyList : data.peerReviewAssignments.map((peerReview) => `
+        <div class="card mb-3 border" data-assignment-id="${peerReview.assignmentId}" data-completed-members="${peerReview.completedMembers}" data-total-members="${peerReview.totalMembers}">
+            <div class="card-body p-3">
+                <div>
+                    <h3 class="h6 mb-1">${this.escapeHtml(peerReview.assignmentTitle)}</h3>
+                    <p class="small text-muted mb-2">${this.escapeHtml(peerReview.courseCode)}
+                        • ${peerReview.totalStudentCount} students</p>
+                    <div class="mb-2">
+                        <div class="progress mb-1" style="height: 0.5rem;">
+                            <div class="progress-bar bg-primary" style="width: ${peerReview.progressPercentage}%"></div>
+                        </div>
+                        <small class="text-muted"><span class="progress-percentage">${peerReview.progressPercentage}</span>
+                            % Complete</small>
+                    </div>
+                </div>
+            </div>
+        </div>`).join("")
+    }
+
+    static applyProgress(progress) {
+        const card = document.querySelector(`.peer-assignment-list .card[data-assignment-id="${progress.assignmentId}"]`)
+        if (!card) return
+
+        // The counts are absolute, applying them again or after a reload cannot overshoot
+        card.dataset.completedMembers = progress.completedMembers
+        card.dataset.totalMembers = progress.totalMembers
+        card.querySelector(".progress-bar").style.width = `${progress.progressPercentage}%`
+        card.querySelector(".progress-percentage").textContent = progress.progressPercentage
+    }
+
     static populateSubmissionsView(submissionData) {
         if (!submissionData) return
 
@@ -670,6 +763,7 @@ class EventHandlers {
             this.setupQuestionManagement()
             this.setupFormSubmissions()
             this.setupCourseFilter()
+            this.setupProgressStream()
             this.setupAssignmentManagement()
             this.setupUploadAndDownloadAndDeleteForms()
             this.setupAssignmentTypeSelection()
@@ -908,42 +1002,44 @@ class EventHandlers {
                     sessionStorage.setItem("selectedCourseCode", selectedCourse)
                 }
 
-                // Reload dashboard with filter
-                const headers = selectedCourse === "all" ? {} : {termFilter: selectedTerm, courseFilter: selectedCourse}
-
-                fetch("/dashboard", {
-                    method: "GET", headers: headers,
-                })
-                    .then((response) => response.text())
-                    .then((html) => {
-                        console.log("Fetched HTML snippet:", html)
-                        const parser = new DOMParser()
-                        const newDoc = parser.parseFromString(html, "text/html")
+                // Reload dashboard data with filter
+                const [courseCode, courseSection] = selectedCourse === "all" ? [] : selectedCourse.split(":::").map((part) => part.trim())
+                EventHandlers.dashboardFilter = {courseCode, courseSection, term: selectedTerm}
 
-                        // Replace specific parts of the DOM
-                        const newAssignmentList = newDoc.querySelector(".assignment-list")
-                        const newReviewList = newDoc.querySelector(".peer-assignment-list")
+                EventHandlers.reloadDashboardData()
+            })
+        }
+    }
 
-                        document.querySelector(".assignment-list").innerHTML = newAssignmentList.innerHTML
-                        document.querySelector(".peer-assignment-list").innerHTML = newReviewList.innerHTML
+    static reloadDashboardData() {
+        const {courseCode, courseSection, term} = EventHandlers.dashboardFilter || {}
 
-                        // Update counts
-                        document.getElementById("student-count").textContent = newDoc.getElementById("student-count").textContent
+        ApiService.fetchDashboardData(courseCode, courseSection, term)
+            .then((data) => {
+                UiService.updateDashboard(data)
 
-                        document.getElementById("assignment-count").textContent = newDoc.getElementById("assignment-count").textContent
+                // Re-run setup
+                EventHandlers.setupAssignmentManagement()
+                EventHandlers.setupUploadAndDownloadAndDeleteForms()
+            })
+            .catch((err) => {
+                console.error("Dashboard update failed:", err)
+                UiService.showNotification("Failed to update dashboard", "error")
+            })
+    }
 
-                        document.getElementById("course-count").textContent = newDoc.getElementById("course-count").textContent
+    static setupProgressStream() {
+        if (!window.EventSource || !document.querySelector(".peer-assignment-list")) return
 
-                        // Re-run setup
-                        EventHandlers.setupAssignmentManagement()
-                        EventHandlers.setupUploadAndDownloadAndDeleteForms()
-                    })
-                    .catch((err) => {
-                        console.error("Dashboard update failed:", err)
-                        UiService.showNotification("Failed to update dashboard", "error")
-                    })
-            })
-        }
+        // The progress of an assignment is pushed as reviews are submitted, instead of reloading the dashboard
+        const source = new EventSource("/api/dashboard/professor/progress")
+        source.addEventListener("open", () => {
+            // Reviews submitted since the page was rendered, or while disconnected, are not pushed
+            EventHandlers.reloadDashboardData()
+        })
+        source.addEventListener("progress", (event) => {
+            UiService.applyProgress(JSON.parse(event.data))
+        })
     }
 
     static setupAssignmentManagement() {
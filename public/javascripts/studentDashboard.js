@@ -6,11 +6,10 @@ class ApiService {
     }
 
     static async fetchStudentDashboard(courseCode) {
-        const response = await fetch(`/dashboard?courseFilter=${courseCode}`, {
-            method: "GET", headers: {"courseFilter": courseCode}
-        });
+        // The browser revalidates with the ETag of the last response and reuses it on a 304
+        const response = await fetch(`/api/dashboard/student?${new URLSearchParams({courseCode})}`);
         if (!response.ok) throw new Error("Failed to fetch dashboard");
-        return response.text();
+        return response.json();
     }
 }
 
@@ -32,31 +31,153 @@ class UiService {
         });
     }
 
-    static updateDashboard(html) {
-        const parser = new DOMParser();
-        const newDoc = parser.parseFromString(html, "text/html");
+    static escapeHtml(value) {
+        const div = document.createElement("div");
+        div.textContent = value ?? "";
+        return div.innerHTML.replace(/"/g, "&quot;");
+    }
+
+    static emptyList(message) {
+        return `
+        <div class="text-center py-4">
+            <p class="text-muted mb-0">${message}</p>
+        </div>`;
+    }
 
-        const fields = [{id: "assignment-count"}, {id: "pending-reviews"}, {id: "completed-reviews"}];
+    static updateDashboard(data) {
+        const counts = {"assignment-count": data.assignmentCount, "pending-reviews": data.pendingReviews, "completed-reviews": data.completedReviews};
 
-        fields.forEach(({id}) => {
-            const newEl = newDoc.getElementById(id);
+        Object.entries(counts).forEach(([id, count]) => {
             const currEl = document.getElementById(id);
-            if (newEl && currEl) currEl.textContent = newEl.textContent;
+            if (currEl) currEl.textContent = count;
         });
 
+        const today = new Date().toLocaleDateString("en-CA");
+
         const assignmentList = document.querySelector(".student-assignment-list");
         const peerList = document.querySelector(".student-peer-review-list");
         const feedbackList = document.querySelector(".feedback-list");
 
-        const newAssignmentList = newDoc.querySelector(".student-assignment-list");
-        const newPeerList = newDoc.querySelector(".student-peer-review-list");
-        const newFeedbackList = newDoc.querySelector(".feedback-list");
+        if (assignmentList) {
+            assignmentList.innerHTML = data.assignments.length === 0 ? this.emptyList("No assignments available") : data.assignments.map((assignment) => {
+                const review = data.peerReviews.find((r) => r.assignmentId === assignment.assignmentId);
+                const status = review ? review.reviewStatus : "NOT_STARTED";
+                const statusText = status === "PENDING" && assignment.dueDate < today
+                    ? "Missed" : status.charAt(0) + status.slice(1).toLowerCase();
+                const badgeClass = {
+                    "Pending": "text-danger bg-danger bg-opacity-10",
+                    "Completed": "text-success bg-success bg-opacity-10",
+                    "Missed": "text-danger bg-danger bg-opacity-10"
+                }[statusText] || "text-secondary bg-secondary bg-opacity-10";
+                return `
+        <div class="card mb-3 border assignment-card">
+            <div class="card-body p-3">
+                <div class="d-flex justify-content-between align-items-center">
+                    <div>
+                        <h3 class="h6 mb-1">${this.escapeHtml(assignment.title)}</h3>
+                        <span class="badge bg-secondary me-2">${this.escapeHtml(assignment.courseCode)}</span>
+                        <small class="text-muted">Due: ${this.escapeHtml(assignment.dueDate)}</small>
+                    </div>
+                    <span class="badge fw-medium rounded px-3 py-2 ${badgeClass}">${statusText}</span>
+                </div>
+            </div>
+        </div>`;
+            }).join("");
+        }
 
-        if (assignmentList && newAssignmentList) assignmentList.innerHTML = newAssignmentList.innerHTML;
+        if (peerList) {
+            peerList.innerHTML = data.peerReviews.length === 0 ? this.emptyList("No peer reviews to evaluate") : data.peerReviews.map((review) => {
+                const completed = review.reviewStatus === "COMPLETED";
+                const action = completed
+                    ? `<a href="#" class="btn btn-primary btn-sm">View Submission</a>`
+                    : review.reviewStatus === "PENDING" && review.dueDate >= today
+                        ? `<a href="#" class="btn btn-primary btn-sm">Start Review</a>`
+                        : `<button class="btn btn-outline-danger btn-sm" disabled title="Deadline has passed">Missed</button>`;
+                return `
+        <div class="card mb-3 border" data-review-task-id="${review.reviewTaskId}" data-review-status="${review.reviewStatus}" data-feedbacks="">
+            <div class="card-body p-3">
+                <div class="d-flex justify-content-between align-items-center">
+                    <div>
+                        <h3 class="h6 mb-1">
+                            ${this.escapeHtml(review.assignmentName)}
+                            ${review.reviewTaskForProfessor ? "(Private Comment for Professor)" : ""}
+                        </h3>
+                        <p class="mb-1 small">
+                            <span class="fw-medium">${this.escapeHtml(review.revieweeName)}</span> •
+                            <span class="ms-1">${this.escapeHtml(review.courseCode)}</span>
+                        </p>
+                        <small class="text-muted">Due: ${this.escapeHtml(review.dueDate)}</small>
+                    </div>
+                    ${action}
+                </div>
+            </div>
+        </div>
+        <div id="review-form-content-${review.reviewTaskId}" class="d-none">
+            ${this.reviewFormContent(review, completed)}
+        </div>`;
+            }).join("");
+        }
 
-        if (peerList && newPeerList) peerList.innerHTML = newPeerList.innerHTML;
+        if (feedbackList) {
+            feedbackList.innerHTML = data.myReviews.length === 0 ? this.emptyList("No feedback received yet") : data.myReviews.map((feedback) => `
+        <div class="card mb-3 border">
+            <div class="card-body p-3">
+                <div class="mb-2">
+                    <h3 class="h6 mb-1">${this.escapeHtml(feedback.assignmentTitle)}</h3>
+                    <p class="mb-1 small">
+                        <span class="fw-medium">Overall Marks:</span>
+                        <span class="ms-1">${feedback.obtainedMarks}
+                            / ${feedback.totalMarks}</span>
+                    </p>
+                </div>
+                <a href="/api/reports/student/${feedback.assignmentId}"
+                class="btn btn-outline-primary btn-sm" target="_blank">
+                    <i class="bi bi-search me-2"></i>View Detailed
+                </a>
+            </div>
+        </div>`).join("");
+        }
+    }
 
-        if (feedbackList && newFeedbackList) feedbackList.innerHTML = newFeedbackList.innerHTML;
+    static reviewFormContent(review, completed) {
+        const disabled = completed ? "disabled" : "";
+        if (review.reviewTaskForProfessor) {
+            const feedback = review.feedbacks[0];
+            return `
+            <div class="card mb-4 p-3">
+                <div class="mb-3">
+                    <label class="form-label fw-medium">
+                        Private Feedback Comment for Professor</label>
+                    <textarea class="form-control question-feedback mb-3" name="feedback_${feedback.feedbackId}" rows="4" ${disabled}>${this.escapeHtml(feedback.feedbackText)}</textarea>
+                </div>
+            </div>`;
+        }
+        return review.feedbacks
+            .filter((feedback) => feedback.questionText !== "Private Comment for Professor")
+            .map((feedback) => `
+            <div class="card mb-4 p-3">
+                <div class="mb-3">
+                    <label class="form-label fw-medium">${this.escapeHtml(feedback.questionText)}</label>
+                    <textarea class="form-control question-feedback mb-3"
+                    name="feedback_${feedback.feedbackId}"
+                    rows="2" ${disabled}>${this.escapeHtml(feedback.feedbackText)}</textarea>
+                    ${feedback.questionText === "Overall Feedback Comment" ? "" : `
+                    <div class="d-flex align-items-center mb-2">
+                        <span class="me-2">Mark: </span>
+                        <div class="input-group" style="max-width: 150px;">
+                            <input type="number" class="form-control question-marks"
+                            name="marks_${feedback.feedbackId}"
+                            placeholder="Marks"
+                            min="0" max="${feedback.maxScore}"
+                            step="0.5"
+                            value="${feedback.obtainedScore}"
+                            required ${disabled}>
+                            <span class="input-group-text">
+                                / ${feedback.maxScore}</span>
+                        </div>
+                    </div>`}
+                </div>
+            </div>`).join("");
     }
 
     static showNotification(message, type = "success") {
@@ -83,8 +204,8 @@ class EventHandlers {
             if (select) {
                 select.addEventListener("change", async (e) => {
                     const selectedCourse = e.target.value;
-                    const html = await ApiService.fetchStudentDashboard(selectedCourse);
-                    UiService.updateDashboard(html);
+                    const data = await ApiService.fetchStudentDashboard(selectedCourse);
+                    UiService.updateDashboard(data);
                 });
             }
 
@@ -148,8 +269,8 @@ class ReviewFormHandler {
 
                     this.bsModal?.hide();
 
-                    const html = await ApiService.fetchStudentDashboard(document.getElementById('course-filter').value);
-                    UiService.updateDashboard(html);
+                    const data = await ApiService.fetchStudentDashboard(document.getElementById('course-filter').value);
+                    UiService.updateDashboard(data);
                 } catch (error) {
                     console.error(error);
                     UiService.showNotification("Error saving review: " + error.message, "danger");
@@ -166,8 +287,8 @@ class ReviewFormHandler {
 
                     this.bsModal?.hide();
 
-                    const html = await ApiService.fetchStudentDashboard(document.getElementById('course-filter').value);
-                    UiService.updateDashboard(html);
+                    const data = await ApiService.fetchStudentDashboard(document.getElementById('course-filter').value);
+                    UiService.updateDashboard(data);
                 } catch (error) {
                     console.error(error);
                     UiService.showNotification("Error submitting review: " + error.message, "danger");
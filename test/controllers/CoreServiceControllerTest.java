@@ -6,7 +6,10 @@ import static play.mvc.Http.Status.*;
 import static play.test.Helpers.*;
 
 import com.fasterxml.jackson.databind.JsonNode;
+import com.typesafe.config.ConfigFactory;
+import models.dto.SubmissionOverviewPageDTO;
 import models.enums.Roles;
+import models.enums.Status;
 import org.junit.Before;
 import org.junit.Test;
 import play.libs.Json;
@@ -16,6 +19,7 @@ import services.*;
 import services.core.*;
 import services.report.ReportService;
 
+import java.util.Collections;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
@@ -52,7 +56,8 @@ public class CoreServiceControllerTest {
                 enrollmentService,
                 userService,
                 professorReportService,
-                studentReportService
+                studentReportService,
+                new ReportJsonStreamer(ConfigFactory.empty())
         );
     }
 
@@ -97,4 +102,33 @@ public class CoreServiceControllerTest {
         assertTrue(json.get("isValid").asBoolean());
         assertEquals(profId.longValue(), json.get("professorId").asLong());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testGetReviewTasksSubmissionOverviewPage_clampsLimitAndParsesFilters() throws Exception {
+        Http.Request request = mock(Http.Request.class);
+        when(authService.isAuthorized(eq(request), anySet())).thenReturn(true);
+        SubmissionOverviewPageDTO page = new SubmissionOverviewPageDTO();
+        page.setGroups(Collections.emptyList());
+        page.setNextCursor(7L);
+        when(reviewTaskService.getReviewTasksSubmissionOverviewPage(1L, 5L, 100, Status.PENDING, "Team"))
+                .thenReturn(CompletableFuture.completedFuture(page));
+
+        Result result = controller.getReviewTasksSubmissionOverviewPage(1L, 5L, 500, "pending", " Team ", request)
+                .toCompletableFuture().get();
+
+        assertEquals(OK, result.status());
+        assertEquals(7L, Json.parse(contentAsString(result)).get("nextCursor").asLong());
+    }
+
+    @Test
+    public void testGetReviewTasksSubmissionOverviewPage_rejectsUnknownStatus() throws Exception {
+        Http.Request request = mock(Http.Request.class);
+        when(authService.isAuthorized(eq(request), anySet())).thenReturn(true);
+
+        Result result = controller.getReviewTasksSubmissionOverviewPage(1L, null, null, "ACTIVE", null, request)
+                .toCompletableFuture().get();
+
+        assertEquals(BAD_REQUEST, result.status());
+        verifyNoInteractions(reviewTaskService);
+    }
+}
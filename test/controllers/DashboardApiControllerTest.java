@@ -0,0 +1,137 @@
+package controllers;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+import static play.mvc.Http.Status.*;
+import static play.test.Helpers.*;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import models.dto.ProfessorDashboardDTO;
+import models.dto.StudentDashboardDTO;
+import org.junit.Before;
+import org.junit.Test;
+import play.libs.Json;
+import play.mvc.Http;
+import play.mvc.Result;
+import services.AuthorizationService;
+import services.cache.DashboardCache;
+import services.core.AssignmentStatusScheduler;
+import services.dashboard.ProfessorDashboard;
+import services.dashboard.ReviewProgressHub;
+import services.dashboard.StudentDashboard;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+public class DashboardApiControllerTest {
+
+    private AuthorizationService authService;
+    private ProfessorDashboard professorDashboard;
+    private StudentDashboard studentDashboard;
+    private DashboardCache dashboardCache;
+    private DashboardApiController controller;
+
+    private static final LocalDate TODAY = LocalDate.of(2025, 3, 3);
+
+    @Before
+    public void setUp() {
+        authService = mock(AuthorizationService.class);
+        professorDashboard = mock(ProfessorDashboard.class);
+        studentDashboard = mock(StudentDashboard.class);
+        dashboardCache = mock(DashboardCache.class);
+        when(dashboardCache.version(7L)).thenReturn("abc.3");
+
+        AssignmentStatusScheduler scheduler = mock(AssignmentStatusScheduler.class);
+        when(scheduler.today()).thenReturn(TODAY);
+
+        controller = new DashboardApiController(authService, professorDashboard, studentDashboard, dashboardCache,
+                mock(ReviewProgressHub.class), scheduler);
+    }
+
+    private Http.Request createRequest(String ifNoneMatch) {
+        Http.Request request = mock(Http.Request.class);
+        when(request.session()).thenReturn(new Http.Session(Map.of("userId", "7")));
+        when(request.header(Http.HeaderNames.IF_NONE_MATCH)).thenReturn(Optional.ofNullable(ifNoneMatch));
+        when(authService.isAuthorized(eq(request), anySet())).thenReturn(true);
+        return request;
+    }
+
+    @Test
+    public void testStudentDashboard_ReturnsJsonWithETag() throws Exception {
+        Http.Request request = createRequest(null);
+        when(studentDashboard.getDashboardData(7L, "CS101")).thenReturn(CompletableFuture.completedFuture(
+                new StudentDashboardDTO(2, 1, 3, List.of(), List.of(), List.of())));
+
+        Result result = controller.studentDashboard("CS101", request).toCompletableFuture().get();
+
+        assertEquals(OK, result.status());
+        assertEquals(DashboardApiController.etag("student", "abc.3", TODAY, "CS101"),
+                result.header(Http.HeaderNames.ETAG).orElse(null));
+        JsonNode json = Json.parse(contentAsString(result));
+        assertEquals(2, json.get("assignmentCount").asInt());
+        assertEquals(1, json.get("pendingReviews").asInt());
+        assertEquals(3, json.get("completedReviews").asInt());
+    }
+
+    @Test
+    public void testStudentDashboard_AllCoursesIsUnfiltered() throws Exception {
+        Http.Request request = createRequest(null);
+        when(studentDashboard.getDashboardData(7L, null)).thenReturn(CompletableFuture.completedFuture(
+                new StudentDashboardDTO(0, 0, 0, List.of(), List.of(), List.of())));
+
+        Result result = controller.studentDashboard("all", request).toCompletableFuture().get();
+
+        assertEquals(OK, result.status());
+        verify(studentDashboard).getDashboardData(7L, null);
+    }
+
+    @Test
+    public void testProfessorDashboard_MatchingETagIsNotModified() throws Exception {
+        String etag = DashboardApiController.etag("professor", "abc.3", TODAY, "CS101:::A:::Fall 2024");
+        Http.Request request = createRequest(etag);
+
+        Result result = controller.professorDashboard("CS101", "A", "Fall 2024", request).toCompletableFuture().get();
+
+        assertEquals(NOT_MODIFIED, result.status());
+        assertEquals(etag, result.header(Http.HeaderNames.ETAG).orElse(null));
+        verifyNoInteractions(professorDashboard);
+    }
+
+    @Test
+    public void testProfessorDashboard_PartialDataHasNoETag() throws Exception {
+        Http.Request request = createRequest(null);
+        ProfessorDashboardDTO data = new ProfessorDashboardDTO("Prof", 0, 0, 0, List.of(), List.of());
+        data.setPartial(true);
+        when(professorDashboard.getDashboardData(7L, null, null, null)).thenReturn(CompletableFuture.completedFuture(data));
+
+        Result result = controller.professorDashboard(null, null, null, request).toCompletableFuture().get();
+
+        assertEquals(OK, result.status());
+        assertFalse(result.header(Http.HeaderNames.ETAG).isPresent());
+        assertEquals("no-store", result.header(Http.HeaderNames.CACHE_CONTROL).orElse(null));
+    }
+
+    @Test
+    public void testStudentDashboard_Unauthorized() throws Exception {
+        Http.Request request = mock(Http.Request.class);
+        when(authService.isAuthorized(eq(request), anySet())).thenReturn(false);
+
+        Result result = controller.studentDashboard(null, request).toCompletableFuture().get();
+
+        assertEquals(UNAUTHORIZED, result.status());
+    }
+
+    @Test
+    public void testMatches_WeakComparisonAndLists() {
+        String etag = "W/\"student-abc.3-2025-03-03-0\"";
+
+        assertTrue(DashboardApiController.matches(etag, etag));
+        assertTrue(DashboardApiController.matches("\"other\", \"student-abc.3-2025-03-03-0\"", etag));
+        assertTrue(DashboardApiController.matches("*", etag));
+        assertFalse(DashboardApiController.matches("W/\"student-abc.4-2025-03-03-0\"", etag));
+        assertFalse(DashboardApiController.matches(null, etag));
+    }
+}
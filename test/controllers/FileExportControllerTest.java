@@ -8,6 +8,7 @@ import java.util.*;
 import java.util.concurrent.CompletableFuture;
 
 import com.fasterxml.jackson.databind.JsonNode;
+import com.typesafe.config.ConfigFactory;
 import models.dto.AssignmentExportDTO;
 import models.dto.FeedbackDTO;
 import models.enums.Roles;
@@ -20,6 +21,7 @@ import play.mvc.Result;
 import play.test.Helpers;
 import services.AuthorizationService;
 import services.export.ExportService;
+import services.metrics.MetricsRegistry;
 
 public class FileExportControllerTest {
 
@@ -32,7 +34,7 @@ public class FileExportControllerTest {
     @Before
     public void setUp() {
         MockitoAnnotations.initMocks(this);
-        controller = new FileExportController(exportService, authorizationService);
+        controller = new FileExportController(exportService, authorizationService, new MetricsRegistry(ConfigFactory.empty()));
     }
 
     @Test
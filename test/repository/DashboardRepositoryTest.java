@@ -10,13 +10,16 @@ import models.Assignment;
 import models.Course;
 import models.ReviewTask;
 import models.User;
-import models.dto.PeerReviewSummaryDTO;
 import models.enums.Status;
+import models.dto.PeerReviewSummaryDTO;
+import models.dto.ReviewTaskDTO;
+import models.dto.StudentDashboardDTO;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import play.db.jpa.JPAApi;
+import services.core.AssignmentStatusScheduler;
 
 import java.lang.reflect.Field;
 import java.time.LocalDate;
@@ -29,21 +32,33 @@ public class DashboardRepositoryTest {
     @Mock private JPAApi mockJPAApi;
     @Mock private EntityManager mockEntityManager;
     @Mock private TypedQuery<Assignment> mockAssignmentQuery;
-    @Mock private TypedQuery<Long> mockCountQuery;
-    @Mock private TypedQuery<ReviewTask> mockReviewTaskQuery;
+    @Mock private TypedQuery<Object[]> mockRowQuery;
+    @Mock private DatabaseExecutionContext mockExecutionContext;
+    @Mock private TypedQuery<Object[]> mockQuestionQuery;
+    @Mock private TypedQuery<Object[]> mockReviewTaskQuery;
+    @Mock private AssignmentStatusScheduler mockScheduler;
+
+    private static final LocalDate TODAY = LocalDate.of(2025, 3, 10);
 
     private DashboardRepository dashboardRepository;
 
     @Before
     public void setUp() {
         MockitoAnnotations.openMocks(this);
-        dashboardRepository = new DashboardRepository(mockJPAApi);
+        when(mockScheduler.today()).thenReturn(TODAY);
+        dashboardRepository = new DashboardRepository(mockJPAApi, mockExecutionContext, mockScheduler);
 
-        // Mock JPA transaction
-        when(mockJPAApi.withTransaction(any(Function.class)))
+        // Run the database work inline
+        doAnswer(invocation -> {
+            ((Runnable) invocation.getArgument(0)).run();
+            return null;
+        }).when(mockExecutionContext).execute(any(Runnable.class));
+
+        // Mock the read-only JPA transaction of the dashboards
+        when(mockJPAApi.withTransaction(eq("default"), eq(true), any(Function.class)))
                 .thenAnswer(invocation -> {
                     @SuppressWarnings("unchecked")
-                    Function<EntityManager, Object> func = (Function<EntityManager, Object>) invocation.getArgument(0);
+                    Function<EntityManager, Object> func = (Function<EntityManager, Object>) invocation.getArgument(2);
                     return func.apply(mockEntityManager);
                 });
     }
@@ -78,59 +93,169 @@ public class DashboardRepositoryTest {
 
         assertEquals(1, results.size());
         assertEquals("Assignment 1", results.get(0).getTitle());
+        // Reading the dashboard no longer writes the assignments
+        verify(mockEntityManager, never()).merge(any());
     }
 
     @Test
     public void testGetPeerReviewProgressForProfessor_returnsSummary() throws Exception {
         Long professorId = 101L;
 
-        Assignment assignment = new Assignment();
-        assignment.setAssignmentId(1L);
-        assignment.setTitle("Peer Assignment");
+        // title, course code, section, tasks, completed tasks, reviewers, unfinished reviewers, enrolled, assignment ID
+        Object[] row = {"Peer Assignment", "CS101", "A", 6L, 4L, 3L, 1L, 10L, 7L};
+
+        when(mockEntityManager.createQuery(startsWith("SELECT a.title"), eq(Object[].class)))
+                .thenReturn(mockRowQuery);
+        when(mockRowQuery.setParameter(anyString(), any())).thenReturn(mockRowQuery);
+        when(mockRowQuery.getResultList()).thenReturn(List.<Object[]>of(row));
+
+        CompletableFuture<List<PeerReviewSummaryDTO>> resultFuture =
+                dashboardRepository.getPeerReviewProgressForProfessor(professorId, null, null, null);
+
+        List<PeerReviewSummaryDTO> result = resultFuture.get();
+
+        assertEquals(1, result.size());
+        PeerReviewSummaryDTO summary = result.get(0);
+        assertEquals("Peer Assignment", summary.getAssignmentTitle());
+        assertEquals("CS101 (A)", summary.getCourseCode());
+        assertEquals(6, summary.getTotalReviews());
+        assertEquals(4, summary.getCompletedReviews());
+        assertEquals(67, summary.getProgressPercentage()); // 2 of 3 reviewers finished
+        assertEquals(3, summary.getTotalMembers());
+        assertEquals(2, summary.getCompletedMembers());
+        assertEquals(Long.valueOf(7L), summary.getAssignmentId());
+        assertEquals(10, summary.getTotalStudentCount());
+
+        // One round trip for all the assignments
+        verify(mockEntityManager, times(1)).createQuery(anyString(), eq(Object[].class));
+        verify(mockEntityManager, never()).createQuery(anyString(), eq(ReviewTask.class));
+        verify(mockEntityManager, never()).createQuery(anyString(), eq(Long.class));
+    }
+
+    @Test
+    public void testGetPeerReviewProgressForProfessor_assignmentWithoutReviewTasks() throws Exception {
+        Long professorId = 101L;
+
+        // Without review tasks the LEFT JOIN leaves SUM null
+        Object[] row = {"Not Assigned Yet", "CS102", "B", 0L, null, 0L, 0L, 25L, 8L};
+
+        when(mockEntityManager.createQuery(startsWith("SELECT a.title"), eq(Object[].class)))
+                .thenReturn(mockRowQuery);
+        when(mockRowQuery.setParameter(anyString(), any())).thenReturn(mockRowQuery);
+        when(mockRowQuery.getResultList()).thenReturn(List.<Object[]>of(row));
+
+        List<PeerReviewSummaryDTO> result =
+                dashboardRepository.getPeerReviewProgressForProfessor(professorId, "CS102", "B", "Fall 2025").get();
+
+        assertEquals(1, result.size());
+        assertEquals(0, result.get(0).getTotalReviews());
+        assertEquals(0, result.get(0).getCompletedReviews());
+        assertEquals(0, result.get(0).getProgressPercentage());
+        assertEquals(25, result.get(0).getTotalStudentCount());
+        verify(mockRowQuery).setParameter("courseCode", "CS102");
+        verify(mockRowQuery).setParameter("courseSection", "B");
+        verify(mockRowQuery).setParameter("term", "Fall 2025");
+    }
+
+    @Test
+    public void testGetStudentDashboardSummary_oneTransactionForCountsAndLists() throws Exception {
+        Long studentId = 7L;
+
+        // course ID, assignments, pending reviews, completed reviews of each enrolled course
+        Object[] course1 = {10L, 2L, 1L, 3L};
+        Object[] course2 = {11L, 1L, 0L, 1L};
+        when(mockEntityManager.createQuery(startsWith("WITH enrolled"), eq(Object[].class))).thenReturn(mockRowQuery);
+        when(mockRowQuery.setParameter(anyString(), any())).thenReturn(mockRowQuery);
+        when(mockRowQuery.getResultList()).thenReturn(List.of(course1, course2));
 
         Course course = new Course();
         course.setCourseCode("CS101");
-        course.setCourseSection("A");
-        course.setTerm("Fall 2025");
-        course.setCourseId(501L);
-
-        // Inject professor using reflection
-        setField(course, "professor", new User(professorId, "prof@example.com", "", "Prof", "X", "professor"));
+        Assignment assignment = new Assignment();
+        assignment.setAssignmentId(5L);
+        assignment.setTitle("Assignment 1");
         assignment.setCourse(course);
-
-        User reviewer = new User(100L, "stud1@uni.com", "", "Stud", "1", "student");
-
-        ReviewTask reviewTask = new ReviewTask(
-                assignment,
-                reviewer,
-                new User(200L, "reviewee@uni.com", "", "Peer", "1", "student"),
-                Status.COMPLETED,
-                1L,
-                "Group A",
-                3,
-                false
-        );
-
-        when(mockEntityManager.createQuery(startsWith("SELECT a FROM Assignment"), eq(Assignment.class)))
-                .thenReturn(mockAssignmentQuery);
+        assignment.setDueDate(LocalDate.now().plusDays(3));
+        when(mockEntityManager.createQuery(anyString(), eq(Assignment.class))).thenReturn(mockAssignmentQuery);
         when(mockAssignmentQuery.setParameter(anyString(), any())).thenReturn(mockAssignmentQuery);
         when(mockAssignmentQuery.getResultList()).thenReturn(List.of(assignment));
 
-        when(mockEntityManager.createQuery(startsWith("SELECT r FROM ReviewTask"), eq(ReviewTask.class)))
-                .thenReturn(mockReviewTaskQuery);
-        when(mockReviewTaskQuery.setParameter(eq("assignmentId"), any())).thenReturn(mockReviewTaskQuery);
-        when(mockReviewTaskQuery.getResultList()).thenReturn(List.of(reviewTask));
+        Object[] reviewTaskRow = {3L, 5L, LocalDate.now().plusDays(3), "CS101", "Assignment 1", "Peer", "Student",
+                Status.PENDING, false, null, null, null, null, null};
+        when(mockEntityManager.createQuery(startsWith("SELECT rt.reviewTaskId"), eq(Object[].class))).thenReturn(mockReviewTaskQuery);
+        when(mockReviewTaskQuery.setParameter(anyString(), any())).thenReturn(mockReviewTaskQuery);
+        when(mockReviewTaskQuery.getResultList()).thenReturn(List.<Object[]>of(reviewTaskRow));
 
-        when(mockEntityManager.createQuery(startsWith("SELECT COUNT"), eq(Long.class))).thenReturn(mockCountQuery);
-        when(mockCountQuery.setParameter(eq("courseId"), eq(501L))).thenReturn(mockCountQuery);
-        when(mockCountQuery.getSingleResult()).thenReturn(10L);
+        // assignment ID, title, question, max marks, average score
+        Object[] question1 = {4L, "Past Assignment", "Clarity", 10, 7.5};
+        Object[] question2 = {4L, "Past Assignment", "Depth", 5, 4.0};
+        when(mockEntityManager.createQuery(startsWith("SELECT a.assignmentId"), eq(Object[].class))).thenReturn(mockQuestionQuery);
+        when(mockQuestionQuery.setParameter(anyString(), any())).thenReturn(mockQuestionQuery);
+        when(mockQuestionQuery.getResultList()).thenReturn(List.of(question1, question2));
 
-        CompletableFuture<List<PeerReviewSummaryDTO>> resultFuture =
-                dashboardRepository.getPeerReviewProgressForProfessor(professorId, null, null, null);
+        StudentDashboardDTO summary = dashboardRepository.getStudentDashboardSummary(studentId, "all").get();
 
-        List<PeerReviewSummaryDTO> result = resultFuture.get();
+        assertEquals(3, summary.getAssignmentCount());
+        assertEquals(1, summary.getPendingReviews());
+        assertEquals(4, summary.getCompletedReviews());
+        assertEquals(1, summary.getAssignments().size());
+        assertEquals(1, summary.getPeerReviews().size());
+        assertEquals("Peer Student", summary.getPeerReviews().get(0).getRevieweeName());
+        assertTrue(summary.getPeerReviews().get(0).getFeedbacks().isEmpty());
+        assertEquals(1, summary.getMyReviews().size());
+        assertEquals(15, summary.getMyReviews().get(0).getTotalMarks());
+        assertEquals(11, summary.getMyReviews().get(0).getObtainedMarks());
 
-        assertEquals(1, result.size());
+        // The enrolled courses are resolved once and scope the lists, all in one transaction
+        verify(mockJPAApi, times(1)).withTransaction(eq("default"), eq(true), any(Function.class));
+        verify(mockAssignmentQuery).setParameter("courseIds", List.of(10L, 11L));
+        verify(mockRowQuery, never()).setParameter(eq("courseCode"), any());
+        // "Today" is the date of the scheduler's time zone, not the one of the database session
+        verify(mockRowQuery).setParameter("today", TODAY);
+        verify(mockAssignmentQuery).setParameter("today", TODAY);
+        verify(mockReviewTaskQuery).setParameter("today", TODAY);
+        verify(mockQuestionQuery).setParameter("today", TODAY);
+        verify(mockEntityManager, never()).createQuery(contains("CURRENT_DATE"), any(Class.class));
+    }
+
+    @Test
+    public void testGetStudentDashboardSummary_notEnrolled() throws Exception {
+        when(mockEntityManager.createQuery(startsWith("WITH enrolled"), eq(Object[].class))).thenReturn(mockRowQuery);
+        when(mockRowQuery.setParameter(anyString(), any())).thenReturn(mockRowQuery);
+        when(mockRowQuery.getResultList()).thenReturn(List.of());
+
+        StudentDashboardDTO summary = dashboardRepository.getStudentDashboardSummary(7L, "CS101").get();
+
+        assertEquals(0, summary.getAssignmentCount());
+        assertTrue(summary.getAssignments().isEmpty());
+        assertTrue(summary.getMyReviews().isEmpty());
+        verify(mockRowQuery).setParameter("courseCode", "CS101");
+        verify(mockEntityManager, never()).createQuery(anyString(), eq(Assignment.class));
+        verify(mockEntityManager, never()).createQuery(startsWith("SELECT rt.reviewTaskId"), eq(Object[].class));
+    }
+
+    @Test
+    public void testGetPendingPeerReviewsForStudent_oneQueryWithFeedbacks() throws Exception {
+        LocalDate dueDate = LocalDate.now().plusDays(2);
+        // review task, assignment, due date, course, title, reviewee, status, for professor, feedback, score, max, question, text
+        Object[] clarity = {3L, 5L, dueDate, "CS101", "Assignment 1", "Peer", "Student", Status.PENDING, false, 20L, 4, 5, "Clarity", "Clear"};
+        Object[] depth = {3L, 5L, dueDate, "CS101", "Assignment 1", "Peer", "Student", Status.PENDING, false, 21L, 3, 5, "Depth", ""};
+        Object[] otherTask = {4L, 5L, dueDate, "CS101", "Assignment 1", "Other", "Peer", Status.COMPLETED, false, 22L, 5, 5, "Clarity", "Great"};
+        when(mockEntityManager.createQuery(startsWith("SELECT rt.reviewTaskId"), eq(Object[].class))).thenReturn(mockReviewTaskQuery);
+        when(mockReviewTaskQuery.setParameter(anyString(), any())).thenReturn(mockReviewTaskQuery);
+        when(mockReviewTaskQuery.getResultList()).thenReturn(List.of(clarity, depth, otherTask));
+
+        List<ReviewTaskDTO> result = dashboardRepository.getPendingPeerReviewsForStudent(7L, "CS101").get();
+
+        assertEquals(2, result.size());
+        assertEquals(Long.valueOf(3L), result.get(0).getReviewTaskId());
+        assertEquals(2, result.get(0).getFeedbacks().size());
+        assertEquals("Depth", result.get(0).getFeedbacks().get(1).getQuestionText());
+        assertEquals(1, result.get(1).getFeedbacks().size());
+        assertEquals("Other Peer", result.get(1).getRevieweeName());
+        verify(mockReviewTaskQuery).setParameter("courseCode", "CS101");
+        // Tasks, feedbacks and questions come from the same query
+        verify(mockEntityManager, times(1)).createQuery(anyString(), eq(Object[].class));
+        verify(mockEntityManager, never()).find(any(), any());
     }
 
     // Utility method to inject private field
@@ -1,5 +1,6 @@
 package repository.core;
 
+import com.typesafe.config.ConfigFactory;
 import jakarta.persistence.TypedQuery;
 import models.Course;
 import models.dto.Context;
@@ -9,6 +10,7 @@ import org.junit.runner.RunWith;
 import org.mockito.*;
 import org.mockito.junit.MockitoJUnitRunner;
 import play.db.jpa.JPAApi;
+import services.metrics.MetricsRegistry;
 
 import jakarta.persistence.EntityManager;
 
@@ -45,7 +47,7 @@ public class CourseRepositoryTest {
                     return function.apply(mockEntityManager);
                 });
 
-        courseRepository = new CourseRepository(mockJPAApi);
+        courseRepository = new CourseRepository(mockJPAApi, new MetricsRegistry(ConfigFactory.empty()));
     }
 
     /** Test that findByCourseCodeAndSectionAndTerm returns course when found **/
@@ -1,5 +1,6 @@
 package repository.core;
 
+import com.typesafe.config.ConfigFactory;
 import models.Course;
 import models.Enrollment;
 import models.User;
@@ -10,6 +11,7 @@ import org.junit.runner.RunWith;
 import org.mockito.*;
 import org.mockito.junit.MockitoJUnitRunner;
 import play.db.jpa.JPAApi;
+import services.metrics.MetricsRegistry;
 
 import jakarta.persistence.EntityManager;
 
@@ -36,7 +38,7 @@ public class EnrollmentRepositoryTest {
     public void setUp() {
         MockitoAnnotations.initMocks(this);
 
-        enrollmentRepository = new EnrollmentRepository(mockJPAApi);
+        enrollmentRepository = new EnrollmentRepository(mockJPAApi, new MetricsRegistry(ConfigFactory.empty()));
     }
 
     /**
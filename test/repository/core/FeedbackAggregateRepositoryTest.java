@@ -0,0 +1,139 @@
+package repository.core;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+import models.Assignment;
+import models.FeedbackQuestion;
+import models.ReviewTask;
+import models.User;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import play.db.jpa.JPAApi;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+@RunWith(MockitoJUnitRunner.Silent.class)
+public class FeedbackAggregateRepositoryTest {
+
+    @Mock
+    private JPAApi mockJPAApi;
+
+    @Mock
+    private ReviewTask mockReviewTask;
+
+    private FeedbackQuestion question;
+
+    private FeedbackAggregateRepository feedbackAggregateRepository;
+
+    @Before
+    public void setUp() {
+        Assignment assignment = new Assignment();
+        assignment.setAssignmentId(10L);
+        when(mockReviewTask.getAssignment()).thenReturn(assignment);
+        when(mockReviewTask.getReviewee()).thenReturn(new User(20L, "student"));
+        when(mockReviewTask.isReviewTaskForProfessor()).thenReturn(false);
+        question = new FeedbackQuestion(30L, assignment, "Quality", 10);
+
+        feedbackAggregateRepository = new FeedbackAggregateRepository(mockJPAApi);
+    }
+
+    /** An EntityManager whose update statements each change one aggregate row **/
+    private EntityManager updatingEntityManager(Query mockUpdateQuery) {
+        EntityManager entityManager = mock(EntityManager.class);
+        when(entityManager.createQuery(anyString())).thenReturn(mockUpdateQuery);
+        when(mockUpdateQuery.setParameter(anyString(), any())).thenReturn(mockUpdateQuery);
+        when(mockUpdateQuery.executeUpdate()).thenReturn(1);
+        return entityManager;
+    }
+
+    /** Test that a score change is applied by the database, relative to the current row **/
+    @Test
+    public void testApplyScoreChange_UpdatesTheRowInPlace() {
+        Query mockUpdateQuery = mock(Query.class);
+        EntityManager entityManager = updatingEntityManager(mockUpdateQuery);
+
+        feedbackAggregateRepository.applyScoreChange(entityManager, mockReviewTask, question, 0, 7);
+
+        ArgumentCaptor<String> statement = ArgumentCaptor.forClass(String.class);
+        verify(entityManager).createQuery(statement.capture());
+        assertTrue(statement.getValue().startsWith("UPDATE FeedbackAggregate fa"));
+        assertTrue(statement.getValue().contains("fa.scoreSum = fa.scoreSum + :delta"));
+        assertTrue(statement.getValue().contains("fa.maxScore = GREATEST(fa.maxScore, :newScore)"));
+        verify(mockUpdateQuery).setParameter("delta", 7L);
+        verify(mockUpdateQuery).setParameter("newScore", 7);
+        // Nothing is read first, concurrent changes cannot overwrite each other
+        verify(entityManager, never()).createQuery(anyString(), any(Class.class));
+        verify(entityManager, never()).find(any(), any());
+        verify(entityManager, never()).createNativeQuery(anyString());
+    }
+
+    /** Test that lowering the maximum recomputes it from the feedback in the same statement **/
+    @Test
+    public void testApplyScoreChange_LoweredMaximumIsRecomputed() {
+        Query mockUpdateQuery = mock(Query.class);
+        EntityManager entityManager = updatingEntityManager(mockUpdateQuery);
+
+        feedbackAggregateRepository.applyScoreChange(entityManager, mockReviewTask, question, 9, 3);
+
+        ArgumentCaptor<String> statements = ArgumentCaptor.forClass(String.class);
+        verify(entityManager, times(2)).createQuery(statements.capture());
+        String recompute = statements.getAllValues().get(1);
+        assertTrue(recompute.startsWith("UPDATE FeedbackAggregate fa SET fa.maxScore = (SELECT COALESCE(MAX(f.score), 0)"));
+        assertTrue(recompute.endsWith("AND fa.maxScore = :oldScore"));
+        verify(mockUpdateQuery).setParameter("delta", -6L);
+        verify(mockUpdateQuery).setParameter("oldScore", 9);
+    }
+
+    /** Test that raising a score does not recompute the maximum **/
+    @Test
+    public void testApplyScoreChange_RaisedScoreDoesNotRecompute() {
+        Query mockUpdateQuery = mock(Query.class);
+        EntityManager entityManager = updatingEntityManager(mockUpdateQuery);
+
+        feedbackAggregateRepository.applyScoreChange(entityManager, mockReviewTask, question, 3, 9);
+
+        verify(entityManager, times(1)).createQuery(anyString());
+        verify(mockUpdateQuery, never()).setParameter(eq("oldScore"), any());
+    }
+
+    /** Test that a missing aggregate is rebuilt for the assignment instead of updated **/
+    @Test
+    public void testApplyScoreChange_RebuildsMissingAggregate() {
+        EntityManager entityManager = mock(EntityManager.class);
+        Query mockUpdateQuery = mock(Query.class);
+        Query mockNativeQuery = mock(Query.class);
+        when(entityManager.createQuery(anyString())).thenReturn(mockUpdateQuery);
+        when(mockUpdateQuery.setParameter(anyString(), any())).thenReturn(mockUpdateQuery);
+        when(mockUpdateQuery.executeUpdate()).thenReturn(0);
+        when(entityManager.createNativeQuery(anyString())).thenReturn(mockNativeQuery);
+        when(mockNativeQuery.setParameter(anyString(), any())).thenReturn(mockNativeQuery);
+
+        feedbackAggregateRepository.applyScoreChange(entityManager, mockReviewTask, question, 2, 8);
+
+        // Concurrent rebuilds of the assignment wait for each other before deleting
+        InOrder inOrder = inOrder(entityManager);
+        inOrder.verify(entityManager).flush();
+        inOrder.verify(entityManager).createNativeQuery(contains("pg_advisory_xact_lock(:assignmentId)"));
+        inOrder.verify(entityManager).createNativeQuery(startsWith("DELETE FROM feedback_aggregates"));
+        inOrder.verify(entityManager).createNativeQuery(startsWith("INSERT INTO feedback_aggregates"));
+        verify(entityManager, times(1)).createQuery(anyString());
+        verify(mockNativeQuery, times(3)).setParameter("assignmentId", 10L);
+    }
+
+    /** Test that the private comments for the professor are not aggregated **/
+    @Test
+    public void testApplyScoreChange_IgnoresProfessorReviewTasks() {
+        EntityManager entityManager = mock(EntityManager.class);
+        when(mockReviewTask.isReviewTaskForProfessor()).thenReturn(true);
+
+        feedbackAggregateRepository.applyScoreChange(entityManager, mockReviewTask, question, 2, 8);
+
+        verifyNoInteractions(entityManager);
+    }
+}
@@ -0,0 +1,106 @@
+package repository.core;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+import jakarta.persistence.TypedQuery;
+import models.enums.Status;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import play.db.jpa.JPAApi;
+
+import java.util.List;
+import java.util.function.Function;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+@RunWith(MockitoJUnitRunner.Silent.class)
+public class ReviewStatusCountRepositoryTest {
+
+    @Mock
+    private JPAApi mockJPAApi;
+
+    @Mock
+    private EntityManager mockEntityManager;
+
+    @Mock
+    private Query mockUpdateQuery;
+
+    @Mock
+    private Query mockNativeQuery;
+
+    private ReviewStatusCountRepository reviewStatusCountRepository;
+
+    @Before
+    public void setUp() {
+        when(mockJPAApi.withTransaction(any(Function.class)))
+                .then(invocation -> {
+                    Function<EntityManager, Object> function = invocation.getArgument(0);
+                    return function.apply(mockEntityManager);
+                });
+        when(mockEntityManager.createQuery(startsWith("UPDATE ReviewStatusCount"))).thenReturn(mockUpdateQuery);
+        when(mockUpdateQuery.setParameter(anyString(), any())).thenReturn(mockUpdateQuery);
+        when(mockEntityManager.createNativeQuery(anyString())).thenReturn(mockNativeQuery);
+        when(mockNativeQuery.setParameter(anyString(), any())).thenReturn(mockNativeQuery);
+
+        reviewStatusCountRepository = new ReviewStatusCountRepository(mockJPAApi);
+    }
+
+    /** Test that submitting a review moves one task from pending to completed **/
+    @Test
+    public void testApplyStatusChange_MovesPendingToCompleted() {
+        when(mockUpdateQuery.executeUpdate()).thenReturn(1);
+
+        reviewStatusCountRepository.applyStatusChange(mockEntityManager, 1L, 2L, Status.PENDING, Status.COMPLETED);
+
+        verify(mockUpdateQuery).setParameter("pendingDelta", -1L);
+        verify(mockUpdateQuery).setParameter("completedDelta", 1L);
+        verify(mockUpdateQuery).setParameter("reviewerId", 1L);
+        verify(mockUpdateQuery).setParameter("courseId", 2L);
+        verify(mockEntityManager, never()).createNativeQuery(anyString());
+    }
+
+    /** Test that saving a review without changing its status leaves the counts alone **/
+    @Test
+    public void testApplyStatusChange_SameStatusDoesNothing() {
+        reviewStatusCountRepository.applyStatusChange(mockEntityManager, 1L, 2L, Status.PENDING, Status.PENDING);
+
+        verify(mockEntityManager, never()).createQuery(anyString());
+    }
+
+    /** Test that a missing count is rebuilt for the course instead of updated **/
+    @Test
+    public void testApplyStatusChange_RebuildsMissingCount() {
+        when(mockUpdateQuery.executeUpdate()).thenReturn(0);
+
+        reviewStatusCountRepository.applyStatusChange(mockEntityManager, 1L, 2L, Status.PENDING, Status.COMPLETED);
+
+        verify(mockEntityManager).flush();
+        verify(mockEntityManager).createNativeQuery(startsWith("DELETE FROM review_status_counts"));
+        verify(mockEntityManager).createNativeQuery(startsWith("INSERT INTO review_status_counts"));
+        verify(mockNativeQuery, times(2)).setParameter("courseIds", List.of(2L));
+    }
+
+    /** Test that rebuilding every count reports the number of counts written **/
+    @Test
+    public void testRebuildAll_ReturnsRowsWritten() {
+        when(mockNativeQuery.executeUpdate()).thenReturn(3, 5);
+
+        assertEquals(5, reviewStatusCountRepository.rebuildAll());
+    }
+
+    /** Test that the count of a reviewer without any count is zero **/
+    @Test
+    public void testCountByReviewer_NoCountIsZero() {
+        TypedQuery<Long> mockCountQuery = mock(TypedQuery.class);
+        when(mockEntityManager.createQuery(anyString(), eq(Long.class))).thenReturn(mockCountQuery);
+        when(mockCountQuery.setParameter(anyString(), any())).thenReturn(mockCountQuery);
+        when(mockCountQuery.getSingleResult()).thenReturn(null);
+
+        assertEquals(0, reviewStatusCountRepository.countByReviewer(mockEntityManager, 1L, "CS101", Status.PENDING));
+        verify(mockCountQuery).setParameter("courseCode", "CS101");
+    }
+}
@@ -1,5 +1,6 @@
 package repository.core;
 
+import com.typesafe.config.ConfigFactory;
 import models.User;
 import models.dto.Context;
 import org.junit.Before;
@@ -8,8 +9,11 @@ import org.junit.runner.RunWith;
 import org.mockito.*;
 import org.mockito.junit.MockitoJUnitRunner;
 import play.db.jpa.JPAApi;
+import services.metrics.MetricsRegistry;
 
 import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+import jakarta.persistence.TypedQuery;
 
 import java.util.*;
 import java.util.concurrent.CompletionStage;
@@ -42,7 +46,7 @@ public class UserRepositoryTest {
                     return function.apply(mockEntityManager);
                 });
 
-        userRepository = new UserRepository(mockJPAApi);
+        userRepository = new UserRepository(mockJPAApi, new MetricsRegistry(ConfigFactory.empty()));
     }
 
     /** Test findById() - should return user if found **/
@@ -79,6 +83,45 @@ public class UserRepositoryTest {
         assertFalse(result.isPresent());
     }
 
+    /** Test findExistingUserIds() - should query the ids in chunks within one transaction **/
+    @Test
+    public void testFindExistingUserIdsShouldQueryInChunks() {
+        TypedQuery<Long> mockQuery = mock(TypedQuery.class);
+        when(mockEntityManager.createQuery(anyString(), eq(Long.class))).thenReturn(mockQuery);
+        when(mockQuery.setParameter(eq("userIds"), anyList())).thenReturn(mockQuery);
+        when(mockQuery.getResultList()).thenReturn(List.of(1L), List.of(1500L));
+        List<Long> userIds = new ArrayList<>();
+        for (long id = 1; id <= 1500; id++) {
+            userIds.add(id);
+        }
+
+        List<Long> result = userRepository.findExistingUserIds(userIds);
+
+        assertEquals(List.of(1L, 1500L), result);
+        verify(mockQuery, times(2)).getResultList();
+        verify(mockJPAApi, times(1)).withTransaction(any(Function.class));
+    }
+
+    /** Test insertMissingUsers() - should insert the users in chunks within one transaction **/
+    @Test
+    public void testInsertMissingUsersShouldInsertInChunks() {
+        Query mockQuery = mock(Query.class);
+        when(mockEntityManager.createNativeQuery(anyString())).thenReturn(mockQuery);
+        when(mockQuery.setParameter(anyInt(), any())).thenReturn(mockQuery);
+        when(mockQuery.executeUpdate()).thenReturn(900, 400);
+        List<User> users = new ArrayList<>();
+        for (long id = 1; id <= 1500; id++) {
+            users.add(new User(id, id + "@example.com", "", "First", "Last", "student"));
+        }
+
+        int inserted = userRepository.insertMissingUsers(users);
+
+        assertEquals(1300, inserted);
+        verify(mockEntityManager, times(2)).createNativeQuery(contains("ON CONFLICT (user_id) DO NOTHING"));
+        verify(mockQuery, times(1500 * 6)).setParameter(anyInt(), any());
+        verify(mockJPAApi, times(1)).withTransaction(any(Function.class));
+    }
+
     /** Test saveAll() - should successfully persist all users **/
     @Test
     public void testSaveAllShouldPersistAllUsersSuccessfully() {
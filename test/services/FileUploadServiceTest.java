@@ -8,6 +8,7 @@ import org.junit.runner.RunWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
+import services.cache.DashboardCache;
 import services.processors.Processor;
 import services.processors.ProcessorStrategy;
 
@@ -29,6 +30,9 @@ public class FileUploadServiceTest {
     @Mock
     private Processor<Object,Path> processor;
 
+    @Mock
+    private DashboardCache dashboardCache;
+
     @InjectMocks
     private FileUploadService fileUploadService;
 
@@ -98,5 +102,17 @@ public class FileUploadServiceTest {
 
         String result = resultFuture.join();
         assertEquals("Success: All records saved.", result);
+        verify(dashboardCache).invalidateAll();
+    }
+
+    @Test
+    public void testProcessAndSaveFileInvalidatesDashboardsWhenUploadFails() {
+        when(processor.processAndSave(mockPath, mockContext))
+                .thenReturn(CompletableFuture.failedFuture(new RuntimeException("DB failure")));
+
+        CompletableFuture<String> resultFuture = fileUploadService.processAndSaveFile(processor, mockFile, mockContext);
+
+        assertThrows(CompletionException.class, resultFuture::join);
+        verify(dashboardCache).invalidateAll();
     }
-}
\ No newline at end of file
+}
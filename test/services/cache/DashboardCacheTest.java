@@ -0,0 +1,170 @@
+package services.cache;
+
+import static org.junit.Assert.*;
+
+import com.typesafe.config.ConfigFactory;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class DashboardCacheTest {
+
+    private final AtomicLong now = new AtomicLong();
+    private final AtomicInteger loads = new AtomicInteger();
+    private DashboardCache cache;
+
+    @Before
+    public void setUp() {
+        cache = new DashboardCache(ConfigFactory.parseMap(Map.of(
+                "dashboard.cache.ttl", "30s",
+                "dashboard.cache.staleWindow", "5m",
+                "dashboard.cache.maxEntries", 2)), now::get);
+    }
+
+    private CompletableFuture<String> load(String value) {
+        loads.incrementAndGet();
+        return CompletableFuture.completedFuture(value);
+    }
+
+    private String get(Long userId, String filter, String value) {
+        return cache.<String>getOrLoad("student", userId, filter, () -> load(value)).join();
+    }
+
+    private void advanceSeconds(long seconds) {
+        now.addAndGet(TimeUnit.SECONDS.toNanos(seconds));
+    }
+
+    @Test
+    public void testGetOrLoad_ServesFreshEntriesFromTheCache() {
+        assertEquals("v1", get(1L, null, "v1"));
+        advanceSeconds(10);
+
+        assertEquals("v1", get(1L, null, "v2"));
+        assertEquals(1, loads.get());
+        assertEquals(1L, cache.stats().get("hits"));
+        assertEquals(1L, cache.stats().get("misses"));
+    }
+
+    @Test
+    public void testGetOrLoad_KeysByUserAndFilter() {
+        assertEquals("a", get(1L, "CS101", "a"));
+        assertEquals("b", get(1L, "CS102", "b"));
+        assertEquals("c", get(2L, "CS101", "c"));
+
+        assertEquals(3, loads.get());
+    }
+
+    @Test
+    public void testGetOrLoad_ServesStaleEntryWhileRefreshing() {
+        get(1L, null, "v1");
+        advanceSeconds(60);
+
+        // The stale value is served and the refresh replaces it
+        assertEquals("v1", get(1L, null, "v2"));
+        assertEquals(2, loads.get());
+        assertEquals("v2", get(1L, null, "v3"));
+        assertEquals(2, loads.get());
+        assertEquals(1L, cache.stats().get("staleHits"));
+    }
+
+    @Test
+    public void testGetOrLoad_ReloadsEntriesPastTheStaleWindow() {
+        get(1L, null, "v1");
+        advanceSeconds(400);
+
+        assertEquals("v2", get(1L, null, "v2"));
+        assertEquals(2L, cache.stats().get("misses"));
+    }
+
+    @Test
+    public void testGetOrLoad_SharesConcurrentLoads() {
+        CompletableFuture<String> pending = new CompletableFuture<>();
+        CompletableFuture<String> first = cache.getOrLoad("student", 1L, null, () -> {
+            loads.incrementAndGet();
+            return pending;
+        });
+        CompletableFuture<String> second = cache.getOrLoad("student", 1L, null, () -> load("other"));
+
+        pending.complete("v1");
+        assertEquals("v1", first.join());
+        assertEquals("v1", second.join());
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    public void testInvalidateUsers_DropsOnlyTheirEntries() {
+        get(1L, null, "a1");
+        get(2L, null, "b1");
+
+        cache.invalidateUsers(List.of(1L));
+
+        assertEquals("a2", get(1L, null, "a2"));
+        assertEquals("b1", get(2L, null, "b2"));
+    }
+
+    @Test
+    public void testInvalidateAll_LoadStartedBeforeIsNotCached() {
+        CompletableFuture<String> pending = new CompletableFuture<>();
+        CompletableFuture<String> first = cache.getOrLoad("student", 1L, null, () -> pending);
+
+        cache.invalidateAll();
+        pending.complete("old");
+
+        assertEquals("old", first.join());
+        assertEquals("new", get(1L, null, "new"));
+    }
+
+    @Test
+    public void testGetOrLoad_FailedLoadIsNotCached() {
+        CompletableFuture<String> failed = cache.getOrLoad("student", 1L, null,
+                () -> CompletableFuture.failedFuture(new IllegalStateException("down")));
+
+        assertTrue(failed.isCompletedExceptionally());
+        assertEquals("v1", get(1L, null, "v1"));
+    }
+
+    @Test
+    public void testGetOrLoad_BoundedByMaxEntries() {
+        get(1L, null, "a");
+        get(2L, null, "b");
+        get(3L, null, "c");
+
+        assertEquals(2L, cache.stats().get("entries"));
+
+        // Once the others expire, their room is reclaimed
+        advanceSeconds(400);
+        get(3L, null, "c");
+        assertEquals(1L, cache.stats().get("entries"));
+    }
+
+    @Test
+    public void testGetOrLoad_KeepsRejectedDataOutOfTheCache() {
+        String partial = cache.<String>getOrLoad("student", 1L, null, () -> load("partial"),
+                data -> !data.equals("partial")).join();
+
+        assertEquals("partial", partial);
+        assertEquals("full", get(1L, null, "full"));
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    public void testVersion_ChangesOnInvalidation() {
+        String initial = cache.version(1L);
+
+        cache.invalidateUsers(List.of(2L));
+        assertEquals(initial, cache.version(1L));
+
+        cache.invalidateUsers(List.of(1L));
+        String afterUser = cache.version(1L);
+        assertNotEquals(initial, afterUser);
+
+        cache.invalidateAll();
+        assertNotEquals(afterUser, cache.version(1L));
+    }
+}
@@ -0,0 +1,98 @@
+package services.cache;
+
+import static org.junit.Assert.*;
+
+import com.typesafe.config.ConfigFactory;
+import models.dto.AssignmentReportDTO;
+import models.dto.GroupSubmissionDTO;
+import models.dto.MemberSubmissionDTO;
+import org.junit.Test;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class ReportCacheTest {
+
+    private static ReportCache cacheWithMaxWeight(long maxWeight) {
+        return new ReportCache(ConfigFactory.parseMap(Map.of("reports.cache.maxWeight", maxWeight)));
+    }
+
+    private static AssignmentReportDTO report(int members) {
+        GroupSubmissionDTO group = new GroupSubmissionDTO();
+        List<MemberSubmissionDTO> memberDTOs = new ArrayList<>();
+        for (int i = 0; i < members; i++) {
+            memberDTOs.add(new MemberSubmissionDTO());
+        }
+        group.setMembers(memberDTOs);
+
+        AssignmentReportDTO report = new AssignmentReportDTO();
+        report.setGroups(List.of(group));
+        return report;
+    }
+
+    @Test
+    public void testGet_MissOnUnknownOrOlderVersion() {
+        ReportCache cache = cacheWithMaxWeight(1000);
+        AssignmentReportDTO report = report(2);
+
+        assertNull(cache.get(1L, 0));
+        cache.put(1L, 0, report);
+
+        assertSame(report, cache.get(1L, 0));
+        assertNull(cache.get(1L, 1));
+        assertEquals(1L, cache.stats().get("hits"));
+        assertEquals(2L, cache.stats().get("misses"));
+    }
+
+    @Test
+    public void testPut_EvictsLeastRecentlyUsedWhenOverWeight() {
+        ReportCache cache = cacheWithMaxWeight(10);
+
+        cache.put(1L, 0, report(3)); // weight 5
+        cache.put(2L, 0, report(3)); // weight 5
+        cache.get(1L, 0);
+        cache.put(3L, 0, report(3)); // evicts assignment 2
+
+        assertNotNull(cache.get(1L, 0));
+        assertNull(cache.get(2L, 0));
+        assertNotNull(cache.get(3L, 0));
+        assertEquals(1L, cache.stats().get("evictions"));
+        assertEquals(10L, cache.stats().get("weight"));
+    }
+
+    @Test
+    public void testPut_DoesNotReplaceNewerVersion() {
+        ReportCache cache = cacheWithMaxWeight(1000);
+        AssignmentReportDTO newer = report(1);
+
+        cache.put(1L, 2, newer);
+        cache.put(1L, 1, report(1));
+
+        assertSame(newer, cache.get(1L, 2));
+    }
+
+    @Test
+    public void testGetOrCompute_ConcurrentMissesShareOneComputation() {
+        ReportCache cache = cacheWithMaxWeight(1000);
+        AtomicInteger loads = new AtomicInteger();
+        CompletableFuture<AssignmentReportDTO> pending = new CompletableFuture<>();
+
+        CompletableFuture<AssignmentReportDTO> first = cache.getOrCompute(1L, 0, () -> {
+            loads.incrementAndGet();
+            return pending;
+        });
+        CompletableFuture<AssignmentReportDTO> second = cache.getOrCompute(1L, 0, () -> {
+            loads.incrementAndGet();
+            return pending;
+        });
+
+        AssignmentReportDTO report = report(1);
+        pending.complete(report);
+
+        assertSame(report, first.join());
+        assertSame(report, second.join());
+        assertEquals(1, loads.get());
+        assertSame(report, cache.get(1L, 0));
+    }
+}
@@ -12,7 +12,10 @@ import play.mvc.Result;
 import play.mvc.Results;
 import repository.core.AssignmentRepository;
 import repository.core.CourseRepository;
+import repository.core.FeedbackAggregateRepository;
 import repository.core.FeedbackRepository;
+import services.cache.DashboardCache;
+import services.cache.DataVersionRegistry;
 import services.validations.AssignmentFormValidation;
 
 import java.time.LocalDate;
@@ -30,18 +33,27 @@ public class AssignmentServiceImplTest {
     @Mock private CourseRepository courseRepository;
     @Mock private EnrollmentService enrollmentService;
     @Mock private FeedbackRepository feedbackRepository;
+    @Mock private FeedbackAggregateRepository feedbackAggregateRepository;
+    @Mock private DataVersionRegistry dataVersionRegistry;
+    @Mock private AssignmentStatusScheduler assignmentStatusScheduler;
+    @Mock private DashboardCache dashboardCache;
 
     @InjectMocks private AssignmentServiceImpl assignmentService;
 
     @Before
     public void setUp() {
         MockitoAnnotations.initMocks(this);
+        when(assignmentStatusScheduler.today()).thenReturn(LocalDate.now());
         assignmentService = new AssignmentServiceImpl(
                 assignmentRepository,
                 assignmentFormValidation,
                 courseRepository,
                 enrollmentService,
-                feedbackRepository
+                feedbackRepository,
+                feedbackAggregateRepository,
+                dataVersionRegistry,
+                assignmentStatusScheduler,
+                dashboardCache
         );
     }
 
@@ -93,6 +105,7 @@ public class AssignmentServiceImplTest {
 
         Boolean result = assignmentService.deleteAssignment(assignmentId).join();
         assertTrue(result);
+        verify(dashboardCache).invalidateAll();
     }
 
     @Test
@@ -119,9 +132,39 @@ public class AssignmentServiceImplTest {
         when(courseRepository.findByCourseCodeAndSectionAndTerm(anyString(), anyString(), anyString()))
                 .thenReturn(Optional.of(course));
         when(assignmentFormValidation.isValid(form)).thenReturn(true);
+        when(assignmentRepository.save(any(Assignment.class))).thenReturn(CompletableFuture.completedFuture(7L));
 
         Result result = assignmentService.createAssignment(form).join();
         assertEquals(200, result.status());
+        verify(assignmentStatusScheduler).recompute(List.of(7L));
+        verify(dashboardCache).invalidateAll();
+    }
+
+    @Test
+    public void testCreateAssignment_StatusFollowsSchedulerDate() {
+        AssignmentForm form = new AssignmentForm();
+        form.setCourseCode("CS101");
+        form.setCourseSection("001");
+        form.setTerm("Fall 2024");
+        form.setTitle("New Assignment");
+        form.setDescription("Test");
+        form.setStartDate(LocalDate.of(2025, 3, 10));
+        form.setDueDate(LocalDate.of(2025, 3, 20));
+
+        Course course = new Course();
+        course.setStudentFileUploaded(true);
+        when(courseRepository.findByCourseCodeAndSectionAndTerm(anyString(), anyString(), anyString()))
+                .thenReturn(Optional.of(course));
+        when(assignmentFormValidation.isValid(form)).thenReturn(true);
+        when(assignmentRepository.save(any(Assignment.class))).thenReturn(CompletableFuture.completedFuture(7L));
+        // Still the day before the start in the time zone of the assignment dates
+        when(assignmentStatusScheduler.today()).thenReturn(LocalDate.of(2025, 3, 9));
+
+        assignmentService.createAssignment(form).join();
+
+        ArgumentCaptor<Assignment> saved = ArgumentCaptor.forClass(Assignment.class);
+        verify(assignmentRepository).save(saved.capture());
+        assertEquals("pending", saved.getValue().getStatus());
     }
 
     @Test
@@ -0,0 +1,68 @@
+package services.core;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+import com.typesafe.config.ConfigFactory;
+import jakarta.persistence.EntityManager;
+import org.junit.Test;
+import play.inject.ApplicationLifecycle;
+import repository.core.AssignmentRepository;
+import services.cache.DashboardCache;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.Map;
+
+public class AssignmentStatusSchedulerTest {
+
+    private static final ZoneId MONTREAL = ZoneId.of("America/Toronto");
+
+    @Test
+    public void testDelayUntilNextRun_LaterToday() {
+        ZonedDateTime now = ZonedDateTime.of(LocalDateTime.of(2025, 3, 3, 0, 1), MONTREAL);
+
+        assertEquals(Duration.ofMinutes(4), AssignmentStatusScheduler.delayUntilNextRun(now, LocalTime.of(0, 5)));
+    }
+
+    @Test
+    public void testDelayUntilNextRun_Tomorrow() {
+        ZonedDateTime now = ZonedDateTime.of(LocalDateTime.of(2025, 3, 3, 0, 5), MONTREAL);
+
+        assertEquals(Duration.ofHours(24), AssignmentStatusScheduler.delayUntilNextRun(now, LocalTime.of(0, 5)));
+    }
+
+    @Test
+    public void testDelayUntilNextRun_FollowsTheWallClockOverDaylightSaving() {
+        // Clocks go forward on March 9 2025 at 2:00, that day is 23 hours long
+        ZonedDateTime now = ZonedDateTime.of(LocalDateTime.of(2025, 3, 8, 12, 0), MONTREAL);
+
+        assertEquals(Duration.ofHours(23), AssignmentStatusScheduler.delayUntilNextRun(now, LocalTime.of(12, 0)));
+    }
+
+    @Test
+    public void testRecompute_UpdatesTheGivenAssignmentsForTodayInTheConfiguredZone() {
+        AssignmentRepository assignmentRepository = mock(AssignmentRepository.class);
+        EntityManager entityManager = mock(EntityManager.class);
+        AssignmentStatusScheduler scheduler = new AssignmentStatusScheduler(
+                ConfigFactory.parseMap(Map.of("assignments.status.zone", "Pacific/Kiritimati")),
+                assignmentRepository,
+                mock(DashboardCache.class),
+                mock(ApplicationLifecycle.class));
+        LocalDate today = LocalDate.now(ZoneId.of("Pacific/Kiritimati"));
+        when(assignmentRepository.updateStatuses(entityManager, today, List.of(3L))).thenReturn(1);
+
+        assertEquals(today, scheduler.today());
+        assertEquals(1, scheduler.recompute(entityManager, List.of(3L)));
+        scheduler.recompute(List.of(4L, 5L));
+
+        verify(assignmentRepository).updateStatuses(today, List.of(4L, 5L));
+        // The startup run brings every assignment up to date
+        verify(assignmentRepository, timeout(5000)).updateStatuses(today, null);
+    }
+}
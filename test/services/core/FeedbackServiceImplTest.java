@@ -18,13 +18,16 @@ public class FeedbackServiceImplTest {
 
     private FeedbackRepository feedbackRepository;
     private EnrollmentService enrollmentService;
+    private AssignmentStatusScheduler assignmentStatusScheduler;
     private FeedbackServiceImpl feedbackService;
 
     @Before
     public void setUp() {
         feedbackRepository = mock(FeedbackRepository.class);
         enrollmentService = mock(EnrollmentService.class);
-        feedbackService = new FeedbackServiceImpl(feedbackRepository, enrollmentService);
+        assignmentStatusScheduler = mock(AssignmentStatusScheduler.class);
+        when(assignmentStatusScheduler.today()).thenReturn(LocalDate.now());
+        feedbackService = new FeedbackServiceImpl(feedbackRepository, enrollmentService, assignmentStatusScheduler);
     }
 
     @Test
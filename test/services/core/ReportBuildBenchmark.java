@@ -0,0 +1,112 @@
+package services.core;
+
+import com.typesafe.config.ConfigFactory;
+import models.*;
+import models.dto.GroupSubmissionDTO;
+import models.enums.Status;
+import services.cache.DataVersionRegistry;
+import services.cache.ReportCache;
+
+import java.util.*;
+
+/**
+ * Compares the sequential and the parallel construction of the group DTOs of a large synthetic
+ * assignment. Not a unit test; run it by hand on the target hardware, e.g.
+ * {@code sbt "Test/runMain services.core.ReportBuildBenchmark 2000 5"} for 2000 groups of 5.
+ */
+public class ReportBuildBenchmark {
+
+    private static final int WARMUP_RUNS = 5;
+    private static final int MEASURED_RUNS = 10;
+
+    public static void main(String[] args) {
+        int groups = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+        int groupSize = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+
+        Map<Long, List<ReviewTask>> groupedTasks = syntheticAssignment(groups, groupSize, 5);
+
+        ReviewTaskServiceImpl sequential = service(Map.of("reports.parallel.threshold", Integer.MAX_VALUE));
+        ReviewTaskServiceImpl parallel = service(Map.of("reports.parallel.threshold", 1));
+
+        long sequentialNanos = measure(sequential, groupedTasks);
+        long parallelNanos = measure(parallel, groupedTasks);
+
+        System.out.printf("groups=%d groupSize=%d cores=%d%n", groups, groupSize, Runtime.getRuntime().availableProcessors());
+        System.out.printf("sequential: %.1f ms%n", sequentialNanos / 1e6);
+        System.out.printf("parallel:   %.1f ms%n", parallelNanos / 1e6);
+        System.out.printf("speedup:    %.2fx%n", (double) sequentialNanos / parallelNanos);
+    }
+
+    private static ReviewTaskServiceImpl service(Map<String, Object> executorConfig) {
+        return new ReviewTaskServiceImpl(
+                null,
+                null,
+                new ReportCache(ConfigFactory.empty()),
+                new DataVersionRegistry(),
+                new ReportBuildExecutor(ConfigFactory.parseMap(executorConfig)),
+                null,
+                ConfigFactory.empty());
+    }
+
+    /** Median duration of the measured runs, after the warm-up runs. */
+    private static long measure(ReviewTaskServiceImpl service, Map<Long, List<ReviewTask>> groupedTasks) {
+        for (int i = 0; i < WARMUP_RUNS; i++) {
+            consume(service.generateSubmissionInfoInEachGroupDTOs(groupedTasks));
+        }
+        long[] durations = new long[MEASURED_RUNS];
+        for (int i = 0; i < MEASURED_RUNS; i++) {
+            long start = System.nanoTime();
+            consume(service.generateSubmissionInfoInEachGroupDTOs(groupedTasks));
+            durations[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(durations);
+        return durations[MEASURED_RUNS / 2];
+    }
+
+    private static void consume(List<GroupSubmissionDTO> groups) {
+        if (groups.isEmpty()) {
+            throw new IllegalStateException("no groups built");
+        }
+    }
+
+    private static Map<Long, List<ReviewTask>> syntheticAssignment(int groups, int groupSize, int questionCount) {
+        Random random = new Random(42);
+        Assignment assignment = new Assignment();
+        List<FeedbackQuestion> questions = new ArrayList<>();
+        for (int q = 0; q < questionCount; q++) {
+            questions.add(new FeedbackQuestion((long) q, assignment, "Question " + q, 10));
+        }
+
+        Map<Long, List<ReviewTask>> groupedTasks = new LinkedHashMap<>();
+        long userId = 0;
+        long taskId = 0;
+        long feedbackId = 0;
+        for (long groupId = 0; groupId < groups; groupId++) {
+            List<User> members = new ArrayList<>();
+            for (int m = 0; m < groupSize; m++) {
+                userId++;
+                members.add(new User(userId, "s" + userId + "@example.com", "", "Student", String.valueOf(userId), "STUDENT"));
+            }
+            List<ReviewTask> tasks = new ArrayList<>();
+            for (User reviewer : members) {
+                for (User reviewee : members) {
+                    if (reviewer == reviewee) {
+                        continue;
+                    }
+                    ReviewTask task = new ReviewTask(assignment, reviewer, reviewee, Status.COMPLETED, groupId, "Group " + groupId, groupSize, false);
+                    task.setReviewTaskId(++taskId);
+                    List<Feedback> feedbacks = new ArrayList<>();
+                    for (FeedbackQuestion question : questions) {
+                        Feedback feedback = new Feedback(task, question, random.nextInt(11), "feedback");
+                        feedback.setId(++feedbackId);
+                        feedbacks.add(feedback);
+                    }
+                    task.setFeedbacks(feedbacks);
+                    tasks.add(task);
+                }
+            }
+            groupedTasks.put(groupId, tasks);
+        }
+        return groupedTasks;
+    }
+}
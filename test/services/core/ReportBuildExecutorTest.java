@@ -0,0 +1,88 @@
+package services.core;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+import com.typesafe.config.ConfigFactory;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import play.inject.ApplicationLifecycle;
+
+import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+public class ReportBuildExecutorTest {
+
+    private static ReportBuildExecutor executor(int parallelism, int threshold) {
+        return new ReportBuildExecutor(ConfigFactory.parseMap(Map.of(
+                "reports.parallel.parallelism", parallelism,
+                "reports.parallel.threshold", threshold)));
+    }
+
+    @Test
+    public void testMapInOrder_BelowThresholdRunsOnCallingThread() {
+        ReportBuildExecutor executor = executor(4, 10);
+        Thread caller = Thread.currentThread();
+
+        List<Boolean> onCaller = executor.mapInOrder(List.of(1, 2, 3), i -> Thread.currentThread() == caller);
+
+        assertEquals(List.of(true, true, true), onCaller);
+    }
+
+    @Test
+    public void testMapInOrder_ParallelKeepsItemOrderAndUsesDedicatedPool() {
+        ReportBuildExecutor executor = executor(4, 2);
+        List<Integer> items = IntStream.range(0, 500).boxed().collect(Collectors.toList());
+        Set<String> threadNames = ConcurrentHashMap.newKeySet();
+
+        List<Integer> squares = executor.mapInOrder(items, i -> {
+            threadNames.add(Thread.currentThread().getName());
+            return i * i;
+        });
+
+        assertEquals(items.stream().map(i -> i * i).collect(Collectors.toList()), squares);
+        assertTrue(threadNames.stream().allMatch(name -> name.startsWith("report-build-")));
+    }
+
+    @Test
+    public void testMapInOrder_ParallelRethrowsFailure() {
+        ReportBuildExecutor executor = executor(4, 2);
+
+        IllegalStateException exception = assertThrows(IllegalStateException.class,
+                () -> executor.mapInOrder(List.of(1, 2, 3), i -> {
+                    if (i == 2) {
+                        throw new IllegalStateException("boom");
+                    }
+                    return i;
+                }));
+        assertEquals("boom", exception.getMessage());
+    }
+
+    @Test
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public void testStopHookShutsThePoolDown() throws Exception {
+        ApplicationLifecycle lifecycle = mock(ApplicationLifecycle.class);
+        ReportBuildExecutor executor = new ReportBuildExecutor(ConfigFactory.parseMap(Map.of(
+                "reports.parallel.parallelism", 4,
+                "reports.parallel.threshold", 2)), lifecycle);
+
+        ArgumentCaptor<Callable<CompletionStage<?>>> stopHook = ArgumentCaptor.forClass((Class) Callable.class);
+        verify(lifecycle).addStopHook(stopHook.capture());
+        stopHook.getValue().call().toCompletableFuture().join();
+
+        assertThrows(RejectedExecutionException.class, () -> executor.mapInOrder(List.of(1, 2, 3), i -> i));
+    }
+
+    @Test
+    public void testDefaults() {
+        ReportBuildExecutor executor = new ReportBuildExecutor(ConfigFactory.empty());
+
+        assertEquals(Runtime.getRuntime().availableProcessors(), executor.getParallelism());
+        assertEquals(32, executor.getThreshold());
+    }
+}
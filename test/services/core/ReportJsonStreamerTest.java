@@ -0,0 +1,115 @@
+package services.core;
+
+import static org.junit.Assert.*;
+
+import com.typesafe.config.ConfigFactory;
+import models.dto.FeedbackDTO;
+import models.dto.GroupSubmissionDTO;
+import models.dto.MemberSubmissionDTO;
+import models.dto.SubmissionOverviewDTO;
+import org.apache.pekko.actor.ActorSystem;
+import org.apache.pekko.stream.Materializer;
+import org.apache.pekko.util.ByteString;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import play.libs.Json;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+public class ReportJsonStreamerTest {
+
+    private ActorSystem system;
+    private Materializer materializer;
+    private ReportJsonStreamer streamer;
+
+    @Before
+    public void setUp() {
+        system = ActorSystem.create("ReportJsonStreamerTest");
+        materializer = Materializer.matFromSystem(system);
+        streamer = new ReportJsonStreamer(ConfigFactory.empty());
+    }
+
+    @After
+    public void tearDown() {
+        system.terminate();
+    }
+
+    @Test
+    public void testStreamSubmissionOverview_MatchesJsonToJson() throws Exception {
+        SubmissionOverviewDTO overview = overview(3);
+
+        List<ByteString> chunks = collect(overview);
+
+        // Counters, one chunk per group and the closing chunk
+        assertEquals(5, chunks.size());
+        assertEquals(Json.toJson(overview), Json.parse(concat(chunks)));
+    }
+
+    @Test
+    public void testStreamSubmissionOverview_NoGroups() throws Exception {
+        SubmissionOverviewDTO overview = overview(0);
+
+        String json = concat(collect(overview));
+
+        assertEquals(Json.toJson(overview), Json.parse(json));
+        assertEquals(0, Json.parse(json).get("groups").size());
+    }
+
+    @Test
+    public void testIsEnabled_ReadsConfiguration() {
+        assertTrue(streamer.isEnabled());
+        assertFalse(new ReportJsonStreamer(ConfigFactory.parseMap(
+                Map.of("reports.streaming.enabled", false))).isEnabled());
+    }
+
+    private List<ByteString> collect(SubmissionOverviewDTO overview) throws Exception {
+        return streamer.streamSubmissionOverview(overview)
+                .runFold(new ArrayList<ByteString>(), (chunks, chunk) -> {
+                    chunks.add(chunk);
+                    return chunks;
+                }, materializer)
+                .toCompletableFuture()
+                .get(5, TimeUnit.SECONDS);
+    }
+
+    private static String concat(List<ByteString> chunks) {
+        return chunks.stream().reduce(ByteString.emptyByteString(), ByteString::concat).utf8String();
+    }
+
+    private static SubmissionOverviewDTO overview(int groupCount) {
+        List<GroupSubmissionDTO> groups = new ArrayList<>();
+        for (int g = 1; g <= groupCount; g++) {
+            MemberSubmissionDTO member = new MemberSubmissionDTO();
+            member.setUserId((long) g);
+            member.setUserName("Student \"" + g + "\"");
+            member.setEmail("student" + g + "@example.com");
+            member.setAverageFeedbackScore(7.5f);
+            member.setStatus("COMPLETED");
+            Map<Long, List<FeedbackDTO>> feedbacks = new LinkedHashMap<>();
+            feedbacks.put(10L + g, List.of(new FeedbackDTO(1L, 8, 10, "Good work", "Clarity", 10L + g, "Peer")));
+            member.setFeedbacks(feedbacks);
+
+            GroupSubmissionDTO group = new GroupSubmissionDTO();
+            group.setGroupId((long) g);
+            group.setGroupName("Group " + g);
+            group.setGroupSize(1);
+            group.setReviewsCompleted(1);
+            group.setTotalReviewTasks(1);
+            group.setMembers(List.of(member));
+            group.setPrivateComments(Collections.emptyList());
+            groups.add(group);
+        }
+
+        SubmissionOverviewDTO overview = new SubmissionOverviewDTO();
+        overview.setTotalSubmissions(groupCount);
+        overview.setReviewsCompleted(100);
+        overview.setGroups(groups);
+        return overview;
+    }
+}
@@ -5,13 +5,19 @@ import static org.junit.Assert.*;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.typesafe.config.ConfigFactory;
 import models.*;
 import models.dto.*;
+import models.enums.QuestionKind;
 import models.enums.Status;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.*;
+import repository.DatabaseExecutionContext;
+import repository.core.FeedbackAggregateRepository;
 import repository.core.ReviewTaskRepository;
+import services.cache.DataVersionRegistry;
+import services.cache.ReportCache;
 
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
@@ -22,16 +28,33 @@ public class ReviewTaskServiceImplTest {
     private ReviewTaskRepository reviewTaskRepository;
 
     @Mock
-    private FeedbackService feedbackService;
+    private FeedbackAggregateRepository feedbackAggregateRepository;
+
+    @Mock
+    private DatabaseExecutionContext databaseExecutionContext;
 
-    @InjectMocks
     private ReviewTaskServiceImpl reviewTaskService;
+    private DataVersionRegistry dataVersionRegistry;
 
     private ObjectMapper objectMapper = new ObjectMapper();
 
     @Before
     public void setup() {
         MockitoAnnotations.openMocks(this);
+        dataVersionRegistry = new DataVersionRegistry();
+        // Run the database work inline
+        doAnswer(invocation -> {
+            ((Runnable) invocation.getArgument(0)).run();
+            return null;
+        }).when(databaseExecutionContext).execute(any(Runnable.class));
+        reviewTaskService = new ReviewTaskServiceImpl(
+                reviewTaskRepository,
+                feedbackAggregateRepository,
+                new ReportCache(ConfigFactory.empty()),
+                dataVersionRegistry,
+                new ReportBuildExecutor(ConfigFactory.empty()),
+                databaseExecutionContext,
+                ConfigFactory.empty());
     }
 
     @Test
@@ -61,13 +84,11 @@ public class ReviewTaskServiceImplTest {
         question.setQuestionText("Clarity");
         question.setMaxMarks(10);
         feedback.setQuestion(question);
+        task.setFeedbacks(List.of(feedback));
 
-        when(reviewTaskRepository.findByAssignmentId(assignmentId))
+        when(reviewTaskRepository.findReportDataByAssignmentId(assignmentId))
                 .thenReturn(Optional.of(List.of(task)));
 
-        when(feedbackService.getFeedbacksForReviewTaskId(100L))
-                .thenReturn(Optional.of(List.of(feedback)));
-
         CompletableFuture<SubmissionOverviewDTO> future =
                 reviewTaskService.getReviewTasksSubmissionOverview(assignmentId);
 
@@ -78,6 +99,354 @@ public class ReviewTaskServiceImplTest {
         assertEquals(100, result.getReviewsCompleted()); // 1 of 1 completed
     }
 
+    @Test
+    public void testGetAssignmentReport_ServedFromCacheUntilVersionBumped() {
+        Long assignmentId = 1L;
+
+        Course course = new Course();
+        course.setCourseCode("CS101");
+        Assignment assignment = new Assignment();
+        assignment.setTitle("Assignment 1");
+        assignment.setCourse(course);
+
+        ReviewTask task = new ReviewTask(
+                assignment,
+                new User(1L, "John"),
+                new User(2L, "Jane"),
+                Status.PENDING,
+                101L,
+                "Alpha",
+                2,
+                false
+        );
+        task.setFeedbacks(new ArrayList<>());
+
+        when(reviewTaskRepository.findReportDataByAssignmentId(assignmentId))
+                .thenReturn(Optional.of(List.of(task)));
+
+        AssignmentReportDTO first = reviewTaskService.getAssignmentReport(assignmentId).join();
+        AssignmentReportDTO second = reviewTaskService.getAssignmentReport(assignmentId).join();
+
+        assertSame(first, second);
+        assertEquals("Assignment 1", first.getAssignmentTitle());
+        assertEquals("CS101", first.getCourseCode());
+        verify(reviewTaskRepository, times(1)).findReportDataByAssignmentId(assignmentId);
+
+        dataVersionRegistry.bumpAssignment(assignmentId);
+        AssignmentReportDTO third = reviewTaskService.getAssignmentReport(assignmentId).join();
+
+        assertNotSame(first, third);
+        assertEquals(1L, third.getVersion());
+        verify(reviewTaskRepository, times(2)).findReportDataByAssignmentId(assignmentId);
+    }
+
+    @Test
+    public void testGetAssignmentReport_FailedLoadIsNotCached() {
+        Long assignmentId = 1L;
+
+        Assignment assignment = new Assignment();
+        ReviewTask task = new ReviewTask(
+                assignment,
+                new User(1L, "John"),
+                new User(2L, "Jane"),
+                Status.PENDING,
+                101L,
+                "Alpha",
+                2,
+                false
+        );
+        task.setFeedbacks(new ArrayList<>());
+
+        // The repository returns an empty Optional when the query fails
+        when(reviewTaskRepository.findReportDataByAssignmentId(assignmentId))
+                .thenReturn(Optional.empty())
+                .thenReturn(Optional.of(List.of(task)));
+
+        CompletableFuture<AssignmentReportDTO> failed = reviewTaskService.getAssignmentReport(assignmentId);
+        assertTrue(failed.isCompletedExceptionally());
+
+        AssignmentReportDTO report = reviewTaskService.getAssignmentReport(assignmentId).join();
+
+        assertEquals(1, report.getGroups().size());
+        verify(reviewTaskRepository, times(2)).findReportDataByAssignmentId(assignmentId);
+    }
+
+    @Test
+    public void testGetAssignmentReport_DatabaseAggregationFailedQueryIsNotCached() {
+        Long assignmentId = 1L;
+        List<ReviewTask> tasks = groupWithFeedbacks(new Random(3), false);
+
+        when(reviewTaskRepository.findReportTasksByAssignmentId(assignmentId)).thenReturn(Optional.of(tasks));
+        when(reviewTaskRepository.findFeedbackRowsByAssignmentId(assignmentId)).thenReturn(Optional.of(feedbackRows(tasks)));
+        // The repository returns an empty Optional when the query fails
+        when(reviewTaskRepository.findScoreCellsByAssignmentId(assignmentId))
+                .thenReturn(Optional.empty())
+                .thenReturn(Optional.of(scoreCells(tasks)));
+
+        ReviewTaskServiceImpl databaseService = new ReviewTaskServiceImpl(
+                reviewTaskRepository,
+                feedbackAggregateRepository,
+                new ReportCache(ConfigFactory.empty()),
+                dataVersionRegistry,
+                new ReportBuildExecutor(ConfigFactory.empty()),
+                databaseExecutionContext,
+                ConfigFactory.parseMap(Map.of("reports.aggregation.mode", "database")));
+
+        CompletableFuture<AssignmentReportDTO> failed = databaseService.getAssignmentReport(assignmentId);
+        assertTrue(failed.isCompletedExceptionally());
+
+        AssignmentReportDTO report = databaseService.getAssignmentReport(assignmentId).join();
+
+        assertEquals(1, report.getGroups().size());
+        verify(reviewTaskRepository, times(2)).findScoreCellsByAssignmentId(assignmentId);
+    }
+
+    @Test
+    public void testGetStudentGroupReport_LoadsOnlyTheStudentsGroup() {
+        Long assignmentId = 1L;
+
+        Course course = new Course();
+        course.setCourseCode("CS101");
+        Assignment assignment = new Assignment();
+        assignment.setTitle("Assignment 1");
+        assignment.setCourse(course);
+
+        ReviewTask task = new ReviewTask(
+                assignment,
+                new User(1L, "John"),
+                new User(2L, "Jane"),
+                Status.PENDING,
+                101L,
+                "Alpha",
+                2,
+                false
+        );
+        task.setFeedbacks(new ArrayList<>());
+
+        when(reviewTaskRepository.findGroupReportDataByAssignmentIdAndUserId(assignmentId, 1L))
+                .thenReturn(Optional.of(List.of(task)));
+        when(feedbackAggregateRepository.findByAssignmentId(assignmentId)).thenReturn(List.of(
+                new ScoreAggregateDTO(2L, 5L, "Q1", QuestionKind.SCORED, 10, 6, 1, 6)));
+
+        AssignmentReportDTO report = reviewTaskService.getStudentGroupReport(assignmentId, 1L).join();
+
+        assertEquals("Assignment 1", report.getAssignmentTitle());
+        assertEquals(1, report.getGroups().size());
+        assertEquals("Alpha", report.getGroups().get(0).getGroupName());
+        assertEquals(6f, report.getClassAveragesForEachQuestion().get("Q1"), 0f);
+        assertEquals(6f, report.getOverallClassAverage(), 0f);
+        assertEquals(6f, report.getGroups().get(0).getMembers().get(0).getOverallClassAverage(), 0f);
+        verify(reviewTaskRepository, never()).findReportDataByAssignmentId(anyLong());
+        // The aggregates may be rebuilt, they are read on the database execution context
+        verify(databaseExecutionContext).execute(any(Runnable.class));
+    }
+
+    @Test
+    public void testGetReviewTasksSubmissionOverviewPage_LoadsOnlyThePageGroups() {
+        Long assignmentId = 1L;
+
+        Assignment assignment = new Assignment();
+        ReviewTask beta = new ReviewTask(assignment, new User(3L, "Bea"), new User(4L, "Cid"),
+                Status.PENDING, 102L, "Beta", 2, false);
+        ReviewTask alpha = new ReviewTask(assignment, new User(1L, "John"), new User(2L, "Jane"),
+                Status.COMPLETED, 101L, "Alpha", 2, false);
+        beta.setFeedbacks(new ArrayList<>());
+        alpha.setFeedbacks(new ArrayList<>());
+
+        // The repository is asked for one group more than the limit to detect the next page
+        when(reviewTaskRepository.findGroupIdsPage(assignmentId, 100L, 3, Status.PENDING, "b"))
+                .thenReturn(List.of(101L, 102L, 103L));
+        when(reviewTaskRepository.findReportDataByAssignmentIdAndGroupIds(assignmentId, List.of(101L, 102L)))
+                .thenReturn(Optional.of(List.of(beta, alpha)));
+        when(reviewTaskRepository.findSubmissionTotalsByAssignmentId(assignmentId))
+                .thenReturn(new SubmissionTotalsDTO(8L, 2L));
+        when(feedbackAggregateRepository.findByAssignmentId(assignmentId)).thenReturn(List.of(
+                new ScoreAggregateDTO(2L, 5L, "Q1", QuestionKind.SCORED, 10, 6, 1, 6)));
+
+        SubmissionOverviewPageDTO page = reviewTaskService
+                .getReviewTasksSubmissionOverviewPage(assignmentId, 100L, 2, Status.PENDING, "b").join();
+
+        assertEquals(8, page.getTotalSubmissions());
+        assertEquals(75, page.getReviewsCompleted()); // 6 of 8 students have no pending review
+        assertEquals(Long.valueOf(102L), page.getNextCursor());
+        assertEquals(2, page.getGroups().size());
+        assertEquals("Alpha", page.getGroups().get(0).getGroupName());
+        assertEquals("Beta", page.getGroups().get(1).getGroupName());
+        assertEquals(6f, page.getGroups().get(0).getMembers().get(0).getOverallClassAverage(), 0f);
+        // The blocking queries of the page run on the database execution context
+        verify(databaseExecutionContext).execute(any(Runnable.class));
+        verify(reviewTaskRepository, never()).findReportDataByAssignmentId(anyLong());
+    }
+
+    @Test
+    public void testGetReviewTasksSubmissionOverviewPage_LastPageHasNoCursor() {
+        Long assignmentId = 1L;
+
+        when(reviewTaskRepository.findGroupIdsPage(assignmentId, null, 21, null, null))
+                .thenReturn(Collections.emptyList());
+        when(reviewTaskRepository.findReportDataByAssignmentIdAndGroupIds(assignmentId, Collections.emptyList()))
+                .thenReturn(Optional.of(Collections.emptyList()));
+        when(reviewTaskRepository.findSubmissionTotalsByAssignmentId(assignmentId))
+                .thenReturn(new SubmissionTotalsDTO(0L, 0L));
+
+        SubmissionOverviewPageDTO page = reviewTaskService
+                .getReviewTasksSubmissionOverviewPage(assignmentId, null, 20, null, null).join();
+
+        assertNull(page.getNextCursor());
+        assertTrue(page.getGroups().isEmpty());
+        assertEquals(0, page.getReviewsCompleted());
+    }
+
+    @Test
+    public void testGetAssignmentReport_DatabaseAggregationMatchesJavaComputation() {
+        assertDatabaseAggregationMatchesJavaComputation(groupWithFeedbacks(new Random(7), false));
+    }
+
+    @Test
+    public void testGetAssignmentReport_DatabaseAggregationMatchesJavaWithDuplicateNamesAndQuestions() {
+        // Two reviewers named "Ann Lee" and two questions named "Clarity": the Java matrix keeps the
+        // first answer of a reviewer name to a question text, so the cells are grouped by IDs
+        assertDatabaseAggregationMatchesJavaComputation(groupWithFeedbacks(new Random(11), true));
+    }
+
+    private void assertDatabaseAggregationMatchesJavaComputation(List<ReviewTask> tasks) {
+        Long assignmentId = 1L;
+
+        when(reviewTaskRepository.findReportDataByAssignmentId(assignmentId)).thenReturn(Optional.of(tasks));
+        when(reviewTaskRepository.findReportTasksByAssignmentId(assignmentId)).thenReturn(Optional.of(tasks));
+        when(reviewTaskRepository.findFeedbackRowsByAssignmentId(assignmentId)).thenReturn(Optional.of(feedbackRows(tasks)));
+        when(reviewTaskRepository.findScoreCellsByAssignmentId(assignmentId)).thenReturn(Optional.of(scoreCells(tasks)));
+
+        ReviewTaskServiceImpl databaseService = new ReviewTaskServiceImpl(
+                reviewTaskRepository,
+                feedbackAggregateRepository,
+                new ReportCache(ConfigFactory.empty()),
+                dataVersionRegistry,
+                new ReportBuildExecutor(ConfigFactory.empty()),
+                databaseExecutionContext,
+                ConfigFactory.parseMap(Map.of("reports.aggregation.mode", "database")));
+
+        AssignmentReportDTO expected = reviewTaskService.getAssignmentReport(assignmentId).join();
+        AssignmentReportDTO actual = databaseService.getAssignmentReport(assignmentId).join();
+
+        verify(reviewTaskRepository, times(1)).findReportDataByAssignmentId(assignmentId);
+        verify(reviewTaskRepository, times(1)).findScoreCellsByAssignmentId(assignmentId);
+
+        assertEquals(expected.getClassAveragesForEachQuestion(), actual.getClassAveragesForEachQuestion());
+        assertEquals(expected.getOverallClassAverage(), actual.getOverallClassAverage(), 0f);
+        assertEquals(expected.getGroups().size(), actual.getGroups().size());
+
+        GroupSubmissionDTO expectedGroup = expected.getGroups().get(0);
+        GroupSubmissionDTO actualGroup = actual.getGroups().get(0);
+        assertEquals(expectedGroup.getPrivateComments().size(), actualGroup.getPrivateComments().size());
+        assertEquals(expectedGroup.getReviewsCompleted(), actualGroup.getReviewsCompleted());
+
+        Map<Long, MemberSubmissionDTO> actualMembers = new HashMap<>();
+        actualGroup.getMembers().forEach(member -> actualMembers.put(member.getUserId(), member));
+        for (MemberSubmissionDTO expectedMember : expectedGroup.getMembers()) {
+            MemberSubmissionDTO actualMember = actualMembers.get(expectedMember.getUserId());
+            assertNotNull(actualMember);
+            assertEquals(expectedMember.getReviewerNames(), actualMember.getReviewerNames());
+            assertEquals(expectedMember.getReviewerAverages(), actualMember.getReviewerAverages());
+            assertEquals(expectedMember.getAverageFeedbackScore(), actualMember.getAverageFeedbackScore(), 0f);
+            assertEquals(expectedMember.getStatus(), actualMember.getStatus());
+            assertEquals(expectedMember.getFeedbacksByReviewer().keySet(), actualMember.getFeedbacksByReviewer().keySet());
+            assertEquals(expectedMember.getEvaluationMatrix().size(), actualMember.getEvaluationMatrix().size());
+            for (int q = 0; q < expectedMember.getEvaluationMatrix().size(); q++) {
+                MemberSubmissionDTO.EvaluationMatrixDTO expectedRow = expectedMember.getEvaluationMatrix().get(q);
+                MemberSubmissionDTO.EvaluationMatrixDTO actualRow = actualMember.getEvaluationMatrix().get(q);
+                assertEquals(expectedRow.getFeedbackQuestion(), actualRow.getFeedbackQuestion());
+                assertEquals(expectedRow.getMarksPerReviewer(), actualRow.getMarksPerReviewer());
+                assertEquals(expectedRow.getAverageMarkForQuestion(), actualRow.getAverageMarkForQuestion(), 0f);
+            }
+        }
+    }
+
+    /**
+     * One group of three students where every student reviews the two others on two scored questions
+     * and the overall comment, plus one private comment task for the professor per student. With
+     * duplicates, the second student has the name of the first and both scored questions have the
+     * same text.
+     */
+    private static List<ReviewTask> groupWithFeedbacks(Random random, boolean duplicates) {
+        Course course = new Course();
+        course.setCourseCode("CS101");
+        Assignment assignment = new Assignment();
+        assignment.setTitle("Assignment 1");
+        assignment.setCourse(course);
+
+        FeedbackQuestion clarity = new FeedbackQuestion(11L, assignment, "Clarity", 10);
+        FeedbackQuestion effort = new FeedbackQuestion(12L, assignment, duplicates ? "Clarity" : "Effort", 10);
+        FeedbackQuestion overall = new FeedbackQuestion(13L, assignment, "Overall Feedback Comment", 0);
+        FeedbackQuestion privateComment = new FeedbackQuestion(14L, assignment, "Private Comment for Professor", 0);
+
+        List<User> students = List.of(
+                new User(1L, "ann@example.com", "", "Ann", "Lee", "STUDENT"),
+                duplicates
+                        ? new User(2L, "ann2@example.com", "", "Ann", "Lee", "STUDENT")
+                        : new User(2L, "bob@example.com", "", "Bob", "Ray", "STUDENT"),
+                new User(3L, "cy@example.com", "", "Cy", "Tan", "STUDENT"));
+
+        List<ReviewTask> tasks = new ArrayList<>();
+        long feedbackId = 100L;
+        for (User reviewer : students) {
+            for (User reviewee : students) {
+                boolean forProfessor = reviewer == reviewee;
+                Status status = random.nextBoolean() ? Status.COMPLETED : Status.PENDING;
+                ReviewTask task = new ReviewTask(assignment, reviewer, reviewee, status, 101L, "Alpha", 3, forProfessor);
+                task.setReviewTaskId((long) tasks.size() + 1);
+
+                List<Feedback> feedbacks = new ArrayList<>();
+                List<FeedbackQuestion> questions = forProfessor
+                        ? List.of(privateComment) : List.of(clarity, effort, overall);
+                for (FeedbackQuestion question : questions) {
+                    Feedback feedback = new Feedback(task, question, random.nextInt(question.getMaxMarks() + 1), "text");
+                    feedback.setId(feedbackId++);
+                    feedbacks.add(feedback);
+                }
+                task.setFeedbacks(feedbacks);
+                tasks.add(task);
+            }
+        }
+        return tasks;
+    }
+
+    private static List<FeedbackRowDTO> feedbackRows(List<ReviewTask> tasks) {
+        List<FeedbackRowDTO> rows = new ArrayList<>();
+        for (ReviewTask task : tasks) {
+            User reviewer = task.getReviewer();
+            for (Feedback f : task.getFeedbacks()) {
+                rows.add(new FeedbackRowDTO(task.getReviewTaskId(), f.getId(), f.getScore(), f.getQuestion().getMaxMarks(),
+                        f.getFeedbackText(), f.getQuestion().getQuestionText(), f.getQuestion().getKind(), reviewer.getUserId(),
+                        reviewer.getFirstName(), reviewer.getLastName()));
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * What the score cell query returns: the scores summed per review task and question ID, in
+     * review task order. Reviewers or questions that share a name or text keep cells of their own.
+     */
+    private static List<ScoreCellDTO> scoreCells(List<ReviewTask> tasks) {
+        List<ScoreCellDTO> cells = new ArrayList<>();
+        for (ReviewTask task : tasks) {
+            Map<FeedbackQuestion, Long> sums = new LinkedHashMap<>();
+            for (Feedback f : task.getFeedbacks()) {
+                if (f.getQuestion().getKind() == QuestionKind.SCORED) {
+                    sums.merge(f.getQuestion(), (long) f.getScore(), Long::sum);
+                }
+            }
+            sums.forEach((question, sum) -> cells.add(new ScoreCellDTO(task.getGroupId(), task.getReviewee().getUserId(),
+                    task.getReviewer().getFirstName(), task.getReviewer().getLastName(),
+                    question.getQuestionId(), question.getQuestionText(), sum)));
+        }
+        // Stable sort: within a reviewee the cells stay in review task and question order
+        cells.sort(Comparator.comparing(ScoreCellDTO::getGroupId)
+                .thenComparing(ScoreCellDTO::getRevieweeId));
+        return cells;
+    }
+
     @Test
     public void testGetReviewCountByStatus_WithCourse() {
         when(reviewTaskRepository.findReviewCountByStudentIdAndStatusForCourse(1L, "CS101", Status.PENDING))
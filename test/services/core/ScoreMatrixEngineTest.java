@@ -0,0 +1,194 @@
+package services.core;
+
+import static org.junit.Assert.*;
+
+import models.dto.AssignmentAveragesDTO;
+import models.dto.FeedbackDTO;
+import models.dto.MemberSubmissionDTO;
+import models.dto.ScoreAggregateDTO;
+import models.enums.QuestionKind;
+import org.junit.Test;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+public class ScoreMatrixEngineTest {
+
+    @Test
+    public void testBuild_FillsMissingAnswersWithZeroAndSortsReviewers() {
+        List<FeedbackDTO> feedbacks = List.of(
+                feedback("Clarity", 8, 2L, "Zoe"),
+                feedback("Clarity", 6, 1L, "Adam"),
+                feedback("Effort", 5, 1L, "Adam"),
+                feedback("Private Comment for Professor", 0, 2L, "Zoe")
+        );
+
+        ScoreMatrixEngine.ScoreMatrix matrix = ScoreMatrixEngine.build(feedbacks);
+
+        assertEquals(List.of("Adam", "Zoe"), matrix.getReviewerNames());
+        assertEquals(2, matrix.questionCount());
+        assertEquals(6, matrix.score(0, 0));
+        assertEquals(8, matrix.score(0, 1));
+        assertEquals(5, matrix.score(1, 0));
+        assertEquals(0, matrix.score(1, 1));
+        assertEquals(List.of(11f, 8f), matrix.getReviewerTotals());
+        assertEquals(9.5f, matrix.overallAverage(), 0f);
+    }
+
+    @Test
+    public void testBuild_KeepsFirstAnswerOfReviewer() {
+        List<FeedbackDTO> feedbacks = List.of(
+                feedback("Clarity", 3, 1L, "Adam"),
+                feedback("Clarity", 9, 1L, "Adam")
+        );
+
+        ScoreMatrixEngine.ScoreMatrix matrix = ScoreMatrixEngine.build(feedbacks);
+
+        assertEquals(3, matrix.score(0, 0));
+        assertEquals(3f, matrix.questionAverage(0), 0f);
+    }
+
+    @Test
+    public void testBuild_EmptyFeedbacks() {
+        ScoreMatrixEngine.ScoreMatrix matrix = ScoreMatrixEngine.build(Collections.emptyList());
+
+        assertTrue(matrix.isEmpty());
+        assertTrue(matrix.getReviewerNames().isEmpty());
+        assertTrue(matrix.toEvaluationMatrixDTOs().isEmpty());
+        assertEquals(0f, matrix.overallAverage(), 0f);
+    }
+
+    @Test
+    public void testBuild_MatchesStreamImplementationBitForBit() {
+        Random random = new Random(42);
+        String[] questions = {"Clarity", "Effort", "Teamwork", "Overall Comment",
+                "Overall Feedback Comment", "Private Comment for Professor"};
+
+        for (int run = 0; run < 200; run++) {
+            List<FeedbackDTO> feedbacks = new ArrayList<>();
+            int reviewers = 1 + random.nextInt(8);
+            for (int r = 0; r < reviewers; r++) {
+                for (String question : questions) {
+                    if (random.nextInt(5) > 0) {
+                        feedbacks.add(feedback(question, random.nextInt(11), (long) r, "Reviewer " + r));
+                    }
+                }
+            }
+            Collections.shuffle(feedbacks, random);
+
+            ScoreMatrixEngine.ScoreMatrix matrix = ScoreMatrixEngine.build(feedbacks);
+            List<String> expectedNames = feedbacks.stream()
+                    .map(FeedbackDTO::getReviewerName).distinct().sorted().collect(Collectors.toList());
+            List<MemberSubmissionDTO.EvaluationMatrixDTO> expectedRows = referenceMatrix(feedbacks, expectedNames);
+            List<MemberSubmissionDTO.EvaluationMatrixDTO> actualRows = matrix.toEvaluationMatrixDTOs();
+
+            assertEquals(expectedNames, matrix.getReviewerNames());
+            assertEquals(expectedRows.size(), actualRows.size());
+            for (int i = 0; i < expectedRows.size(); i++) {
+                assertEquals(expectedRows.get(i).getFeedbackQuestion(), actualRows.get(i).getFeedbackQuestion());
+                assertEquals(expectedRows.get(i).getMarksPerReviewer(), actualRows.get(i).getMarksPerReviewer());
+                assertEquals(Float.floatToIntBits(expectedRows.get(i).getAverageMarkForQuestion()),
+                        Float.floatToIntBits(actualRows.get(i).getAverageMarkForQuestion()));
+            }
+
+            List<Float> expectedTotals = new ArrayList<>();
+            for (int i = 0; i < expectedNames.size(); i++) {
+                final int index = i;
+                expectedTotals.add((float) expectedRows.stream()
+                        .mapToInt(row -> row.getMarksPerReviewer().get(index)).sum());
+            }
+            assertEquals(expectedTotals, matrix.getReviewerTotals());
+
+            float expectedOverall = expectedRows.isEmpty() ? 0
+                    : (float) expectedTotals.stream().mapToDouble(Float::doubleValue).average().orElse(0.0);
+            assertEquals(Float.floatToIntBits(expectedOverall), Float.floatToIntBits(matrix.overallAverage()));
+        }
+    }
+
+    @Test
+    public void testBuild_LeavesAllCommentKindsOutOfTheMatrix() {
+        List<FeedbackDTO> feedbacks = List.of(
+                feedback("Clarity", 7, 1L, "Adam"),
+                feedback("Overall Comment", 3, 1L, "Adam"),
+                feedback("overall feedback comment", 4, 1L, "Adam"),
+                feedback("Private Comment for Professor", 5, 2L, "Zoe"));
+
+        ScoreMatrixEngine.ScoreMatrix matrix = ScoreMatrixEngine.build(feedbacks);
+
+        assertEquals(1, matrix.questionCount());
+        assertEquals(List.of("Adam", "Zoe"), matrix.getReviewerNames());
+        assertEquals(List.of(7f, 0f), matrix.getReviewerTotals());
+    }
+
+    @Test
+    public void testAveragesFromAggregates_MatchesMemberMatrices() {
+        // Two students, each reviewed by both group mates on two questions
+        List<FeedbackDTO> first = List.of(
+                feedback("Clarity", 8, 2L, "Bea"),
+                feedback("Effort", 7, 2L, "Bea"),
+                feedback("Clarity", 5, 3L, "Cid"),
+                feedback("Effort", 4, 3L, "Cid"),
+                feedback("Overall Feedback Comment", 0, 3L, "Cid"));
+        List<FeedbackDTO> second = List.of(
+                feedback("Clarity", 9, 1L, "Adam"),
+                feedback("Effort", 6, 1L, "Adam"),
+                feedback("Clarity", 2, 3L, "Cid"),
+                feedback("Effort", 3, 3L, "Cid"));
+
+        List<ScoreAggregateDTO> aggregates = List.of(
+                new ScoreAggregateDTO(1L, 1L, "Clarity", QuestionKind.SCORED, 10, 13, 2, 8),
+                new ScoreAggregateDTO(1L, 2L, "Effort", QuestionKind.SCORED, 10, 11, 2, 7),
+                new ScoreAggregateDTO(1L, 3L, "Overall Feedback Comment", QuestionKind.OVERALL_COMMENT, 0, 0, 1, 0),
+                new ScoreAggregateDTO(2L, 1L, "Clarity", QuestionKind.SCORED, 10, 11, 2, 9),
+                new ScoreAggregateDTO(2L, 2L, "Effort", QuestionKind.SCORED, 10, 9, 2, 6));
+
+        AssignmentAveragesDTO averages = ScoreMatrixEngine.averagesFromAggregates(aggregates);
+
+        ScoreMatrixEngine.ScoreMatrix firstMatrix = ScoreMatrixEngine.build(first);
+        ScoreMatrixEngine.ScoreMatrix secondMatrix = ScoreMatrixEngine.build(second);
+        assertEquals(firstMatrix.overallAverage(), averages.getStudentAverageScores().get(1L), 0f);
+        assertEquals(secondMatrix.overallAverage(), averages.getStudentAverageScores().get(2L), 0f);
+
+        float clarity = (float) ((firstMatrix.questionAverage(0) + (double) secondMatrix.questionAverage(0)) / 2);
+        float effort = (float) ((firstMatrix.questionAverage(1) + (double) secondMatrix.questionAverage(1)) / 2);
+        assertEquals(List.of("Clarity", "Effort"), new ArrayList<>(averages.getClassAveragesForEachQuestion().keySet()));
+        assertEquals(clarity, averages.getClassAveragesForEachQuestion().get("Clarity"), 0f);
+        assertEquals(effort, averages.getClassAveragesForEachQuestion().get("Effort"), 0f);
+        assertEquals(clarity + effort, averages.getOverallClassAverage(), 0.0001f);
+    }
+
+    @Test
+    public void testAveragesFromAggregates_Empty() {
+        AssignmentAveragesDTO averages = ScoreMatrixEngine.averagesFromAggregates(Collections.emptyList());
+
+        assertTrue(averages.getClassAveragesForEachQuestion().isEmpty());
+        assertTrue(averages.getStudentAverageScores().isEmpty());
+        assertEquals(0f, averages.getOverallClassAverage(), 0f);
+    }
+
+    private static List<MemberSubmissionDTO.EvaluationMatrixDTO> referenceMatrix(
+            List<FeedbackDTO> feedbacks, List<String> reviewerNames) {
+        Map<String, List<FeedbackDTO>> groupedByQuestion = feedbacks.stream()
+                .filter(f -> f.getQuestionKind() == QuestionKind.SCORED)
+                .collect(Collectors.groupingBy(FeedbackDTO::getQuestionText, LinkedHashMap::new, Collectors.toList()));
+
+        List<MemberSubmissionDTO.EvaluationMatrixDTO> rows = new ArrayList<>();
+        for (Map.Entry<String, List<FeedbackDTO>> entry : groupedByQuestion.entrySet()) {
+            List<Integer> marks = new ArrayList<>();
+            for (String reviewer : reviewerNames) {
+                marks.add(entry.getValue().stream()
+                        .filter(f -> f.getReviewerName().equals(reviewer))
+                        .findFirst()
+                        .map(FeedbackDTO::getObtainedScore)
+                        .orElse(0));
+            }
+            float avg = (float) marks.stream().mapToInt(Integer::intValue).average().orElse(0);
+            rows.add(new MemberSubmissionDTO.EvaluationMatrixDTO(entry.getKey(), marks, avg));
+        }
+        return rows;
+    }
+
+    private static FeedbackDTO feedback(String question, int score, Long reviewerId, String reviewerName) {
+        return new FeedbackDTO(null, score, 10, "", question, reviewerId, reviewerName);
+    }
+}
@@ -0,0 +1,52 @@
+package services.dashboard;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+
+public class DashboardWidgetsTest {
+
+    @Test
+    public void testWidget_PassesThroughLoadedData() {
+        DashboardWidgets widgets = new DashboardWidgets("student", Duration.ofSeconds(5));
+
+        assertEquals(Integer.valueOf(3), widgets.widget("count", () -> CompletableFuture.completedFuture(3), 0).join());
+        assertFalse(widgets.isPartial());
+    }
+
+    @Test
+    public void testWidget_FailedWidgetFallsBack() {
+        DashboardWidgets widgets = new DashboardWidgets("student", Duration.ofSeconds(5));
+
+        CompletableFuture<Integer> failed = widgets.widget("count",
+                () -> CompletableFuture.failedFuture(new IllegalStateException("down")), 0);
+
+        assertEquals(Integer.valueOf(0), failed.join());
+        assertTrue(widgets.isPartial());
+    }
+
+    @Test
+    public void testWidget_LoaderThrowingFallsBack() {
+        DashboardWidgets widgets = new DashboardWidgets("student", Duration.ofSeconds(5));
+
+        CompletableFuture<Integer> failed = widgets.widget("count", () -> {
+            throw new IllegalStateException("down");
+        }, 0);
+
+        assertEquals(Integer.valueOf(0), failed.join());
+        assertTrue(widgets.isPartial());
+    }
+
+    @Test
+    public void testWidget_SlowWidgetTimesOut() {
+        DashboardWidgets widgets = new DashboardWidgets("professor", Duration.ofMillis(50));
+
+        CompletableFuture<Integer> slow = widgets.widget("count", CompletableFuture::new, -1);
+
+        assertEquals(Integer.valueOf(-1), slow.join());
+        assertTrue(widgets.isPartial());
+    }
+}
@@ -0,0 +1,122 @@
+package services.dashboard;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.typesafe.config.ConfigFactory;
+import models.dto.PeerReviewSummaryDTO;
+import org.apache.pekko.actor.ActorSystem;
+import org.apache.pekko.stream.Materializer;
+import org.apache.pekko.stream.javadsl.Sink;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import play.libs.EventSource;
+import play.libs.Json;
+import repository.DashboardRepository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.TimeUnit;
+
+public class ReviewProgressHubTest {
+
+    private ActorSystem system;
+    private ReviewProgressHub hub;
+    private DashboardRepository dashboardRepository;
+
+    @Before
+    public void setUp() {
+        system = ActorSystem.create("review-progress-test");
+        dashboardRepository = mock(DashboardRepository.class);
+        // Every assignment has 4 of 5 reviewers done, 9 of 12 review tasks completed
+        when(dashboardRepository.findPeerReviewProgressByAssignmentIds(anyCollection())).thenAnswer(invocation -> {
+            Collection<Long> assignmentIds = invocation.getArgument(0);
+            return assignmentIds.stream().sorted().map(ReviewProgressHubTest::progress).toList();
+        });
+        hub = new ReviewProgressHub(ConfigFactory.parseMap(Map.of(
+                "dashboard.progress.bufferSize", 2,
+                "dashboard.progress.keepAlive", "1h")), Materializer.matFromSystem(system), dashboardRepository);
+    }
+
+    private static PeerReviewSummaryDTO progress(Long assignmentId) {
+        PeerReviewSummaryDTO progress = new PeerReviewSummaryDTO();
+        progress.setAssignmentId(assignmentId);
+        progress.setCompletedReviews(9);
+        progress.setTotalReviews(12);
+        progress.setCompletedMembers(4);
+        progress.setTotalMembers(5);
+        progress.setProgressPercentage(80);
+        return progress;
+    }
+
+    @After
+    public void tearDown() {
+        system.terminate();
+    }
+
+    private CompletionStage<List<EventSource.Event>> collect(Long professorId, int count) {
+        return hub.subscribe(professorId).take(count).runWith(Sink.seq(), Materializer.matFromSystem(system));
+    }
+
+    private JsonNode data(EventSource.Event event) {
+        String data = event.formatted().lines().filter(line -> line.startsWith("data: ")).findFirst().get();
+        return Json.parse(data.substring("data: ".length()));
+    }
+
+    @Test
+    public void testFlush_SendsCurrentProgressOncePerChangedAssignment() throws Exception {
+        CompletionStage<List<EventSource.Event>> events = collect(1L, 2);
+
+        hub.publish(1L, 10L);
+        hub.publish(1L, 10L);
+        hub.publish(1L, 11L);
+        assertEquals(2, hub.flush());
+
+        List<EventSource.Event> received = events.toCompletableFuture().get(5, TimeUnit.SECONDS);
+        JsonNode progress = data(received.stream().filter(e -> data(e).get("assignmentId").asLong() == 10L).findFirst().get());
+        assertTrue(received.get(0).formatted().startsWith("event: progress"));
+        assertEquals(9, progress.get("completedReviews").asInt());
+        assertEquals(12, progress.get("totalReviews").asInt());
+        assertEquals(4, progress.get("completedMembers").asInt());
+        assertEquals(5, progress.get("totalMembers").asInt());
+        assertEquals(80, progress.get("progressPercentage").asInt());
+        verify(dashboardRepository, times(1)).findPeerReviewProgressByAssignmentIds(anyCollection());
+    }
+
+    @Test
+    public void testFlush_OnlyReachesTheProfessorOfTheAssignment() {
+        collect(1L, 1);
+
+        hub.publish(2L, 10L);
+
+        assertEquals(0, hub.flush());
+        verify(dashboardRepository, never()).findPeerReviewProgressByAssignmentIds(anyCollection());
+    }
+
+    @Test
+    public void testFlush_SendsNothingUntilNewChanges() {
+        collect(1L, 1);
+
+        hub.publish(1L, 10L);
+
+        assertEquals(1, hub.flush());
+        assertEquals(0, hub.flush());
+    }
+
+    @Test
+    public void testFlush_ClosesSubscriberThatFallsBehind() throws Exception {
+        // Subscribed but never consumed, its buffer fills up
+        hub.subscribe(1L);
+
+        for (long assignmentId = 1; assignmentId <= 50; assignmentId++) {
+            hub.publish(1L, assignmentId);
+            hub.flush();
+        }
+
+        assertEquals(0, hub.subscriberCount());
+    }
+}
@@ -1,10 +1,7 @@
 package services.export;
 
-import models.Assignment;
-import models.Course;
-import models.ReviewTask;
-import models.User;
 import models.dto.AssignmentExportDTO;
+import models.dto.AssignmentReportDTO;
 import models.dto.GroupSubmissionDTO;
 import models.dto.MemberSubmissionDTO;
 import org.apache.poi.xssf.usermodel.XSSFWorkbook;
@@ -34,26 +31,6 @@ public class ExcelExportServiceImplTest {
 
     @Test
     public void testGetAssignmentExportData_returnsCorrectList() throws Exception {
-        Assignment assignment = new Assignment();
-        assignment.setTitle("A1");
-
-        Course course = new Course();
-        course.setCourseCode("CS101");
-        course.setCourseName("Intro to CS");
-        assignment.setCourse(course);
-
-        ReviewTask reviewTask = new ReviewTask(
-                assignment,
-                new User(),
-                new User(),
-                null,
-                1L,
-                "Group 1",
-                2,
-                false
-        );
-        List<ReviewTask> mockTasks = List.of(reviewTask);
-
         // Use default constructor and set values manually (per DTO definition)
         MemberSubmissionDTO member = new MemberSubmissionDTO();
         member.setUserId(101L);
@@ -67,9 +44,13 @@ public class ExcelExportServiceImplTest {
         groupDTO.setGroupName("Group 1");
         groupDTO.setMembers(List.of(member));
 
-        when(mockReviewTaskService.getReviewTasks(1L)).thenReturn(CompletableFuture.completedFuture(mockTasks));
-        when(mockReviewTaskService.groupReviewTasksByGroup(mockTasks)).thenReturn(Map.of(1L, mockTasks));
-        when(mockReviewTaskService.generateSubmissionInfoInEachGroupDTOs(anyMap())).thenReturn(List.of(groupDTO));
+        AssignmentReportDTO assignmentReport = new AssignmentReportDTO();
+        assignmentReport.setAssignmentTitle("A1");
+        assignmentReport.setCourseCode("CS101");
+        assignmentReport.setCourseName("Intro to CS");
+        assignmentReport.setGroups(List.of(groupDTO));
+
+        when(mockReviewTaskService.getAssignmentReport(1L)).thenReturn(CompletableFuture.completedFuture(assignmentReport));
 
         List<AssignmentExportDTO> exportList = excelExportService.getAssignmentExportData(1L).get();
         assertEquals(1, exportList.size());
@@ -12,9 +12,11 @@ import repository.core.CourseRepository;
 import repository.core.UserRepository;
 import services.processors.record.InputRecord;
 
+import java.util.List;
 import java.util.Optional;
 
 import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 
 public class EnrollmentEntityMapperTest {
@@ -116,4 +118,54 @@ public class EnrollmentEntityMapperTest {
         assertNull(enrollment.getStudent());
         assertNull(enrollment.getCourse());
     }
-}
\ No newline at end of file
+
+    private static InputRecord enrollmentRecord(String studentId, String courseCode, String section, String term) {
+        InputRecord record = mock(InputRecord.class);
+        when(record.get("student_id")).thenReturn(studentId);
+        when(record.get("course_code")).thenReturn(courseCode);
+        when(record.get("course_section")).thenReturn(section);
+        when(record.get("term")).thenReturn(term);
+        return record;
+    }
+
+    /** Test Mapping After Prefetch Uses the Lookups Instead of Querying Each Record **/
+    @Test
+    public void testPrefetchShouldFetchStudentsAndCoursesOnceForAllRecords() {
+        InputRecord first = enrollmentRecord("123", "CS101", "SS", "Fall 2024");
+        InputRecord second = enrollmentRecord("999", "CS101", "SS", "Fall 2024");
+        User student = new User(123L, "STUDENT");
+        Course course = new Course("CS101", "Intro", null, "Fall 2024", "SS", true);
+        Course otherSection = new Course("CS101", "Intro", null, "Fall 2024", "AA", true);
+        when(userRepository.findAllByUserIds(anyList())).thenReturn(List.of(student));
+        when(courseRepository.findAllByCourseCodesAndTerms(anyCollection(), anyCollection()))
+                .thenReturn(List.of(course, otherSection));
+        Context uploadContext = new Context();
+
+        enrollmentEntityMapper.prefetch(List.of(first, second), uploadContext);
+        Enrollment found = enrollmentEntityMapper.mapToEntity(first, uploadContext);
+        Enrollment missing = enrollmentEntityMapper.mapToEntity(second, uploadContext);
+
+        assertEquals(student, found.getStudent());
+        assertEquals(course, found.getCourse());
+        assertNull(missing.getStudent());
+        assertEquals(course, missing.getCourse());
+        verify(userRepository, times(1)).findAllByUserIds(List.of(123L, 999L));
+        verify(courseRepository, times(1)).findAllByCourseCodesAndTerms(anyCollection(), anyCollection());
+        verify(userRepository, never()).findById(anyLong());
+        verify(courseRepository, never()).findByCourseCodeAndSectionAndTerm(anyString(), anyString(), anyString());
+    }
+
+    /** Test Prefetch Does Not Fetch Courses Already Fetched for the Upload **/
+    @Test
+    public void testPrefetchShouldNotFetchCoursesAgainForLaterChunks() {
+        Context uploadContext = new Context();
+        when(userRepository.findAllByUserIds(anyList())).thenReturn(List.of());
+        when(courseRepository.findAllByCourseCodesAndTerms(anyCollection(), anyCollection())).thenReturn(List.of());
+
+        enrollmentEntityMapper.prefetch(List.of(enrollmentRecord("1", "CS101", "SS", "Fall 2024")), uploadContext);
+        enrollmentEntityMapper.prefetch(List.of(enrollmentRecord("2", "CS101", "SS", "Fall 2024")), uploadContext);
+
+        verify(userRepository, times(2)).findAllByUserIds(anyList());
+        verify(courseRepository, times(1)).findAllByCourseCodesAndTerms(anyCollection(), anyCollection());
+    }
+}
@@ -111,4 +111,73 @@ public class ReviewTaskEntityMapperTest {
 
         mapper.mapToEntityList(input, context); // should throw
     }
-}
\ No newline at end of file
+
+    private static InputRecord groupRecord(String groupId, String groupName, long... memberIds) {
+        InputRecord input = mock(InputRecord.class);
+        when(input.get("Group ID")).thenReturn(groupId);
+        when(input.get("Group Name")).thenReturn(groupName);
+        when(input.get("Group Size")).thenReturn(String.valueOf(memberIds.length));
+        for (int i = 0; i < memberIds.length; i++) {
+            when(input.get("Member " + (i + 1) + " ID Number")).thenReturn(String.valueOf(memberIds[i]));
+            when(input.get("Member " + (i + 1) + " Firstname")).thenReturn("First" + memberIds[i]);
+            when(input.get("Member " + (i + 1) + " Lastname")).thenReturn("Last" + memberIds[i]);
+            when(input.get("Member " + (i + 1) + " Email")).thenReturn(memberIds[i] + "@example.com");
+        }
+        return input;
+    }
+
+    @Test
+    public void testPrefetch_PreparesAllGroupsOfTheFileInBulk() {
+        Context context = new Context();
+        context.setCourseCode("CS101");
+        context.setCourseSection("A");
+        context.setTerm("Fall 2025");
+        InputRecord alpha = groupRecord("101", "Alpha", 1L, 2L);
+        InputRecord beta = groupRecord("102", "Beta", 2L, 3L);
+
+        User prof = new User(999L, "prof@example.com", "", "Prof", "X", "professor");
+        Course course = new Course("CS101", "Some Course", prof, "Fall 2025", "A", false);
+        when(courseRepository.findByCourseCodeAndSectionAndTerm("CS101", "A", "Fall 2025"))
+                .thenReturn(Optional.of(course));
+        when(userRepository.findAllByUserIds(List.of(1L, 2L, 3L))).thenReturn(List.of(
+                new User(1L, "STUDENT"), new User(2L, "STUDENT"), new User(3L, "STUDENT")));
+
+        mapper.prefetch(List.of(alpha, beta), context);
+        List<ReviewTask> alphaTasks = mapper.mapToEntityList(alpha, context);
+        List<ReviewTask> betaTasks = mapper.mapToEntityList(beta, context);
+
+        assertEquals(4, alphaTasks.size());
+        assertEquals(4, betaTasks.size());
+        assertTrue(betaTasks.stream().allMatch(rt -> rt.getGroupName().equals("Beta")));
+
+        ArgumentCaptor<List<User>> newUsers = ArgumentCaptor.forClass(List.class);
+        verify(userRepository, times(1)).insertMissingUsers(newUsers.capture());
+        assertEquals(List.of(1L, 2L, 3L), newUsers.getValue().stream().map(User::getUserId).toList());
+        verify(enrollmentRepository, times(1)).insertMissingEnrollments(null, "A", "Fall 2025", List.of(1L, 2L, 3L));
+        verify(courseRepository, times(1)).findByCourseCodeAndSectionAndTerm("CS101", "A", "Fall 2025");
+        verify(userRepository, times(1)).findAllByUserIds(anyList());
+        verify(userRepository, never()).saveAll(anyList(), any());
+        verify(enrollmentRepository, never()).saveAll(anyList(), any());
+    }
+
+    @Test
+    public void testMapToEntityList_SkipsMembersThatCouldNotBeSaved() {
+        Context context = new Context();
+        context.setCourseCode("CS101");
+        context.setCourseSection("A");
+        context.setTerm("Fall 2025");
+        InputRecord alpha = groupRecord("101", "Alpha", 1L, 2L, 3L);
+
+        Course course = new Course("CS101", "Some Course", null, "Fall 2025", "A", false);
+        when(courseRepository.findByCourseCodeAndSectionAndTerm("CS101", "A", "Fall 2025"))
+                .thenReturn(Optional.of(course));
+        when(userRepository.findAllByUserIds(List.of(1L, 2L, 3L)))
+                .thenReturn(List.of(new User(1L, "STUDENT"), new User(3L, "STUDENT")));
+
+        List<ReviewTask> result = mapper.mapToEntityList(alpha, context);
+
+        // 2 saved students → 2 peer review tasks + 2 tasks for professor
+        assertEquals(4, result.size());
+        assertTrue(result.stream().noneMatch(rt -> rt.getReviewer().getUserId().equals(2L)));
+    }
+}
@@ -0,0 +1,105 @@
+package services.metrics;
+
+import static org.junit.Assert.*;
+
+import com.typesafe.config.ConfigFactory;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+public class MetricsRegistryTest {
+
+    private MetricsRegistry registry;
+
+    @Before
+    public void setUp() {
+        registry = new MetricsRegistry(ConfigFactory.parseMap(Map.of("metrics.latency.sampleSize", 100)));
+    }
+
+    @Test
+    public void testLatencySnapshot_ComputesPercentilesPerRoute() {
+        for (long millis = 1; millis <= 100; millis++) {
+            registry.recordLatency("GET /slow", millis);
+        }
+        registry.recordLatency("GET /fast", 3);
+
+        List<Map<String, Object>> routes = registry.latencySnapshot();
+
+        Map<String, Object> slow = routes.get(0);
+        assertEquals("GET /slow", slow.get("route"));
+        assertEquals(100L, slow.get("count"));
+        assertEquals(50L, slow.get("p50"));
+        assertEquals(95L, slow.get("p95"));
+        assertEquals(99L, slow.get("p99"));
+        assertEquals(100L, slow.get("max"));
+        assertEquals(3L, routes.get(1).get("p99"));
+    }
+
+    @Test
+    public void testLatencySnapshot_KeepsOnlyTheMostRecentSamples() {
+        for (int i = 0; i < 100; i++) {
+            registry.recordLatency("GET /route", 1000);
+        }
+        for (int i = 0; i < 100; i++) {
+            registry.recordLatency("GET /route", 10);
+        }
+
+        Map<String, Object> route = registry.latencySnapshot().get(0);
+
+        assertEquals(200L, route.get("count"));
+        assertEquals(10L, route.get("max"));
+    }
+
+    @Test
+    public void testTrack_CountsOperationUntilItCompletes() {
+        CompletableFuture<String> upload = new CompletableFuture<>();
+
+        CompletableFuture<String> tracked = registry.track("import:users", () -> upload).toCompletableFuture();
+        assertEquals(Integer.valueOf(1), registry.inFlightSnapshot().get("import:users"));
+
+        upload.completeExceptionally(new RuntimeException("failed"));
+        assertTrue(tracked.isCompletedExceptionally());
+        assertEquals(Integer.valueOf(0), registry.inFlightSnapshot().get("import:users"));
+    }
+
+    @Test
+    public void testTrack_ReleasesOperationThatFailsToStart() {
+        assertThrows(IllegalStateException.class, () -> registry.track("export:assignment", () -> {
+            throw new IllegalStateException("failed");
+        }));
+
+        assertEquals(Integer.valueOf(0), registry.inFlightSnapshot().get("export:assignment"));
+    }
+
+    @Test
+    public void testExecutorSnapshot_ReportsActiveThreadsAndQueueDepth() throws Exception {
+        ExecutorService executor = registry.newExecutor("test-repository", 1);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            executor.submit(() -> {
+                started.countDown();
+                release.await();
+                return null;
+            });
+            executor.submit(() -> null);
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+
+            Map<String, Object> pool = registry.executorSnapshot().get(0);
+
+            assertEquals("test-repository", pool.get("name"));
+            assertEquals(1, pool.get("activeThreads"));
+            assertEquals(1, pool.get("queueDepth"));
+            assertEquals(1, pool.get("maxThreads"));
+        } finally {
+            release.countDown();
+            executor.shutdown();
+        }
+    }
+}
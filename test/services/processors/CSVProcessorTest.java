@@ -48,6 +48,7 @@ public class CSVProcessorTest {
         when(validations.validateFieldOrder(anyList())).thenReturn(true);
         when(validations.validateSyntax(any())).thenReturn(true);
         when(validations.validateSemantics(any(), any())).thenReturn(true);
+        when(validations.validateSemanticsBatch(anyList(), any())).thenCallRealMethod();
         when(entityMapper.mapToEntityList(any(), eq(mockContext))).thenReturn(List.of(new Object()));
     }
 
@@ -124,4 +125,85 @@ public class CSVProcessorTest {
 
         assertEquals("An error occurred while saving the records.", message);
     }
-}
\ No newline at end of file
+
+    private void writeRows(int rowCount) throws IOException {
+        StringBuilder csvContent = new StringBuilder("col1,col2,col3\n");
+        for (int i = 0; i < rowCount; i++) {
+            csvContent.append("val").append(i).append(",val2,val3\n");
+        }
+        Files.write(mockFilePath, csvContent.toString().getBytes(), StandardOpenOption.TRUNCATE_EXISTING);
+    }
+
+    private CompletableFuture<Map<String, Object>> saved(int successCount, int failedCount) {
+        return CompletableFuture.completedFuture(Map.of(
+                "successCount", successCount,
+                "failedCount", failedCount,
+                "failedRecords", List.of()
+        ));
+    }
+
+    @Test
+    public void testProcessAndSave_ShouldSaveInChunks() throws IOException {
+        writeRows(CSVProcessor.CHUNK_SIZE * 2 + 1);
+        when(repository.supportsChunkedSave()).thenReturn(true);
+        when(repository.saveAll(anyList(), eq(mockContext)))
+                .thenAnswer(invocation -> saved(((List<?>) invocation.getArgument(0)).size(), 0));
+
+        String message = csvProcessor.processAndSave(mockFilePath, mockContext).join();
+
+        ArgumentCaptor<List<Object>> chunks = ArgumentCaptor.forClass(List.class);
+        verify(repository, times(3)).saveAll(chunks.capture(), eq(mockContext));
+        assertEquals(List.of(CSVProcessor.CHUNK_SIZE, CSVProcessor.CHUNK_SIZE, 1),
+                chunks.getAllValues().stream().map(List::size).toList());
+        assertEquals("Upload completed successfully", message);
+    }
+
+    @Test
+    public void testProcessAndSave_ShouldSaveAtOnceWhenRepositoryNeedsAllRecords() throws IOException {
+        writeRows(CSVProcessor.CHUNK_SIZE + 1);
+        when(repository.supportsChunkedSave()).thenReturn(false);
+        when(repository.saveAll(anyList(), eq(mockContext))).thenReturn(saved(CSVProcessor.CHUNK_SIZE + 1, 0));
+
+        csvProcessor.processAndSave(mockFilePath, mockContext).join();
+
+        verify(repository, times(1)).saveAll(argThat(chunk -> chunk.size() == CSVProcessor.CHUNK_SIZE + 1), eq(mockContext));
+    }
+
+    @Test
+    public void testProcessAndSave_ShouldTallySkippedRecordsOfAllChunks() throws IOException {
+        writeRows(CSVProcessor.CHUNK_SIZE * 2);
+        when(repository.supportsChunkedSave()).thenReturn(true);
+        when(repository.saveAll(anyList(), eq(mockContext))).thenReturn(saved(CSVProcessor.CHUNK_SIZE - 1, 1));
+
+        String message = csvProcessor.processAndSave(mockFilePath, mockContext).join();
+
+        assertEquals("Upload completed: 998 new records added, 2 duplicate records skipped.", message);
+    }
+
+    @Test
+    public void testProcessAndSave_ShouldStopAtFirstFailedChunk() throws IOException {
+        writeRows(CSVProcessor.CHUNK_SIZE * 3);
+        when(repository.supportsChunkedSave()).thenReturn(true);
+        when(repository.saveAll(anyList(), eq(mockContext)))
+                .thenReturn(saved(CSVProcessor.CHUNK_SIZE, 0))
+                .thenReturn(CompletableFuture.failedFuture(new RuntimeException("DB failure")));
+
+        String message = csvProcessor.processAndSave(mockFilePath, mockContext).join();
+
+        verify(repository, times(2)).saveAll(anyList(), eq(mockContext));
+        assertEquals("An error occurred while saving the records after 500 new records were added.", message);
+    }
+
+    @Test
+    public void testProcessAndSave_ShouldFailIfNoValidSemanticRecords() {
+        when(validations.validateSemantics(any(), any())).thenReturn(false);
+
+        CompletionException exception = assertThrows(
+                CompletionException.class,
+                () -> csvProcessor.processAndSave(mockFilePath, mockContext).join()
+        );
+
+        assertTrue(exception.getCause() instanceof InvalidCsvException);
+        verify(repository, never()).saveAll(anyList(), any());
+    }
+}
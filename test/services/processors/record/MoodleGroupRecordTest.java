@@ -0,0 +1,74 @@
+package services.processors.record;
+
+import static org.junit.Assert.*;
+
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVParser;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+
+public class MoodleGroupRecordTest {
+
+    private static final String EXPORT = "Group,ID number,First name,Last name,Email address\n"
+            + "Team A,101,Ada,Lovelace,ada@example.com\n"
+            + "No group,102,Alan,Turing,alan@example.com\n"
+            + "Team B,103,Grace,Hopper,grace@example.com\n"
+            + "Team A,104,Edsger,Dijkstra,edsger@example.com\n";
+
+    private static List<MoodleGroupRecord> groups(String csvContent) throws IOException {
+        CSVParser parser = CSVParser.parse(new StringReader(csvContent), CSVFormat.Builder.create()
+                .setHeader()
+                .setSkipHeaderRecord(true)
+                .setIgnoreHeaderCase(true)
+                .setTrim(true)
+                .get());
+        return MoodleGroupRecord.groupMembers(parser);
+    }
+
+    @Test
+    public void testGroupMembers_GroupsRowsInOrderWithoutUngroupedStudents() throws IOException {
+        List<MoodleGroupRecord> groups = groups(EXPORT);
+
+        assertEquals(2, groups.size());
+        assertEquals("Team A", groups.get(0).get("Group Name"));
+        assertEquals("2", groups.get(0).get("Group Size"));
+        assertEquals("Team B", groups.get(1).get("Group Name"));
+        assertNotEquals(groups.get(0).get("Group ID"), groups.get(1).get("Group ID"));
+    }
+
+    @Test
+    public void testGet_PresentsMembersAsReviewTaskFields() throws IOException {
+        MoodleGroupRecord teamA = groups(EXPORT).get(0);
+
+        assertEquals("101", teamA.get("Member 1 ID Number"));
+        assertEquals("Ada", teamA.get("Member 1 Firstname"));
+        assertEquals("Dijkstra", teamA.get("Member 2 Lastname"));
+        assertEquals("", teamA.get("Member 2 Email"));
+        assertEquals("", teamA.get("Assigned teacher Email"));
+        assertEquals("", teamA.get("Member 3 ID Number"));
+    }
+
+    @Test
+    public void testIsMapped_OnlyFieldsOfTheGroupMembers() throws IOException {
+        MoodleGroupRecord teamB = groups(EXPORT).get(1);
+
+        assertTrue(teamB.isMapped("Group Size"));
+        assertTrue(teamB.isMapped("Member 1 ID Number"));
+        assertFalse(teamB.isMapped("Member 2 ID Number"));
+        assertFalse(teamB.isMapped("Member 1 Phone"));
+        assertThrows(IllegalArgumentException.class, () -> teamB.get("Phone"));
+    }
+
+    @Test
+    public void testHeaders_MatchTheReviewTaskFile() {
+        List<String> headers = MoodleGroupRecord.headers(2);
+
+        assertEquals(18, headers.size());
+        assertEquals("Group ID", headers.get(0));
+        assertEquals("Member 1 Username", headers.get(8));
+        assertEquals("Member 2 Email", headers.get(17));
+    }
+}
@@ -5,13 +5,9 @@ import static org.mockito.Mockito.*;
 
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
-import models.Assignment;
-import models.Course;
-import models.ReviewTask;
-import models.User;
 import models.dto.*;
-import models.enums.Status;
 import org.junit.Before;
 import org.junit.Test;
 import services.core.ReviewTaskService;
@@ -29,36 +25,9 @@ public class StudentReportServiceImplTest {
 
     @Test
     public void testGenerateReport_ValidData_SuccessfullyGeneratesReport() {
-        // Setup Course and Assignment
-        Course course = new Course();
-        course.setCourseCode("CS101");
-        course.setCourseName("Intro to CS");
-        course.setCourseSection("A");
-        course.setTerm("Fall 2025");
-
-        Assignment assignment = new Assignment();
-        assignment.setAssignmentId(1L);
-        assignment.setTitle("Assignment 1");
-        assignment.setCourse(course);
-
-        // User setup
         Long reviewerId = 10L;
         Long studentId = 20L;
 
-        User reviewer = new User(reviewerId, "peer@example.com", "", "Peer", "One", "student");
-        User student = new User(studentId, "student@example.com", "", "Student", "A", "student");
-
-        // ReviewTask
-        ReviewTask reviewTask = new ReviewTask(assignment, reviewer, student, Status.COMPLETED, 101L, "Group 1", 2, false);
-        List<ReviewTask> reviewTasks = List.of(reviewTask);
-
-        when(reviewTaskService.getReviewTasks(1L)).thenReturn(CompletableFuture.completedFuture(reviewTasks));
-
-        // Grouping
-        Map<Long, List<ReviewTask>> grouped = new HashMap<>();
-        grouped.put(101L, reviewTasks);
-        when(reviewTaskService.groupReviewTasksByGroup(reviewTasks)).thenReturn(grouped);
-
         // FeedbackDTO using constructor only
         FeedbackDTO feedbackDTO = new FeedbackDTO(100L, 8, 10, "Q1", "Great job!");
         Map<Long, List<FeedbackDTO>> feedbacksByReviewer = new HashMap<>();
@@ -79,8 +48,19 @@ public class StudentReportServiceImplTest {
         group.setGroupName("Group 1");
         group.setMembers(List.of(member));
 
-        when(reviewTaskService.generateSubmissionInfoInEachGroupDTOs(grouped)).thenReturn(List.of(group));
-        doNothing().when(reviewTaskService).calculateClassAverages(anyList());
+        AssignmentReportDTO assignmentReport = new AssignmentReportDTO();
+        assignmentReport.setAssignmentId(1L);
+        assignmentReport.setAssignmentTitle("Assignment 1");
+        assignmentReport.setCourseCode("CS101");
+        assignmentReport.setCourseName("Intro to CS");
+        assignmentReport.setCourseSection("A");
+        assignmentReport.setTerm("Fall 2025");
+        assignmentReport.setGroups(List.of(group));
+
+        assignmentReport.setClassAveragesForEachQuestion(Map.of("Q1", 7.5f));
+        assignmentReport.setOverallClassAverage(7.5f);
+
+        when(reviewTaskService.getStudentGroupReport(1L, studentId)).thenReturn(CompletableFuture.completedFuture(assignmentReport));
 
         // Act
         ReportDTO report = studentReportService.generateReport(1L, studentId).join();
@@ -104,5 +84,20 @@ public class StudentReportServiceImplTest {
         assertEquals("Great job!", anonFeedback.getFeedbackText());
         assertEquals("Q1", anonFeedback.getQuestionText());
         assertTrue(anonFeedback.getReviewerName().startsWith("Peer "));
+
+        // The report DTOs must not be anonymized in place
+        assertNull(feedbackDTO.getReviewerName());
+    }
+
+    @Test
+    public void testGenerateReport_StudentWithoutGroup_Fails() {
+        AssignmentReportDTO assignmentReport = new AssignmentReportDTO();
+        assignmentReport.setGroups(Collections.emptyList());
+        when(reviewTaskService.getStudentGroupReport(1L, 20L)).thenReturn(CompletableFuture.completedFuture(assignmentReport));
+
+        CompletionException exception = assertThrows(CompletionException.class,
+                () -> studentReportService.generateReport(1L, 20L).join());
+        assertEquals("Student not found in any group", exception.getCause().getMessage());
+        verify(reviewTaskService, never()).getAssignmentReport(anyLong());
     }
-}
\ No newline at end of file
+}
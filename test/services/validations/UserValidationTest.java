@@ -88,6 +88,29 @@ public class UserValidationTest {
         assertFalse(userValidation.validateSemantics(mockUser, userRepository));
     }
 
+    @Test
+    public void testValidateSemanticsBatchShouldDropExistingUsersWithOneLookup() {
+        User existing = new User(1L, "existing@example.com", "", "Ada", "Lovelace", "student");
+        User newUser = new User(2L, "new@example.com", "", "Alan", "Turing", "student");
+        User invalidEmail = new User(3L, "invalid-email", "", "Grace", "Hopper", "student");
+        when(userRepository.findExistingUserIds(List.of(1L, 2L, 3L))).thenReturn(List.of(1L));
+
+        List<User> valid = userValidation.validateSemanticsBatch(List.of(existing, newUser, invalidEmail), userRepository);
+
+        assertEquals(List.of(newUser), valid);
+        verify(userRepository, times(1)).findExistingUserIds(anyList());
+        verify(userRepository, never()).findById(anyLong());
+    }
+
+    @Test
+    public void testValidateSemanticsBatchShouldKeepOrderOfNewUsers() {
+        User first = new User(5L, "first@example.com", "", "Ada", "Lovelace", "professor");
+        User second = new User(4L, "second@example.com", "", "Alan", "Turing", "student");
+        when(userRepository.findExistingUserIds(anyList())).thenReturn(List.of());
+
+        assertEquals(List.of(first, second), userValidation.validateSemanticsBatch(List.of(first, second), userRepository));
+    }
+
     /** Test Field Order Validation **/
     @Test
     public void testValidateFieldOrderShouldReturnTrueWhenOrderIsCorrect() {